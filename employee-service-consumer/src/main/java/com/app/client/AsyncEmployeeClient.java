@@ -0,0 +1,288 @@
+package com.app.client;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientException;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.app.config.EmployeeClientProperties;
+import com.app.exceptions.ClientException;
+import com.app.exceptions.EmployeeNotFoundException;
+import com.app.model.Employee;
+import com.app.util.ApiResponse;
+import com.app.util.BulkInsertResult;
+import com.app.util.BulkResponseStatus;
+import com.app.util.ResponseStatus;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link EmployeeClient} on WebClient and Reactor Netty: every call returns as soon as
+ * the request is written and the future completes on a Netty event loop thread when the response arrives, so no
+ * caller thread waits for the employee service. Calls are admitted through an {@link InFlightLimiter}, and
+ * concurrent reads of the same employee share one call through a {@link SingleFlight}. With batching enabled,
+ * lookups of different ids within a short window are merged into one /getByIds request by a {@link MicroBatcher}.
+ * Circuit breakers, retries and hedging are applied by {@link EmployeeClientResilience}.
+ */
+@Service
+public class AsyncEmployeeClient {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(AsyncEmployeeClient.class);
+
+	private static final ParameterizedTypeReference<List<Employee>> EMPLOYEE_LIST = new ParameterizedTypeReference<List<Employee>>() {
+	};
+
+	// /getByIds wraps the employees in the service's ApiResponse
+	private static final ParameterizedTypeReference<ApiResponse<List<Employee>>> EMPLOYEES_RESPONSE = new ParameterizedTypeReference<ApiResponse<List<Employee>>>() {
+	};
+
+	// /addList answers with the outcome of every employee in the service's ApiResponse
+	private static final ParameterizedTypeReference<ApiResponse<BulkInsertResult>> BULK_INSERT_RESPONSE = new ParameterizedTypeReference<ApiResponse<BulkInsertResult>>() {
+	};
+
+	private static final String GET_EMPLOYEES_LIST_URL = "/list";
+	private static final String GET_EMPLOYEE_BY_ID_URL = "/getById/{id}";
+	private static final String GET_EMPLOYEE_BY_NAME_URL = "/getByName?name={name}";
+	private static final String GET_EMPLOYEES_BY_IDS_URL = "/getByIds?ids={ids}";
+
+	private static final String ADD_EMPLOYEE_URL = "/add";
+	private static final String ADD_EMPLOYEES_LIST_URL = "/addList";
+	private static final String UPDATE_EMPLOYEE_URL = "/update";
+	private static final String DELETE_EMPLOYEE_URL = "/delete/{id}";
+	private static final String DELETE_ALL_EMPLOYEES_URL = "/deleteAll";
+
+	private static final ParameterizedTypeReference<Employee> EMPLOYEE = ParameterizedTypeReference.forType(Employee.class);
+
+	private final WebClient webClient;
+
+	private final InFlightLimiter inFlightLimiter;
+
+	private final ConditionalResponseCache responseCache;
+
+	private final SingleFlight<String> readCoalescer;
+
+	private final EmployeeClientResilience resilience;
+
+	private final ChunkedUploader bulkUploader;
+
+	// Smile by default, see EmployeeClientProperties.WireFormat
+	private final MediaType wireFormat;
+
+	private final int batchMaxSize;
+
+	// Set when employee.client.batch.enabled, then single id lookups are merged into /getByIds requests
+	private final MicroBatcher<Integer, Employee> idBatcher;
+
+	@Value("${employee.service.url}")
+	private String employeeServiceURL;
+
+	@Autowired
+	public AsyncEmployeeClient(WebClient employeeWebClient, InFlightLimiter employeeClientInFlightLimiter,
+			ConditionalResponseCache employeeResponseCache,
+			@Qualifier("asyncEmployeeReadCoalescer") SingleFlight<String> employeeReadCoalescer,
+			EmployeeClientResilience employeeClientResilience, ChunkedUploader employeeBulkUploader,
+			EmployeeClientProperties properties) {
+		this.webClient = employeeWebClient;
+		this.resilience = employeeClientResilience;
+		this.bulkUploader = employeeBulkUploader;
+		this.wireFormat = properties.getWireFormat().getMediaType();
+		this.inFlightLimiter = employeeClientInFlightLimiter;
+		this.responseCache = employeeResponseCache;
+		this.readCoalescer = employeeReadCoalescer;
+		this.batchMaxSize = properties.getBatch().getMaxSize();
+		this.idBatcher = properties.getBatch().isEnabled()
+				? new MicroBatcher<>("employee-client-batcher", properties.getBatch().getWindow(), batchMaxSize, this::loadBatch)
+				: null;
+	}
+
+	@PreDestroy
+	public void close() {
+		if (null != idBatcher) {
+			idBatcher.close();
+		}
+	}
+
+	public CompletableFuture<List<Employee>> getEmployeeList() {
+		return call("list", HttpMethod.GET, "fetching the employees list", () -> conditionalGet(GET_EMPLOYEES_LIST_URL, EMPLOYEE_LIST));
+	}
+
+	public CompletableFuture<Employee> getEmployee(int employeeId) {
+		String path = expand(GET_EMPLOYEE_BY_ID_URL, employeeId);
+		if (null != idBatcher) {
+			return readCoalescer.execute(path, () -> loadBatched(employeeId));
+		}
+		return readCoalescer.execute(path, () -> call("getById", HttpMethod.GET, "fetching the employee by id: " + employeeId,
+				() -> conditionalGet(path, EMPLOYEE).switchIfEmpty(
+						Mono.error(() -> new EmployeeNotFoundException("Employee not found with id: " + employeeId)))));
+	}
+
+	// Batches of at most employee.client.batch.max-size ids are requested in parallel, ids not found are left out
+	public CompletableFuture<List<Employee>> getEmployees(Collection<Integer> employeeIds) {
+		List<Integer> ids = new ArrayList<>(new LinkedHashSet<>(employeeIds));
+		List<CompletableFuture<List<Employee>>> batches = new ArrayList<>();
+		for (int from = 0; from < ids.size(); from += batchMaxSize) {
+			batches.add(getEmployeesBatch(ids.subList(from, Math.min(ids.size(), from + batchMaxSize))));
+		}
+		return CompletableFuture.allOf(batches.toArray(new CompletableFuture[0])).thenApply(done -> {
+			List<Employee> employees = new ArrayList<>(ids.size());
+			batches.forEach(batch -> employees.addAll(batch.join()));
+			return employees;
+		});
+	}
+
+	public CompletableFuture<Employee> getEmployeeByName(String name) {
+		String path = expand(GET_EMPLOYEE_BY_NAME_URL, name);
+		return readCoalescer.execute(path, () -> call("getByName", HttpMethod.GET, "fetching the employee by name: " + name,
+				() -> conditionalGet(path, EMPLOYEE).switchIfEmpty(
+						Mono.error(() -> new EmployeeNotFoundException("Employee not found with name: " + name)))));
+	}
+
+	public CompletableFuture<ResponseStatus> addEmployee(Employee employee) {
+		return call("add", HttpMethod.POST, "adding the employee", () -> webClient.post()
+				.uri(ADD_EMPLOYEE_URL)
+				.contentType(wireFormat)
+				.accept(wireFormat)
+				.bodyValue(employee)
+				.retrieve()
+				.bodyToMono(ResponseStatus.class));
+	}
+
+	// Large lists are sent as chunks in parallel, see ChunkedUploader
+	public CompletableFuture<BulkResponseStatus> addEmployees(List<Employee> employees) {
+		return bulkUploader.upload(employees, chunk -> call("addList", HttpMethod.POST,
+				"adding " + chunk.size() + " employees", () -> webClient.post()
+						.uri(ADD_EMPLOYEES_LIST_URL)
+						.contentType(wireFormat)
+						.accept(wireFormat)
+						.bodyValue(chunk)
+						.retrieve()
+						.toEntity(BULK_INSERT_RESPONSE)));
+	}
+
+	public CompletableFuture<ResponseStatus> updateEmployee(Employee employee) {
+		return call("update", HttpMethod.PUT, "updating the employee", () -> webClient.put()
+				.uri(UPDATE_EMPLOYEE_URL)
+				.contentType(wireFormat)
+				.accept(wireFormat)
+				.bodyValue(employee)
+				.retrieve()
+				.bodyToMono(ResponseStatus.class));
+	}
+
+	public CompletableFuture<ResponseStatus> deleteEmployee(int employeeId) {
+		return call("delete", HttpMethod.DELETE, "deleting the employee by id: " + employeeId, () -> webClient.delete()
+				.uri(DELETE_EMPLOYEE_URL, employeeId)
+				.accept(wireFormat)
+				.retrieve()
+				.bodyToMono(ResponseStatus.class));
+	}
+
+	public CompletableFuture<ResponseStatus> deleteAll() {
+		return call("deleteAll", HttpMethod.DELETE, "deleting all employees", () -> webClient.delete()
+				.uri(DELETE_ALL_EMPLOYEES_URL)
+				.accept(wireFormat)
+				.retrieve()
+				.bodyToMono(ResponseStatus.class));
+	}
+
+	private CompletableFuture<List<Employee>> getEmployeesBatch(List<Integer> ids) {
+		String path = expand(GET_EMPLOYEES_BY_IDS_URL, StringUtils.collectionToCommaDelimitedString(ids));
+		return call("getByIds", HttpMethod.GET, "fetching " + ids.size() + " employees by ids", () -> webClient.get()
+				.uri(URI.create(employeeServiceURL + path))
+				.accept(wireFormat)
+				.retrieve()
+				.bodyToMono(EMPLOYEES_RESPONSE)
+				.mapNotNull(ApiResponse::getPayload)
+				.defaultIfEmpty(Collections.emptyList()));
+	}
+
+	private CompletableFuture<Map<Integer, Employee>> loadBatch(List<Integer> ids) {
+		return getEmployeesBatch(ids).thenApply(employees -> {
+			Map<Integer, Employee> employeesById = new HashMap<>();
+			employees.forEach(employee -> employeesById.put(employee.getEmpId(), employee));
+			return employeesById;
+		});
+	}
+
+	private CompletableFuture<Employee> loadBatched(int employeeId) {
+		CompletableFuture<Employee> result = new CompletableFuture<>();
+		idBatcher.load(employeeId).whenComplete((employee, error) -> {
+			if (null != error) {
+				result.completeExceptionally(error);
+			} else if (null == employee) {
+				result.completeExceptionally(new EmployeeNotFoundException("Employee not found with id: " + employeeId));
+			} else {
+				result.complete(employee);
+			}
+		});
+		return result;
+	}
+
+	// Same revalidation as EmployeeClient, the two clients share the cache
+	@SuppressWarnings("unchecked")
+	private <T> Mono<T> conditionalGet(String path, ParameterizedTypeReference<T> responseType) {
+		ConditionalResponseCache.Entry cached = responseCache.get(path);
+		return webClient.get()
+				.uri(URI.create(employeeServiceURL + path))
+				.accept(wireFormat)
+				.headers(headers -> {
+					if (null != cached) {
+						headers.setIfNoneMatch(cached.getETag());
+					}
+				})
+				.exchangeToMono(response -> {
+					if (response.statusCode() == HttpStatus.NOT_MODIFIED && null != cached) {
+						responseCache.recordRevalidated();
+						return response.releaseBody().then(Mono.fromSupplier(() -> (T) cached.getBody()));
+					}
+					if (response.statusCode() == HttpStatus.OK) {
+						String eTag = response.headers().asHttpHeaders().getETag();
+						return response.bodyToMono(responseType).doOnNext(body -> {
+							responseCache.recordFetched();
+							responseCache.put(path, eTag, body);
+						});
+					}
+					return response.createException().flatMap(Mono::error);
+				});
+	}
+
+	private static String expand(String pathTemplate, Object... uriVariables) {
+		return UriComponentsBuilder.fromUriString(pathTemplate).encode().buildAndExpand(uriVariables).toUriString();
+	}
+
+	// Transport and status errors surface as ClientException, the same as from the blocking client. Every attempt,
+	// retried or hedged, takes its own in-flight slot
+	private <T> CompletableFuture<T> call(String endpoint, HttpMethod method, String operation, Supplier<Mono<T>> request) {
+		return resilience.execute(endpoint, method, () -> inFlightLimiter.submit(() -> request.get()
+				.doOnSuccess(body -> LOGGER.debug("Successful call while {}", operation))
+				.onErrorMap(WebClientException.class, e -> {
+					LOGGER.error("Caught WebClientException while {}, error: {}", operation, e.getMessage());
+					return new ClientException(e, AsyncEmployeeClient.class);
+				})
+				.toFuture()));
+	}
+
+}
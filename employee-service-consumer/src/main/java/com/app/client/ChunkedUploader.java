@@ -0,0 +1,286 @@
+package com.app.client;
+
+import java.net.ConnectException;
+import java.net.UnknownHostException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.app.util.ApiResponse;
+import com.app.util.BulkInsertResult;
+import com.app.util.BulkResponseStatus;
+import com.app.util.ChunkStatus;
+import com.app.util.EmployeeInsertOutcome;
+
+/**
+ * Splits a bulk upload into chunks and sends at most parallelism of them at a time, starting the next chunk as
+ * soon as one completes. A chunk is sent again, behind the chunks not sent yet and until it has had maxAttempts,
+ * only when it could not be sent at all: the connection was refused or the host unknown. Any later failure, a read
+ * timeout or a 5xx included, may come after the service added part of the chunk, and sending it again would report
+ * those employees as duplicates and add the ones without a name twice, so such a chunk is reported as failed.
+ *
+ * The outcome is one {@link BulkResponseStatus} with a {@link ChunkStatus} per chunk and the service's outcome of
+ * every employee of the chunks it answered. An upload that fits in one chunk has the service's own status code and
+ * message, and an upload whose every chunk failed fails with the first error.
+ */
+public class ChunkedUploader implements AutoCloseable {
+
+	private final int chunkSize;
+
+	private final int parallelism;
+
+	private final int maxAttempts;
+
+	// Sends the chunks of blocking uploads, its size bounds them across all uploads
+	private final ExecutorService executor;
+
+	public ChunkedUploader(int chunkSize, int parallelism, int maxAttempts) {
+		if (chunkSize < 1 || parallelism < 1 || maxAttempts < 1) {
+			throw new IllegalArgumentException("Invalid bulk upload settings, chunk size: " + chunkSize
+					+ ", parallelism: " + parallelism + ", max attempts: " + maxAttempts);
+		}
+		this.chunkSize = chunkSize;
+		this.parallelism = parallelism;
+		this.maxAttempts = maxAttempts;
+		AtomicInteger threads = new AtomicInteger();
+		this.executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+			Thread thread = new Thread(runnable, "employee-bulk-upload-" + threads.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	public <T> BulkResponseStatus uploadBlocking(List<T> items,
+			Function<List<T>, ResponseEntity<ApiResponse<BulkInsertResult>>> sendChunk) {
+		try {
+			return upload(items, chunk -> CompletableFuture.supplyAsync(() -> sendChunk.apply(chunk), executor)).join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	public <T> CompletableFuture<BulkResponseStatus> upload(List<T> items,
+			Function<List<T>, CompletableFuture<ResponseEntity<ApiResponse<BulkInsertResult>>>> sendChunk) {
+		List<List<T>> chunks = new ArrayList<>();
+		for (int from = 0; from < items.size(); from += chunkSize) {
+			chunks.add(items.subList(from, Math.min(items.size(), from + chunkSize)));
+		}
+		if (chunks.isEmpty()) {
+			chunks.add(items);
+		}
+		Upload<T> upload = new Upload<>(chunks, sendChunk);
+		upload.pump();
+		return upload.result;
+	}
+
+	@Override
+	public void close() {
+		executor.shutdownNow();
+	}
+
+	private final class Upload<T> {
+
+		private final List<List<T>> chunks;
+
+		private final Function<List<T>, CompletableFuture<ResponseEntity<ApiResponse<BulkInsertResult>>>> sendChunk;
+
+		private final CompletableFuture<BulkResponseStatus> result = new CompletableFuture<>();
+
+		private final Queue<Integer> pending = new ArrayDeque<>();
+
+		private final int[] attempts;
+
+		private final ChunkStatus[] outcomes;
+
+		private final ApiResponse.Status[] statuses;
+
+		private final BulkInsertResult[] results;
+
+		private final Throwable[] errors;
+
+		private int running;
+
+		private int done;
+
+		// Pump calls still to be served, a chunk completing synchronously re-enters pump without growing the stack
+		private final AtomicInteger pumpRequests = new AtomicInteger();
+
+		private Upload(List<List<T>> chunks,
+				Function<List<T>, CompletableFuture<ResponseEntity<ApiResponse<BulkInsertResult>>>> sendChunk) {
+			this.chunks = chunks;
+			this.sendChunk = sendChunk;
+			this.attempts = new int[chunks.size()];
+			this.outcomes = new ChunkStatus[chunks.size()];
+			this.statuses = new ApiResponse.Status[chunks.size()];
+			this.results = new BulkInsertResult[chunks.size()];
+			this.errors = new Throwable[chunks.size()];
+			for (int i = 0; i < chunks.size(); i++) {
+				pending.add(i);
+			}
+		}
+
+		private void pump() {
+			if (pumpRequests.getAndIncrement() != 0) {
+				return;
+			}
+			int missed = 1;
+			do {
+				Integer next;
+				while (null != (next = nextChunk())) {
+					int index = next;
+					send(() -> sendChunk.apply(chunks.get(index)))
+							.whenComplete((response, error) -> completed(index, response, error));
+				}
+				missed = pumpRequests.addAndGet(-missed);
+			} while (missed != 0);
+		}
+
+		private synchronized Integer nextChunk() {
+			if (running == parallelism || pending.isEmpty()) {
+				return null;
+			}
+			running++;
+			int index = pending.poll();
+			attempts[index]++;
+			return index;
+		}
+
+		private void completed(int index, ResponseEntity<ApiResponse<BulkInsertResult>> response, Throwable error) {
+			Throwable cause = error instanceof CompletionException && null != error.getCause() ? error.getCause()
+					: error;
+			boolean finished;
+			synchronized (this) {
+				running--;
+				if (null != cause && notSent(cause) && attempts[index] < maxAttempts) {
+					pending.add(index);
+				} else {
+					record(index, response, cause);
+					done++;
+				}
+				finished = done == chunks.size();
+			}
+			if (finished) {
+				finish();
+			} else {
+				pump();
+			}
+		}
+
+		private void record(int index, ResponseEntity<ApiResponse<BulkInsertResult>> response, Throwable error) {
+			int from = index * chunkSize;
+			int size = chunks.get(index).size();
+			if (null != error) {
+				errors[index] = error;
+				outcomes[index] = new ChunkStatus(index, from, size, attempts[index], false, statusCodeOf(error),
+						error.getMessage());
+			} else {
+				boolean succeeded = response.getStatusCode().is2xxSuccessful();
+				if (null != response.getBody()) {
+					statuses[index] = response.getBody().getStatus();
+					results[index] = response.getBody().getPayload();
+				}
+				outcomes[index] = new ChunkStatus(index, from, size, attempts[index], succeeded,
+						String.valueOf(response.getStatusCodeValue()),
+						succeeded ? null : "Failed to add employees list");
+			}
+		}
+
+		private void finish() {
+			List<ChunkStatus> chunkStatuses = Arrays.asList(outcomes);
+			long failed = chunkStatuses.stream().filter(chunk -> !chunk.isSucceeded()).count();
+			ChunkStatus firstFailure = chunkStatuses.stream().filter(chunk -> !chunk.isSucceeded()).findFirst()
+					.orElse(null);
+
+			if (failed == chunks.size() && null != errors[firstFailure.getIndex()]) {
+				result.completeExceptionally(errors[firstFailure.getIndex()]);
+			} else if (chunks.size() == 1) {
+				result.complete(null != statuses[0]
+						? new BulkResponseStatus(statuses[0].getCode(), statuses[0].getMessage(), null, chunkStatuses,
+								merged())
+						: new BulkResponseStatus(chunkStatuses.get(0).getStatusCode(), null,
+								chunkStatuses.get(0).getErrorMessage(), chunkStatuses, merged()));
+			} else if (failed == 0) {
+				result.complete(new BulkResponseStatus(String.valueOf(HttpStatus.OK.value()),
+						"Added the employees in " + chunks.size() + " chunks", null, chunkStatuses, merged()));
+			} else {
+				result.complete(new BulkResponseStatus(String.valueOf(HttpStatus.MULTI_STATUS.value()),
+						failed + " of " + chunks.size() + " chunks failed, their employees may not have been added",
+						firstFailure.getErrorMessage(), chunkStatuses, merged()));
+			}
+		}
+
+		// The outcomes of all answered chunks, their indexes moved from the chunk to the uploaded list
+		private BulkInsertResult merged() {
+			BulkInsertResult merged = new BulkInsertResult(0, 0, 0, new ArrayList<>());
+			for (int index = 0; index < chunks.size(); index++) {
+				BulkInsertResult chunkResult = results[index];
+				if (null == chunkResult) {
+					continue;
+				}
+				merged.setInserted(merged.getInserted() + chunkResult.getInserted());
+				merged.setDuplicates(merged.getDuplicates() + chunkResult.getDuplicates());
+				merged.setFailed(merged.getFailed() + chunkResult.getFailed());
+				if (null != chunkResult.getOutcomes()) {
+					int from = index * chunkSize;
+					for (EmployeeInsertOutcome outcome : chunkResult.getOutcomes()) {
+						merged.getOutcomes().add(new EmployeeInsertOutcome(from + outcome.getIndex(), outcome.getEmpId(),
+								outcome.getEmpName(), outcome.getOutcome(), outcome.getMessage()));
+					}
+				}
+			}
+			return merged;
+		}
+	}
+
+	// A chunk that cannot even be sent, for example rejected by an open circuit, fails like one that was sent
+	private static CompletableFuture<ResponseEntity<ApiResponse<BulkInsertResult>>> send(
+			Supplier<CompletableFuture<ResponseEntity<ApiResponse<BulkInsertResult>>>> send) {
+		try {
+			return send.get();
+		} catch (RuntimeException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+	}
+
+	// Failures before any byte of the chunk reached the service, the only ones after which it is sent again
+	private static boolean notSent(Throwable error) {
+		for (Throwable cause = error; null != cause; cause = cause.getCause() == cause ? null : cause.getCause()) {
+			if (cause instanceof ConnectException || cause instanceof UnknownHostException) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static String statusCodeOf(Throwable error) {
+		Throwable cause = error;
+		while (null != cause.getCause() && !(cause instanceof RestClientResponseException)
+				&& !(cause instanceof WebClientResponseException)) {
+			cause = cause.getCause();
+		}
+		if (cause instanceof RestClientResponseException) {
+			return String.valueOf(((RestClientResponseException) cause).getRawStatusCode());
+		}
+		if (cause instanceof WebClientResponseException) {
+			return String.valueOf(((WebClientResponseException) cause).getRawStatusCode());
+		}
+		return null;
+	}
+}
@@ -0,0 +1,85 @@
+package com.app.client;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Bounded least recently used cache of deserialized response bodies and their ETags, keyed by request path and
+ * query. A cached entry is never served without asking the employee service first: the next request for the same
+ * path carries its ETag in If-None-Match, and a 304 answer reuses the body already parsed instead of transferring
+ * and parsing it again. Cached bodies are shared between callers and must not be modified.
+ */
+public class ConditionalResponseCache {
+
+	private final Map<String, Entry> entries;
+
+	private final LongAdder revalidated = new LongAdder();
+
+	private final LongAdder fetched = new LongAdder();
+
+	public ConditionalResponseCache(int maxEntries) {
+		this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+				return size() > maxEntries;
+			}
+		};
+	}
+
+	public synchronized Entry get(String path) {
+		return entries.get(path);
+	}
+
+	public synchronized void put(String path, String eTag, Object body) {
+		if (null == eTag || null == body) {
+			entries.remove(path);
+		} else {
+			entries.put(path, new Entry(eTag, body));
+		}
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	public void recordRevalidated() {
+		revalidated.increment();
+	}
+
+	public void recordFetched() {
+		fetched.increment();
+	}
+
+	// Requests answered with 304 from a cached body
+	public long getRevalidated() {
+		return revalidated.sum();
+	}
+
+	// Requests that transferred a full body
+	public long getFetched() {
+		return fetched.sum();
+	}
+
+	// Share of cacheable requests answered with 304, 0 before the first one
+	public double getHitRatio() {
+		long hits = getRevalidated();
+		long total = hits + getFetched();
+		return total == 0 ? 0 : (double) hits / total;
+	}
+
+	@Getter
+	@AllArgsConstructor
+	public static class Entry {
+
+		private final String eTag;
+
+		private final Object body;
+	}
+}
@@ -1,13 +1,19 @@
 package com.app.client;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
@@ -18,13 +24,18 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClientException;
+import org.springframework.util.StringUtils;
 import org.springframework.web.client.RestTemplate;
 
+import com.app.config.EmployeeClientProperties;
 import com.app.exceptions.ClientException;
 import com.app.exceptions.EmployeeNotFoundException;
 import com.app.model.Employee;
 
 import org.springframework.web.util.UriComponentsBuilder;
+import com.app.util.ApiResponse;
+import com.app.util.BulkInsertResult;
+import com.app.util.BulkResponseStatus;
 import com.app.util.ResponseStatus;
 
 @Service
@@ -32,14 +43,42 @@ public class EmployeeClient {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(EmployeeClient.class);
 
+	private static final ParameterizedTypeReference<Employee> EMPLOYEE = ParameterizedTypeReference.forType(Employee.class);
+
+	// /getByIds wraps the employees in the service's ApiResponse
+	private static final ParameterizedTypeReference<ApiResponse<List<Employee>>> EMPLOYEES_RESPONSE = new ParameterizedTypeReference<ApiResponse<List<Employee>>>() {
+	};
+
+	// /addList answers with the outcome of every employee in the service's ApiResponse
+	private static final ParameterizedTypeReference<ApiResponse<BulkInsertResult>> BULK_INSERT_RESPONSE = new ParameterizedTypeReference<ApiResponse<BulkInsertResult>>() {
+	};
+
 	private RestTemplate restTemplate;
 
+	private ConditionalResponseCache responseCache;
+
+	private SingleFlight<String> readCoalescer;
+
+	private EmployeeClientResilience resilience;
+
+	private ChunkedUploader bulkUploader;
+
+	// Smile by default, see EmployeeClientProperties.WireFormat
+	private MediaType wireFormat;
+
 	@Value("${employee.service.url}")
 	private String employeeServiceURL;
 
+	@Value("${employee.client.batch.max-size:100}")
+	private int batchMaxSize = 100;
+
+	@Value("${employee.client.passthrough.buffer-size:8192}")
+	private int passthroughBufferSize = 8192;
+
 	private static final String GET_EMPLOYEES_LIST_URL = "/list";
 	private static final String GET_EMPLOYEE_BY_ID_URL = "/getById/{id}";
 	private static final String GET_EMPLOYEE_BY_NAME_URL = "/getByName?name={name}";
+	private static final String GET_EMPLOYEES_BY_IDS_URL = "/getByIds?ids={ids}";
 
 	private static final String ADD_EMPLOYEE_URL = "/add";
 	private static final String ADD_EMPLOYEES_LIST_URL = "/addList";
@@ -48,8 +87,16 @@ public class EmployeeClient {
 	private static final String DELETE_ALL_EMPLOYEES_URL = "/deleteAll";
 
 	@Autowired
-	public EmployeeClient(RestTemplate restTemplate) {
+	public EmployeeClient(RestTemplate restTemplate, ConditionalResponseCache employeeResponseCache,
+			@Qualifier("employeeReadCoalescer") SingleFlight<String> employeeReadCoalescer,
+			EmployeeClientResilience employeeClientResilience, ChunkedUploader employeeBulkUploader,
+			EmployeeClientProperties properties) {
 		this.restTemplate = restTemplate;
+		this.responseCache = employeeResponseCache;
+		this.readCoalescer = employeeReadCoalescer;
+		this.resilience = employeeClientResilience;
+		this.bulkUploader = employeeBulkUploader;
+		this.wireFormat = properties.getWireFormat().getMediaType();
 	}
 
 	private HttpHeaders buildHeaders() {
@@ -57,19 +104,44 @@ public class EmployeeClient {
 //		headers.setAccept(Arrays.asList(MediaType.APPLICATION_JSON));
 //		headers.setContentType(MediaType.APPLICATION_JSON);
 
-		headers.add(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE);
-		headers.add(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+		headers.add(HttpHeaders.ACCEPT, wireFormat.toString());
+		headers.add(HttpHeaders.CONTENT_TYPE, wireFormat.toString());
 
 		return headers;
 	}
 
+	// Reads revalidate the body cached for the path with If-None-Match, a 304 hands back the body parsed last time
+	@SuppressWarnings("unchecked")
+	private <T> ResponseEntity<T> conditionalGet(String endpoint, String path, ParameterizedTypeReference<T> responseType) {
+		ConditionalResponseCache.Entry cached = responseCache.get(path);
+		HttpHeaders headers = buildHeaders();
+		if (null != cached) {
+			headers.setIfNoneMatch(cached.getETag());
+		}
+
+		ResponseEntity<T> responseEntity = resilience.executeBlocking(endpoint, HttpMethod.GET, () -> restTemplate
+				.exchange(URI.create(employeeServiceURL + path), HttpMethod.GET, new HttpEntity<>(headers), responseType));
+
+		if (responseEntity.getStatusCode() == HttpStatus.NOT_MODIFIED && null != cached) {
+			responseCache.recordRevalidated();
+			return new ResponseEntity<>((T) cached.getBody(), responseEntity.getHeaders(), HttpStatus.OK);
+		}
+		if (responseEntity.getStatusCode() == HttpStatus.OK) {
+			responseCache.recordFetched();
+			responseCache.put(path, responseEntity.getHeaders().getETag(), responseEntity.getBody());
+		}
+		return responseEntity;
+	}
+
+	private static String expand(String pathTemplate, Object... uriVariables) {
+		return UriComponentsBuilder.fromUriString(pathTemplate).encode().buildAndExpand(uriVariables).toUriString();
+	}
+
 	public List<Employee> getEmployeeList() {
 		List<Employee> employeesList = null;
-		HttpEntity<List<Employee>> entity = new HttpEntity<>(buildHeaders());
 
 		try {
-			ResponseEntity<List<Employee>> responseEntity = restTemplate.exchange(
-					employeeServiceURL + GET_EMPLOYEES_LIST_URL, HttpMethod.GET, entity,
+			ResponseEntity<List<Employee>> responseEntity = conditionalGet("list", GET_EMPLOYEES_LIST_URL,
 					new ParameterizedTypeReference<List<Employee>>() {
 					});
 
@@ -85,16 +157,50 @@ public class EmployeeClient {
 		return employeesList;
 	}
 
+	// Copies the /list body to out as it arrives, through one fixed size buffer: nothing is parsed and the list is
+	// never held in memory, whatever its size. Error statuses are raised before the first byte is written
+	public long copyEmployeeList(OutputStream out) {
+		URI uri = URI.create(employeeServiceURL + GET_EMPLOYEES_LIST_URL);
+
+		LOGGER.info("Streaming the employees list from uri: {}", uri.getRawPath());
+		try {
+			Long copied = resilience.executeOnce("list", () -> restTemplate.execute(uri, HttpMethod.GET,
+					request -> request.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON)),
+					response -> copy(response.getBody(), out)));
+
+			LOGGER.info("Successful call to stream the employees list, {} bytes", copied);
+			return null == copied ? 0 : copied;
+		} catch (RestClientException e) {
+			LOGGER.error("Caught RestClientException while streaming the employees list, error: {}", e.getMessage());
+			throw new ClientException(e, EmployeeClient.class);
+		}
+	}
+
+	// Write failures mean the caller went away, they are rethrown unchecked so they do not count against the service
+	private long copy(InputStream in, OutputStream out) throws IOException {
+		byte[] buffer = new byte[passthroughBufferSize];
+		long copied = 0;
+		int read;
+		while ((read = in.read(buffer)) != -1) {
+			try {
+				out.write(buffer, 0, read);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			copied += read;
+		}
+		return copied;
+	}
+
 	public Employee getEmployee(int employeeId) {
 
-		URI uri = UriComponentsBuilder.fromUriString(employeeServiceURL + GET_EMPLOYEE_BY_ID_URL)
-				.buildAndExpand(String.valueOf(employeeId)).toUri();
+		String path = expand(GET_EMPLOYEE_BY_ID_URL, String.valueOf(employeeId));
 
-		LOGGER.info("Calling the get employee by id endpoint with uri: {}", uri.getRawPath());
+		LOGGER.info("Calling the get employee by id endpoint with uri: {}", path);
 
 		try {
-			ResponseEntity<Employee> responseEntity = restTemplate.exchange(uri, HttpMethod.GET,
-					new HttpEntity<>(buildHeaders()), Employee.class);
+			ResponseEntity<Employee> responseEntity = readCoalescer.executeBlocking(path,
+					() -> conditionalGet("getById", path, EMPLOYEE));
 
 			LOGGER.info("Successful call to get employee by id: {} , status code: {}", employeeId,
 					responseEntity.getStatusCode());
@@ -113,16 +219,13 @@ public class EmployeeClient {
 
 	public Employee getEmployeeByName(String name) {
 
-		String resourcePath = employeeServiceURL + GET_EMPLOYEE_BY_NAME_URL;
-
-		Map<String, String> params = new HashMap<>();
-		params.put("name", name);
+		String path = expand(GET_EMPLOYEE_BY_NAME_URL, name);
 
 		LOGGER.info("Calling the get employee by name endpoint");
 
 		try {
-			ResponseEntity<Employee> responseEntity = restTemplate.exchange(resourcePath, HttpMethod.GET,
-					new HttpEntity<>(buildHeaders()), Employee.class, params);
+			ResponseEntity<Employee> responseEntity = readCoalescer.executeBlocking(path,
+					() -> conditionalGet("getByName", path, EMPLOYEE));
 
 			LOGGER.info("Successful call to get employee by name: {}, status code: {}", name,
 					responseEntity.getStatusCode());
@@ -139,6 +242,37 @@ public class EmployeeClient {
 		}
 	}
 
+	// One /getByIds request per batch of ids instead of one /getById request per id, ids not found are left out
+	public List<Employee> getEmployees(Collection<Integer> employeeIds) {
+		List<Integer> ids = new ArrayList<>(new LinkedHashSet<>(employeeIds));
+		List<Employee> employees = new ArrayList<>(ids.size());
+
+		LOGGER.info("Calling the get employees by ids endpoint for {} ids", ids.size());
+
+		for (int from = 0; from < ids.size(); from += batchMaxSize) {
+			List<Integer> batch = ids.subList(from, Math.min(ids.size(), from + batchMaxSize));
+			URI uri = URI.create(employeeServiceURL
+					+ expand(GET_EMPLOYEES_BY_IDS_URL, StringUtils.collectionToCommaDelimitedString(batch)));
+			try {
+				ResponseEntity<ApiResponse<List<Employee>>> responseEntity = resilience.executeBlocking("getByIds",
+						HttpMethod.GET, () -> restTemplate.exchange(uri, HttpMethod.GET, new HttpEntity<>(buildHeaders()),
+								EMPLOYEES_RESPONSE));
+
+				LOGGER.info("Successful call to get {} employees by ids, status code: {}", batch.size(),
+						responseEntity.getStatusCode());
+
+				if (responseEntity.getStatusCode() == HttpStatus.OK && null != responseEntity.getBody()
+						&& null != responseEntity.getBody().getPayload()) {
+					employees.addAll(responseEntity.getBody().getPayload());
+				}
+			} catch (RestClientException e) {
+				LOGGER.error("Caught RestClientException while fetching the employees by ids, error: {}", e.getMessage());
+				throw new ClientException(e, EmployeeClient.class);
+			}
+		}
+		return employees;
+	}
+
 	public ResponseStatus addEmployee(Employee employee) {
 
 		String resourcePath = employeeServiceURL + ADD_EMPLOYEE_URL;
@@ -147,8 +281,8 @@ public class EmployeeClient {
 		LOGGER.info("Calling the add employee endpoint");
 		try {
 
-			ResponseEntity<ResponseStatus> responseEntity = restTemplate.exchange(resourcePath, HttpMethod.POST, entity,
-					ResponseStatus.class);
+			ResponseEntity<ResponseStatus> responseEntity = resilience.executeBlocking("add", HttpMethod.POST,
+					() -> restTemplate.exchange(resourcePath, HttpMethod.POST, entity, ResponseStatus.class));
 
 			LOGGER.info("Successful call to add employee, status code: {}", responseEntity.getStatusCode());
 
@@ -165,25 +299,28 @@ public class EmployeeClient {
 		}
 	}
 
-	public ResponseStatus addEmployees(List<Employee> employees) {
-		String resourcePath = employeeServiceURL + ADD_EMPLOYEES_LIST_URL;
-		HttpEntity<List<Employee>> entity = new HttpEntity<>(employees, buildHeaders());
+	// Large lists are sent as chunks in parallel, see ChunkedUploader
+	public BulkResponseStatus addEmployees(List<Employee> employees) {
+		LOGGER.info("Calling the add employees list endpoint for {} employees", employees.size());
 
-		LOGGER.info("Calling the add employees list endpoint");
-		try {
+		BulkResponseStatus responseStatus = bulkUploader.uploadBlocking(employees, this::postEmployees);
 
-			ResponseEntity<ResponseStatus> responseEntity = restTemplate.exchange(resourcePath, HttpMethod.POST, entity,
-					ResponseStatus.class);
+		LOGGER.info("Completed the call to add employee list, status code: {}", responseStatus.getStatusCode());
+		return responseStatus;
+	}
 
-			LOGGER.info("Successful call to add employee list, status code: {}", responseEntity.getStatusCode());
+	private ResponseEntity<ApiResponse<BulkInsertResult>> postEmployees(List<Employee> employees) {
+		String resourcePath = employeeServiceURL + ADD_EMPLOYEES_LIST_URL;
+		HttpEntity<List<Employee>> entity = new HttpEntity<>(employees, buildHeaders());
 
-			if (responseEntity.getStatusCode() == HttpStatus.OK) {
-				return responseEntity.getBody();
-			} else {
-				return new ResponseStatus(String.valueOf(responseEntity.getStatusCode()), null,
-						"Failed to add employees list");
-			}
+		try {
+			ResponseEntity<ApiResponse<BulkInsertResult>> responseEntity = resilience.executeBlocking("addList",
+					HttpMethod.POST,
+					() -> restTemplate.exchange(resourcePath, HttpMethod.POST, entity, BULK_INSERT_RESPONSE));
 
+			LOGGER.info("Successful call to add {} employees, status code: {}", employees.size(),
+					responseEntity.getStatusCode());
+			return responseEntity;
 		} catch (RestClientException e) {
 			LOGGER.error("Caugh RestClientException while adding the employees list, error: {}", e.getMessage());
 			throw new ClientException(e, EmployeeClient.class);
@@ -197,8 +334,8 @@ public class EmployeeClient {
 		LOGGER.info("Calling the update employee endpoint");
 		try {
 
-			ResponseEntity<ResponseStatus> responseEntity = restTemplate.exchange(resourcePath, HttpMethod.PUT, entity,
-					ResponseStatus.class);
+			ResponseEntity<ResponseStatus> responseEntity = resilience.executeBlocking("update", HttpMethod.PUT,
+					() -> restTemplate.exchange(resourcePath, HttpMethod.PUT, entity, ResponseStatus.class));
 
 			LOGGER.info("Successful call to update employee, status code: {}", responseEntity.getStatusCode());
 
@@ -222,8 +359,9 @@ public class EmployeeClient {
 		LOGGER.info("Calling the delete employee by id endpoint with uri: {}", uri.getRawPath());
 
 		try {
-			ResponseEntity<ResponseStatus> responseEntity = restTemplate.exchange(uri, HttpMethod.DELETE,
-					new HttpEntity<>(buildHeaders()), ResponseStatus.class);
+			ResponseEntity<ResponseStatus> responseEntity = resilience.executeBlocking("delete", HttpMethod.DELETE,
+					() -> restTemplate.exchange(uri, HttpMethod.DELETE, new HttpEntity<>(buildHeaders()),
+							ResponseStatus.class));
 
 			LOGGER.info("Successful call to delete employee by id: {} , status code: {}", employeeId,
 					responseEntity.getStatusCode());
@@ -245,9 +383,9 @@ public class EmployeeClient {
 		LOGGER.info("Calling the delete all employees endpoint");
 
 		try {
-			ResponseEntity<ResponseStatus> responseEntity = restTemplate.exchange(
-					employeeServiceURL + DELETE_ALL_EMPLOYEES_URL, HttpMethod.DELETE, new HttpEntity<>(buildHeaders()),
-					ResponseStatus.class);
+			ResponseEntity<ResponseStatus> responseEntity = resilience.executeBlocking("deleteAll", HttpMethod.DELETE,
+					() -> restTemplate.exchange(employeeServiceURL + DELETE_ALL_EMPLOYEES_URL, HttpMethod.DELETE,
+							new HttpEntity<>(buildHeaders()), ResponseStatus.class));
 
 			LOGGER.info("Successful call to delete all employees, status code: {}", responseEntity.getStatusCode());
 
@@ -0,0 +1,249 @@
+package com.app.client;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.app.config.EmployeeClientProperties;
+import com.app.exceptions.ClientException;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+
+/**
+ * Protects the calls of both employee clients, per endpoint:
+ * <ul>
+ * <li>a circuit breaker that rejects calls for a while once too many of the recent ones failed,</li>
+ * <li>retries with exponential backoff and jitter, for GET, PUT and DELETE only since a repeated POST would add
+ * the employee twice,</li>
+ * <li>hedging of asynchronous GETs: when the first request has not answered within the endpoint's latency
+ * percentile a second one is sent and whichever answers first wins,</li>
+ * <li>a concurrency bulkhead for the blocking client, the asynchronous client is bounded by its
+ * InFlightLimiter.</li>
+ * </ul>
+ * Only transport errors and 5xx responses count as failures and are retried: a 4xx answer is the service working.
+ * <p>
+ * Every attempt, retries and hedges included, is timed as employee.client.requests per endpoint, client and outcome,
+ * once the instance is bound to a meter registry.
+ */
+public class EmployeeClientResilience implements MeterBinder {
+
+	private final CircuitBreakerRegistry circuitBreakers;
+
+	private final RetryRegistry retries;
+
+	private final Bulkhead bulkhead;
+
+	private final ScheduledExecutorService scheduler;
+
+	private final EmployeeClientProperties.Hedge hedge;
+
+	// Records nothing until bound
+	private volatile MeterRegistry meterRegistry = new CompositeMeterRegistry();
+
+	private final ConcurrentMap<String, LatencyWindow> latencies = new ConcurrentHashMap<>();
+
+	private final LongAdder hedges = new LongAdder();
+
+	private final LongAdder hedgeWins = new LongAdder();
+
+	public EmployeeClientResilience(CircuitBreakerRegistry circuitBreakers, RetryRegistry retries, Bulkhead bulkhead,
+			ScheduledExecutorService scheduler, EmployeeClientProperties.Hedge hedge) {
+		this.circuitBreakers = circuitBreakers;
+		this.retries = retries;
+		this.bulkhead = bulkhead;
+		this.scheduler = scheduler;
+		this.hedge = hedge;
+	}
+
+	// Failures the employee service may recover from, as opposed to rejected or invalid requests
+	public static boolean isServiceFailure(Throwable error) {
+		Throwable cause = error;
+		while ((cause instanceof CompletionException || cause instanceof ClientException) && null != cause.getCause()) {
+			cause = cause.getCause();
+		}
+		return cause instanceof ResourceAccessException
+				|| cause instanceof HttpServerErrorException
+				|| cause instanceof WebClientRequestException
+				|| cause instanceof WebClientResponseException
+						&& ((WebClientResponseException) cause).getStatusCode().is5xxServerError();
+	}
+
+	public <T> T executeBlocking(String endpoint, HttpMethod method, Supplier<T> call) {
+		Supplier<T> decorated = timed(endpoint, Bulkhead.decorateSupplier(bulkhead, call));
+		decorated = CircuitBreaker.decorateSupplier(circuitBreakers.circuitBreaker(endpoint), decorated);
+		if (isIdempotent(method)) {
+			decorated = Retry.decorateSupplier(retries.retry(endpoint), decorated);
+		}
+		return decorated.get();
+	}
+
+	// Streamed responses are neither retried, since a second attempt would repeat the bytes already passed on, nor
+	// timed, since their duration grows with the body and would skew the endpoint's hedge percentile
+	public <T> T executeOnce(String endpoint, Supplier<T> call) {
+		return CircuitBreaker.decorateSupplier(circuitBreakers.circuitBreaker(endpoint),
+				Bulkhead.decorateSupplier(bulkhead, call)).get();
+	}
+
+	public <T> CompletableFuture<T> execute(String endpoint, HttpMethod method, Supplier<CompletableFuture<T>> call) {
+		Supplier<CompletionStage<T>> attempt = CircuitBreaker.decorateCompletionStage(
+				circuitBreakers.circuitBreaker(endpoint), timedAsync(endpoint, call));
+		Supplier<CompletionStage<T>> decorated = method == HttpMethod.GET && hedge.isEnabled()
+				? () -> hedged(endpoint, attempt)
+				: attempt;
+		if (isIdempotent(method)) {
+			decorated = Retry.decorateCompletionStage(retries.retry(endpoint), scheduler, decorated);
+		}
+		return unwrapped(decorated.get());
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		FunctionCounter.builder("employee.client.hedge.requests", this, EmployeeClientResilience::getHedges)
+				.description("GETs sent a second time because the first request was slower than the hedge percentile")
+				.register(registry);
+		FunctionCounter.builder("employee.client.hedge.wins", this, EmployeeClientResilience::getHedgeWins)
+				.description("Hedged GETs that answered before the request they were sent for")
+				.register(registry);
+		meterRegistry = registry;
+	}
+
+	// Hedged GETs sent because the first request was slow
+	public long getHedges() {
+		return hedges.sum();
+	}
+
+	// Hedged GETs that answered before the request they were sent for
+	public long getHedgeWins() {
+		return hedgeWins.sum();
+	}
+
+	private <T> CompletionStage<T> hedged(String endpoint, Supplier<CompletionStage<T>> attempt) {
+		LatencyWindow window = latencyWindow(endpoint);
+		if (window.count() < hedge.getMinSamples()) {
+			return attempt.get();
+		}
+		long delay = Math.max(window.percentileNanos(), hedge.getMinDelay().toNanos());
+
+		CompletableFuture<T> result = new CompletableFuture<>();
+		// Attempts still running, once the last one fails the hedged call fails with its error
+		AtomicInteger running = new AtomicInteger(1);
+		attempt.get().whenComplete((value, error) -> complete(result, running, value, error, false));
+		ScheduledFuture<?> hedgeTimer = scheduler.schedule(() -> {
+			if (!result.isDone() && running.getAndUpdate(count -> count == 0 ? 0 : count + 1) > 0) {
+				hedges.increment();
+				attempt.get().whenComplete((value, error) -> complete(result, running, value, error, true));
+			}
+		}, delay, TimeUnit.NANOSECONDS);
+		result.whenComplete((value, error) -> hedgeTimer.cancel(false));
+		return result;
+	}
+
+	private <T> void complete(CompletableFuture<T> result, AtomicInteger running, T value, Throwable error,
+			boolean hedgeAttempt) {
+		if (null == error) {
+			if (result.complete(value) && hedgeAttempt) {
+				hedgeWins.increment();
+			}
+		} else if (running.decrementAndGet() == 0) {
+			result.completeExceptionally(error);
+		}
+	}
+
+	private <T> Supplier<T> timed(String endpoint, Supplier<T> call) {
+		return () -> {
+			long start = System.nanoTime();
+			T value;
+			try {
+				value = call.get();
+			} catch (RuntimeException e) {
+				recordRequest(endpoint, "blocking", e, System.nanoTime() - start);
+				throw e;
+			}
+			long elapsed = System.nanoTime() - start;
+			latencyWindow(endpoint).record(elapsed);
+			recordRequest(endpoint, "blocking", null, elapsed);
+			return value;
+		};
+	}
+
+	private <T> Supplier<CompletionStage<T>> timedAsync(String endpoint, Supplier<CompletableFuture<T>> call) {
+		return () -> {
+			long start = System.nanoTime();
+			CompletableFuture<T> future = call.get();
+			future.whenComplete((value, error) -> {
+				long elapsed = System.nanoTime() - start;
+				if (null == error) {
+					latencyWindow(endpoint).record(elapsed);
+				}
+				recordRequest(endpoint, "async", error, elapsed);
+			});
+			return future;
+		};
+	}
+
+	private void recordRequest(String endpoint, String client, Throwable error, long nanos) {
+		Timer.builder("employee.client.requests")
+				.description("Requests of the employee clients to the employee service, retries and hedges included")
+				.tags("endpoint", endpoint, "client", client, "outcome", outcome(error))
+				.register(meterRegistry)
+				.record(nanos, TimeUnit.NANOSECONDS);
+	}
+
+	private static String outcome(Throwable error) {
+		if (null == error) {
+			return "SUCCESS";
+		}
+		Throwable cause = error instanceof CompletionException && null != error.getCause() ? error.getCause() : error;
+		if (cause instanceof BulkheadFullException || cause instanceof RejectedExecutionException) {
+			return "REJECTED";
+		}
+		return isServiceFailure(cause) ? "SERVER_ERROR" : "CLIENT_ERROR";
+	}
+
+	private LatencyWindow latencyWindow(String endpoint) {
+		return latencies.computeIfAbsent(endpoint, name -> new LatencyWindow(hedge.getWindowSize(), hedge.getPercentile()));
+	}
+
+	private static boolean isIdempotent(HttpMethod method) {
+		return method != HttpMethod.POST && method != HttpMethod.PATCH;
+	}
+
+	// Callers see the error of the call itself, not a CompletionException around it
+	private static <T> CompletableFuture<T> unwrapped(CompletionStage<T> stage) {
+		CompletableFuture<T> result = new CompletableFuture<>();
+		stage.whenComplete((value, error) -> {
+			if (null == error) {
+				result.complete(value);
+			} else {
+				result.completeExceptionally(
+						error instanceof CompletionException && null != error.getCause() ? error.getCause() : error);
+			}
+		});
+		return result;
+	}
+}
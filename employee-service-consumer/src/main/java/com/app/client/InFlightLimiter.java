@@ -0,0 +1,89 @@
+package com.app.client;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Bounds the number of asynchronous calls running at once without blocking the caller: a call over the limit is
+ * parked in a bounded queue and started when a running call completes, and a call that finds the queue full fails
+ * right away with a {@link RejectedExecutionException} instead of piling up unbounded work on the employee service.
+ */
+public class InFlightLimiter {
+
+	private final int maxInFlight;
+
+	private final int maxQueued;
+
+	private final Queue<Runnable> waiting = new ArrayDeque<>();
+
+	private int inFlight;
+
+	public InFlightLimiter(int maxInFlight, int maxQueued) {
+		if (maxInFlight < 1 || maxQueued < 0) {
+			throw new IllegalArgumentException("Invalid limits, in flight: " + maxInFlight + ", queued: " + maxQueued);
+		}
+		this.maxInFlight = maxInFlight;
+		this.maxQueued = maxQueued;
+	}
+
+	public <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> call) {
+		CompletableFuture<T> result = new CompletableFuture<>();
+		Runnable start = () -> start(call, result);
+		synchronized (this) {
+			if (inFlight < maxInFlight) {
+				inFlight++;
+			} else if (waiting.size() < maxQueued) {
+				waiting.add(start);
+				return result;
+			} else {
+				result.completeExceptionally(new RejectedExecutionException(
+						"Too many calls to the employee service, in flight: " + inFlight + ", queued: " + waiting.size()));
+				return result;
+			}
+		}
+		start.run();
+		return result;
+	}
+
+	public synchronized int getInFlight() {
+		return inFlight;
+	}
+
+	public synchronized int getQueued() {
+		return waiting.size();
+	}
+
+	private <T> void start(Supplier<CompletableFuture<T>> call, CompletableFuture<T> result) {
+		CompletableFuture<T> future;
+		try {
+			future = call.get();
+		} catch (RuntimeException e) {
+			future = CompletableFuture.failedFuture(e);
+		}
+		future.whenComplete((value, error) -> {
+			release();
+			if (error != null) {
+				result.completeExceptionally(error);
+			} else {
+				result.complete(value);
+			}
+		});
+	}
+
+	// The slot of a completed call is handed straight to the next waiting call, if any
+	private void release() {
+		Runnable next;
+		synchronized (this) {
+			next = waiting.poll();
+			if (next == null) {
+				inFlight--;
+			}
+		}
+		if (next != null) {
+			next.run();
+		}
+	}
+}
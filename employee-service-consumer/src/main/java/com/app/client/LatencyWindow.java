@@ -0,0 +1,53 @@
+package com.app.client;
+
+import java.util.Arrays;
+
+/**
+ * The most recent latencies of one endpoint in a ring buffer, with a percentile over them. The percentile is
+ * recomputed every few samples rather than on every read, so asking for it on each request stays cheap.
+ */
+public class LatencyWindow {
+
+	private static final int RECOMPUTE_INTERVAL = 16;
+
+	private final long[] samples;
+
+	private final double percentile;
+
+	private int next;
+
+	private int count;
+
+	private int sinceRecompute;
+
+	private long cachedPercentile = -1;
+
+	public LatencyWindow(int size, double percentile) {
+		this.samples = new long[size];
+		this.percentile = percentile;
+	}
+
+	public synchronized void record(long nanos) {
+		samples[next] = nanos;
+		next = (next + 1) % samples.length;
+		count = Math.min(count + 1, samples.length);
+		sinceRecompute++;
+	}
+
+	public synchronized int count() {
+		return count;
+	}
+
+	public synchronized long percentileNanos() {
+		if (count == 0) {
+			return -1;
+		}
+		if (cachedPercentile < 0 || sinceRecompute >= RECOMPUTE_INTERVAL) {
+			long[] sorted = Arrays.copyOf(samples, count);
+			Arrays.sort(sorted);
+			cachedPercentile = sorted[Math.max(0, (int) Math.ceil(percentile * count) - 1)];
+			sinceRecompute = 0;
+		}
+		return cachedPercentile;
+	}
+}
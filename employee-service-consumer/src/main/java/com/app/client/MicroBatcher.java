@@ -0,0 +1,127 @@
+package com.app.client;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * DataLoader style batching of single key loads: keys requested within a short window are collected and loaded
+ * with one batch call, and every caller's future is completed from the batch result. A batch is sent when the
+ * window of its first key closes or as soon as it reaches the maximum size. Keys missing from the batch result
+ * complete with null.
+ */
+public class MicroBatcher<K, V> implements AutoCloseable {
+
+	private final Function<List<K>, CompletableFuture<Map<K, V>>> batchLoader;
+
+	private final long windowNanos;
+
+	private final int maxBatchSize;
+
+	private final ScheduledExecutorService scheduler;
+
+	private Map<K, CompletableFuture<V>> pending = new LinkedHashMap<>();
+
+	// Tells the scheduled flush of a batch that was already sent for being full apart from the current batch
+	private long generation;
+
+	private final LongAdder batches = new LongAdder();
+
+	private final LongAdder keys = new LongAdder();
+
+	public MicroBatcher(String name, Duration window, int maxBatchSize,
+			Function<List<K>, CompletableFuture<Map<K, V>>> batchLoader) {
+		this.batchLoader = batchLoader;
+		this.windowNanos = window.toNanos();
+		this.maxBatchSize = maxBatchSize;
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, name);
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	public CompletableFuture<V> load(K key) {
+		Map<K, CompletableFuture<V>> full = null;
+		CompletableFuture<V> future;
+		synchronized (this) {
+			future = pending.get(key);
+			if (null == future) {
+				future = new CompletableFuture<>();
+				pending.put(key, future);
+				if (pending.size() == 1) {
+					long batchGeneration = generation;
+					scheduler.schedule(() -> flush(batchGeneration), windowNanos, TimeUnit.NANOSECONDS);
+				}
+				if (pending.size() >= maxBatchSize) {
+					full = takePending();
+				}
+			}
+		}
+		if (null != full) {
+			dispatch(full);
+		}
+		return future;
+	}
+
+	// Batches sent
+	public long getBatches() {
+		return batches.sum();
+	}
+
+	// Keys loaded through batches
+	public long getKeys() {
+		return keys.sum();
+	}
+
+	@Override
+	public void close() {
+		scheduler.shutdownNow();
+	}
+
+	private void flush(long batchGeneration) {
+		Map<K, CompletableFuture<V>> batch;
+		synchronized (this) {
+			if (batchGeneration != generation || pending.isEmpty()) {
+				return;
+			}
+			batch = takePending();
+		}
+		dispatch(batch);
+	}
+
+	private Map<K, CompletableFuture<V>> takePending() {
+		Map<K, CompletableFuture<V>> batch = pending;
+		pending = new LinkedHashMap<>();
+		generation++;
+		return batch;
+	}
+
+	private void dispatch(Map<K, CompletableFuture<V>> batch) {
+		batches.increment();
+		keys.add(batch.size());
+		CompletableFuture<Map<K, V>> result;
+		try {
+			result = batchLoader.apply(new ArrayList<>(batch.keySet()));
+		} catch (RuntimeException e) {
+			result = CompletableFuture.failedFuture(e);
+		}
+		result.whenComplete((values, error) -> batch.forEach((key, future) -> {
+			if (null != error) {
+				future.completeExceptionally(
+						error instanceof CompletionException && null != error.getCause() ? error.getCause() : error);
+			} else {
+				future.complete(values.get(key));
+			}
+		}));
+	}
+}
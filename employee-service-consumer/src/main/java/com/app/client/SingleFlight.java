@@ -0,0 +1,94 @@
+package com.app.client;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical reads: the first caller for a key makes the upstream call and every caller that
+ * asks for the same key while it is running receives that call's result or error instead of making its own.
+ * The key is dropped before the result is handed out, so a caller arriving afterwards starts a fresh call and
+ * never sees a stale result.
+ */
+public class SingleFlight<K> {
+
+	private final ConcurrentMap<K, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+	private final LongAdder coalesced = new LongAdder();
+
+	public <V> CompletableFuture<V> execute(K key, Supplier<CompletableFuture<V>> call) {
+		CompletableFuture<Object> promise = new CompletableFuture<>();
+		CompletableFuture<Object> running = inFlight.putIfAbsent(key, promise);
+		if (null != running) {
+			coalesced.increment();
+			return share(running);
+		}
+		CompletableFuture<V> future;
+		try {
+			future = call.get();
+		} catch (RuntimeException e) {
+			future = CompletableFuture.failedFuture(e);
+		}
+		future.whenComplete((value, error) -> {
+			inFlight.remove(key, promise);
+			if (null != error) {
+				promise.completeExceptionally(error);
+			} else {
+				promise.complete(value);
+			}
+		});
+		return share(promise);
+	}
+
+	// Each caller gets its own future, so one caller cancelling does not cancel the others, completed with the
+	// shared call's own error rather than a CompletionException around it
+	@SuppressWarnings("unchecked")
+	private static <V> CompletableFuture<V> share(CompletableFuture<Object> promise) {
+		CompletableFuture<V> result = new CompletableFuture<>();
+		promise.whenComplete((value, error) -> {
+			if (null != error) {
+				result.completeExceptionally(error);
+			} else {
+				result.complete((V) value);
+			}
+		});
+		return result;
+	}
+
+	// Blocking variant: the first caller runs the call on its own thread, the others wait for its outcome
+	@SuppressWarnings("unchecked")
+	public <V> V executeBlocking(K key, Supplier<V> call) {
+		CompletableFuture<Object> promise = new CompletableFuture<>();
+		CompletableFuture<Object> running = inFlight.putIfAbsent(key, promise);
+		if (null != running) {
+			coalesced.increment();
+			try {
+				return (V) running.join();
+			} catch (CompletionException e) {
+				throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+			}
+		}
+		try {
+			V value = call.get();
+			inFlight.remove(key, promise);
+			promise.complete(value);
+			return value;
+		} catch (RuntimeException e) {
+			inFlight.remove(key, promise);
+			promise.completeExceptionally(e);
+			throw e;
+		}
+	}
+
+	// Calls answered from another caller's upstream request
+	public long getCoalesced() {
+		return coalesced.sum();
+	}
+
+	public int getInFlight() {
+		return inFlight.size();
+	}
+}
@@ -1,15 +1,178 @@
 package com.app.config;
 
+import java.net.http.HttpClient;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import com.app.client.ChunkedUploader;
+import com.app.client.ConditionalResponseCache;
+import com.app.client.SingleFlight;
+import com.app.transport.ConnectionPoolEndpoint;
+import com.app.transport.GzipRequestInterceptor;
+import com.app.transport.JdkClientHttpRequestFactory;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+
 @Configuration
+@EnableConfigurationProperties(EmployeeClientProperties.class)
 public class BeansConfig {
 
 	@Bean
-	public RestTemplate getRestTemplate() {
-		return new RestTemplate();
+	public RestTemplate getRestTemplate(ClientHttpRequestFactory employeeClientRequestFactory,
+			EmployeeClientProperties properties) {
+		RestTemplate restTemplate = new RestTemplate(employeeClientRequestFactory);
+		if (properties.getCompression().isEnabled()) {
+			restTemplate.getInterceptors()
+					.add(new GzipRequestInterceptor(properties.getCompression().getMinRequestSize().toBytes()));
+		}
+		return restTemplate;
+	}
+
+	@Bean
+	public ConditionalResponseCache employeeResponseCache(EmployeeClientProperties properties) {
+		return new ConditionalResponseCache(properties.getCache().getMaxEntries());
+	}
+
+	@Bean
+	public MeterBinder employeeResponseCacheMetrics(ConditionalResponseCache employeeResponseCache) {
+		return registry -> {
+			FunctionCounter.builder("employee.client.cache.revalidated", employeeResponseCache, ConditionalResponseCache::getRevalidated)
+					.description("Employee reads answered with 304 and served from the cached body")
+					.register(registry);
+			FunctionCounter.builder("employee.client.cache.fetched", employeeResponseCache, ConditionalResponseCache::getFetched)
+					.description("Employee reads that transferred a full body")
+					.register(registry);
+			Gauge.builder("employee.client.cache.hit.ratio", employeeResponseCache, ConditionalResponseCache::getHitRatio)
+					.description("Share of employee reads served from the cached body")
+					.register(registry);
+		};
+	}
+
+	@Bean
+	public ChunkedUploader employeeBulkUploader(EmployeeClientProperties properties) {
+		EmployeeClientProperties.Bulk bulk = properties.getBulk();
+		return new ChunkedUploader(bulk.getChunkSize(), bulk.getParallelism(), bulk.getMaxAttempts());
+	}
+
+	// Concurrent reads of the same request path share one call, one coalescer per client as their results differ
+	@Bean
+	public SingleFlight<String> employeeReadCoalescer() {
+		return new SingleFlight<>();
+	}
+
+	@Bean
+	public SingleFlight<String> asyncEmployeeReadCoalescer() {
+		return new SingleFlight<>();
+	}
+
+	@Bean
+	public MeterBinder employeeReadCoalescerMetrics(
+			@Qualifier("employeeReadCoalescer") SingleFlight<String> employeeReadCoalescer,
+			@Qualifier("asyncEmployeeReadCoalescer") SingleFlight<String> asyncEmployeeReadCoalescer) {
+		return registry -> {
+			coalescedCounter(employeeReadCoalescer, "blocking").register(registry);
+			coalescedCounter(asyncEmployeeReadCoalescer, "async").register(registry);
+		};
+	}
+
+	private static FunctionCounter.Builder<SingleFlight<String>> coalescedCounter(SingleFlight<String> coalescer,
+			String client) {
+		return FunctionCounter.builder("employee.client.coalesced", coalescer, SingleFlight::getCoalesced)
+				.description("Employee reads answered from another caller's in-flight request")
+				.tag("client", client);
+	}
+
+	/**
+	 * Default transport: connections to the employee service are kept alive and reused from a pool bounded per
+	 * route, instead of one new connection per call. Idle and expired connections are closed in the background.
+	 */
+	@Configuration
+	@ConditionalOnProperty(name = "employee.client.transport", havingValue = "pooled", matchIfMissing = true)
+	static class PooledTransportConfig {
+
+		@Bean
+		public PoolingHttpClientConnectionManager employeeClientConnectionManager(EmployeeClientProperties properties) {
+			EmployeeClientProperties.Pool pool = properties.getPool();
+			PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(
+					pool.getTimeToLive().toMillis(), TimeUnit.MILLISECONDS);
+			connectionManager.setMaxTotal(pool.getMaxTotal());
+			connectionManager.setDefaultMaxPerRoute(pool.getMaxPerRoute());
+			connectionManager.setValidateAfterInactivity((int) pool.getValidateAfterInactivity().toMillis());
+			return connectionManager;
+		}
+
+		@Bean(destroyMethod = "close")
+		public CloseableHttpClient employeeHttpClient(PoolingHttpClientConnectionManager employeeClientConnectionManager,
+				EmployeeClientProperties properties) {
+			RequestConfig requestConfig = RequestConfig.custom()
+					.setConnectTimeout((int) properties.getConnectTimeout().toMillis())
+					.setSocketTimeout((int) properties.getReadTimeout().toMillis())
+					.setConnectionRequestTimeout((int) properties.getPool().getLeaseTimeout().toMillis())
+					.build();
+			HttpClientBuilder httpClientBuilder = HttpClients.custom()
+					.setConnectionManager(employeeClientConnectionManager)
+					.setDefaultRequestConfig(requestConfig)
+					.evictIdleConnections(properties.getPool().getIdleEviction().toMillis(), TimeUnit.MILLISECONDS)
+					.evictExpiredConnections();
+			// Compression on asks for gzip responses and inflates them, which the client does by default
+			if (!properties.getCompression().isEnabled()) {
+				httpClientBuilder.disableContentCompression();
+			}
+			return httpClientBuilder.build();
+		}
+
+		@Bean
+		public ClientHttpRequestFactory employeeClientRequestFactory(CloseableHttpClient employeeHttpClient) {
+			return new HttpComponentsClientHttpRequestFactory(employeeHttpClient);
+		}
+
+		// httpcomponents.httpclient.pool.* meters: leased and available connections, pending leases, limits
+		@Bean
+		public PoolingHttpClientConnectionManagerMetricsBinder employeeClientPoolMetrics(
+				PoolingHttpClientConnectionManager employeeClientConnectionManager) {
+			return new PoolingHttpClientConnectionManagerMetricsBinder(employeeClientConnectionManager, "employee-service");
+		}
+
+		@Bean
+		public ConnectionPoolEndpoint connectionPoolEndpoint(
+				PoolingHttpClientConnectionManager employeeClientConnectionManager) {
+			return new ConnectionPoolEndpoint(employeeClientConnectionManager);
+		}
+	}
+
+	/**
+	 * HTTP/2 transport on the JDK client: one multiplexed connection per server, negotiated with ALPN over TLS or
+	 * h2c upgrade over plain http, falling back to HTTP/1.1 when the server does not offer HTTP/2.
+	 */
+	@Configuration
+	@ConditionalOnProperty(name = "employee.client.transport", havingValue = "http2")
+	static class Http2TransportConfig {
+
+		@Bean
+		public ClientHttpRequestFactory employeeClientRequestFactory(EmployeeClientProperties properties) {
+			HttpClient httpClient = HttpClient.newBuilder()
+					.version(HttpClient.Version.HTTP_2)
+					.connectTimeout(properties.getConnectTimeout())
+					.build();
+			return new JdkClientHttpRequestFactory(httpClient, properties.getReadTimeout(),
+					properties.getCompression().isEnabled());
+		}
 	}
 
 }
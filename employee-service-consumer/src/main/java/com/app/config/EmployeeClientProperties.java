@@ -0,0 +1,225 @@
+package com.app.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.http.MediaType;
+import org.springframework.util.unit.DataSize;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Transport settings of EmployeeClient (employee.client.*).
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "employee.client")
+public class EmployeeClientProperties {
+
+	public enum Transport {
+		// Apache HttpClient with a pooled, keep-alive connection manager
+		POOLED,
+		// java.net.http.HttpClient, multiplexes requests over one HTTP/2 connection when the server supports it
+		HTTP2
+	}
+
+	public enum WireFormat {
+		JSON(MediaType.APPLICATION_JSON),
+		// Jackson's binary JSON, smaller and cheaper to parse than JSON text
+		SMILE(MediaType.valueOf("application/x-jackson-smile"));
+
+		private final MediaType mediaType;
+
+		WireFormat(MediaType mediaType) {
+			this.mediaType = mediaType;
+		}
+
+		public MediaType getMediaType() {
+			return mediaType;
+		}
+	}
+
+	private Transport transport = Transport.POOLED;
+
+	// Encoding of the bodies both clients exchange with the employee service
+	private WireFormat wireFormat = WireFormat.SMILE;
+
+	private Duration connectTimeout = Duration.ofSeconds(2);
+
+	// Time to wait for the response headers and for each read of its body (socket timeout for the pooled transport)
+	private Duration readTimeout = Duration.ofSeconds(10);
+
+	private final Pool pool = new Pool();
+
+	private final Compression compression = new Compression();
+
+	private final Async async = new Async();
+
+	private final Cache cache = new Cache();
+
+	private final Batch batch = new Batch();
+
+	private final Bulk bulk = new Bulk();
+
+	private final Resilience resilience = new Resilience();
+
+	@Getter
+	@Setter
+	public static class Pool {
+
+		private int maxTotal = 200;
+
+		private int maxPerRoute = 50;
+
+		// Time to wait for a free connection when the route is at its limit
+		private Duration leaseTimeout = Duration.ofSeconds(2);
+
+		// Idle connections are closed by a background evictor after this time
+		private Duration idleEviction = Duration.ofSeconds(30);
+
+		// Connections are not reused past this age, so DNS and load balancer changes are picked up
+		private Duration timeToLive = Duration.ofMinutes(5);
+
+		// Connections idle for longer than this are checked for a half closed socket before reuse
+		private Duration validateAfterInactivity = Duration.ofSeconds(2);
+	}
+
+	@Getter
+	@Setter
+	public static class Compression {
+
+		// Ask for gzip responses and gzip the blocking client's request bodies
+		private boolean enabled = true;
+
+		// Smaller request bodies are sent as they are, compressing them costs more than it saves
+		private DataSize minRequestSize = DataSize.ofKilobytes(2);
+	}
+
+	@Getter
+	@Setter
+	public static class Async {
+
+		// Calls running against the employee service at once, further calls wait in the queue
+		private int maxInFlight = 256;
+
+		// Calls waiting for an in-flight slot, further calls are rejected
+		private int maxQueued = 1024;
+	}
+
+	@Getter
+	@Setter
+	public static class Cache {
+
+		// Response bodies kept for revalidation with If-None-Match, least recently used ones are dropped first
+		private int maxEntries = 1000;
+	}
+
+	@Getter
+	@Setter
+	public static class Batch {
+
+		// Most ids sent in one /getByIds request, larger lookups are split
+		private int maxSize = 100;
+
+		// Merge concurrent getEmployee(id) calls of the async client into /getByIds requests
+		private boolean enabled = false;
+
+		// How long the first id of a batch waits for others to join it
+		private Duration window = Duration.ofMillis(2);
+	}
+
+	@Getter
+	@Setter
+	public static class Bulk {
+
+		// Most employees sent in one /addList request, larger lists are split
+		private int chunkSize = 500;
+
+		// Chunks of one upload sent at once, also the threads sending the chunks of blocking uploads
+		private int parallelism = 4;
+
+		// Sends of a chunk whose connection fails, the first one included. Other failures are not retried as the
+		// service may have added part of the chunk
+		private int maxAttempts = 3;
+	}
+
+	@Getter
+	public static class Resilience {
+
+		private final CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+		private final Bulkhead bulkhead = new Bulkhead();
+
+		private final Retry retry = new Retry();
+
+		private final Hedge hedge = new Hedge();
+	}
+
+	// One breaker per endpoint, only transport errors and 5xx responses count as failures
+	@Getter
+	@Setter
+	public static class CircuitBreaker {
+
+		// Percentage of failed calls in the window that opens the breaker
+		private float failureRateThreshold = 50;
+
+		// Calls the failure rate is computed over
+		private int slidingWindowSize = 20;
+
+		// Calls needed in the window before the failure rate is evaluated
+		private int minimumNumberOfCalls = 10;
+
+		// Time calls are rejected before a few trial calls are let through
+		private Duration waitInOpenState = Duration.ofSeconds(10);
+
+		private int permittedCallsInHalfOpenState = 3;
+	}
+
+	// Concurrency limit of the blocking client, the asynchronous client is bounded by employee.client.async
+	@Getter
+	@Setter
+	public static class Bulkhead {
+
+		private int maxConcurrentCalls = 50;
+
+		// Time a call waits for a free slot before it is rejected
+		private Duration maxWait = Duration.ZERO;
+	}
+
+	// Retries of GET, PUT and DELETE calls after transport errors and 5xx responses, POST calls are never retried
+	@Getter
+	@Setter
+	public static class Retry {
+
+		// Attempts including the first one, 1 disables retries
+		private int maxAttempts = 3;
+
+		private Duration initialBackoff = Duration.ofMillis(50);
+
+		private double backoffMultiplier = 2;
+
+		// Each backoff is drawn at random within this fraction around its exponential value
+		private double jitter = 0.5;
+	}
+
+	// A GET of the asynchronous client that has not answered within the latency percentile of its endpoint is sent
+	// a second time, and the first answer wins
+	@Getter
+	@Setter
+	public static class Hedge {
+
+		private boolean enabled = true;
+
+		private double percentile = 0.95;
+
+		// Hedging starts once an endpoint has this many latency samples
+		private int minSamples = 20;
+
+		// Recent latencies kept per endpoint
+		private int windowSize = 200;
+
+		// Lower bound of the hedge delay, so fast endpoints are not doubled by noise
+		private Duration minDelay = Duration.ofMillis(10);
+	}
+}
@@ -0,0 +1,98 @@
+package com.app.config;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.app.client.EmployeeClientResilience;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.core.IntervalFunction;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedRetryMetrics;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Circuit breakers, retries, bulkhead and hedging of the employee clients, configured under
+ * employee.client.resilience. Their state is published as resilience4j.* and employee.client.hedge.* meters, the
+ * requests themselves as employee.client.requests.
+ */
+@Configuration
+@EnableConfigurationProperties(EmployeeClientProperties.class)
+public class ResilienceConfig {
+
+	@Bean
+	public CircuitBreakerRegistry employeeCircuitBreakerRegistry(EmployeeClientProperties properties) {
+		EmployeeClientProperties.CircuitBreaker circuitBreaker = properties.getResilience().getCircuitBreaker();
+		return CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+				.failureRateThreshold(circuitBreaker.getFailureRateThreshold())
+				.slidingWindowSize(circuitBreaker.getSlidingWindowSize())
+				.minimumNumberOfCalls(circuitBreaker.getMinimumNumberOfCalls())
+				.waitDurationInOpenState(circuitBreaker.getWaitInOpenState())
+				.permittedNumberOfCallsInHalfOpenState(circuitBreaker.getPermittedCallsInHalfOpenState())
+				.recordException(EmployeeClientResilience::isServiceFailure)
+				.build());
+	}
+
+	@Bean
+	public RetryRegistry employeeRetryRegistry(EmployeeClientProperties properties) {
+		EmployeeClientProperties.Retry retry = properties.getResilience().getRetry();
+		return RetryRegistry.of(RetryConfig.custom()
+				.maxAttempts(retry.getMaxAttempts())
+				.intervalFunction(IntervalFunction.ofExponentialRandomBackoff(retry.getInitialBackoff(),
+						retry.getBackoffMultiplier(), retry.getJitter()))
+				.retryOnException(EmployeeClientResilience::isServiceFailure)
+				.build());
+	}
+
+	@Bean
+	public BulkheadRegistry employeeBulkheadRegistry(EmployeeClientProperties properties) {
+		EmployeeClientProperties.Bulkhead bulkhead = properties.getResilience().getBulkhead();
+		return BulkheadRegistry.of(BulkheadConfig.custom()
+				.maxConcurrentCalls(bulkhead.getMaxConcurrentCalls())
+				.maxWaitDuration(bulkhead.getMaxWait())
+				.build());
+	}
+
+	// Retry backoffs and hedge delays of the asynchronous client, never blocks
+	@Bean(destroyMethod = "shutdownNow")
+	public ScheduledExecutorService employeeClientScheduler() {
+		return Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "employee-client-scheduler");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	@Bean
+	public EmployeeClientResilience employeeClientResilience(CircuitBreakerRegistry employeeCircuitBreakerRegistry,
+			RetryRegistry employeeRetryRegistry, BulkheadRegistry employeeBulkheadRegistry,
+			ScheduledExecutorService employeeClientScheduler, EmployeeClientProperties properties) {
+		Bulkhead bulkhead = employeeBulkheadRegistry.bulkhead("employee-service");
+		return new EmployeeClientResilience(employeeCircuitBreakerRegistry, employeeRetryRegistry, bulkhead,
+				employeeClientScheduler, properties.getResilience().getHedge());
+	}
+
+	@Bean
+	public MeterBinder employeeClientResilienceMetrics(CircuitBreakerRegistry employeeCircuitBreakerRegistry,
+			RetryRegistry employeeRetryRegistry, BulkheadRegistry employeeBulkheadRegistry,
+			EmployeeClientResilience employeeClientResilience) {
+		return registry -> {
+			TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(employeeCircuitBreakerRegistry).bindTo(registry);
+			TaggedRetryMetrics.ofRetryRegistry(employeeRetryRegistry).bindTo(registry);
+			TaggedBulkheadMetrics.ofBulkheadRegistry(employeeBulkheadRegistry).bindTo(registry);
+			employeeClientResilience.bindTo(registry);
+		};
+	}
+
+}
@@ -0,0 +1,67 @@
+package com.app.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.app.client.InFlightLimiter;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.netty.channel.ChannelOption;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Non-blocking transport of AsyncEmployeeClient. Reactor Netty keeps its own connection pool, sized and aged with
+ * the same employee.client.pool settings as the blocking transport.
+ */
+@Configuration
+@EnableConfigurationProperties(EmployeeClientProperties.class)
+public class WebClientConfig {
+
+	@Bean(destroyMethod = "dispose")
+	public ConnectionProvider employeeConnectionProvider(EmployeeClientProperties properties) {
+		EmployeeClientProperties.Pool pool = properties.getPool();
+		return ConnectionProvider.builder("employee-service")
+				.maxConnections(pool.getMaxTotal())
+				.pendingAcquireTimeout(pool.getLeaseTimeout())
+				.maxIdleTime(pool.getIdleEviction())
+				.maxLifeTime(pool.getTimeToLive())
+				.evictInBackground(pool.getIdleEviction())
+				.build();
+	}
+
+	@Bean
+	public WebClient employeeWebClient(WebClient.Builder webClientBuilder, ConnectionProvider employeeConnectionProvider,
+			EmployeeClientProperties properties, @Value("${employee.service.url}") String employeeServiceURL) {
+		HttpClient httpClient = HttpClient.create(employeeConnectionProvider)
+				.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+				.responseTimeout(properties.getReadTimeout())
+				.compress(properties.getCompression().isEnabled());
+		return webClientBuilder.baseUrl(employeeServiceURL)
+				.clientConnector(new ReactorClientHttpConnector(httpClient))
+				.build();
+	}
+
+	@Bean
+	public InFlightLimiter employeeClientInFlightLimiter(EmployeeClientProperties properties) {
+		return new InFlightLimiter(properties.getAsync().getMaxInFlight(), properties.getAsync().getMaxQueued());
+	}
+
+	@Bean
+	public MeterBinder employeeClientInFlightMetrics(InFlightLimiter employeeClientInFlightLimiter) {
+		return registry -> {
+			Gauge.builder("employee.client.in.flight", employeeClientInFlightLimiter, InFlightLimiter::getInFlight)
+					.description("Asynchronous calls running against the employee service")
+					.register(registry);
+			Gauge.builder("employee.client.queued", employeeClientInFlightLimiter, InFlightLimiter::getQueued)
+					.description("Asynchronous calls waiting for an in-flight slot")
+					.register(registry);
+		};
+	}
+
+}
@@ -0,0 +1,33 @@
+package com.app.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.util.unit.DataSize;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Smile next to JSON on the consumer's own endpoints, for callers that ask for application/x-jackson-smile; any
+ * Accept header that allows JSON still gets JSON. Responses are gzipped per server.compression and gzip request
+ * bodies are inflated by {@link GzipRequestFilter}, up to gzip-request.max-inflated-size. The wire format towards the employee service is chosen
+ * separately, by employee.client.wire-format.
+ */
+@Configuration
+public class WireFormatConfig {
+
+	@Bean
+	public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(
+			Jackson2ObjectMapperBuilder jackson2ObjectMapperBuilder) {
+		return new MappingJackson2SmileHttpMessageConverter(
+				jackson2ObjectMapperBuilder.createXmlMapper(false).factory(new SmileFactory()).build());
+	}
+
+	@Bean
+	public GzipRequestFilter gzipRequestFilter(
+			@Value("${gzip-request.max-inflated-size:32MB}") DataSize maxInflatedSize) {
+		return new GzipRequestFilter(maxInflatedSize.toBytes());
+	}
+}
@@ -1,8 +1,11 @@
 package com.app.consumer;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -12,59 +15,74 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.app.client.AsyncEmployeeClient;
 import com.app.client.EmployeeClient;
 import com.app.model.Employee;
+import com.app.util.BulkResponseStatus;
 import com.app.util.ResponseStatus;
 
 @RestController
 @RequestMapping("/employee")
 public class EmployeeServiceDataConsumer {
 	
-	private EmployeeClient employeeClient;
+	// Handlers return the client's futures, so the servlet thread is released while the employee service answers
+	private AsyncEmployeeClient employeeClient;
+
+	// Pure proxy endpoints stream the upstream body through instead of mapping it
+	private EmployeeClient passthroughClient;
 	
 	@Autowired
-	public EmployeeServiceDataConsumer(EmployeeClient employeeClient) {
+	public EmployeeServiceDataConsumer(AsyncEmployeeClient employeeClient, EmployeeClient passthroughClient) {
 		this.employeeClient = employeeClient;
+		this.passthroughClient = passthroughClient;
 	}
 	
+	// The body is copied on an async request thread, so the servlet thread is released here as well
 	@GetMapping("/list")
-	public List<Employee> getEmployeeList() {
-		return employeeClient.getEmployeeList();
+	public ResponseEntity<StreamingResponseBody> getEmployeeList() {
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON)
+				.body(passthroughClient::copyEmployeeList);
 	}
 
 	@GetMapping("/getById/{id}")
-	public Employee getEmployee(@PathVariable(value = "id") int employeeId) {
+	public CompletableFuture<Employee> getEmployee(@PathVariable(value = "id") int employeeId) {
 		return employeeClient.getEmployee(employeeId);
 	}
 	
 	@GetMapping("/getByName")
-	public Employee getEmployeeByName(@RequestParam String name) {
+	public CompletableFuture<Employee> getEmployeeByName(@RequestParam String name) {
 		return employeeClient.getEmployeeByName(name);
 	}
 
+	@GetMapping("/getByIds")
+	public CompletableFuture<List<Employee>> getEmployees(@RequestParam List<Integer> ids) {
+		return employeeClient.getEmployees(ids);
+	}
+
 	@PostMapping("/add")
-	public ResponseStatus addEmployee(@RequestBody Employee employee) {
+	public CompletableFuture<ResponseStatus> addEmployee(@RequestBody Employee employee) {
 		return employeeClient.addEmployee(employee);
 	}
 
 	@PostMapping("/addList")
-	public ResponseStatus addEmployees(@RequestBody List<Employee> employees) {
+	public CompletableFuture<BulkResponseStatus> addEmployees(@RequestBody List<Employee> employees) {
 		return employeeClient.addEmployees(employees);
 	}
 
 	@PutMapping("/update")
-	public ResponseStatus updateEmployee(@RequestBody Employee employee) {
+	public CompletableFuture<ResponseStatus> updateEmployee(@RequestBody Employee employee) {
 		return employeeClient.updateEmployee(employee);
 	}
 
 	@DeleteMapping("/delete/{id}")
-	public ResponseStatus deleteEmployee(@PathVariable(value = "id") int employeeId) {
+	public CompletableFuture<ResponseStatus> deleteEmployee(@PathVariable(value = "id") int employeeId) {
 		return employeeClient.deleteEmployee(employeeId);
 	}
 
 	@DeleteMapping("/deleteAll")
-	public ResponseStatus deleteAll() {
+	public CompletableFuture<ResponseStatus> deleteAll() {
 		return employeeClient.deleteAll();
 	}
 
@@ -1,6 +1,7 @@
 package com.app.exceptions;
 
 import org.springframework.web.client.RestClientException;
+import org.springframework.web.reactive.function.client.WebClientException;
 
 public class ClientException extends RuntimeException{
 
@@ -13,6 +14,11 @@ public class ClientException extends RuntimeException{
 		this.clientClass = clientClass;
 	}
 	
+	public ClientException(WebClientException cause, Class<?> clientClass) {
+		super(cause);
+		this.clientClass = clientClass;
+	}
+	
 	public Class<?> getClientClass(){
 		return clientClass;
 	}
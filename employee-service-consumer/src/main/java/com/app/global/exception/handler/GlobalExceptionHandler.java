@@ -0,0 +1,33 @@
+package com.app.global.exception.handler;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import com.app.exceptions.RequestBodyTooLargeException;
+import com.app.util.ErrorResponse;
+
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+
+	@ExceptionHandler(value = RequestBodyTooLargeException.class)
+	public ResponseEntity<ErrorResponse> handleRequestBodyTooLargeException(RequestBodyTooLargeException ex) {
+		return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+				.body(new ErrorResponse(String.valueOf(HttpStatus.PAYLOAD_TOO_LARGE.value()), ex.getMessage()));
+	}
+
+	// Jackson wraps an exception thrown while it reads a JSON value, a body cut off inside a value arrives here.
+	// Anything else is rethrown as is and answered with the default 400 Bad Request
+	@ExceptionHandler(value = HttpMessageNotReadableException.class)
+	public ResponseEntity<ErrorResponse> handleHttpMessageNotReadableException(HttpMessageNotReadableException ex) {
+		for (Throwable cause = ex.getCause(); null != cause; cause = cause.getCause()) {
+			if (cause instanceof RequestBodyTooLargeException) {
+				return handleRequestBodyTooLargeException((RequestBodyTooLargeException) cause);
+			}
+		}
+		throw ex;
+	}
+
+}
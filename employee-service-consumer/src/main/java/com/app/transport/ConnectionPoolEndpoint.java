@@ -0,0 +1,45 @@
+package com.app.transport;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+/**
+ * /actuator/connectionpool: leased, idle and pending connections of the pooled EmployeeClient transport, in total
+ * and per route.
+ */
+@Endpoint(id = "connectionpool")
+public class ConnectionPoolEndpoint {
+
+	private final PoolingHttpClientConnectionManager connectionManager;
+
+	public ConnectionPoolEndpoint(PoolingHttpClientConnectionManager connectionManager) {
+		this.connectionManager = connectionManager;
+	}
+
+	@ReadOperation
+	public Map<String, Object> stats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("total", toMap(connectionManager.getTotalStats()));
+		Map<String, Object> routes = new LinkedHashMap<>();
+		for (HttpRoute route : connectionManager.getRoutes()) {
+			routes.put(route.getTargetHost().toURI(), toMap(connectionManager.getStats(route)));
+		}
+		stats.put("routes", routes);
+		return stats;
+	}
+
+	private static Map<String, Integer> toMap(PoolStats poolStats) {
+		Map<String, Integer> stats = new LinkedHashMap<>();
+		stats.put("leased", poolStats.getLeased());
+		stats.put("idle", poolStats.getAvailable());
+		stats.put("pending", poolStats.getPending());
+		stats.put("max", poolStats.getMax());
+		return stats;
+	}
+}
@@ -0,0 +1,38 @@
+package com.app.transport;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * Sends request bodies of at least minSize bytes gzipped with Content-Encoding: gzip, the employee service inflates
+ * them while reading. Bodies that are already encoded are left alone.
+ */
+public class GzipRequestInterceptor implements ClientHttpRequestInterceptor {
+
+	private final long minSize;
+
+	public GzipRequestInterceptor(long minSize) {
+		this.minSize = minSize;
+	}
+
+	@Override
+	public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+			throws IOException {
+		if (body.length < minSize || request.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)) {
+			return execution.execute(request, body);
+		}
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4);
+		try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+			gzip.write(body);
+		}
+		request.getHeaders().set(HttpHeaders.CONTENT_ENCODING, "gzip");
+		return execution.execute(request, compressed.toByteArray());
+	}
+}
@@ -0,0 +1,249 @@
+package com.app.transport;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.AbstractClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * RestTemplate request factory on top of java.net.http.HttpClient, which Spring 5 does not provide. Request bodies
+ * are buffered, responses are streamed from the client's input stream.
+ * <p>
+ * The read timeout of the JDK client only covers the wait for the response headers, the input stream of the body has
+ * none. Every read of the body is bounded by the read timeout here, like the socket timeout of the pooled transport:
+ * a read that has not returned by then closes the stream and fails with a SocketTimeoutException.
+ */
+public class JdkClientHttpRequestFactory implements ClientHttpRequestFactory {
+
+	// Managed by the JDK client itself, setting them throws IllegalArgumentException
+	private static final Set<String> RESTRICTED_HEADERS = new HashSet<>(
+			Arrays.asList("connection", "content-length", "expect", "host", "upgrade"));
+
+	// Deadlines of the body reads of all factories, cancelled as soon as the read returns
+	private static final ScheduledThreadPoolExecutor READ_DEADLINES = new ScheduledThreadPoolExecutor(1, runnable -> {
+		Thread thread = new Thread(runnable, "jdk-client-read-timeout");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	static {
+		READ_DEADLINES.setRemoveOnCancelPolicy(true);
+	}
+
+	private final HttpClient httpClient;
+
+	private final Duration readTimeout;
+
+	// The JDK client neither asks for nor inflates compressed responses on its own
+	private final boolean acceptGzip;
+
+	public JdkClientHttpRequestFactory(HttpClient httpClient, Duration readTimeout) {
+		this(httpClient, readTimeout, false);
+	}
+
+	public JdkClientHttpRequestFactory(HttpClient httpClient, Duration readTimeout, boolean acceptGzip) {
+		this.httpClient = httpClient;
+		this.readTimeout = readTimeout;
+		this.acceptGzip = acceptGzip;
+	}
+
+	@Override
+	public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) {
+		return new JdkClientHttpRequest(uri, httpMethod);
+	}
+
+	private class JdkClientHttpRequest extends AbstractClientHttpRequest {
+
+		private final URI uri;
+		private final HttpMethod method;
+		private final ByteArrayOutputStream body = new ByteArrayOutputStream(1024);
+
+		private JdkClientHttpRequest(URI uri, HttpMethod method) {
+			this.uri = uri;
+			this.method = method;
+		}
+
+		@Override
+		public String getMethodValue() {
+			return method.name();
+		}
+
+		@Override
+		public URI getURI() {
+			return uri;
+		}
+
+		@Override
+		protected OutputStream getBodyInternal(HttpHeaders headers) {
+			return body;
+		}
+
+		@Override
+		protected ClientHttpResponse executeInternal(HttpHeaders headers) throws IOException {
+			HttpRequest.Builder builder = HttpRequest.newBuilder(uri).timeout(readTimeout);
+			headers.forEach((name, values) -> {
+				if (!RESTRICTED_HEADERS.contains(name.toLowerCase())) {
+					values.forEach(value -> builder.header(name, value));
+				}
+			});
+			if (acceptGzip && !headers.containsKey(HttpHeaders.ACCEPT_ENCODING)) {
+				builder.header(HttpHeaders.ACCEPT_ENCODING, "gzip");
+			}
+			byte[] bytes = body.toByteArray();
+			builder.method(method.name(), bytes.length == 0 ? HttpRequest.BodyPublishers.noBody()
+					: HttpRequest.BodyPublishers.ofByteArray(bytes));
+			try {
+				return new JdkClientHttpResponse(readTimeout, httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofInputStream()));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IOException("Interrupted while waiting for " + method + " " + uri, e);
+			}
+		}
+	}
+
+	private static class JdkClientHttpResponse implements ClientHttpResponse {
+
+		private final HttpResponse<InputStream> response;
+		private final InputStream responseBody;
+		private final HttpHeaders headers = new HttpHeaders();
+		private final boolean gzipped;
+		private InputStream body;
+
+		// A gzip body is inflated while it is read, and described like the plain body the caller gets
+		private JdkClientHttpResponse(Duration readTimeout, HttpResponse<InputStream> response) {
+			this.response = response;
+			this.responseBody = new ReadTimeoutInputStream(response.body(), readTimeout);
+			response.headers().map().forEach(headers::addAll);
+			this.gzipped = "gzip".equalsIgnoreCase(headers.getFirst(HttpHeaders.CONTENT_ENCODING));
+			if (gzipped) {
+				headers.remove(HttpHeaders.CONTENT_ENCODING);
+				headers.remove(HttpHeaders.CONTENT_LENGTH);
+			}
+		}
+
+		@Override
+		public HttpStatus getStatusCode() {
+			return HttpStatus.valueOf(response.statusCode());
+		}
+
+		@Override
+		public int getRawStatusCode() {
+			return response.statusCode();
+		}
+
+		@Override
+		public String getStatusText() {
+			HttpStatus status = HttpStatus.resolve(response.statusCode());
+			return status == null ? "" : status.getReasonPhrase();
+		}
+
+		@Override
+		public HttpHeaders getHeaders() {
+			return headers;
+		}
+
+		@Override
+		public InputStream getBody() throws IOException {
+			if (null == body) {
+				body = gzipped ? new GZIPInputStream(responseBody) : responseBody;
+			}
+			return body;
+		}
+
+		@Override
+		public void close() {
+			try {
+				responseBody.close();
+			} catch (IOException e) {
+				// Nothing left to release, the connection is managed by the client
+			}
+		}
+	}
+
+	// Each read has to return within the timeout, one that does not closes the stream to release the waiting thread
+	private static class ReadTimeoutInputStream extends FilterInputStream {
+
+		private final Duration timeout;
+		private volatile boolean timedOut;
+
+		private ReadTimeoutInputStream(InputStream in, Duration timeout) {
+			super(in);
+			this.timeout = timeout;
+		}
+
+		@Override
+		public int read() throws IOException {
+			return withDeadline(() -> in.read());
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			return withDeadline(() -> in.read(b, off, len));
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			return withDeadline(() -> (int) in.skip(Math.min(n, Integer.MAX_VALUE)));
+		}
+
+		private int withDeadline(Read read) throws IOException {
+			if (timedOut) {
+				throw readTimedOut();
+			}
+			ScheduledFuture<?> deadline = READ_DEADLINES.schedule(this::expire, timeout.toNanos(), TimeUnit.NANOSECONDS);
+			try {
+				int result = read.read();
+				// Closing the stream may end the read as an end of stream instead of an error
+				if (result < 0 && timedOut) {
+					throw readTimedOut();
+				}
+				return result;
+			} catch (IOException e) {
+				// The error is the stream closed by expire, not what went wrong
+				throw timedOut ? readTimedOut() : e;
+			} finally {
+				deadline.cancel(false);
+			}
+		}
+
+		private void expire() {
+			timedOut = true;
+			try {
+				in.close();
+			} catch (IOException e) {
+				// The read fails as timed out either way
+			}
+		}
+
+		private SocketTimeoutException readTimedOut() {
+			return new SocketTimeoutException("Read timed out after " + timeout.toMillis() + " ms");
+		}
+	}
+
+	private interface Read {
+
+		int read() throws IOException;
+	}
+}
@@ -0,0 +1,40 @@
+package com.app.util;
+
+import java.io.Serializable;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Envelope of the employee service responses that carry a payload, the status next to the payload itself.
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class ApiResponse<T> implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private Status status;
+	private T payload;
+
+	@Setter
+	@Getter
+	@NoArgsConstructor
+	@AllArgsConstructor
+	@ToString
+	public static class Status implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private String code;
+		private String message;
+
+	}
+
+}
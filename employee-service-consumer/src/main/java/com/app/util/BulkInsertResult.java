@@ -0,0 +1,29 @@
+package com.app.util;
+
+import java.io.Serializable;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Payload of the /addList response: the counts of every outcome and the outcome of every employee.
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class BulkInsertResult implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private int inserted;
+	private int duplicates;
+	private int failed;
+	private List<EmployeeInsertOutcome> outcomes;
+
+}
@@ -0,0 +1,35 @@
+package com.app.util;
+
+import java.util.List;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Aggregated status of a bulk upload sent in chunks, with the outcome of every chunk and, for the chunks the service
+ * answered, the outcome of every employee. Employees of the other chunks have no outcome: they may or may not have
+ * been added.
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+@ToString(callSuper = true)
+public class BulkResponseStatus extends ResponseStatus {
+
+	private static final long serialVersionUID = 1L;
+
+	private List<ChunkStatus> chunks;
+
+	// Indexes of the outcomes are positions in the uploaded list, not in the chunks
+	private BulkInsertResult result;
+
+	public BulkResponseStatus(String statusCode, String message, String errorMessage, List<ChunkStatus> chunks,
+			BulkInsertResult result) {
+		super(statusCode, message, errorMessage);
+		this.chunks = chunks;
+		this.result = result;
+	}
+
+}
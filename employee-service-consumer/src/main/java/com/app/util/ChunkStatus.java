@@ -0,0 +1,31 @@
+package com.app.util;
+
+import java.io.Serializable;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Outcome of one chunk of a chunked bulk upload: the employees at [from, from + size) of the uploaded list.
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class ChunkStatus implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private int index;
+	private int from;
+	private int size;
+	private int attempts;
+	private boolean succeeded;
+	private String statusCode;
+	private String errorMessage;
+
+}
@@ -0,0 +1,30 @@
+package com.app.util;
+
+import java.io.Serializable;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * What the employee service did with one employee of an /addList request: INSERTED, DUPLICATE or FAILED.
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class EmployeeInsertOutcome implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	// Position of the employee in the uploaded list
+	private int index;
+	private Integer empId;
+	private String empName;
+	private String outcome;
+	private String message;
+
+}
@@ -0,0 +1,195 @@
+package com.app.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.http.codec.CodecsAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.reactive.function.client.WebClientAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import com.app.config.BeansConfig;
+import com.app.config.ResilienceConfig;
+import com.app.config.WebClientConfig;
+import com.app.exceptions.ClientException;
+import com.app.exceptions.EmployeeNotFoundException;
+import com.app.model.Employee;
+import com.app.util.BulkResponseStatus;
+import com.app.util.EmployeeInsertOutcome;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+class AsyncEmployeeClientTests {
+
+	private HttpServer server;
+
+	private ApplicationContextRunner contextRunner;
+
+	private final List<String> idsRequests = new CopyOnWriteArrayList<>();
+
+	@BeforeEach
+	void startServer() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/employee/getById/1", exchange -> respond(exchange, 200,
+				"{\"empId\":1,\"empName\":\"Anil\",\"role\":\"Developer\",\"salary\":1000.0}"));
+		server.createContext("/employee/getById/2", exchange -> respond(exchange, 500, "{}"));
+		server.createContext("/employee/getById/3", exchange -> {
+			String accept = exchange.getRequestHeaders().getFirst("Accept");
+			byte[] response = new ObjectMapper(new SmileFactory())
+					.writeValueAsBytes(Map.of("empId", 3, "empName", "Smile", "dateOfBirth", "1990-01-31"));
+			exchange.getResponseHeaders().add("Content-Type", accept);
+			exchange.sendResponseHeaders(200, response.length);
+			try (OutputStream body = exchange.getResponseBody()) {
+				body.write(response);
+			}
+		});
+		server.createContext("/employee/list", exchange -> respond(exchange, 200,
+				"[{\"empId\":1,\"empName\":\"Anil\"},{\"empId\":2,\"empName\":\"Kumar\"}]"));
+		server.createContext("/employee/getByIds", exchange -> {
+			String ids = exchange.getRequestURI().getQuery().substring("ids=".length());
+			idsRequests.add(ids);
+			// The service's ApiResponse envelope
+			respond(exchange, 200, Arrays.stream(ids.split(",")).filter(id -> !id.equals("404"))
+					.map(id -> "{\"empId\":" + id + ",\"empName\":\"employee-" + id + "\"}")
+					.collect(Collectors.joining(",",
+							"{\"status\":{\"code\":\"200\",\"message\":\"Found employees\"},\"error\":null,\"payload\":[",
+							"]}")));
+		});
+		server.createContext("/employee/addList", exchange -> {
+			exchange.getRequestBody().readAllBytes();
+			// The service's ApiResponse envelope around its BulkInsertResult
+			respond(exchange, 201, "{\"status\":{\"code\":\"201\",\"message\":\"Employees added successfully\"},"
+					+ "\"error\":null,\"payload\":{\"inserted\":1,\"duplicates\":1,\"failed\":0,\"outcomes\":["
+					+ "{\"index\":0,\"empId\":7,\"empName\":\"Anil\",\"outcome\":\"INSERTED\"},"
+					+ "{\"index\":1,\"empName\":\"Kumar\",\"outcome\":\"DUPLICATE\","
+					+ "\"message\":\"Employee already exist with name: Kumar\"}]}}");
+		});
+		server.start();
+		contextRunner = new ApplicationContextRunner()
+				.withConfiguration(AutoConfigurations.of(JacksonAutoConfiguration.class, CodecsAutoConfiguration.class,
+						WebClientAutoConfiguration.class))
+				.withUserConfiguration(BeansConfig.class, WebClientConfig.class, ResilienceConfig.class,
+						AsyncEmployeeClient.class)
+				.withPropertyValues("employee.service.url=http://localhost:" + server.getAddress().getPort() + "/employee");
+	}
+
+	@AfterEach
+	void stopServer() {
+		server.stop(0);
+	}
+
+	@Test
+	void readsEmployeesWithoutBlockingTheCaller() {
+		contextRunner.run(context -> {
+			AsyncEmployeeClient client = context.getBean(AsyncEmployeeClient.class);
+
+			Employee employee = client.getEmployee(1).join();
+			List<Employee> employees = client.getEmployeeList().join();
+
+			assertThat(employee.getEmpName()).isEqualTo("Anil");
+			assertThat(employee.getSalary()).isEqualTo(1000.0);
+			assertThat(employees).extracting(Employee::getEmpId).containsExactly(1, 2);
+			assertThat(context.getBean(InFlightLimiter.class).getInFlight()).isZero();
+		});
+	}
+
+	@Test
+	void asksForSmileByDefault() {
+		contextRunner.run(context -> {
+			Employee employee = context.getBean(AsyncEmployeeClient.class).getEmployee(3).join();
+
+			assertThat(employee.getEmpName()).isEqualTo("Smile");
+			assertThat(employee.getDateOfBirth()).isNotNull();
+		});
+	}
+
+	@Test
+	void sendsRequestBodies() {
+		contextRunner.run(context -> {
+			BulkResponseStatus status = context.getBean(AsyncEmployeeClient.class)
+					.addEmployees(List.of(new Employee(), new Employee())).join();
+
+			assertThat(status.getStatusCode()).isEqualTo("201");
+			assertThat(status.getMessage()).isEqualTo("Employees added successfully");
+			assertThat(status.getResult().getDuplicates()).isEqualTo(1);
+			assertThat(status.getResult().getOutcomes()).extracting(EmployeeInsertOutcome::getOutcome)
+					.containsExactly("INSERTED", "DUPLICATE");
+		});
+	}
+
+	@Test
+	void splitsLookupsByIdsIntoBatchesOfTheMaximumSize() {
+		contextRunner.withPropertyValues("employee.client.batch.max-size=2").run(context -> {
+			List<Employee> employees = context.getBean(AsyncEmployeeClient.class).getEmployees(List.of(3, 1, 404, 3, 5))
+					.join();
+
+			assertThat(employees).extracting(Employee::getEmpId).containsExactly(3, 1, 5);
+			assertThat(idsRequests).containsExactlyInAnyOrder("3,1", "404,5");
+		});
+	}
+
+	@Test
+	void blockingClientUnwrapsTheSameLookupsByIds() {
+		contextRunner.withUserConfiguration(EmployeeClient.class).withPropertyValues("employee.client.batch.max-size=2")
+				.run(context -> {
+					List<Employee> employees = context.getBean(EmployeeClient.class).getEmployees(List.of(3, 1, 404, 5));
+
+					assertThat(employees).extracting(Employee::getEmpName)
+							.containsExactly("employee-3", "employee-1", "employee-5");
+				});
+	}
+
+	@Test
+	void mergesConcurrentLookupsByIdIntoOneBatchRequest() {
+		contextRunner.withPropertyValues("employee.client.batch.enabled=true", "employee.client.batch.window=100ms")
+				.run(context -> {
+					AsyncEmployeeClient client = context.getBean(AsyncEmployeeClient.class);
+
+					CompletableFuture<Employee> first = client.getEmployee(7);
+					CompletableFuture<Employee> second = client.getEmployee(8);
+					CompletableFuture<Employee> missing = client.getEmployee(404);
+
+					assertThat(first.join().getEmpName()).isEqualTo("employee-7");
+					assertThat(second.join().getEmpName()).isEqualTo("employee-8");
+					assertThat(missing.handle((value, error) -> error).join())
+							.isInstanceOf(EmployeeNotFoundException.class);
+					assertThat(idsRequests).containsExactly("7,8,404");
+				});
+	}
+
+	@Test
+	void failsWithClientExceptionOnErrorStatus() {
+		contextRunner.run(context -> {
+			Throwable error = context.getBean(AsyncEmployeeClient.class).getEmployee(2)
+					.handle((value, e) -> e).join();
+
+			assertThat(error).isInstanceOf(ClientException.class);
+		});
+	}
+
+	private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+		byte[] response = json.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+		exchange.sendResponseHeaders(status, response.length);
+		try (OutputStream body = exchange.getResponseBody()) {
+			body.write(response);
+		}
+	}
+
+}
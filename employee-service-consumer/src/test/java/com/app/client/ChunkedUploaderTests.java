@@ -0,0 +1,198 @@
+package com.app.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import com.app.util.ApiResponse;
+import com.app.util.BulkInsertResult;
+import com.app.util.BulkResponseStatus;
+import com.app.util.ChunkStatus;
+import com.app.util.EmployeeInsertOutcome;
+
+class ChunkedUploaderTests {
+
+	private final ChunkedUploader uploader = new ChunkedUploader(3, 2, 3);
+
+	private final Map<Integer, AtomicInteger> sends = new ConcurrentHashMap<>();
+
+	@AfterEach
+	void close() {
+		uploader.close();
+	}
+
+	@Test
+	void sendsChunksWithBoundedParallelism() {
+		List<CompletableFuture<ResponseEntity<ApiResponse<BulkInsertResult>>>> running = new ArrayList<>();
+		List<List<Integer>> sent = new ArrayList<>();
+
+		CompletableFuture<BulkResponseStatus> result = uploader.upload(items(10), chunk -> {
+			CompletableFuture<ResponseEntity<ApiResponse<BulkInsertResult>>> response = new CompletableFuture<>();
+			running.add(response);
+			sent.add(chunk);
+			return response;
+		});
+
+		assertThat(running).hasSize(2);
+		for (int i = 0; i < running.size(); i++) {
+			running.get(i).complete(created(sent.get(i)));
+		}
+
+		assertThat(sent).containsExactly(List.of(0, 1, 2), List.of(3, 4, 5), List.of(6, 7, 8), List.of(9));
+		BulkResponseStatus status = result.join();
+		assertThat(status.getStatusCode()).isEqualTo("200");
+		assertThat(status.getChunks()).extracting(ChunkStatus::getFrom).containsExactly(0, 3, 6, 9);
+		assertThat(status.getChunks()).allMatch(ChunkStatus::isSucceeded);
+	}
+
+	@Test
+	void resendsOnlyTheChunksThatCouldNotBeSent() {
+		BulkResponseStatus status = uploader.uploadBlocking(items(9), chunk -> {
+			if (send(chunk) == 1 && chunk.get(0) == 3) {
+				throw new ResourceAccessException("I/O error", new ConnectException("Connection refused"));
+			}
+			return created(chunk);
+		});
+
+		assertThat(status.getStatusCode()).isEqualTo("200");
+		assertThat(sends).containsOnlyKeys(0, 3, 6);
+		assertThat(sends.get(0)).hasValue(1);
+		assertThat(sends.get(3)).hasValue(2);
+		assertThat(sends.get(6)).hasValue(1);
+		assertThat(status.getChunks()).extracting(ChunkStatus::getAttempts).containsExactly(1, 2, 1);
+	}
+
+	@Test
+	void doesNotResendChunksTheServiceMayHaveAdded() {
+		BulkResponseStatus status = uploader.uploadBlocking(items(12), chunk -> {
+			send(chunk);
+			if (chunk.get(0) == 3) {
+				throw new ResourceAccessException("I/O error", new SocketTimeoutException("Read timed out"));
+			}
+			if (chunk.get(0) == 6) {
+				throw new HttpServerErrorException(HttpStatus.BAD_GATEWAY);
+			}
+			if (chunk.get(0) == 9) {
+				throw new HttpClientErrorException(HttpStatus.BAD_REQUEST);
+			}
+			return created(chunk);
+		});
+
+		assertThat(status.getStatusCode()).isEqualTo("207");
+		assertThat(status.getMessage()).isEqualTo("3 of 4 chunks failed, their employees may not have been added");
+		List<ChunkStatus> chunks = status.getChunks();
+		assertThat(chunks).extracting(ChunkStatus::isSucceeded).containsExactly(true, false, false, false);
+		assertThat(chunks).extracting(ChunkStatus::getStatusCode).containsExactly("201", null, "502", "400");
+		assertThat(chunks).extracting(ChunkStatus::getAttempts).containsExactly(1, 1, 1, 1);
+		assertThat(sends.values()).allMatch(count -> count.get() == 1);
+		assertThat(status.getResult().getOutcomes()).extracting(EmployeeInsertOutcome::getIndex)
+				.containsExactly(0, 1, 2);
+	}
+
+	@Test
+	void givesUpOnAChunkThatCouldNotBeSentAfterMaxAttempts() {
+		BulkResponseStatus status = uploader.uploadBlocking(items(6), chunk -> {
+			send(chunk);
+			if (chunk.get(0) == 3) {
+				throw new ResourceAccessException("I/O error", new ConnectException("Connection refused"));
+			}
+			return created(chunk);
+		});
+
+		assertThat(status.getStatusCode()).isEqualTo("207");
+		assertThat(status.getChunks()).extracting(ChunkStatus::getAttempts).containsExactly(1, 3);
+		assertThat(sends.get(3)).hasValue(3);
+	}
+
+	@Test
+	void returnsTheOutcomeOfEveryEmployeeAtItsPositionInTheUploadedList() {
+		BulkResponseStatus status = uploader.uploadBlocking(items(7), chunk -> {
+			List<EmployeeInsertOutcome> outcomes = new ArrayList<>();
+			for (int i = 0; i < chunk.size(); i++) {
+				boolean duplicate = chunk.get(i) % 2 == 1;
+				outcomes.add(new EmployeeInsertOutcome(i, duplicate ? null : 100 + chunk.get(i), "e" + chunk.get(i),
+						duplicate ? "DUPLICATE" : "INSERTED", null));
+			}
+			int duplicates = (int) chunk.stream().filter(item -> item % 2 == 1).count();
+			return ResponseEntity.status(HttpStatus.CREATED).body(new ApiResponse<>(
+					new ApiResponse.Status("201", "Employees added successfully"),
+					new BulkInsertResult(chunk.size() - duplicates, duplicates, 0, outcomes)));
+		});
+
+		BulkInsertResult result = status.getResult();
+		assertThat(result.getInserted()).isEqualTo(4);
+		assertThat(result.getDuplicates()).isEqualTo(3);
+		assertThat(result.getOutcomes()).extracting(EmployeeInsertOutcome::getIndex)
+				.containsExactly(0, 1, 2, 3, 4, 5, 6);
+		assertThat(result.getOutcomes()).extracting(EmployeeInsertOutcome::getEmpName)
+				.containsExactly("e0", "e1", "e2", "e3", "e4", "e5", "e6");
+		assertThat(result.getOutcomes()).filteredOn(outcome -> "DUPLICATE".equals(outcome.getOutcome()))
+				.extracting(EmployeeInsertOutcome::getIndex).containsExactly(1, 3, 5);
+	}
+
+	@Test
+	void answersWithTheServiceStatusForASingleChunk() {
+		BulkResponseStatus status = uploader.uploadBlocking(items(2), this::created);
+
+		assertThat(status.getStatusCode()).isEqualTo("201");
+		assertThat(status.getMessage()).isEqualTo("Employees added successfully");
+		assertThat(status.getChunks()).hasSize(1);
+		assertThat(status.getResult().getOutcomes()).extracting(EmployeeInsertOutcome::getIndex).containsExactly(0, 1);
+	}
+
+	@Test
+	void failsWithTheFirstErrorWhenEveryChunkFailed() {
+		assertThatThrownBy(() -> uploader.uploadBlocking(items(6), chunk -> {
+			throw new HttpClientErrorException(HttpStatus.BAD_REQUEST);
+		})).isInstanceOf(HttpClientErrorException.class);
+	}
+
+	@Test
+	void doesNotGrowTheStackWhenChunksCompleteSynchronously() {
+		ChunkedUploader smallChunks = new ChunkedUploader(1, 1, 1);
+
+		BulkResponseStatus status = smallChunks
+				.upload(items(50_000), chunk -> CompletableFuture.completedFuture(created(chunk))).join();
+
+		assertThat(status.getChunks()).hasSize(50_000);
+		assertThat(status.getResult().getInserted()).isEqualTo(50_000);
+		smallChunks.close();
+	}
+
+	private int send(List<Integer> chunk) {
+		return sends.computeIfAbsent(chunk.get(0), first -> new AtomicInteger()).incrementAndGet();
+	}
+
+	private static List<Integer> items(int count) {
+		return IntStream.range(0, count).boxed().collect(Collectors.toList());
+	}
+
+	// The service's answer when it added every employee of the chunk
+	private ResponseEntity<ApiResponse<BulkInsertResult>> created(List<Integer> chunk) {
+		List<EmployeeInsertOutcome> outcomes = new ArrayList<>();
+		for (int i = 0; i < chunk.size(); i++) {
+			outcomes.add(new EmployeeInsertOutcome(i, chunk.get(i), "e" + chunk.get(i), "INSERTED", null));
+		}
+		return ResponseEntity.status(HttpStatus.CREATED).body(new ApiResponse<>(
+				new ApiResponse.Status("201", "Employees added successfully"),
+				new BulkInsertResult(chunk.size(), 0, 0, outcomes)));
+	}
+}
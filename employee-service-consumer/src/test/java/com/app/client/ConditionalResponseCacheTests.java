@@ -0,0 +1,111 @@
+package com.app.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.http.codec.CodecsAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.reactive.function.client.WebClientAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import com.app.config.BeansConfig;
+import com.app.config.ResilienceConfig;
+import com.app.config.WebClientConfig;
+import com.app.model.Employee;
+import com.sun.net.httpserver.HttpServer;
+
+class ConditionalResponseCacheTests {
+
+	private HttpServer server;
+
+	private ApplicationContextRunner contextRunner;
+
+	private final AtomicReference<String> currentETag = new AtomicReference<>("\"1\"");
+
+	private final AtomicInteger bodiesSent = new AtomicInteger();
+
+	@BeforeEach
+	void startServer() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/employee/getByName", exchange -> {
+			String eTag = currentETag.get();
+			exchange.getResponseHeaders().add("ETag", eTag);
+			if (eTag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+				exchange.sendResponseHeaders(304, -1);
+				exchange.close();
+				return;
+			}
+			byte[] response = ("{\"empId\":1,\"empName\":\"" + exchange.getRequestURI().getQuery().substring(5)
+					+ "\",\"role\":\"v" + eTag.charAt(1) + "\"}").getBytes(StandardCharsets.UTF_8);
+			bodiesSent.incrementAndGet();
+			exchange.getResponseHeaders().add("Content-Type", "application/json");
+			exchange.sendResponseHeaders(200, response.length);
+			try (OutputStream body = exchange.getResponseBody()) {
+				body.write(response);
+			}
+		});
+		server.start();
+		contextRunner = new ApplicationContextRunner()
+				.withConfiguration(AutoConfigurations.of(JacksonAutoConfiguration.class, CodecsAutoConfiguration.class,
+						WebClientAutoConfiguration.class))
+				.withUserConfiguration(BeansConfig.class, WebClientConfig.class, ResilienceConfig.class,
+						EmployeeClient.class, AsyncEmployeeClient.class)
+				.withPropertyValues("employee.service.url=http://localhost:" + server.getAddress().getPort() + "/employee");
+	}
+
+	@AfterEach
+	void stopServer() {
+		server.stop(0);
+	}
+
+	@Test
+	void revalidatesCachedBodiesAndRefetchesChangedOnes() {
+		contextRunner.run(context -> {
+			EmployeeClient client = context.getBean(EmployeeClient.class);
+			AsyncEmployeeClient asyncClient = context.getBean(AsyncEmployeeClient.class);
+			ConditionalResponseCache cache = context.getBean(ConditionalResponseCache.class);
+
+			Employee first = client.getEmployeeByName("Anil");
+			Employee revalidated = client.getEmployeeByName("Anil");
+			Employee revalidatedAsync = asyncClient.getEmployeeByName("Anil").join();
+
+			assertThat(revalidated).isSameAs(first);
+			assertThat(revalidatedAsync).isSameAs(first);
+			assertThat(bodiesSent).hasValue(1);
+			assertThat(cache.getRevalidated()).isEqualTo(2);
+
+			currentETag.set("\"2\"");
+			Employee changed = asyncClient.getEmployeeByName("Anil").join();
+
+			assertThat(changed.getRole()).isEqualTo("v2");
+			assertThat(client.getEmployeeByName("Anil")).isSameAs(changed);
+			assertThat(bodiesSent).hasValue(2);
+			assertThat(cache.getFetched()).isEqualTo(2);
+			assertThat(cache.getHitRatio()).isEqualTo(0.6);
+		});
+	}
+
+	@Test
+	void dropsTheLeastRecentlyUsedEntryOverTheLimit() {
+		ConditionalResponseCache cache = new ConditionalResponseCache(2);
+		cache.put("/a", "\"1\"", "a");
+		cache.put("/b", "\"1\"", "b");
+		cache.get("/a");
+		cache.put("/c", "\"1\"", "c");
+
+		assertThat(cache.size()).isEqualTo(2);
+		assertThat(cache.get("/b")).isNull();
+		assertThat(cache.get("/a").getBody()).isEqualTo("a");
+	}
+
+}
@@ -0,0 +1,174 @@
+package com.app.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+import com.app.config.EmployeeClientProperties;
+import com.app.config.ResilienceConfig;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class EmployeeClientResilienceTests {
+
+	private final ResilienceConfig config = new ResilienceConfig();
+
+	private final EmployeeClientProperties properties = new EmployeeClientProperties();
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private ScheduledExecutorService scheduler;
+
+	@BeforeEach
+	void createScheduler() {
+		scheduler = Executors.newSingleThreadScheduledExecutor();
+		// Kept above a millisecond even after jitter, the async retry gives up on a delay that rounds down to zero
+		properties.getResilience().getRetry().setInitialBackoff(Duration.ofMillis(5));
+	}
+
+	@AfterEach
+	void stopScheduler() {
+		scheduler.shutdownNow();
+	}
+
+	@Test
+	void retriesIdempotentCallsOnServerErrors() {
+		AtomicInteger attempts = new AtomicInteger();
+
+		String result = resilience().executeBlocking("getById", HttpMethod.GET, () -> {
+			if (attempts.incrementAndGet() < 3) {
+				throw new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE);
+			}
+			return "employee";
+		});
+
+		assertThat(result).isEqualTo("employee");
+		assertThat(attempts).hasValue(3);
+	}
+
+	@Test
+	void neverRetriesPostsOrClientErrors() {
+		EmployeeClientResilience resilience = resilience();
+		AtomicInteger posts = new AtomicInteger();
+		AtomicInteger notFound = new AtomicInteger();
+
+		assertThatThrownBy(() -> resilience.executeBlocking("add", HttpMethod.POST, () -> {
+			posts.incrementAndGet();
+			throw new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR);
+		})).isInstanceOf(HttpServerErrorException.class);
+		assertThatThrownBy(() -> resilience.executeBlocking("getById", HttpMethod.GET, () -> {
+			notFound.incrementAndGet();
+			throw new HttpClientErrorException(HttpStatus.NOT_FOUND);
+		})).isInstanceOf(HttpClientErrorException.class);
+
+		assertThat(posts).hasValue(1);
+		assertThat(notFound).hasValue(1);
+	}
+
+	@Test
+	void opensTheCircuitAfterRepeatedFailures() {
+		properties.getResilience().getCircuitBreaker().setMinimumNumberOfCalls(4);
+		properties.getResilience().getRetry().setMaxAttempts(1);
+		EmployeeClientResilience resilience = resilience();
+		AtomicInteger calls = new AtomicInteger();
+
+		for (int i = 0; i < 4; i++) {
+			assertThatThrownBy(() -> resilience.executeBlocking("list", HttpMethod.GET, () -> {
+				calls.incrementAndGet();
+				throw new HttpServerErrorException(HttpStatus.BAD_GATEWAY);
+			})).isInstanceOf(HttpServerErrorException.class);
+		}
+		assertThatThrownBy(() -> resilience.executeBlocking("list", HttpMethod.GET, () -> "never called"))
+				.isInstanceOf(CallNotPermittedException.class);
+		assertThat(resilience.executeBlocking("getById", HttpMethod.GET, () -> "other endpoint"))
+				.isEqualTo("other endpoint");
+		assertThat(calls).hasValue(4);
+	}
+
+	@Test
+	void hedgesSlowGetsOnceTheEndpointHasALatencyHistory() {
+		EmployeeClientProperties.Hedge hedge = properties.getResilience().getHedge();
+		hedge.setMinSamples(5);
+		hedge.setMinDelay(Duration.ofMillis(5));
+		EmployeeClientResilience resilience = resilience();
+		for (int i = 0; i < 5; i++) {
+			resilience.execute("getById", HttpMethod.GET, () -> CompletableFuture.completedFuture("warm up")).join();
+		}
+		AtomicInteger attempts = new AtomicInteger();
+
+		// The first attempt never answers, the hedged one does
+		String result = resilience.execute("getById", HttpMethod.GET, () -> attempts.incrementAndGet() == 1
+				? new CompletableFuture<String>()
+				: CompletableFuture.completedFuture("hedged")).join();
+
+		assertThat(result).isEqualTo("hedged");
+		assertThat(attempts).hasValue(2);
+		assertThat(resilience.getHedges()).isEqualTo(1);
+		// The win is counted right after the hedged answer is handed to the caller
+		long deadline = System.nanoTime() + Duration.ofSeconds(1).toNanos();
+		while (resilience.getHedgeWins() == 0 && System.nanoTime() < deadline) {
+			Thread.onSpinWait();
+		}
+		assertThat(resilience.getHedgeWins()).isEqualTo(1);
+	}
+
+	@Test
+	void asyncCallsFailWithTheErrorOfTheLastAttempt() {
+		AtomicInteger attempts = new AtomicInteger();
+
+		Throwable error = resilience().execute("delete", HttpMethod.DELETE, () -> {
+			attempts.incrementAndGet();
+			return CompletableFuture.<String>failedFuture(new HttpServerErrorException(HttpStatus.BAD_GATEWAY));
+		}).handle((value, e) -> e).join();
+
+		assertThat(error).isInstanceOf(HttpServerErrorException.class);
+		assertThat(attempts).hasValue(3);
+	}
+
+	@Test
+	void timesEveryAttemptPerEndpointAndOutcome() {
+		AtomicInteger attempts = new AtomicInteger();
+		EmployeeClientResilience resilience = resilience();
+		resilience.bindTo(meterRegistry);
+
+		resilience.executeBlocking("getById", HttpMethod.GET, () -> {
+			if (attempts.incrementAndGet() < 2) {
+				throw new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE);
+			}
+			return "employee";
+		});
+		resilience.execute("list", HttpMethod.GET, () -> CompletableFuture.completedFuture("employees")).join();
+		resilience.execute("getByName", HttpMethod.GET, () -> CompletableFuture.<String>failedFuture(
+				new HttpClientErrorException(HttpStatus.NOT_FOUND))).handle((value, e) -> e).join();
+
+		assertThat(requests("getById", "blocking", "SERVER_ERROR")).isEqualTo(1);
+		assertThat(requests("getById", "blocking", "SUCCESS")).isEqualTo(1);
+		assertThat(requests("list", "async", "SUCCESS")).isEqualTo(1);
+		assertThat(requests("getByName", "async", "CLIENT_ERROR")).isEqualTo(1);
+	}
+
+	private long requests(String endpoint, String client, String outcome) {
+		return meterRegistry.get("employee.client.requests")
+				.tags("endpoint", endpoint, "client", client, "outcome", outcome).timer().count();
+	}
+
+	private EmployeeClientResilience resilience() {
+		return config.employeeClientResilience(config.employeeCircuitBreakerRegistry(properties),
+				config.employeeRetryRegistry(properties), config.employeeBulkheadRegistry(properties), scheduler,
+				properties);
+	}
+}
@@ -0,0 +1,87 @@
+package com.app.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import com.app.config.BeansConfig;
+import com.app.config.ResilienceConfig;
+import com.app.exceptions.ClientException;
+import com.sun.net.httpserver.HttpServer;
+
+class EmployeeListPassthroughTests {
+
+	// Far larger than the copy buffer, sent chunked so the client cannot know its length up front
+	private static final byte[] LIST = IntStream.range(0, 20_000)
+			.mapToObj(id -> "{\"empId\":" + id + ",\"empName\":\"employee-" + id + "\"}")
+			.collect(Collectors.joining(",", "[", "]")).getBytes(StandardCharsets.UTF_8);
+
+	private HttpServer server;
+
+	private ApplicationContextRunner contextRunner;
+
+	@BeforeEach
+	void startServer() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/ok/employee/list", exchange -> {
+			exchange.getResponseHeaders().add("Content-Type", "application/json");
+			exchange.sendResponseHeaders(200, 0);
+			try (OutputStream body = exchange.getResponseBody()) {
+				body.write(LIST);
+			}
+		});
+		server.createContext("/failing/employee/list", exchange -> {
+			exchange.sendResponseHeaders(503, -1);
+			exchange.close();
+		});
+		server.start();
+		contextRunner = new ApplicationContextRunner()
+				.withUserConfiguration(BeansConfig.class, ResilienceConfig.class, EmployeeClient.class)
+				.withPropertyValues("employee.client.passthrough.buffer-size=1024",
+						"employee.client.resilience.circuit-breaker.minimum-number-of-calls=100");
+	}
+
+	@AfterEach
+	void stopServer() {
+		server.stop(0);
+	}
+
+	@Test
+	void copiesTheListBodyByteForByte() {
+		contextRunner.withPropertyValues(serviceUrl("ok")).run(context -> {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+			long copied = context.getBean(EmployeeClient.class).copyEmployeeList(out);
+
+			assertThat(copied).isEqualTo(LIST.length);
+			assertThat(out.toByteArray()).isEqualTo(LIST);
+		});
+	}
+
+	@Test
+	void failsBeforeWritingOnErrorStatus() {
+		contextRunner.withPropertyValues(serviceUrl("failing")).run(context -> {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+			assertThatThrownBy(() -> context.getBean(EmployeeClient.class).copyEmployeeList(out))
+					.isInstanceOf(ClientException.class);
+			assertThat(out.size()).isZero();
+		});
+	}
+
+	private String serviceUrl(String prefix) {
+		return "employee.service.url=http://localhost:" + server.getAddress().getPort() + "/" + prefix + "/employee";
+	}
+}
@@ -0,0 +1,37 @@
+package com.app.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.jupiter.api.Test;
+
+class InFlightLimiterTests {
+
+	@Test
+	void queuesCallsOverTheLimitAndRejectsWhenTheQueueIsFull() {
+		InFlightLimiter limiter = new InFlightLimiter(1, 1);
+		CompletableFuture<String> firstCall = new CompletableFuture<>();
+		CompletableFuture<String> secondCall = new CompletableFuture<>();
+
+		CompletableFuture<String> first = limiter.submit(() -> firstCall);
+		CompletableFuture<String> second = limiter.submit(() -> secondCall);
+		CompletableFuture<String> third = limiter.submit(() -> CompletableFuture.completedFuture("third"));
+
+		assertThat(limiter.getInFlight()).isEqualTo(1);
+		assertThat(limiter.getQueued()).isEqualTo(1);
+		assertThat(third).isCompletedExceptionally();
+		assertThat(third.handle((value, error) -> error).join()).isInstanceOf(RejectedExecutionException.class);
+
+		firstCall.complete("first");
+		assertThat(first).isCompletedWithValue("first");
+		assertThat(limiter.getInFlight()).isEqualTo(1);
+		assertThat(limiter.getQueued()).isZero();
+
+		secondCall.completeExceptionally(new IllegalStateException("second"));
+		assertThat(second).isCompletedExceptionally();
+		assertThat(limiter.getInFlight()).isZero();
+	}
+
+}
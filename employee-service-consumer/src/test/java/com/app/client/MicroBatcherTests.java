@@ -0,0 +1,56 @@
+package com.app.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+class MicroBatcherTests {
+
+	private final List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+
+	// Answers every id but 404
+	private final Function<List<Integer>, CompletableFuture<Map<Integer, String>>> loader = ids -> {
+		batches.add(ids);
+		return CompletableFuture.completedFuture(ids.stream().filter(id -> id != 404)
+				.collect(Collectors.toMap(id -> id, id -> "employee-" + id)));
+	};
+
+	@Test
+	void loadsTheKeysOfOneWindowWithOneBatch() {
+		try (MicroBatcher<Integer, String> batcher = new MicroBatcher<>("test-batcher", Duration.ofMillis(50), 100, loader)) {
+			CompletableFuture<String> first = batcher.load(1);
+			CompletableFuture<String> second = batcher.load(2);
+			CompletableFuture<String> repeated = batcher.load(1);
+			CompletableFuture<String> missing = batcher.load(404);
+
+			assertThat(first.join()).isEqualTo("employee-1");
+			assertThat(second.join()).isEqualTo("employee-2");
+			assertThat(repeated.join()).isEqualTo("employee-1");
+			assertThat(missing.join()).isNull();
+			assertThat(batches).containsExactly(List.of(1, 2, 404));
+			assertThat(batcher.getBatches()).isEqualTo(1);
+			assertThat(batcher.getKeys()).isEqualTo(3);
+		}
+	}
+
+	@Test
+	void sendsAFullBatchWithoutWaitingForTheWindow() {
+		try (MicroBatcher<Integer, String> batcher = new MicroBatcher<>("test-batcher", Duration.ofMinutes(1), 2, loader)) {
+			CompletableFuture<String> first = batcher.load(1);
+			CompletableFuture<String> second = batcher.load(2);
+
+			assertThat(first).isCompletedWithValue("employee-1");
+			assertThat(second).isCompletedWithValue("employee-2");
+			assertThat(batches).containsExactly(List.of(1, 2));
+		}
+	}
+
+}
@@ -0,0 +1,83 @@
+package com.app.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTests {
+
+	@Test
+	void concurrentCallsForTheSameKeyShareOneCall() {
+		SingleFlight<String> singleFlight = new SingleFlight<>();
+		CompletableFuture<String> upstream = new CompletableFuture<>();
+		AtomicInteger calls = new AtomicInteger();
+
+		CompletableFuture<String> first = singleFlight.execute("/getById/1", () -> {
+			calls.incrementAndGet();
+			return upstream;
+		});
+		CompletableFuture<String> second = singleFlight.execute("/getById/1", () -> {
+			calls.incrementAndGet();
+			return CompletableFuture.completedFuture("second");
+		});
+		CompletableFuture<String> otherKey = singleFlight.execute("/getById/2",
+				() -> CompletableFuture.completedFuture("other"));
+
+		second.cancel(true);
+		upstream.complete("first");
+
+		assertThat(calls).hasValue(1);
+		assertThat(first).isCompletedWithValue("first");
+		assertThat(otherKey).isCompletedWithValue("other");
+		assertThat(singleFlight.getCoalesced()).isEqualTo(1);
+		assertThat(singleFlight.getInFlight()).isZero();
+
+		CompletableFuture<String> later = singleFlight.execute("/getById/1",
+				() -> CompletableFuture.completedFuture("later"));
+		assertThat(later).isCompletedWithValue("later");
+	}
+
+	@Test
+	void waitingCallersReceiveTheErrorOfTheSharedCall() throws Exception {
+		SingleFlight<String> singleFlight = new SingleFlight<>();
+		CountDownLatch leaderStarted = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<String> leader = executor.submit(() -> singleFlight.executeBlocking("/getByName?name=Anil", () -> {
+				leaderStarted.countDown();
+				await(release);
+				throw new IllegalStateException("upstream failed");
+			}));
+			assertThat(leaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+			CompletableFuture<String> follower = singleFlight.execute("/getByName?name=Anil",
+					() -> CompletableFuture.completedFuture("not called"));
+			release.countDown();
+
+			assertThatThrownBy(follower::join).hasCauseInstanceOf(IllegalStateException.class);
+			assertThatThrownBy(leader::get).hasCauseInstanceOf(IllegalStateException.class);
+			assertThat(singleFlight.getCoalesced()).isEqualTo(1);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
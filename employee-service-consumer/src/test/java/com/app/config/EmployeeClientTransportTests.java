@@ -0,0 +1,167 @@
+package com.app.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import com.app.transport.ConnectionPoolEndpoint;
+import com.app.transport.JdkClientHttpRequestFactory;
+import com.sun.net.httpserver.HttpServer;
+
+class EmployeeClientTransportTests {
+
+	private HttpServer server;
+
+	private String baseUrl;
+
+	// Holds back the rest of the /stalled body until the test is over
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+			.withUserConfiguration(BeansConfig.class);
+
+	@BeforeEach
+	void startServer() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/echo", exchange -> {
+			byte[] request = exchange.getRequestBody().readAllBytes();
+			byte[] response = (exchange.getRequestMethod() + ":" + new String(request, StandardCharsets.UTF_8))
+					.getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().add("Content-Type", "text/plain");
+			exchange.sendResponseHeaders(200, response.length);
+			try (OutputStream body = exchange.getResponseBody()) {
+				body.write(response);
+			}
+		});
+		// Inflates gzip requests and answers gzipped to clients that accept it, reporting what it saw
+		server.createContext("/gzip", exchange -> {
+			boolean gzipRequest = "gzip".equals(exchange.getRequestHeaders().getFirst("Content-Encoding"));
+			byte[] request = (gzipRequest ? new GZIPInputStream(exchange.getRequestBody())
+					: exchange.getRequestBody()).readAllBytes();
+			byte[] response = ((gzipRequest ? "gzip:" : "plain:") + request.length).repeat(100)
+					.getBytes(StandardCharsets.UTF_8);
+			String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+			exchange.getResponseHeaders().add("Content-Type", "text/plain");
+			if (null != acceptEncoding && acceptEncoding.contains("gzip")) {
+				exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+				exchange.sendResponseHeaders(200, 0);
+				try (OutputStream body = new GZIPOutputStream(exchange.getResponseBody())) {
+					body.write(response);
+				}
+			} else {
+				exchange.sendResponseHeaders(200, response.length);
+				try (OutputStream body = exchange.getResponseBody()) {
+					body.write(response);
+				}
+			}
+		});
+		// Sends the headers and the start of the body, then nothing more
+		server.createContext("/stalled", exchange -> {
+			exchange.getResponseHeaders().add("Content-Type", "text/plain");
+			exchange.sendResponseHeaders(200, 0);
+			try (OutputStream body = exchange.getResponseBody()) {
+				body.write("partial".getBytes(StandardCharsets.UTF_8));
+				body.flush();
+				release.await(30, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		server.setExecutor(Executors.newCachedThreadPool());
+		server.start();
+		baseUrl = "http://localhost:" + server.getAddress().getPort();
+	}
+
+	@AfterEach
+	void stopServer() {
+		release.countDown();
+		server.stop(0);
+	}
+
+	@Test
+	void pooledTransportReusesConnectionsAndReportsPoolStats() {
+		contextRunner.run(context -> {
+			RestTemplate restTemplate = context.getBean(RestTemplate.class);
+			for (int i = 0; i < 3; i++) {
+				assertThat(restTemplate.getForObject(baseUrl + "/echo", String.class)).isEqualTo("GET:");
+			}
+
+			Map<String, Object> stats = context.getBean(ConnectionPoolEndpoint.class).stats();
+			@SuppressWarnings("unchecked")
+			Map<String, Integer> total = (Map<String, Integer>) stats.get("total");
+			assertThat(total).containsEntry("leased", 0).containsEntry("idle", 1).containsEntry("pending", 0)
+					.containsEntry("max", 200);
+			assertThat(((Map<?, ?>) stats.get("routes")).containsKey(baseUrl)).isTrue();
+		});
+	}
+
+	@Test
+	void http2TransportSendsRequestBodies() {
+		contextRunner.withPropertyValues("employee.client.transport=http2").run(context -> {
+			assertThat(context).doesNotHaveBean(ConnectionPoolEndpoint.class);
+			RestTemplate restTemplate = context.getBean(RestTemplate.class);
+			assertThat(context.getBean(ClientHttpRequestFactory.class)).isInstanceOf(JdkClientHttpRequestFactory.class);
+
+			ResponseEntity<String> response = restTemplate.exchange(baseUrl + "/echo", HttpMethod.PUT,
+					new HttpEntity<>("payload"), String.class);
+			assertThat(response.getStatusCodeValue()).isEqualTo(200);
+			assertThat(response.getBody()).isEqualTo("PUT:payload");
+		});
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "pooled", "http2" })
+	void transportsGzipLargeRequestsAndInflateGzipResponses(String transport) {
+		contextRunner.withPropertyValues("employee.client.transport=" + transport).run(context -> {
+			RestTemplate restTemplate = context.getBean(RestTemplate.class);
+			String large = "x".repeat(4096);
+
+			String compressed = restTemplate.postForObject(baseUrl + "/gzip", large, String.class);
+			String plain = restTemplate.postForObject(baseUrl + "/gzip", "small", String.class);
+
+			assertThat(compressed).isEqualTo("gzip:4096".repeat(100));
+			assertThat(plain).isEqualTo("plain:5".repeat(100));
+		});
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "pooled", "http2" })
+	void transportsTimeOutReadsOfAStalledBody(String transport) {
+		contextRunner.withPropertyValues("employee.client.transport=" + transport,
+				"employee.client.read-timeout=300ms").run(context -> {
+			RestTemplate restTemplate = context.getBean(RestTemplate.class);
+			long start = System.nanoTime();
+
+			assertThatThrownBy(() -> restTemplate.execute(baseUrl + "/stalled", HttpMethod.GET, null,
+					response -> StreamUtils.copyToByteArray(response.getBody())))
+					.isInstanceOf(ResourceAccessException.class)
+					.hasRootCauseInstanceOf(SocketTimeoutException.class);
+			assertThat(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start)).isLessThan(10);
+		});
+	}
+}
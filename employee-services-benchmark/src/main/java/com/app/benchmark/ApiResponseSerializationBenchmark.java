@@ -0,0 +1,67 @@
+package com.app.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.app.model.ApiResponse;
+import com.app.model.Employee;
+import com.app.model.Status;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Serialization of the /employee/list response body, with the ObjectMapper set up the way Spring Boot configures
+ * the one used by the message converters.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ApiResponseSerializationBenchmark {
+
+	@Param({ "15", "1000" })
+	private int employees;
+
+	private ObjectMapper objectMapper;
+	private ObjectWriter listResponseWriter;
+	private ApiResponse<List<Employee>> apiResponse;
+
+	@Setup
+	public void setup() {
+		objectMapper = Jackson2ObjectMapperBuilder.json()
+				.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+				.build();
+		listResponseWriter = objectMapper.writerFor(new TypeReference<ApiResponse<List<Employee>>>() {
+		});
+		apiResponse = new ApiResponse<>(new Status("200", "Returning employee records successfully"), null,
+				BenchmarkApplication.employees("json-", 0, employees));
+	}
+
+	@Benchmark
+	public byte[] objectMapper() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(apiResponse);
+	}
+
+	@Benchmark
+	public byte[] typedWriter() throws JsonProcessingException {
+		return listResponseWriter.writeValueAsBytes(apiResponse);
+	}
+}
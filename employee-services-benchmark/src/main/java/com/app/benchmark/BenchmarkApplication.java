@@ -0,0 +1,56 @@
+package com.app.benchmark;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.app.EmployeeApplication;
+import com.app.model.Employee;
+import com.app.service.EmployeeService;
+
+/**
+ * Starts the employee service without the web server, on its own H2 database, for the benchmarks that measure the
+ * service against a populated table. The background seed load is switched off, the benchmarks fill the table
+ * themselves.
+ */
+final class BenchmarkApplication {
+
+	private BenchmarkApplication() {
+	}
+
+	// Properties are passed as command line arguments, default properties would lose to application.properties
+	static ConfigurableApplicationContext start(String... properties) {
+		List<String> args = new ArrayList<>();
+		args.add("--spring.jpa.show-sql=false");
+		args.add("--logging.level.root=WARN");
+		args.add("--employee.seed.on-startup=false");
+		for (String property : properties) {
+			args.add("--" + property);
+		}
+		return new SpringApplicationBuilder(EmployeeApplication.class)
+				.web(WebApplicationType.NONE)
+				.run(args.toArray(new String[0]));
+	}
+
+	// Adds employees until the table holds the requested number of rows
+	static void populate(EmployeeService employeeService, int rows) {
+		int existing = employeeService.getEmployeeList().size();
+		for (int from = existing; from < rows; from += 5000) {
+			employeeService.addEmployees(employees("bench-", from, Math.min(5000, rows - from)));
+		}
+	}
+
+	static List<Employee> employees(String namePrefix, long from, int count) {
+		List<Employee> employees = new ArrayList<>(count);
+		for (long i = from; i < from + count; i++) {
+			employees.add(new Employee(0, namePrefix + i, "Developer", 10000 + (i % 90000),
+					LocalDate.of(1970, 1, 1).plusDays(i % 15000), String.valueOf(9000000000L + i),
+					namePrefix + i + "@test.com", null));
+		}
+		return employees;
+	}
+}
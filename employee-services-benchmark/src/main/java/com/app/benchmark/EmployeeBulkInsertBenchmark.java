@@ -0,0 +1,66 @@
+package com.app.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.app.model.ApiResponse;
+import com.app.model.Employee;
+import com.app.service.EmployeeService;
+
+/**
+ * One addEmployees call per operation with new names every time, so each call inserts the whole batch. The
+ * table is emptied before every iteration to keep the unique name index from growing across iterations.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EmployeeBulkInsertBenchmark {
+
+	@Param({ "10", "500", "5000" })
+	private int batchSize;
+
+	private ConfigurableApplicationContext context;
+	private EmployeeService employeeService;
+	private long nextName;
+
+	@Setup
+	public void setup() {
+		context = BenchmarkApplication.start();
+		employeeService = context.getBean(EmployeeService.class);
+	}
+
+	@Setup(Level.Iteration)
+	public void emptyTable() {
+		employeeService.deleteAll();
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public ApiResponse addEmployees() {
+		List<Employee> employees = BenchmarkApplication.employees("bulk-", nextName, batchSize);
+		nextName += batchSize;
+		return employeeService.addEmployees(employees);
+	}
+}
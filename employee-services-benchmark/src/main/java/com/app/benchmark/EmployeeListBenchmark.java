@@ -0,0 +1,62 @@
+package com.app.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.app.model.Employee;
+import com.app.model.EmployeePage;
+import com.app.service.EmployeeService;
+
+/**
+ * The full table read of getEmployeeList against one keyset page of getEmployeePage, on tables of growing size.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EmployeeListBenchmark {
+
+	@Param({ "100", "10000" })
+	private int rows;
+
+	private ConfigurableApplicationContext context;
+	private EmployeeService employeeService;
+
+	@Setup
+	public void setup() {
+		context = BenchmarkApplication.start();
+		employeeService = context.getBean(EmployeeService.class);
+		BenchmarkApplication.populate(employeeService, rows);
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public List<Employee> getEmployeeList() {
+		return employeeService.getEmployeeList();
+	}
+
+	@Benchmark
+	public EmployeePage getEmployeePage() {
+		return employeeService.getEmployeePage(rows / 2, 100);
+	}
+}
@@ -0,0 +1,67 @@
+package com.app.benchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.app.model.ApiResponse;
+import com.app.model.Employee;
+import com.app.service.EmployeeService;
+
+/**
+ * getEmployee through the service proxy on a populated table, with the Caffeine lookup cache and without it
+ * (cacheType=none), for random existing ids.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EmployeeLookupBenchmark {
+
+	@Param({ "1000", "100000" })
+	private int rows;
+
+	@Param({ "caffeine", "none" })
+	private String cacheType;
+
+	private ConfigurableApplicationContext context;
+	private EmployeeService employeeService;
+
+	// The ids in the table, the pooled sequence leaves gaps and does not have to start at 1
+	private String[] ids;
+
+	@Setup
+	public void setup() {
+		context = BenchmarkApplication.start("spring.cache.type=" + cacheType);
+		employeeService = context.getBean(EmployeeService.class);
+		BenchmarkApplication.populate(employeeService, rows);
+		ids = employeeService.getEmployeeList().stream()
+				.map(employee -> String.valueOf(employee.getEmpId()))
+				.toArray(String[]::new);
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public ApiResponse<Employee> getEmployee() {
+		return employeeService.getEmployee(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+	}
+}
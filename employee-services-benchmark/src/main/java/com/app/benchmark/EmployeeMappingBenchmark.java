@@ -0,0 +1,71 @@
+package com.app.benchmark;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.BeanUtils;
+
+import com.app.entity.EmployeeEntity;
+import com.app.mapper.EmployeeMapper;
+import com.app.mapper.EmployeeMapperImpl;
+import com.app.model.Employee;
+
+/**
+ * Per-row conversion cost of the generated {@link EmployeeMapper} against the BeanUtils.copyProperties path it
+ * replaced in EmployeeServiceImpl.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EmployeeMappingBenchmark {
+
+	private EmployeeMapper employeeMapper;
+	private EmployeeEntity employeeEntity;
+	private Employee employee;
+
+	@Setup
+	public void setup() {
+		employeeMapper = new EmployeeMapperImpl();
+		employeeEntity = new EmployeeEntity(1, "Anil", "TA", 10000, LocalDate.of(1990, 5, 11), "123456789",
+				"anil@gmail.com", 0);
+		employee = employeeMapper.toEmployee(employeeEntity);
+	}
+
+	@Benchmark
+	public Employee mapperToBean() {
+		return employeeMapper.toEmployee(employeeEntity);
+	}
+
+	@Benchmark
+	public Employee beanUtilsToBean() {
+		Employee target = new Employee();
+		BeanUtils.copyProperties(employeeEntity, target);
+		return target;
+	}
+
+	@Benchmark
+	public EmployeeEntity mapperToEntity() {
+		return employeeMapper.toEntity(employee);
+	}
+
+	@Benchmark
+	public EmployeeEntity beanUtilsToEntity() {
+		EmployeeEntity target = new EmployeeEntity();
+		BeanUtils.copyProperties(employee, target);
+		return target;
+	}
+
+}
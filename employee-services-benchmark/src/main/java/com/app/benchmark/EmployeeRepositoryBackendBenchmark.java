@@ -0,0 +1,124 @@
+package com.app.benchmark;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.app.model.ApiResponse;
+import com.app.model.Employee;
+import com.app.service.EmployeeService;
+
+/**
+ * The JPA and the off-heap repository backends (employee.repository.backend) holding the same table: the heap the
+ * loaded table keeps, and what the garbage collector does for it.
+ * <p>
+ * loadTable starts the service on an empty table and adds the rows, once per fork. Its score is the load time, its
+ * retainedHeapBytes and directMemoryBytes counters are read after a full collection once the rows are in, less what
+ * the fork held before the service started. getEmployee reads random ids without the lookup cache, so every call goes
+ * to the repository. The benchmark profile runs with -prof gc, which adds the allocation per operation and the count
+ * and time of the collections to both, for loadTable including the full collections it asks for.
+ */
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EmployeeRepositoryBackendBenchmark {
+
+	@Param({ "jpa", "off-heap" })
+	private String backend;
+
+	@Param({ "100000", "1000000" })
+	private int rows;
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	@Warmup(iterations = 0)
+	@Measurement(iterations = 1)
+	public void loadTable(Footprint footprint) {
+		long heapBefore = heapUsedAfterCollection();
+		long directBefore = directMemoryUsed();
+		try (ConfigurableApplicationContext context = start()) {
+			BenchmarkApplication.populate(context.getBean(EmployeeService.class), rows);
+			footprint.retainedHeapBytes = heapUsedAfterCollection() - heapBefore;
+			footprint.directMemoryBytes = directMemoryUsed() - directBefore;
+		}
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	@Warmup(iterations = 3, time = 2)
+	@Measurement(iterations = 5, time = 2)
+	public ApiResponse<Employee> getEmployee(Table table) {
+		return table.employeeService.getEmployee(table.ids[ThreadLocalRandom.current().nextInt(table.ids.length)]);
+	}
+
+	private ConfigurableApplicationContext start() {
+		return BenchmarkApplication.start("employee.repository.backend=" + backend, "spring.cache.type=none");
+	}
+
+	private static long heapUsedAfterCollection() {
+		System.gc();
+		System.gc();
+		return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+	}
+
+	// The off-heap slabs are direct buffers
+	private static long directMemoryUsed() {
+		return ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+				.filter(pool -> "direct".equals(pool.getName()))
+				.mapToLong(BufferPoolMXBean::getMemoryUsed)
+				.sum();
+	}
+
+	// Events counters are summed over the iterations, loadTable measures a single one
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Footprint {
+
+		public long retainedHeapBytes;
+
+		public long directMemoryBytes;
+	}
+
+	// The populated table of getEmployee, loadTable starts its own
+	@State(Scope.Benchmark)
+	public static class Table {
+
+		private ConfigurableApplicationContext context;
+		private EmployeeService employeeService;
+
+		// The ids in the table, the pooled sequence leaves gaps and does not have to start at 1
+		private String[] ids;
+
+		@Setup
+		public void setup(EmployeeRepositoryBackendBenchmark benchmark) {
+			context = benchmark.start();
+			employeeService = context.getBean(EmployeeService.class);
+			BenchmarkApplication.populate(employeeService, benchmark.rows);
+			ids = employeeService.getEmployeeList().stream()
+					.map(employee -> String.valueOf(employee.getEmpId()))
+					.toArray(String[]::new);
+		}
+
+		@TearDown
+		public void tearDown() {
+			context.close();
+		}
+	}
+}
@@ -1,11 +1,13 @@
 package com.app;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
+import com.app.durable.DurableEmployeeStore;
 import com.app.service.EmployeeService;
 
 @SpringBootApplication
@@ -14,14 +16,24 @@ public class EmployeeApplication implements ApplicationRunner {
 	@Autowired
 	EmployeeService employeeService;
 
+	// Only in durable mode
+	@Autowired(required = false)
+	DurableEmployeeStore durableEmployeeStore;
+
+	@Value("${employee.seed.on-startup:true}")
+	boolean seedOnStartup = true;
+
 	public static void main(String[] args) {
 		SpringApplication.run(EmployeeApplication.class, args);
 	}
 
 	@Override
 	public void run(ApplicationArguments args) throws Exception {
-		if(null != employeeService){
-			employeeService.addDummyData();
+		// A table restored from the durable store is not seeded again
+		boolean restored = null != durableEmployeeStore && durableEmployeeStore.isRestored();
+		if(null != employeeService && seedOnStartup && !restored){
+			// Loaded in the background, progress is published at /actuator/seed
+			employeeService.addDummyDataAsync();
 		}
 	}
 }
@@ -0,0 +1,31 @@
+package com.app.config;
+
+import java.util.concurrent.Executor;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Enables @Async and @Scheduled for the background work of the service. The seed data load gets its own single thread, so a
+ * long load never competes with other async work and two loads never interleave.
+ */
+@Configuration
+@EnableAsync
+@EnableScheduling
+public class AsyncConfig {
+
+	public static final String SEED_EXECUTOR = "seedExecutor";
+
+	@Bean(name = SEED_EXECUTOR)
+	public Executor seedExecutor() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(1);
+		executor.setMaxPoolSize(1);
+		executor.setThreadNamePrefix("employee-seed-");
+		executor.setWaitForTasksToCompleteOnShutdown(false);
+		return executor;
+	}
+}
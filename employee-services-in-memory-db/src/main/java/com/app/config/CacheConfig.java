@@ -0,0 +1,22 @@
+package com.app.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables the employee lookup caches. The caches themselves are Caffeine caches built by Spring Boot from the
+ * {@code spring.cache.*} settings in application.properties (size bound, TTL and statistics recording).
+ * <p>
+ * Ids and names are kept in separate caches so that an id like "1" can never collide with a name "1".
+ * Only found employees are cached, so inserts cannot make an entry stale; updates and deletes evict the id entry
+ * and the whole name cache (the previous name of the row is not known without an extra query). They evict once
+ * before the table version behind the ETags moves and once more after they return.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+	public static final String EMPLOYEES_BY_ID_CACHE = "employeesById";
+	public static final String EMPLOYEES_BY_NAME_CACHE = "employeesByName";
+
+}
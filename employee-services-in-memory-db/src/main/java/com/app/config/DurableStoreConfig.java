@@ -0,0 +1,55 @@
+package com.app.config;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.app.durable.DurableEmployeeStore;
+import com.app.durable.DurableStoreEndpoint;
+import com.app.durable.EmployeeRowLoader;
+import com.app.durable.EmployeeWriteAheadLog;
+import com.app.durable.JdbcEmployeeRowLoader;
+
+/**
+ * Durable mode (employee.durable.*): writes are logged to employee.durable.directory and the table is restored from
+ * there at startup instead of being seeded. Off by default, the table is then lost on every restart as before.
+ */
+@Configuration
+@ConditionalOnProperty(name = "employee.durable.enabled", havingValue = "true")
+public class DurableStoreConfig {
+
+	@Value("${employee.durable.directory:data/employees}")
+	private String directory;
+
+	// Closed on shutdown, which forces what is not synced yet
+	@Bean
+	public EmployeeWriteAheadLog employeeWriteAheadLog(@Value("${employee.durable.sync-on-write:true}") boolean syncOnWrite) {
+		return new EmployeeWriteAheadLog(directoryPath(), syncOnWrite);
+	}
+
+	// Restored into the repository backend when it loads rows itself, like the off-heap one, into the H2 table otherwise
+	@Bean
+	public DurableEmployeeStore durableEmployeeStore(EmployeeWriteAheadLog employeeWriteAheadLog, JdbcTemplate jdbcTemplate,
+			ObjectProvider<EmployeeRowLoader> repositoryRowLoader,
+			@Value("${employee.bulk.chunk-size:500}") int restoreBatchSize,
+			@Value("${employee.durable.compact-after-bytes:67108864}") long compactAfterBytes) {
+		return new DurableEmployeeStore(employeeWriteAheadLog,
+				repositoryRowLoader.getIfAvailable(() -> new JdbcEmployeeRowLoader(jdbcTemplate, restoreBatchSize)),
+				directoryPath(), compactAfterBytes);
+	}
+
+	@Bean
+	public DurableStoreEndpoint durableStoreEndpoint(DurableEmployeeStore durableEmployeeStore) {
+		return new DurableStoreEndpoint(durableEmployeeStore);
+	}
+
+	private Path directoryPath() {
+		return Paths.get(directory);
+	}
+}
@@ -0,0 +1,188 @@
+package com.app.config;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.app.exceptions.RequestBodyTooLargeException;
+
+/**
+ * Inflates request bodies sent with Content-Encoding: gzip while they are read, so large uploads such as /addList
+ * can travel compressed. The handlers see a plain body: the encoding and the compressed length are hidden.
+ * <p>
+ * A few kilobytes of gzip can inflate to gigabytes, so reading past maxInflatedBytes fails the request with 413
+ * Payload Too Large instead of handing the handler an unbounded body.
+ * <p>
+ * employee-service-consumer has the same filter: the two modules are separate builds, keep the copies in step.
+ */
+public class GzipRequestFilter extends OncePerRequestFilter {
+
+	private static final String GZIP = "gzip";
+
+	private final long maxInflatedBytes;
+
+	public GzipRequestFilter(long maxInflatedBytes) {
+		if (maxInflatedBytes < 1) {
+			throw new IllegalArgumentException("Invalid maximum inflated request body size: " + maxInflatedBytes);
+		}
+		this.maxInflatedBytes = maxInflatedBytes;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		String contentEncoding = request.getHeader(HttpHeaders.CONTENT_ENCODING);
+		if (null != contentEncoding && GZIP.equalsIgnoreCase(contentEncoding.trim())) {
+			filterChain.doFilter(new GzipRequest(request, maxInflatedBytes), response);
+		} else {
+			filterChain.doFilter(request, response);
+		}
+	}
+
+	private static final class GzipRequest extends HttpServletRequestWrapper {
+
+		private final long maxInflatedBytes;
+
+		private ServletInputStream inputStream;
+
+		private GzipRequest(HttpServletRequest request, long maxInflatedBytes) {
+			super(request);
+			this.maxInflatedBytes = maxInflatedBytes;
+		}
+
+		@Override
+		public ServletInputStream getInputStream() throws IOException {
+			if (null == inputStream) {
+				inputStream = new GzipInputStream(new GZIPInputStream(super.getInputStream()), maxInflatedBytes);
+			}
+			return inputStream;
+		}
+
+		@Override
+		public BufferedReader getReader() throws IOException {
+			Charset charset = null == getCharacterEncoding() ? StandardCharsets.ISO_8859_1
+					: Charset.forName(getCharacterEncoding());
+			return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+		}
+
+		@Override
+		public int getContentLength() {
+			return -1;
+		}
+
+		@Override
+		public long getContentLengthLong() {
+			return -1;
+		}
+
+		@Override
+		public String getHeader(String name) {
+			return isHidden(name) ? null : super.getHeader(name);
+		}
+
+		@Override
+		public Enumeration<String> getHeaders(String name) {
+			return isHidden(name) ? Collections.emptyEnumeration() : super.getHeaders(name);
+		}
+
+		@Override
+		public Enumeration<String> getHeaderNames() {
+			return Collections.enumeration(Collections.list(super.getHeaderNames()).stream()
+					.filter(name -> !isHidden(name))
+					.collect(Collectors.toList()));
+		}
+
+		private static boolean isHidden(String name) {
+			return HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name)
+					|| HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name);
+		}
+	}
+
+	private static final class GzipInputStream extends ServletInputStream {
+
+		private final InputStream body;
+
+		private final long maxBytes;
+
+		private long inflated;
+
+		private boolean finished;
+
+		private GzipInputStream(InputStream body, long maxBytes) {
+			this.body = body;
+			this.maxBytes = maxBytes;
+		}
+
+		@Override
+		public int read() throws IOException {
+			checkLimit();
+			int read = body.read();
+			finished = read == -1;
+			inflated += finished ? 0 : 1;
+			checkLimit();
+			return read;
+		}
+
+		@Override
+		public int read(byte[] buffer, int offset, int length) throws IOException {
+			checkLimit();
+			// At most one byte past the limit is inflated, enough to tell that the body is over it
+			int read = body.read(buffer, offset, (int) Math.min(length, maxBytes - inflated + 1));
+			finished = read == -1;
+			inflated += Math.max(read, 0);
+			checkLimit();
+			return read;
+		}
+
+		// Not an IOException, which the message converters would answer with 400 Bad Request. Jackson still wraps it
+		// when the limit is hit inside a JSON value, GlobalExceptionHandler finds it in the cause chain
+		private void checkLimit() {
+			if (inflated > maxBytes) {
+				throw new RequestBodyTooLargeException(
+						"Gzip request body inflates to more than " + maxBytes + " bytes");
+			}
+		}
+
+		@Override
+		public boolean isFinished() {
+			return finished;
+		}
+
+		@Override
+		public boolean isReady() {
+			return true;
+		}
+
+		// Only blocking reads are supported, the body is inflated on the reading thread. A non-blocking reader is
+		// told through its error callback, which fails its request like any other read error
+		@Override
+		public void setReadListener(ReadListener readListener) {
+			Objects.requireNonNull(readListener, "readListener");
+			readListener.onError(new IOException("Non-blocking reads of gzip request bodies are not supported"));
+		}
+
+		@Override
+		public void close() throws IOException {
+			body.close();
+		}
+	}
+}
@@ -0,0 +1,138 @@
+package com.app.config;
+
+import java.util.Locale;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.boot.actuate.metrics.web.servlet.WebMvcTagsContributor;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.app.index.EmployeeLookupFilter;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Meters of the service, scraped at /actuator/prometheus:
+ * <ul>
+ * <li>http.server.requests, tagged with the EmployeeController method that handled the request,</li>
+ * <li>employee.api.errors, requests that ended with a 4xx or 5xx, per controller method and status,</li>
+ * <li>employee.service, every EmployeeServiceImpl operation (methods annotated with {@code @Timed}),</li>
+ * <li>spring.data.repository.invocations, every EmployeeRepository query, published by Spring Boot,</li>
+ * <li>cache.hit.ratio next to Spring Boot's cache.gets, per employee lookup cache,</li>
+ * <li>employee.lookup.filter.*, misses answered by the lookup filter and its false positive rate,</li>
+ * <li>employee.offheap.*, slab memory and employees of the off-heap repository, when that is the backend.</li>
+ * </ul>
+ * Which timers carry percentile histograms is set under management.metrics.distribution in application.properties.
+ */
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+	public static final String SERVICE_TIMER = "employee.service";
+
+	private static final String HANDLER_TAG = "handler";
+
+	private final MeterRegistry meterRegistry;
+
+	public MetricsConfig(MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+	}
+
+	// Makes @Timed work on Spring beans, the service methods are timed through it
+	@Bean
+	public TimedAspect timedAspect() {
+		return new TimedAspect(meterRegistry);
+	}
+
+	// Static, like the binder below, so that the meter registry can be built before this configuration
+	@Bean
+	public static WebMvcTagsContributor handlerTagsContributor() {
+		return new WebMvcTagsContributor() {
+
+			@Override
+			public Iterable<Tag> getTags(HttpServletRequest request, HttpServletResponse response, Object handler,
+					Throwable exception) {
+				return Tags.of(HANDLER_TAG, handlerName(handler));
+			}
+
+			@Override
+			public Iterable<Tag> getLongRequestTags(HttpServletRequest request, Object handler) {
+				return Tags.of(HANDLER_TAG, handlerName(handler));
+			}
+		};
+	}
+
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(new HandlerInterceptor() {
+
+			@Override
+			public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+					Exception ex) {
+				int status = response.getStatus();
+				if (status >= 400) {
+					Counter.builder("employee.api.errors")
+							.description("Employee API requests answered with a 4xx or 5xx status")
+							.tags(HANDLER_TAG, handlerName(handler), "status", String.valueOf(status),
+									"outcome", status >= 500 ? "SERVER_ERROR" : "CLIENT_ERROR")
+							.register(meterRegistry).increment();
+				}
+			}
+		});
+	}
+
+	// Share of lookups answered from the cache since startup, Spring Boot publishes the hit and miss counts only
+	@Bean
+	public static MeterBinder cacheHitRatioMetrics(CacheManager cacheManager) {
+		return registry -> cacheManager.getCacheNames().stream()
+				.map(cacheManager::getCache)
+				.filter(CaffeineCache.class::isInstance)
+				.map(CaffeineCache.class::cast)
+				.forEach(cache -> Gauge.builder("cache.hit.ratio", cache, caffeine -> caffeine.getNativeCache().stats().hitRate())
+						.description("Share of cache lookups that found an entry")
+						.tag("cache", cache.getName())
+						.register(registry));
+	}
+
+	@Bean
+	public static MeterBinder lookupFilterMetrics(EmployeeLookupFilter employeeLookupFilter) {
+		return registry -> {
+			for (EmployeeLookupFilter.Key key : EmployeeLookupFilter.Key.values()) {
+				String tag = key.name().toLowerCase(Locale.ROOT);
+				Gauge.builder("employee.lookup.filter.false.positive.rate", employeeLookupFilter,
+						filter -> filter.getExpectedFalsePositiveRate(key))
+						.description("Share of lookups of missing employees the lookup filter lets through, estimated from its fill")
+						.tag("key", tag)
+						.register(registry);
+				FunctionCounter.builder("employee.lookup.filter.rejected", employeeLookupFilter,
+						filter -> filter.getRejected(key))
+						.description("Lookups of missing employees answered without a query")
+						.tag("key", tag)
+						.register(registry);
+				FunctionCounter.builder("employee.lookup.filter.false.positives", employeeLookupFilter,
+						filter -> filter.getFalsePositives(key))
+						.description("Lookups the lookup filter let through that found no employee")
+						.tag("key", tag)
+						.register(registry);
+			}
+		};
+	}
+
+	static String handlerName(Object handler) {
+		return handler instanceof HandlerMethod ? ((HandlerMethod) handler).getMethod().getName() : "none";
+	}
+}
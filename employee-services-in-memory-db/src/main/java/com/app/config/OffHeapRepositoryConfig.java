@@ -0,0 +1,56 @@
+package com.app.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import com.app.offheap.OffHeapEmployeeRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * employee.repository.backend=off-heap keeps the employees in off-heap slabs instead of the H2 table. The JPA
+ * repository is still created, the service and the indexes are given this one as the primary EmployeeRepository. The
+ * table then stays empty, so SQL statements no longer show the employees and are no longer profiled.
+ */
+@Configuration
+@ConditionalOnProperty(name = "employee.repository.backend", havingValue = "off-heap")
+public class OffHeapRepositoryConfig {
+
+	@Bean
+	@Primary
+	public OffHeapEmployeeRepository offHeapEmployeeRepository(@Value("${employee.off-heap.slab-size-mb:64}") int slabSizeMb,
+			@Value("${employee.off-heap.expected-employees:100000}") int expectedEmployees) {
+		return new OffHeapEmployeeRepository(slabSizeMb << 20, expectedEmployees);
+	}
+
+	@Bean
+	public static MeterBinder offHeapRepositoryMetrics(OffHeapEmployeeRepository offHeapEmployeeRepository) {
+		return registry -> {
+			Gauge.builder("employee.offheap.bytes", offHeapEmployeeRepository, OffHeapEmployeeRepository::getCapacityBytes)
+					.description("Off-heap memory allocated for employee records")
+					.tag("state", "capacity")
+					.baseUnit("bytes")
+					.register(registry);
+			Gauge.builder("employee.offheap.bytes", offHeapEmployeeRepository, OffHeapEmployeeRepository::getUsedBytes)
+					.description("Off-heap memory written with employee records, current or replaced")
+					.tag("state", "used")
+					.baseUnit("bytes")
+					.register(registry);
+			Gauge.builder("employee.offheap.bytes", offHeapEmployeeRepository, OffHeapEmployeeRepository::getLiveBytes)
+					.description("Off-heap memory taken by current employee records")
+					.tag("state", "live")
+					.baseUnit("bytes")
+					.register(registry);
+			Gauge.builder("employee.offheap.employees", offHeapEmployeeRepository, OffHeapEmployeeRepository::count)
+					.description("Employees in the off-heap repository")
+					.register(registry);
+			Gauge.builder("employee.offheap.slabs", offHeapEmployeeRepository, OffHeapEmployeeRepository::getSlabCount)
+					.description("Off-heap slabs allocated for employee records")
+					.register(registry);
+		};
+	}
+}
@@ -0,0 +1,74 @@
+package com.app.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import com.app.profiler.ProfilingDataSource;
+import com.app.profiler.QueryProfiler;
+import com.app.profiler.QueryProfilerAspect;
+import com.app.profiler.QueryProfilerEndpoint;
+
+/**
+ * Profiles the SQL statements of the service operations (employee.profiler.*), instead of logging every statement
+ * with spring.jpa.show-sql. The aggregates are served at /actuator/queries, a sample of the calls is logged.
+ */
+@Configuration
+@ConditionalOnProperty(name = "employee.profiler.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryProfilerConfig {
+
+	public static final String PROFILER_LOG_EXECUTOR = "queryProfilerLogExecutor";
+
+	// Log lines wait here for the single log thread, once the queue is full they are dropped
+	@Bean(name = PROFILER_LOG_EXECUTOR)
+	public ThreadPoolTaskExecutor queryProfilerLogExecutor(
+			@Value("${employee.profiler.log-queue-capacity:1000}") int logQueueCapacity) {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(1);
+		executor.setMaxPoolSize(1);
+		executor.setQueueCapacity(logQueueCapacity);
+		executor.setThreadNamePrefix("query-profiler-");
+		executor.setDaemon(true);
+		executor.setWaitForTasksToCompleteOnShutdown(false);
+		return executor;
+	}
+
+	@Bean
+	public QueryProfiler queryProfiler(@Qualifier(PROFILER_LOG_EXECUTOR) ThreadPoolTaskExecutor queryProfilerLogExecutor,
+			@Value("${employee.profiler.sample-rate:0.01}") double sampleRate,
+			@Value("${employee.profiler.n-plus-one-threshold:5}") int nPlusOneThreshold) {
+		return new QueryProfiler(queryProfilerLogExecutor, sampleRate, nPlusOneThreshold);
+	}
+
+	@Bean
+	public QueryProfilerAspect queryProfilerAspect(QueryProfiler queryProfiler) {
+		return new QueryProfilerAspect(queryProfiler);
+	}
+
+	@Bean
+	public QueryProfilerEndpoint queryProfilerEndpoint(QueryProfiler queryProfiler) {
+		return new QueryProfilerEndpoint(queryProfiler);
+	}
+
+	// Static, post processors are created before the other beans of the configuration
+	@Bean
+	public static BeanPostProcessor profilingDataSourcePostProcessor(ObjectProvider<QueryProfiler> queryProfiler) {
+		return new BeanPostProcessor() {
+
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				if (bean instanceof DataSource && !(bean instanceof ProfilingDataSource)) {
+					return new ProfilingDataSource((DataSource) bean, queryProfiler.getObject());
+				}
+				return bean;
+			}
+		};
+	}
+}
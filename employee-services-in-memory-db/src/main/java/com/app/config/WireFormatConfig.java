@@ -0,0 +1,33 @@
+package com.app.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.util.unit.DataSize;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Smile, Jackson's binary JSON, next to JSON for clients that ask for application/x-jackson-smile. JSON stays the
+ * answer to any Accept header that allows it. The Smile mapper is built from the same settings as the JSON one, so
+ * dates and nulls come out the same in both. Response compression is configured under server.compression and
+ * gzip request bodies are inflated by {@link GzipRequestFilter}, up to gzip-request.max-inflated-size.
+ */
+@Configuration
+public class WireFormatConfig {
+
+	@Bean
+	public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(
+			Jackson2ObjectMapperBuilder jackson2ObjectMapperBuilder) {
+		return new MappingJackson2SmileHttpMessageConverter(
+				jackson2ObjectMapperBuilder.createXmlMapper(false).factory(new SmileFactory()).build());
+	}
+
+	@Bean
+	public GzipRequestFilter gzipRequestFilter(
+			@Value("${gzip-request.max-inflated-size:32MB}") DataSize maxInflatedSize) {
+		return new GzipRequestFilter(maxInflatedSize.toBytes());
+	}
+}
@@ -1,17 +1,27 @@
 package com.app.controller;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 import com.app.model.ApiResponse;
+import com.app.model.EmployeePage;
+import com.app.model.EmployeeSearchResult;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.app.model.Employee;
 
@@ -19,13 +29,66 @@ import com.app.model.Employee;
 public interface EmployeeController {
 
 	@GetMapping({ "/list", "/all", "/employees" })
-	public ResponseEntity<ApiResponse<List<Employee>>> getEmployeeList();
+	public ResponseEntity<ApiResponse<List<Employee>>> getEmployeeList(
+			@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+			@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept);
+
+	// Keyset paginated list, pass the "next" cursor of a page as "after" to fetch the following page
+	@GetMapping("/list/page")
+	public ResponseEntity<ApiResponse<EmployeePage>> getEmployeePage(
+			@RequestParam(value = "after", defaultValue = "0") int after,
+			@RequestParam(value = "size", required = false) Integer size);
+
+	// Newline delimited JSON, one employee per line, written while the table is scrolled
+	@GetMapping(value = "/list/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> streamEmployeeList();
+
+	// Range queries answered from the in-memory range index, paged with "page" (from 0) and "size"
+	@GetMapping("/salaryBetween")
+	public ResponseEntity<ApiResponse<EmployeeSearchResult>> getEmployeesBySalaryBetween(
+			@RequestParam("min") double minSalary, @RequestParam("max") double maxSalary,
+			@RequestParam(value = "page", defaultValue = "0") int page,
+			@RequestParam(value = "size", required = false) Integer size);
+
+	@GetMapping("/salaryAtLeast")
+	public ResponseEntity<ApiResponse<EmployeeSearchResult>> getEmployeesBySalaryAtLeast(
+			@RequestParam("min") double minSalary,
+			@RequestParam(value = "page", defaultValue = "0") int page,
+			@RequestParam(value = "size", required = false) Integer size);
+
+	@GetMapping("/salaryBelow")
+	public ResponseEntity<ApiResponse<EmployeeSearchResult>> getEmployeesBySalaryBelow(
+			@RequestParam("max") double maxSalary,
+			@RequestParam(value = "page", defaultValue = "0") int page,
+			@RequestParam(value = "size", required = false) Integer size);
+
+	@GetMapping("/bornBefore")
+	public ResponseEntity<ApiResponse<EmployeeSearchResult>> getEmployeesBornBefore(
+			@RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+			@RequestParam(value = "page", defaultValue = "0") int page,
+			@RequestParam(value = "size", required = false) Integer size);
+
+	// Employees whose mobile number starts with the prefix, ordered by mobile number
+	@GetMapping("/searchByMobilePrefix")
+	public ResponseEntity<ApiResponse<EmployeeSearchResult>> searchByMobilePrefix(
+			@RequestParam("prefix") String prefix,
+			@RequestParam(value = "page", defaultValue = "0") int page,
+			@RequestParam(value = "size", required = false) Integer size);
 
 	@GetMapping("/getById/{id}")
-	public ResponseEntity<ApiResponse> getEmployee(@PathVariable(value = "id") String employeeId);
+	public ResponseEntity<ApiResponse> getEmployee(@PathVariable(value = "id") String employeeId,
+			@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+			@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept);
 	
 	@GetMapping("/getByName")
-	public ResponseEntity<ApiResponse> getEmployeeByName(@RequestParam String name);
+	public ResponseEntity<ApiResponse> getEmployeeByName(@RequestParam String name,
+			@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+			@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept);
+
+	@GetMapping("/getByIds")
+	public ResponseEntity<ApiResponse<List<Employee>>> getEmployees(@RequestParam List<Integer> ids,
+			@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+			@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept);
 
 	@PostMapping("/add")
 	public ResponseEntity<ApiResponse> addEmployee(@RequestBody Employee employee);
@@ -33,8 +96,17 @@ public interface EmployeeController {
 	@PostMapping("/addList")
 	public ResponseEntity<ApiResponse> addEmployees(@RequestBody List<Employee> employees);
 
+	// If-Match "<version>" applies the update to that version of the employee only, * to any version. Without the
+	// header the version in the body, if any, is the condition
 	@PutMapping("/update")
-	public ResponseEntity<ApiResponse> updateEmployee(@RequestBody Employee employee);
+	public ResponseEntity<ApiResponse> updateEmployee(@RequestBody Employee employee,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch);
+
+	// Sets only the fields present in the body, a null value clears the field. If-Match as for /update
+	@PatchMapping("/patch/{id}")
+	public ResponseEntity<ApiResponse> patchEmployee(@PathVariable(value = "id") String employeeId,
+			@RequestBody Map<String, Object> changes,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch);
 
 	@DeleteMapping("/delete/{id}")
 	public ResponseEntity<ApiResponse> deleteEmployee(@PathVariable(value = "id") String employeeId);
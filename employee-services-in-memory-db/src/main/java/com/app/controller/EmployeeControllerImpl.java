@@ -1,18 +1,37 @@
 package com.app.controller;
 
+import java.time.LocalDate;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 
 import com.app.exceptions.DuplicateEmployeeException;
 import com.app.exceptions.EmployeeNotFoundException;
+import com.app.exceptions.EmployeeVersionConflictException;
+import com.app.index.EmployeeLookupFilter;
+import com.app.index.EmployeeTableVersion;
 import com.app.model.ApiResponse;
+import com.app.model.EmployeePage;
+import com.app.model.EmployeeSearchResult;
 import com.app.model.Error;
 import com.app.model.Status;
+import com.app.repository.EmployeeRepositoryCustom;
 import com.app.util.EmpCommonUtil;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.app.model.Employee;
 import com.app.service.EmployeeService;
@@ -20,15 +39,45 @@ import com.app.service.EmployeeService;
 @RestController
 public class EmployeeControllerImpl implements EmployeeController {
 
+    private static final String VERSION_FIELD = "version";
+
+    private static final String SALARY_FIELD = "salary";
+
     private final EmployeeService employeeService;
 
+    private final ObjectMapper objectMapper;
+
+    private final EmployeeTableVersion employeeTableVersion;
+
+    private final EmployeeLookupFilter employeeLookupFilter;
+
+    @Value("${employee.list.default-page-size:100}")
+    private int defaultPageSize = 100;
+
+    @Value("${employee.list.max-page-size:1000}")
+    private int maxPageSize = 1000;
+
+    @Value("${employee.batch.max-ids:1000}")
+    private int maxBatchIds = 1000;
+
+    @Value("${employee.list.stream-fetch-size:500}")
+    private int streamFetchSize = 500;
+
     @Autowired
-    public EmployeeControllerImpl(EmployeeService employeeService) {
+    public EmployeeControllerImpl(EmployeeService employeeService, ObjectMapper objectMapper,
+            EmployeeTableVersion employeeTableVersion, EmployeeLookupFilter employeeLookupFilter) {
         this.employeeService = employeeService;
+        this.objectMapper = objectMapper;
+        this.employeeTableVersion = employeeTableVersion;
+        this.employeeLookupFilter = employeeLookupFilter;
     }
 
     @Override
-    public ResponseEntity<ApiResponse<List<Employee>>> getEmployeeList() {
+    public ResponseEntity<ApiResponse<List<Employee>>> getEmployeeList(String ifNoneMatch, String accept) {
+        String eTag = EmpCommonUtil.representationETag(employeeTableVersion.eTag(), accept);
+        if (EmpCommonUtil.isNotModified(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).varyBy(HttpHeaders.ACCEPT).build();
+        }
         List<Employee> employeeList = employeeService.getEmployeeList();
         ApiResponse<List<Employee>> apiResponse = new ApiResponse<>();
         if(null == employeeList || employeeList.isEmpty()){
@@ -37,34 +86,149 @@ public class EmployeeControllerImpl implements EmployeeController {
             apiResponse.setStatus(new Status("200", "Returning employee records successfully"));
             apiResponse.setPayload(employeeList);
         }
+        return ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT).body(apiResponse);
+    }
+
+    @Override
+    public ResponseEntity<ApiResponse<EmployeePage>> getEmployeePage(int after, Integer size) {
+        if (null != size && size < 1) {
+            return (ResponseEntity) EmpCommonUtil.createBadRequestResponseEntity("Page size should be greater than zero");
+        }
+        ApiResponse<EmployeePage> apiResponse = new ApiResponse<>();
+        apiResponse.setStatus(new Status("200", "Returning employee records page successfully"));
+        apiResponse.setPayload(employeeService.getEmployeePage(after, resolvePageSize(size)));
         return new ResponseEntity<>(apiResponse, HttpStatus.OK);
     }
 
     @Override
-    public ResponseEntity<ApiResponse> getEmployee(String employeeId) {
+    public ResponseEntity<ApiResponse<EmployeeSearchResult>> getEmployeesBySalaryBetween(double minSalary, double maxSalary,
+            int page, Integer size) {
+        if (minSalary > maxSalary) {
+            return (ResponseEntity) EmpCommonUtil.createBadRequestResponseEntity("Minimum salary should not be greater than maximum salary");
+        }
+        return searchResponse(page, size, pageSize -> employeeService.getEmployeesBySalaryBetween(minSalary, maxSalary, page, pageSize));
+    }
+
+    @Override
+    public ResponseEntity<ApiResponse<EmployeeSearchResult>> getEmployeesBySalaryAtLeast(double minSalary, int page, Integer size) {
+        return searchResponse(page, size, pageSize -> employeeService.getEmployeesBySalaryAtLeast(minSalary, page, pageSize));
+    }
+
+    @Override
+    public ResponseEntity<ApiResponse<EmployeeSearchResult>> getEmployeesBySalaryBelow(double maxSalary, int page, Integer size) {
+        return searchResponse(page, size, pageSize -> employeeService.getEmployeesBySalaryBelow(maxSalary, page, pageSize));
+    }
+
+    @Override
+    public ResponseEntity<ApiResponse<EmployeeSearchResult>> getEmployeesBornBefore(LocalDate date, int page, Integer size) {
+        return searchResponse(page, size, pageSize -> employeeService.getEmployeesBornBefore(date, page, pageSize));
+    }
+
+    @Override
+    public ResponseEntity<ApiResponse<EmployeeSearchResult>> searchByMobilePrefix(String prefix, int page, Integer size) {
+        if (StringUtils.isBlank(prefix)) {
+            return (ResponseEntity) EmpCommonUtil.createBadRequestResponseEntity("Mobile number prefix should not be blank");
+        }
+        return searchResponse(page, size, pageSize -> employeeService.searchByMobilePrefix(prefix, page, pageSize));
+    }
+
+    private ResponseEntity<ApiResponse<EmployeeSearchResult>> searchResponse(int page, Integer size,
+            IntFunction<EmployeeSearchResult> search) {
+        if (page < 0) {
+            return (ResponseEntity) EmpCommonUtil.createBadRequestResponseEntity("Page should not be negative");
+        }
+        if (null != size && size < 1) {
+            return (ResponseEntity) EmpCommonUtil.createBadRequestResponseEntity("Page size should be greater than zero");
+        }
+        ApiResponse<EmployeeSearchResult> apiResponse = new ApiResponse<>();
+        apiResponse.setStatus(new Status("200", "Returning matching employee records successfully"));
+        apiResponse.setPayload(search.apply(resolvePageSize(size)));
+        return new ResponseEntity<>(apiResponse, HttpStatus.OK);
+    }
+
+    private int resolvePageSize(Integer size) {
+        return null == size ? defaultPageSize : Math.min(size, maxPageSize);
+    }
+
+    @Override
+    public ResponseEntity<StreamingResponseBody> streamEmployeeList() {
+        ObjectWriter employeeWriter = objectMapper.writerFor(Employee.class);
+        // Rows are read page by page and written straight to the response, so memory stays flat whatever the table size
+        StreamingResponseBody responseBody = outputStream -> {
+            Integer after = 0;
+            while (null != after) {
+                EmployeePage page = employeeService.getEmployeePage(after, streamFetchSize);
+                for (Employee employee : page.getEmployees()) {
+                    outputStream.write(employeeWriter.writeValueAsBytes(employee));
+                    outputStream.write('\n');
+                }
+                outputStream.flush();
+                after = page.getNext();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(responseBody);
+    }
+
+    @Override
+    public ResponseEntity<ApiResponse> getEmployee(String employeeId, String ifNoneMatch, String accept) {
         if (StringUtils.isBlank(employeeId) || !StringUtils.isNumeric(employeeId)) {
             return EmpCommonUtil.createBadRequestResponseEntity("Id should not be blank or non numeric");
         }
+        String eTag = EmpCommonUtil.representationETag(employeeTableVersion.eTag(), accept);
+        if (EmpCommonUtil.isNotModified(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).varyBy(HttpHeaders.ACCEPT).build();
+        }
+        // Ids the lookup filter has never seen are not in the table, no need to ask it
+        if (!employeeLookupFilter.mightContainId(employeeId)) {
+            return EmpCommonUtil.createFailureResponse(HttpStatus.NOT_FOUND, "No employee found with id: " + employeeId, "Get employee by id failed");
+        }
         try {
-            return new ResponseEntity<>(employeeService.getEmployee(employeeId), HttpStatus.OK);
+            return ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT).body(employeeService.getEmployee(employeeId));
         } catch (EmployeeNotFoundException e) {
+            employeeLookupFilter.recordFalsePositive(EmployeeLookupFilter.Key.ID);
             return EmpCommonUtil.createFailureResponse(HttpStatus.NOT_FOUND, e.getMessage(), "Get employee by id failed");
         }
     }
 
     @Override
-    public ResponseEntity<ApiResponse> getEmployeeByName(String name) {
+    public ResponseEntity<ApiResponse> getEmployeeByName(String name, String ifNoneMatch, String accept) {
 
         if (StringUtils.isBlank(name)) {
             return EmpCommonUtil.createBadRequestResponseEntity("Name should not be blank");
         }
+        String eTag = EmpCommonUtil.representationETag(employeeTableVersion.eTag(), accept);
+        if (EmpCommonUtil.isNotModified(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).varyBy(HttpHeaders.ACCEPT).build();
+        }
+        if (!employeeLookupFilter.mightContainName(name)) {
+            return EmpCommonUtil.createFailureResponse(HttpStatus.NOT_FOUND, "No employee found with firstName: " + name, "Get employee by name failed");
+        }
         try {
-            return new ResponseEntity<>(employeeService.getEmployeeByName(name), HttpStatus.OK);
+            return ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT).body(employeeService.getEmployeeByName(name));
         } catch (EmployeeNotFoundException e) {
+            employeeLookupFilter.recordFalsePositive(EmployeeLookupFilter.Key.NAME);
             return EmpCommonUtil.createFailureResponse(HttpStatus.NOT_FOUND, e.getMessage(), "Get employee by name failed");
         }
     }
 
+    @Override
+    public ResponseEntity<ApiResponse<List<Employee>>> getEmployees(List<Integer> ids, String ifNoneMatch, String accept) {
+        if (null == ids || ids.isEmpty() || ids.contains(null)) {
+            return (ResponseEntity) EmpCommonUtil.createBadRequestResponseEntity("Ids should not be empty");
+        }
+        if (ids.size() > maxBatchIds) {
+            return (ResponseEntity) EmpCommonUtil.createBadRequestResponseEntity("At most " + maxBatchIds + " ids are allowed per request");
+        }
+        String eTag = EmpCommonUtil.representationETag(employeeTableVersion.eTag(), accept);
+        if (EmpCommonUtil.isNotModified(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).varyBy(HttpHeaders.ACCEPT).build();
+        }
+        List<Employee> employeeList = employeeService.getEmployees(ids);
+        ApiResponse<List<Employee>> apiResponse = new ApiResponse<>();
+        apiResponse.setStatus(new Status("200", "Found " + employeeList.size() + " employees for " + ids.size() + " ids"));
+        apiResponse.setPayload(employeeList);
+        return ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT).body(apiResponse);
+    }
 
     @Override
     public ResponseEntity<ApiResponse> addEmployee(Employee employee) {
@@ -81,12 +245,87 @@ public class EmployeeControllerImpl implements EmployeeController {
     }
 
     @Override
-    public ResponseEntity<ApiResponse> updateEmployee(Employee employee) {
+    public ResponseEntity<ApiResponse> updateEmployee(Employee employee, String ifMatch) {
+        if (!applyIfMatch(employee, ifMatch)) {
+            return createIfMatchFailureResponse();
+        }
         try{
-            return new ResponseEntity<>(employeeService.updateEmployee(employee), HttpStatus.OK);
+            return updatedResponse(employeeService.updateEmployee(employee));
         }catch(EmployeeNotFoundException e){
             return EmpCommonUtil.createFailureResponse(HttpStatus.FAILED_DEPENDENCY, e.getMessage(), HttpStatus.FAILED_DEPENDENCY.name());
+        }catch(DuplicateEmployeeException e){
+            return EmpCommonUtil.createFailureResponse(HttpStatus.CONFLICT, e.getMessage(), HttpStatus.CONFLICT.name());
+        }catch(EmployeeVersionConflictException e){
+            return EmpCommonUtil.createFailureResponse(HttpStatus.PRECONDITION_FAILED, e.getMessage(), HttpStatus.PRECONDITION_FAILED.name());
+        }
+    }
+
+    @Override
+    public ResponseEntity<ApiResponse> patchEmployee(String employeeId, Map<String, Object> changes, String ifMatch) {
+        if (StringUtils.isBlank(employeeId) || !StringUtils.isNumeric(employeeId)) {
+            return EmpCommonUtil.createBadRequestResponseEntity("Id should not be blank or non numeric");
         }
+        if (null == changes || changes.isEmpty()) {
+            return EmpCommonUtil.createBadRequestResponseEntity("No fields to update");
+        }
+        Set<String> fields = new LinkedHashSet<>(changes.keySet());
+        fields.remove(VERSION_FIELD);
+        List<String> notUpdatable = fields.stream()
+                .filter(field -> !EmployeeRepositoryCustom.UPDATABLE_FIELDS.contains(field))
+                .collect(Collectors.toList());
+        if (!notUpdatable.isEmpty()) {
+            return EmpCommonUtil.createBadRequestResponseEntity("Fields that cannot be updated: " + notUpdatable);
+        }
+        if (fields.contains(SALARY_FIELD) && null == changes.get(SALARY_FIELD)) {
+            return EmpCommonUtil.createBadRequestResponseEntity("Salary should not be null");
+        }
+        Employee employee;
+        try {
+            employee = objectMapper.convertValue(changes, Employee.class);
+        } catch (IllegalArgumentException e) {
+            return EmpCommonUtil.createBadRequestResponseEntity("Invalid field value: " + e.getMessage());
+        }
+        if (!applyIfMatch(employee, ifMatch)) {
+            return createIfMatchFailureResponse();
+        }
+        try {
+            return updatedResponse(employeeService.patchEmployee(Integer.parseInt(employeeId), employee, fields));
+        } catch (EmployeeNotFoundException e) {
+            return EmpCommonUtil.createFailureResponse(HttpStatus.NOT_FOUND, e.getMessage(), "Patch employee by id failed");
+        } catch (DuplicateEmployeeException e) {
+            return EmpCommonUtil.createFailureResponse(HttpStatus.CONFLICT, e.getMessage(), HttpStatus.CONFLICT.name());
+        } catch (EmployeeVersionConflictException e) {
+            return EmpCommonUtil.createFailureResponse(HttpStatus.PRECONDITION_FAILED, e.getMessage(), HttpStatus.PRECONDITION_FAILED.name());
+        }
+    }
+
+    // If-Match takes precedence over the version in the body, * applies the update to whatever version is current.
+    // Returns false for a header that names no version
+    private static boolean applyIfMatch(Employee employee, String ifMatch) {
+        if (null == ifMatch) {
+            return true;
+        }
+        if ("*".equals(ifMatch.trim())) {
+            employee.setVersion(null);
+            return true;
+        }
+        Long version = EmpCommonUtil.parseVersionETag(ifMatch);
+        employee.setVersion(version);
+        return null != version;
+    }
+
+    private static ResponseEntity<ApiResponse> createIfMatchFailureResponse() {
+        return EmpCommonUtil.createFailureResponse(HttpStatus.PRECONDITION_FAILED,
+                "If-Match should be * or the quoted version of the employee", HttpStatus.PRECONDITION_FAILED.name());
+    }
+
+    // The new version is the ETag of the updated employee, when the service knows it
+    private static ResponseEntity<ApiResponse> updatedResponse(ApiResponse apiResponse) {
+        Object payload = apiResponse.getPayload();
+        if (payload instanceof Employee && null != ((Employee) payload).getVersion()) {
+            return ResponseEntity.ok().eTag(EmpCommonUtil.versionETag(((Employee) payload).getVersion())).body(apiResponse);
+        }
+        return new ResponseEntity<>(apiResponse, HttpStatus.OK);
     }
 
     @Override
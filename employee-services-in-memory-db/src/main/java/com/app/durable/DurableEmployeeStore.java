@@ -0,0 +1,160 @@
+package com.app.durable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.app.model.DurableStoreStatus;
+
+/**
+ * Durable mode (employee.durable.*): the in-memory employee table is backed by the {@link EmployeeWriteAheadLog} and
+ * the {@link EmployeeSnapshot}s in one directory.
+ *
+ * Before the application takes requests, the table is restored by streaming the latest snapshot from its mapping,
+ * merged with the log written after it, into the {@link EmployeeRowLoader} of the repository backend. In
+ * the background the log is compacted into a new snapshot once it has grown past compact-after-bytes, so that the log
+ * a restart has to read stays bounded however long the service runs. When the directory holds no state the table
+ * starts empty and the seed data is loaded as before, through the log.
+ */
+public class DurableEmployeeStore implements SmartInitializingSingleton {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(DurableEmployeeStore.class);
+
+	private final EmployeeWriteAheadLog writeAheadLog;
+
+	private final EmployeeRowLoader rowLoader;
+
+	private final Path directory;
+
+	private final long compactAfterBytes;
+
+	private volatile boolean restored;
+
+	private volatile long restoredRows;
+
+	private volatile long restoredLogRecords;
+
+	private volatile long restoreMillis;
+
+	private volatile long snapshotLsn;
+
+	private volatile long snapshotRows;
+
+	private volatile long lastCompactionMillis;
+
+	public DurableEmployeeStore(EmployeeWriteAheadLog writeAheadLog, EmployeeRowLoader rowLoader, Path directory,
+			long compactAfterBytes) {
+		this.writeAheadLog = writeAheadLog;
+		this.rowLoader = rowLoader;
+		this.directory = directory;
+		this.compactAfterBytes = compactAfterBytes;
+	}
+
+	// After every singleton, so the schema exists, and before the web server starts taking requests
+	@Override
+	public void afterSingletonsInstantiated() {
+		try {
+			restore();
+		} catch (IOException e) {
+			// Starting empty would compact the empty table over the state on disk
+			throw new UncheckedIOException("Restore of the employee table from " + directory + " failed", e);
+		}
+	}
+
+	public synchronized void restore() throws IOException {
+		long started = System.nanoTime();
+		Path snapshotFile = EmployeeSnapshot.latest(directory);
+		EmployeeSnapshot snapshot = null == snapshotFile ? null : EmployeeSnapshot.open(snapshotFile);
+		EmployeeLogTail tail = EmployeeLogTail.read(EmployeeWriteAheadLog.segments(directory),
+				null == snapshot ? 0 : snapshot.getLastLsn());
+		restored = null != snapshot || tail.getRecords() > 0;
+		if (restored) {
+			rowLoader.clear();
+			restoredRows = tail.merge(snapshot, rowLoader::load);
+			rowLoader.finish();
+			restoredLogRecords = tail.getRecords();
+		}
+		snapshotLsn = null == snapshot ? 0 : snapshot.getLastLsn();
+		snapshotRows = null == snapshot ? 0 : snapshot.getCount();
+		writeAheadLog.open(tail.getLastLsn() + 1);
+		restoreMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+		LOGGER.info("Restored {} employees from {} ({} snapshot rows, {} log records) in {} ms", restoredRows, directory,
+				snapshotRows, restoredLogRecords, restoreMillis);
+	}
+
+	public boolean isRestored() {
+		return restored;
+	}
+
+	@Scheduled(initialDelayString = "${employee.durable.compact-check-interval-ms:60000}",
+			fixedDelayString = "${employee.durable.compact-check-interval-ms:60000}")
+	public void compactIfDue() {
+		try {
+			if (writeAheadLog.isOpen() && writeAheadLog.getSize() >= compactAfterBytes) {
+				compact();
+			}
+		} catch (IOException | RuntimeException e) {
+			LOGGER.warn("Compaction of the employee write-ahead log failed, the log is kept: {}", e.getMessage());
+		}
+	}
+
+	/**
+	 * Folds the log written up to now into a new snapshot. Writes go on to a new segment meanwhile, the snapshot only
+	 * covers the closed ones, which are deleted with the previous snapshot once the new one is in place.
+	 */
+	public synchronized void compact() throws IOException {
+		long started = System.nanoTime();
+		List<Path> closedSegments = writeAheadLog.rotate();
+		Path previousFile = EmployeeSnapshot.latest(directory);
+		EmployeeSnapshot previous = null == previousFile ? null : EmployeeSnapshot.open(previousFile);
+		EmployeeLogTail tail = EmployeeLogTail.read(closedSegments, null == previous ? 0 : previous.getLastLsn());
+		List<Path> obsolete = new ArrayList<>(closedSegments);
+		if (tail.getRecords() > 0) {
+			try (EmployeeSnapshot.Writer writer = EmployeeSnapshot.create(directory, tail.getLastLsn())) {
+				tail.merge(previous, writer::add);
+				writer.commit();
+				snapshotLsn = tail.getLastLsn();
+				snapshotRows = writer.getCount();
+			}
+			if (null != previousFile) {
+				obsolete.add(previousFile);
+			}
+		}
+		for (Path file : obsolete) {
+			Files.deleteIfExists(file);
+		}
+		lastCompactionMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+		LOGGER.info("Compacted {} log records into a snapshot of {} employees at LSN {} in {} ms", tail.getRecords(),
+				snapshotRows, snapshotLsn, lastCompactionMillis);
+	}
+
+	// Without sync on write, appends are forced to disk at this interval and a crash loses at most that much
+	@Scheduled(fixedDelayString = "${employee.durable.sync-interval-ms:1000}")
+	public void syncLog() {
+		try {
+			writeAheadLog.sync();
+		} catch (IOException e) {
+			LOGGER.warn("Sync of the employee write-ahead log failed: {}", e.getMessage());
+		}
+	}
+
+	public DurableStoreStatus getStatus() {
+		long logBytes;
+		try {
+			logBytes = writeAheadLog.getSize();
+		} catch (IOException e) {
+			logBytes = -1;
+		}
+		return new DurableStoreStatus(directory.toAbsolutePath().toString(), writeAheadLog.getLastLsn(), snapshotLsn,
+				snapshotRows, logBytes, restoredRows, restoredLogRecords, restoreMillis, lastCompactionMillis);
+	}
+}
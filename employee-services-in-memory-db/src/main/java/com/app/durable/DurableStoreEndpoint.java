@@ -0,0 +1,31 @@
+package com.app.durable;
+
+import java.io.IOException;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+
+import com.app.model.DurableStoreStatus;
+
+// /actuator/durable: log and snapshot state of durable mode, POST compacts the log into a snapshot now
+@Endpoint(id = "durable")
+public class DurableStoreEndpoint {
+
+	private final DurableEmployeeStore store;
+
+	public DurableStoreEndpoint(DurableEmployeeStore store) {
+		this.store = store;
+	}
+
+	@ReadOperation
+	public DurableStoreStatus status() {
+		return store.getStatus();
+	}
+
+	@WriteOperation
+	public DurableStoreStatus compact() throws IOException {
+		store.compact();
+		return store.getStatus();
+	}
+}
@@ -0,0 +1,121 @@
+package com.app.durable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The writes logged after a snapshot, folded into the latest state of every row they touch, and merged with the rows
+ * of the snapshot into the current table. Memory holds one entry per row written since the snapshot, never the whole
+ * table, and the merge streams the snapshot in id order.
+ */
+public class EmployeeLogTail {
+
+	// Marks a row deleted since the snapshot, compared by identity
+	private static final ByteBuffer DELETED_ROW = ByteBuffer.allocate(0);
+
+	private final TreeMap<Integer, ByteBuffer> rows = new TreeMap<>();
+
+	private final long afterLsn;
+
+	// The table was cleared since the snapshot, whose rows are all gone
+	private boolean cleared;
+
+	private long lastLsn;
+
+	private long records;
+
+	public EmployeeLogTail(long afterLsn) {
+		this.afterLsn = afterLsn;
+		this.lastLsn = afterLsn;
+	}
+
+	// The records of the segments with an LSN after afterLsn
+	public static EmployeeLogTail read(List<Path> segments, long afterLsn) throws IOException {
+		EmployeeLogTail tail = new EmployeeLogTail(afterLsn);
+		for (Path segment : segments) {
+			EmployeeWriteAheadLog.read(segment, tail.lastLsn, tail::apply);
+		}
+		return tail;
+	}
+
+	public void apply(EmployeeWriteAheadLog.Entry entry) {
+		if (entry.getLsn() <= lastLsn) {
+			return;
+		}
+		switch (entry.getType()) {
+			case EmployeeWriteAheadLog.SAVED:
+				// Copied out of the mapped segment
+				ByteBuffer row = ByteBuffer.allocate(entry.getRecord().remaining()).put(entry.getRecord());
+				row.flip();
+				// The writes of a row are logged in commit order, a save after a delete is the id taken again
+				rows.put(EmployeeRecordCodec.id(row), row);
+				break;
+			case EmployeeWriteAheadLog.DELETED:
+				rows.put(entry.getEmpId(), DELETED_ROW);
+				break;
+			case EmployeeWriteAheadLog.CLEARED:
+				rows.clear();
+				cleared = true;
+				break;
+			default:
+				throw new IllegalStateException("Unknown record type " + entry.getType() + " at LSN " + entry.getLsn());
+		}
+		lastLsn = entry.getLsn();
+		records++;
+	}
+
+	public long getAfterLsn() {
+		return afterLsn;
+	}
+
+	public long getLastLsn() {
+		return lastLsn;
+	}
+
+	public long getRecords() {
+		return records;
+	}
+
+	/**
+	 * Passes every row of the current table to the sink in ascending id order: the rows of the snapshot (none when
+	 * there is no snapshot or the table was cleared since), replaced or removed by the rows written after it.
+	 */
+	public long merge(EmployeeSnapshot snapshot, RowSink sink) throws IOException {
+		long merged = 0;
+		EmployeeSnapshot.Cursor base = null == snapshot || cleared ? null : snapshot.cursor();
+		boolean hasBase = null != base && base.next();
+		Iterator<Map.Entry<Integer, ByteBuffer>> changes = rows.entrySet().iterator();
+		Map.Entry<Integer, ByteBuffer> change = changes.hasNext() ? changes.next() : null;
+		while (hasBase || null != change) {
+			int baseId = hasBase ? EmployeeRecordCodec.id(base.row()) : 0;
+			if (null == change || (hasBase && baseId < change.getKey())) {
+				sink.accept(base.row());
+				merged++;
+				hasBase = base.next();
+				continue;
+			}
+			boolean replacesBase = hasBase && baseId == change.getKey();
+			ByteBuffer row = change.getValue();
+			if (row != DELETED_ROW) {
+				sink.accept(row.duplicate());
+				merged++;
+			}
+			if (replacesBase) {
+				hasBase = base.next();
+			}
+			change = changes.hasNext() ? changes.next() : null;
+		}
+		return merged;
+	}
+
+	@FunctionalInterface
+	public interface RowSink {
+
+		void accept(ByteBuffer row) throws IOException;
+	}
+}
@@ -0,0 +1,181 @@
+package com.app.durable;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import com.app.entity.EmployeeEntity;
+
+/**
+ * Compact binary form of an employee row, shared by the write-ahead log and the snapshots:
+ *
+ * <pre>
+ * int id | long version | double salary | int date of birth (epoch day) | name | role | mobile number | email
+ * </pre>
+ *
+ * Strings are an int byte length, -1 for null, followed by their UTF-8 bytes. The fixed fields come first so that
+ * the id, version, salary and date of birth can be read in place without decoding the record, as can the strings
+ * by skipping over the ones before them.
+ */
+public final class EmployeeRecordCodec {
+
+	public static final int NULL_DATE = Integer.MIN_VALUE;
+
+	public static final int NULL_STRING = -1;
+
+	public static final int NAME = 0;
+
+	public static final int ROLE = 1;
+
+	public static final int MOBILE_NUMBER = 2;
+
+	public static final int EMAIL = 3;
+
+	private static final int VERSION_OFFSET = 4;
+
+	private static final int SALARY_OFFSET = 12;
+
+	private static final int DATE_OF_BIRTH_OFFSET = 20;
+
+	private static final int FIXED_SIZE = 4 + 8 + 8 + 4;
+
+	private EmployeeRecordCodec() {
+	}
+
+	public static byte[] encode(EmployeeEntity employee) {
+		byte[] name = bytes(employee.getEmpName());
+		byte[] role = bytes(employee.getRole());
+		byte[] mobileNumber = bytes(employee.getMobileNumber());
+		byte[] email = bytes(employee.getEmail());
+		ByteBuffer buffer = ByteBuffer.allocate(FIXED_SIZE + size(name) + size(role) + size(mobileNumber) + size(email));
+		buffer.putInt(employee.getEmpId());
+		buffer.putLong(employee.getVersion());
+		buffer.putDouble(employee.getSalary());
+		buffer.putInt(null == employee.getDateOfBirth() ? NULL_DATE : (int) employee.getDateOfBirth().toEpochDay());
+		put(buffer, name);
+		put(buffer, role);
+		put(buffer, mobileNumber);
+		put(buffer, email);
+		return buffer.array();
+	}
+
+	// Decodes the record starting at the buffer's position and moves the position past it
+	public static EmployeeEntity decode(ByteBuffer buffer) {
+		EmployeeEntity employee = new EmployeeEntity();
+		employee.setEmpId(buffer.getInt());
+		employee.setVersion(buffer.getLong());
+		employee.setSalary(buffer.getDouble());
+		int epochDay = buffer.getInt();
+		employee.setDateOfBirth(epochDay == NULL_DATE ? null : LocalDate.ofEpochDay(epochDay));
+		employee.setEmpName(string(buffer));
+		employee.setRole(string(buffer));
+		employee.setMobileNumber(string(buffer));
+		employee.setEmail(string(buffer));
+		return employee;
+	}
+
+	// Decodes the record at an absolute offset, the buffer's position is left as it is
+	public static EmployeeEntity decode(ByteBuffer buffer, int offset) {
+		ByteBuffer record = buffer.duplicate();
+		record.position(offset);
+		return decode(record);
+	}
+
+	public static int id(ByteBuffer record) {
+		return id(record, record.position());
+	}
+
+	public static long version(ByteBuffer record) {
+		return version(record, record.position());
+	}
+
+	// The accessors below read one field of the record at an absolute offset in place, without decoding it
+
+	public static int id(ByteBuffer buffer, int offset) {
+		return buffer.getInt(offset);
+	}
+
+	public static long version(ByteBuffer buffer, int offset) {
+		return buffer.getLong(offset + VERSION_OFFSET);
+	}
+
+	public static double salary(ByteBuffer buffer, int offset) {
+		return buffer.getDouble(offset + SALARY_OFFSET);
+	}
+
+	// Epoch day of the date of birth, NULL_DATE when there is none
+	public static int epochDayOfBirth(ByteBuffer buffer, int offset) {
+		return buffer.getInt(offset + DATE_OF_BIRTH_OFFSET);
+	}
+
+	/**
+	 * Offset of the UTF-8 bytes of a string field (NAME, ROLE, MOBILE_NUMBER or EMAIL), whose byte length, or
+	 * NULL_STRING, is the int just before it.
+	 */
+	public static int stringOffset(ByteBuffer buffer, int offset, int field) {
+		int position = offset + FIXED_SIZE;
+		for (int i = 0; i < field; i++) {
+			position += 4 + Math.max(0, buffer.getInt(position));
+		}
+		return position + 4;
+	}
+
+	public static boolean stringStartsWith(ByteBuffer buffer, int offset, int field, byte[] prefix) {
+		int position = stringOffset(buffer, offset, field);
+		int length = buffer.getInt(position - 4);
+		if (length < prefix.length) {
+			return false;
+		}
+		for (int i = 0; i < prefix.length; i++) {
+			if (buffer.get(position + i) != prefix[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public static boolean stringEquals(ByteBuffer buffer, int offset, int field, byte[] value) {
+		int position = stringOffset(buffer, offset, field);
+		return buffer.getInt(position - 4) == value.length && stringStartsWith(buffer, offset, field, value);
+	}
+
+	// Size of the encoded record that starts at the offset
+	public static int size(ByteBuffer buffer, int offset) {
+		int end = stringOffset(buffer, offset, EMAIL);
+		return end - offset + Math.max(0, buffer.getInt(end - 4));
+	}
+
+	private static byte[] bytes(String value) {
+		return null == value ? null : value.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static int size(byte[] value) {
+		return 4 + (null == value ? 0 : value.length);
+	}
+
+	private static void put(ByteBuffer buffer, byte[] value) {
+		if (null == value) {
+			buffer.putInt(NULL_STRING);
+		} else {
+			buffer.putInt(value.length);
+			buffer.put(value);
+		}
+	}
+
+	private static String string(ByteBuffer buffer) {
+		int length = buffer.getInt();
+		if (length == NULL_STRING) {
+			return null;
+		}
+		String value;
+		if (buffer.hasArray()) {
+			value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+		} else {
+			byte[] bytes = new byte[length];
+			buffer.duplicate().get(bytes);
+			value = new String(bytes, StandardCharsets.UTF_8);
+		}
+		buffer.position(buffer.position() + length);
+		return value;
+	}
+}
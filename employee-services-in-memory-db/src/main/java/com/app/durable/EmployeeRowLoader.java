@@ -0,0 +1,19 @@
+package com.app.durable;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Where a restore puts the rows of the snapshot and the log after it: the EMPLOYEE table of the JPA backend
+ * ({@link JdbcEmployeeRowLoader}) or the off-heap repository.
+ */
+public interface EmployeeRowLoader {
+
+	// Drops whatever is held, before the first row
+	void clear();
+
+	// One row in EmployeeRecordCodec form, rows arrive in ascending id order
+	void load(ByteBuffer row);
+
+	// Every row is loaded, ids handed out from now on have to be above the loaded ones
+	void finish();
+}
@@ -0,0 +1,231 @@
+package com.app.durable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Compacted image of the EMPLOYEE table as of one LSN of the write-ahead log, the rows in {@link EmployeeRecordCodec}
+ * form in ascending id order:
+ *
+ * <pre>
+ * int magic | int format | long last LSN | long row count | (int length | row)*
+ * </pre>
+ *
+ * A snapshot is written to a temporary file and moved into place once complete, so a snapshot that exists is whole.
+ * It is read through a read-only memory mapping, one file of up to 2 GB.
+ */
+public class EmployeeSnapshot {
+
+	private static final int MAGIC = 0x454D5053;
+
+	private static final int FORMAT = 1;
+
+	private static final int HEADER = 4 + 4 + 8 + 8;
+
+	private static final String SNAPSHOT_PREFIX = "employees-";
+
+	private static final String SNAPSHOT_SUFFIX = ".snapshot";
+
+	private final Path file;
+
+	private final MappedByteBuffer buffer;
+
+	private final long lastLsn;
+
+	private final long count;
+
+	private EmployeeSnapshot(Path file, MappedByteBuffer buffer, long lastLsn, long count) {
+		this.file = file;
+		this.buffer = buffer;
+		this.lastLsn = lastLsn;
+		this.count = count;
+	}
+
+	public static EmployeeSnapshot open(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE) {
+				throw new IOException("Snapshot " + file + " is larger than a single mapping of 2 GB");
+			}
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			if (buffer.remaining() < HEADER || buffer.getInt() != MAGIC || buffer.getInt() != FORMAT) {
+				throw new IOException("Not an employee snapshot: " + file);
+			}
+			return new EmployeeSnapshot(file, buffer, buffer.getLong(), buffer.getLong());
+		}
+	}
+
+	// The most recent snapshot in the directory, null when there is none
+	public static Path latest(Path directory) throws IOException {
+		List<Path> snapshots = snapshots(directory);
+		return snapshots.isEmpty() ? null : snapshots.get(snapshots.size() - 1);
+	}
+
+	// Snapshots in LSN order
+	public static List<Path> snapshots(Path directory) throws IOException {
+		if (!Files.isDirectory(directory)) {
+			return new ArrayList<>();
+		}
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.filter(path -> isSnapshot(path.getFileName().toString()))
+					.sorted((a, b) -> Long.compare(lastLsn(a), lastLsn(b)))
+					.collect(Collectors.toList());
+		}
+	}
+
+	public static Writer create(Path directory, long lastLsn) throws IOException {
+		return new Writer(directory.resolve(String.format("%s%020d%s", SNAPSHOT_PREFIX, lastLsn, SNAPSHOT_SUFFIX)), lastLsn);
+	}
+
+	public Path getFile() {
+		return file;
+	}
+
+	public long getLastLsn() {
+		return lastLsn;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public Cursor cursor() {
+		ByteBuffer rows = buffer.duplicate();
+		rows.position(HEADER);
+		return new Cursor(rows);
+	}
+
+	private static boolean isSnapshot(String fileName) {
+		return fileName.startsWith(SNAPSHOT_PREFIX) && fileName.endsWith(SNAPSHOT_SUFFIX);
+	}
+
+	private static long lastLsn(Path snapshot) {
+		String fileName = snapshot.getFileName().toString();
+		return Long.parseLong(fileName.substring(SNAPSHOT_PREFIX.length(), fileName.length() - SNAPSHOT_SUFFIX.length()));
+	}
+
+	/**
+	 * Steps through the rows in id order. The row is a view of the mapping, valid until the next call to next().
+	 */
+	public static final class Cursor {
+
+		private final ByteBuffer rows;
+
+		private ByteBuffer row;
+
+		private Cursor(ByteBuffer rows) {
+			this.rows = rows;
+		}
+
+		public boolean next() {
+			if (rows.remaining() < 4) {
+				row = null;
+				return false;
+			}
+			int length = rows.getInt();
+			row = rows.slice();
+			row.limit(length);
+			rows.position(rows.position() + length);
+			return true;
+		}
+
+		public ByteBuffer row() {
+			return row.duplicate();
+		}
+	}
+
+	/**
+	 * Writes a snapshot to a temporary file next to it. Closing a writer that was not committed deletes the file.
+	 */
+	public static final class Writer implements Closeable {
+
+		private static final int BUFFER_SIZE = 1 << 20;
+
+		private final Path file;
+
+		private final Path temporaryFile;
+
+		private final long lastLsn;
+
+		private final FileChannel channel;
+
+		private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+		private long count;
+
+		private boolean committed;
+
+		private Writer(Path file, long lastLsn) throws IOException {
+			this.file = file;
+			this.temporaryFile = file.resolveSibling(file.getFileName() + ".tmp");
+			this.lastLsn = lastLsn;
+			this.channel = FileChannel.open(temporaryFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+					StandardOpenOption.TRUNCATE_EXISTING);
+			// The header is written on commit, once the count is known
+			channel.position(HEADER);
+		}
+
+		// Rows have to be added in ascending id order
+		public void add(ByteBuffer row) throws IOException {
+			if (buffer.remaining() < 4 + row.remaining()) {
+				flush();
+			}
+			if (buffer.remaining() < 4 + row.remaining()) {
+				ByteBuffer length = ByteBuffer.allocate(4).putInt(row.remaining());
+				length.flip();
+				write(length);
+				write(row.duplicate());
+			} else {
+				buffer.putInt(row.remaining()).put(row.duplicate());
+			}
+			count++;
+		}
+
+		public Path commit() throws IOException {
+			flush();
+			ByteBuffer header = ByteBuffer.allocate(HEADER).putInt(MAGIC).putInt(FORMAT).putLong(lastLsn).putLong(count);
+			header.flip();
+			channel.position(0);
+			write(header);
+			channel.force(true);
+			channel.close();
+			Files.move(temporaryFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			committed = true;
+			return file;
+		}
+
+		public long getCount() {
+			return count;
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (!committed) {
+				channel.close();
+				Files.deleteIfExists(temporaryFile);
+			}
+		}
+
+		private void flush() throws IOException {
+			buffer.flip();
+			write(buffer);
+			buffer.clear();
+		}
+
+		private void write(ByteBuffer source) throws IOException {
+			while (source.hasRemaining()) {
+				channel.write(source);
+			}
+		}
+	}
+}
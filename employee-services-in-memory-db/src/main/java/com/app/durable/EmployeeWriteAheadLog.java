@@ -0,0 +1,260 @@
+package com.app.durable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import com.app.entity.EmployeeEntity;
+
+/**
+ * Append-only log of the committed employee writes, in segment files named after the LSN (log sequence number) of
+ * their first record. Every record is
+ *
+ * <pre>
+ * int payload length | int CRC32 of the payload | byte type | long LSN | body
+ * </pre>
+ *
+ * where the body of a save is the row in {@link EmployeeRecordCodec} form and the body of a delete is the id.
+ *
+ * Records reach the file in the order the writes were reported. EmployeeIndexes reports a write while it still holds
+ * the lock of its row, or of the table for a clear, so for any one row that is the order in which the database
+ * committed the writes. A segment is read back up to the first record that is incomplete or fails its CRC, which is
+ * where a crash during an append leaves it.
+ */
+public class EmployeeWriteAheadLog implements Closeable {
+
+	public static final byte SAVED = 1;
+
+	public static final byte DELETED = 2;
+
+	public static final byte CLEARED = 3;
+
+	private static final String SEGMENT_PREFIX = "employees-";
+
+	private static final String SEGMENT_SUFFIX = ".wal";
+
+	private static final int RECORD_HEADER = 4 + 4;
+
+	private static final int PAYLOAD_HEADER = 1 + 8;
+
+	private final Path directory;
+
+	private final boolean syncOnWrite;
+
+	private FileChannel channel;
+
+	private Path segment;
+
+	private long nextLsn;
+
+	// Written since the last sync
+	private boolean dirty;
+
+	public EmployeeWriteAheadLog(Path directory, boolean syncOnWrite) {
+		this.directory = directory;
+		this.syncOnWrite = syncOnWrite;
+	}
+
+	// Starts a new segment, nextLsn is the LSN of its first record
+	public synchronized void open(long nextLsn) throws IOException {
+		Files.createDirectories(directory);
+		this.nextLsn = nextLsn;
+		this.segment = segmentPath(directory, nextLsn);
+		// A segment named after the next LSN can only be left over without a single complete record
+		this.channel = FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING);
+	}
+
+	public synchronized boolean isOpen() {
+		return null != channel;
+	}
+
+	public void appendSaved(Collection<EmployeeEntity> employees) {
+		List<byte[]> bodies = employees.stream().map(EmployeeRecordCodec::encode).collect(Collectors.toList());
+		append(SAVED, bodies);
+	}
+
+	public void appendDeleted(int empId) {
+		append(DELETED, List.of(ByteBuffer.allocate(4).putInt(empId).array()));
+	}
+
+	public void appendCleared() {
+		append(CLEARED, List.of(new byte[0]));
+	}
+
+	// One write, and with sync on write one force, for all the records of a call
+	private synchronized void append(byte type, List<byte[]> bodies) {
+		if (!isOpen()) {
+			throw new IllegalStateException("The employee write-ahead log is not open");
+		}
+		int size = 0;
+		for (byte[] body : bodies) {
+			size += RECORD_HEADER + PAYLOAD_HEADER + body.length;
+		}
+		ByteBuffer buffer = ByteBuffer.allocate(size);
+		CRC32 crc = new CRC32();
+		for (byte[] body : bodies) {
+			int start = buffer.position();
+			buffer.putInt(PAYLOAD_HEADER + body.length).putInt(0).put(type).putLong(nextLsn++).put(body);
+			crc.reset();
+			crc.update(buffer.array(), start + RECORD_HEADER, PAYLOAD_HEADER + body.length);
+			buffer.putInt(start + 4, (int) crc.getValue());
+		}
+		buffer.flip();
+		try {
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			if (syncOnWrite) {
+				channel.force(false);
+			} else {
+				dirty = true;
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Append to the employee write-ahead log failed", e);
+		}
+	}
+
+	public synchronized void sync() throws IOException {
+		if (dirty) {
+			channel.force(false);
+			dirty = false;
+		}
+	}
+
+	// Closes the current segment and starts the next one. Returns the closed segments, those a compaction can take
+	public synchronized List<Path> rotate() throws IOException {
+		channel.force(false);
+		channel.close();
+		dirty = false;
+		open(nextLsn);
+		return segments(directory).stream().filter(path -> !path.equals(segment)).collect(Collectors.toList());
+	}
+
+	public synchronized long getLastLsn() {
+		return nextLsn - 1;
+	}
+
+	public synchronized long getSize() throws IOException {
+		long size = 0;
+		for (Path path : segments(directory)) {
+			size += Files.size(path);
+		}
+		return size;
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		if (isOpen()) {
+			channel.force(false);
+			channel.close();
+			channel = null;
+		}
+	}
+
+	// Segments in LSN order
+	public static List<Path> segments(Path directory) throws IOException {
+		if (!Files.isDirectory(directory)) {
+			return new ArrayList<>();
+		}
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.filter(path -> isSegment(path.getFileName().toString()))
+					.sorted((a, b) -> Long.compare(firstLsn(a), firstLsn(b)))
+					.collect(Collectors.toList());
+		}
+	}
+
+	// Passes the complete records of the segment with an LSN after afterLsn to the consumer, returns the last LSN read
+	public static long read(Path segment, long afterLsn, Consumer<Entry> consumer) throws IOException {
+		long lastLsn = afterLsn;
+		try (FileChannel segmentChannel = FileChannel.open(segment, StandardOpenOption.READ)) {
+			MappedByteBuffer buffer = segmentChannel.map(FileChannel.MapMode.READ_ONLY, 0, segmentChannel.size());
+			CRC32 crc = new CRC32();
+			while (buffer.remaining() >= RECORD_HEADER) {
+				int length = buffer.getInt();
+				int checksum = buffer.getInt();
+				if (length < PAYLOAD_HEADER || length > buffer.remaining()) {
+					break;
+				}
+				ByteBuffer payload = buffer.slice();
+				payload.limit(length);
+				crc.reset();
+				crc.update(payload.duplicate());
+				if ((int) crc.getValue() != checksum) {
+					break;
+				}
+				buffer.position(buffer.position() + length);
+				byte type = payload.get();
+				long lsn = payload.getLong();
+				if (lsn > afterLsn) {
+					consumer.accept(new Entry(type, lsn, payload.slice()));
+					lastLsn = lsn;
+				}
+			}
+		}
+		return lastLsn;
+	}
+
+	static Path segmentPath(Path directory, long firstLsn) {
+		return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstLsn, SEGMENT_SUFFIX));
+	}
+
+	private static boolean isSegment(String fileName) {
+		return fileName.startsWith(SEGMENT_PREFIX) && fileName.endsWith(SEGMENT_SUFFIX);
+	}
+
+	private static long firstLsn(Path segment) {
+		String fileName = segment.getFileName().toString();
+		return Long.parseLong(fileName.substring(SEGMENT_PREFIX.length(), fileName.length() - SEGMENT_SUFFIX.length()));
+	}
+
+	/**
+	 * One record read back from a segment. The body is a view of the mapped segment, holding on to it keeps the
+	 * whole segment mapped, so entries that are kept are copied.
+	 */
+	public static final class Entry {
+
+		private final byte type;
+
+		private final long lsn;
+
+		private final ByteBuffer body;
+
+		Entry(byte type, long lsn, ByteBuffer body) {
+			this.type = type;
+			this.lsn = lsn;
+			this.body = body;
+		}
+
+		public byte getType() {
+			return type;
+		}
+
+		public long getLsn() {
+			return lsn;
+		}
+
+		// The row of a save, in EmployeeRecordCodec form
+		public ByteBuffer getRecord() {
+			return body.duplicate();
+		}
+
+		// The id of a delete
+		public int getEmpId() {
+			return body.getInt(0);
+		}
+	}
+}
@@ -0,0 +1,66 @@
+package com.app.durable;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.app.entity.EmployeeEntity;
+
+/**
+ * Restores into the EMPLOYEE table with batched inserts, then moves the id sequence past the restored ids.
+ */
+public class JdbcEmployeeRowLoader implements EmployeeRowLoader {
+
+	private static final String INSERT_SQL = "INSERT INTO EMPLOYEE (EMPLOYEE_ID, EMP_NAME, ROLE, SALARY, DATE_OF_BIRTH,"
+			+ " MOBILE_NUMBER, EMAIL, VERSION) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private final int batchSize;
+
+	private final List<Object[]> batch = new ArrayList<>();
+
+	public JdbcEmployeeRowLoader(JdbcTemplate jdbcTemplate, int batchSize) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.batchSize = batchSize;
+	}
+
+	// The table is expected to be empty, in durable mode it only ever holds what the directory does
+	@Override
+	public void clear() {
+		batch.clear();
+		jdbcTemplate.update("DELETE FROM EMPLOYEE");
+	}
+
+	@Override
+	public void load(ByteBuffer row) {
+		EmployeeEntity employee = EmployeeRecordCodec.decode(row.duplicate());
+		batch.add(new Object[] { employee.getEmpId(), employee.getEmpName(), employee.getRole(), employee.getSalary(),
+				employee.getDateOfBirth(), employee.getMobileNumber(), employee.getEmail(), employee.getVersion() });
+		if (batch.size() == batchSize) {
+			flush();
+		}
+	}
+
+	@Override
+	public void finish() {
+		flush();
+		restartIdSequence();
+	}
+
+	private void flush() {
+		if (!batch.isEmpty()) {
+			jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+			batch.clear();
+		}
+	}
+
+	// Past the highest restored id by a whole allocation, the ids Hibernate hands out lie below the sequence value
+	private void restartIdSequence() {
+		Long maxId = jdbcTemplate.queryForObject("SELECT MAX(EMPLOYEE_ID) FROM EMPLOYEE", Long.class);
+		long restartWith = (null == maxId ? 0 : maxId) + EmployeeEntity.ID_ALLOCATION_SIZE + 1;
+		jdbcTemplate.execute("ALTER SEQUENCE " + EmployeeEntity.ID_SEQUENCE + " RESTART WITH " + restartWith);
+	}
+}
@@ -9,7 +9,11 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+import javax.persistence.Version;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -27,14 +31,27 @@ import lombok.ToString;
 @EqualsAndHashCode
 @Builder
 @Entity
-@Table(name = "EMPLOYEE")
+@Table(name = "EMPLOYEE",
+		// The unique constraint's index also serves the lookups by name
+		uniqueConstraints = @UniqueConstraint(name = EmployeeEntity.UNIQUE_NAME_CONSTRAINT, columnNames = "EMP_NAME"),
+		indexes = { @Index(name = "IDX_EMPLOYEE_SALARY", columnList = "SALARY"),
+				@Index(name = "IDX_EMPLOYEE_DATE_OF_BIRTH", columnList = "DATE_OF_BIRTH"),
+				@Index(name = "IDX_EMPLOYEE_MOBILE_NUMBER", columnList = "MOBILE_NUMBER") })
 public class EmployeeEntity implements Serializable {
 
 	private static final long serialVersionUID = 1L;
 
+	public static final String UNIQUE_NAME_CONSTRAINT = "UK_EMPLOYEE_EMP_NAME";
+
+	public static final String ID_SEQUENCE = "EMPLOYEE_SEQ";
+
+	public static final int ID_ALLOCATION_SIZE = 50;
+
 	@Id
 	@Column(name = "EMPLOYEE_ID")
-	@GeneratedValue(strategy = GenerationType.AUTO)
+	// Pooled sequence so ids for a whole JDBC insert batch come from one sequence call
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "EMPLOYEE_SEQ_GENERATOR")
+	@SequenceGenerator(name = "EMPLOYEE_SEQ_GENERATOR", sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
 	private int empId;
 
 	@Column(name = "EMP_NAME")
@@ -54,4 +71,9 @@ public class EmployeeEntity implements Serializable {
 
 	@Column(name = "EMAIL")
 	private String email;
+
+	// Incremented by every update, an update made against an older version matches no row
+	@Version
+	@Column(name = "VERSION")
+	private long version;
 }
@@ -4,8 +4,9 @@ public class EmployeeNotFoundException extends RuntimeException {
 
 	private static final long serialVersionUID = 1L;
 
+	// A missing employee is an expected answer, not a failure worth a stack trace
 	public EmployeeNotFoundException(String message) {
-		super(message);
+		super(message, null, false, false);
 	}
 
 }
@@ -0,0 +1,12 @@
+package com.app.exceptions;
+
+// The employee exists but was updated since the version the caller read
+public class EmployeeVersionConflictException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	public EmployeeVersionConflictException(String message) {
+		super(message, null, false, false);
+	}
+
+}
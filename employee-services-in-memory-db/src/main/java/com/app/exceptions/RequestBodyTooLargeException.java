@@ -0,0 +1,12 @@
+package com.app.exceptions;
+
+// The request body is larger than the service accepts, answered with 413 Payload Too Large
+public class RequestBodyTooLargeException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	public RequestBodyTooLargeException(String message) {
+		super(message);
+	}
+
+}
@@ -2,6 +2,7 @@ package com.app.global.exception.handler;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -9,10 +10,31 @@ import org.springframework.web.client.HttpServerErrorException.InternalServerErr
 
 import com.app.exceptions.DuplicateEmployeeException;
 import com.app.exceptions.EmployeeNotFoundException;
+import com.app.exceptions.RequestBodyTooLargeException;
+import com.app.model.ApiResponse;
+import com.app.util.EmpCommonUtil;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+	@ExceptionHandler(value = RequestBodyTooLargeException.class)
+	public ResponseEntity<ApiResponse> handleRequestBodyTooLargeException(RequestBodyTooLargeException ex) {
+		return EmpCommonUtil.createFailureResponse(HttpStatus.PAYLOAD_TOO_LARGE, ex.getMessage(),
+				HttpStatus.PAYLOAD_TOO_LARGE.name());
+	}
+
+	// Jackson wraps an exception thrown while it reads a JSON value, a body cut off inside a value arrives here.
+	// Anything else is rethrown as is and answered with the default 400 Bad Request
+	@ExceptionHandler(value = HttpMessageNotReadableException.class)
+	public ResponseEntity<ApiResponse> handleHttpMessageNotReadableException(HttpMessageNotReadableException ex) {
+		for (Throwable cause = ex.getCause(); null != cause; cause = cause.getCause()) {
+			if (cause instanceof RequestBodyTooLargeException) {
+				return handleRequestBodyTooLargeException((RequestBodyTooLargeException) cause);
+			}
+		}
+		throw ex;
+	}
+
 //	// Added in separate class not picking those handlers
 //	@ExceptionHandler(value = { DuplicateEmployeeException.class })
 //	@ResponseStatus(HttpStatus.CONFLICT)
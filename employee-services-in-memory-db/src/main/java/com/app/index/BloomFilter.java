@@ -0,0 +1,100 @@
+package com.app.index;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bloom filter over 64-bit key hashes: {@link #mightContain(long)} is false only for keys that were never added,
+ * and true for a share of the others close to the false positive rate the filter was sized for. Keys cannot be
+ * removed, the filter is rebuilt instead.
+ *
+ * Bits are set with compare-and-set, so adds and lookups run concurrently without a lock. The k bit positions of a
+ * key are derived from two halves of its hash (Kirsch and Mitzenmacher), one hash per key is enough.
+ */
+public class BloomFilter {
+
+	private final AtomicLongArray words;
+
+	private final long bitCount;
+
+	private final int hashCount;
+
+	private final LongAdder setBits = new LongAdder();
+
+	public BloomFilter(long expectedKeys, double falsePositiveRate) {
+		long keys = Math.max(1, expectedKeys);
+		long bits = (long) Math.ceil(-keys * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+		int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (bits + 63) >>> 6));
+		this.words = new AtomicLongArray(wordCount);
+		this.bitCount = (long) wordCount << 6;
+		this.hashCount = Math.max(1, (int) Math.round((double) bitCount / keys * Math.log(2)));
+	}
+
+	public void add(long hash) {
+		int h1 = (int) hash;
+		int h2 = (int) (hash >>> 32);
+		for (int i = 1; i <= hashCount; i++) {
+			long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+			int word = (int) (bit >>> 6);
+			long mask = 1L << bit;
+			long current = words.get(word);
+			while ((current & mask) == 0) {
+				if (words.compareAndSet(word, current, current | mask)) {
+					setBits.increment();
+					break;
+				}
+				current = words.get(word);
+			}
+		}
+	}
+
+	public boolean mightContain(long hash) {
+		int h1 = (int) hash;
+		int h2 = (int) (hash >>> 32);
+		for (int i = 1; i <= hashCount; i++) {
+			long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+			if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// Probability that a key never added passes mightContain, estimated from the share of bits set
+	public double expectedFalsePositiveRate() {
+		return Math.pow((double) setBits.sum() / bitCount, hashCount);
+	}
+
+	public long getBitCount() {
+		return bitCount;
+	}
+
+	public int getHashCount() {
+		return hashCount;
+	}
+
+	public static long hash(int key) {
+		return mix(key);
+	}
+
+	public static long hash(String key) {
+		// 64-bit FNV-1a over the characters, then mixed so that both halves are well distributed
+		long hash = 0xcbf29ce484222325L;
+		for (int i = 0; i < key.length(); i++) {
+			hash ^= key.charAt(i);
+			hash *= 0x100000001b3L;
+		}
+		return mix(hash);
+	}
+
+	// Finalizer of MurmurHash3
+	private static long mix(long value) {
+		long hash = value;
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		hash *= 0xc4ceb9fe1a85ec53L;
+		hash ^= hash >>> 33;
+		return hash;
+	}
+}
@@ -0,0 +1,24 @@
+package com.app.index;
+
+import java.util.Collection;
+
+import com.app.entity.EmployeeEntity;
+
+/**
+ * An in-process secondary index over the EMPLOYEE table. Implementations are kept in sync by
+ * {@link EmployeeIndexes}, which EmployeeServiceImpl calls after every committed write.
+ */
+public interface EmployeeIndex {
+
+	// Inserts the employees, or replaces the indexed values of ids that are already indexed at the same or an older version
+	void onSaved(Collection<EmployeeEntity> employees);
+
+	void onDeleted(int empId);
+
+	void onCleared();
+
+	// The table has been loaded into the index in full, after the startup rebuild
+	default void onLoaded() {
+	}
+
+}
@@ -0,0 +1,140 @@
+package com.app.index;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import com.app.durable.EmployeeWriteAheadLog;
+import com.app.entity.EmployeeEntity;
+import com.app.repository.EmployeeRepository;
+
+/**
+ * Fans the service's committed writes out to every {@link EmployeeIndex}, and in durable mode to the write-ahead log
+ * first, and loads the indexes from the table at startup.
+ * <p>
+ * A write commits and is reported while it holds its {@link WriteOrder}: the lock of its row for an update or a
+ * delete, the table shared for an insert, and the whole table for a clear. So for any one row the log and the indexes
+ * get the writes in the order the database committed them, and an update racing a delete or a clear cannot be
+ * reported after it.
+ */
+@Component
+public class EmployeeIndexes {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(EmployeeIndexes.class);
+
+	private static final int ROW_LOCK_STRIPES = 64;
+
+	private final List<EmployeeIndex> indexes;
+
+	private final EmployeeRepository employeeRepository;
+
+	// Null unless durable mode is on
+	private final EmployeeWriteAheadLog writeAheadLog;
+
+	private final ReentrantReadWriteLock tableLock = new ReentrantReadWriteLock();
+
+	private final Lock[] rowLocks = new Lock[ROW_LOCK_STRIPES];
+
+	@Value("${employee.index.rebuild-page-size:10000}")
+	private int rebuildPageSize = 10000;
+
+	@Autowired
+	public EmployeeIndexes(List<EmployeeIndex> indexes, EmployeeRepository employeeRepository,
+			ObjectProvider<EmployeeWriteAheadLog> writeAheadLog) {
+		this.indexes = indexes;
+		this.employeeRepository = employeeRepository;
+		this.writeAheadLog = writeAheadLog.getIfAvailable();
+		for (int i = 0; i < rowLocks.length; i++) {
+			rowLocks[i] = new ReentrantLock();
+		}
+	}
+
+	// For an update or a delete of an existing row
+	public WriteOrder orderRowWrite(int empId) {
+		Lock rowLock = rowLocks[Math.floorMod(empId, ROW_LOCK_STRIPES)];
+		tableLock.readLock().lock();
+		rowLock.lock();
+		return () -> {
+			rowLock.unlock();
+			tableLock.readLock().unlock();
+		};
+	}
+
+	// For inserts, whose rows no other write can reach before they are reported
+	public WriteOrder orderInsert() {
+		tableLock.readLock().lock();
+		return tableLock.readLock()::unlock;
+	}
+
+	public WriteOrder orderClear() {
+		tableLock.writeLock().lock();
+		return tableLock.writeLock()::unlock;
+	}
+
+	public void onSaved(EmployeeEntity employee) {
+		onSaved(Collections.singletonList(employee));
+	}
+
+	public void onSaved(Collection<EmployeeEntity> employees) {
+		if (null != writeAheadLog) {
+			writeAheadLog.appendSaved(employees);
+		}
+		indexes.forEach(index -> index.onSaved(employees));
+	}
+
+	public void onDeleted(int empId) {
+		if (null != writeAheadLog) {
+			writeAheadLog.appendDeleted(empId);
+		}
+		indexes.forEach(index -> index.onDeleted(empId));
+	}
+
+	public void onCleared() {
+		if (null != writeAheadLog) {
+			writeAheadLog.appendCleared();
+		}
+		indexes.forEach(EmployeeIndex::onCleared);
+	}
+
+	// Reloads every index by walking the table in keyset pages, so at most one page of entities is on the heap
+	@EventListener(ApplicationStartedEvent.class)
+	public void rebuild() {
+		// Straight to the indexes, the rows are already in the table and in the log
+		indexes.forEach(EmployeeIndex::onCleared);
+		int rows = 0;
+		int after = 0;
+		List<EmployeeEntity> page;
+		do {
+			page = employeeRepository.findByEmpIdGreaterThanOrderByEmpIdAsc(after, PageRequest.of(0, rebuildPageSize));
+			if (!page.isEmpty()) {
+				List<EmployeeEntity> rowsOfPage = page;
+				indexes.forEach(index -> index.onSaved(rowsOfPage));
+				rows += page.size();
+				after = page.get(page.size() - 1).getEmpId();
+			}
+		} while (page.size() == rebuildPageSize);
+		indexes.forEach(EmployeeIndex::onLoaded);
+		LOGGER.info("Rebuilt {} employee indexes from {} rows", indexes.size(), rows);
+	}
+
+	// Releases the locks taken by one of the order methods
+	@FunctionalInterface
+	public interface WriteOrder extends AutoCloseable {
+
+		@Override
+		void close();
+	}
+}
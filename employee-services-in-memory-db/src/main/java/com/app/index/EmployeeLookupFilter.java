@@ -0,0 +1,225 @@
+package com.app.index;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.app.entity.EmployeeEntity;
+import com.app.repository.EmployeeRepository;
+
+/**
+ * Bloom filters over the ids and names in the table, so that lookups of employees that do not exist are answered
+ * without a query. A key the filter has never seen is a definite miss; a key it has seen may still be gone, those
+ * lookups go to the table as before and count as false positives.
+ *
+ * Saves are added as they are committed. Deleted ids and replaced names cannot be taken out of a Bloom filter, they
+ * only make it less selective, so once some have piled up the filters are rebuilt from the table in the background
+ * and swapped in. Saves made during a rebuild go to both the old and the new filters. Until the first load of the
+ * table is complete every key might exist.
+ */
+@Component
+public class EmployeeLookupFilter implements EmployeeIndex {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(EmployeeLookupFilter.class);
+
+	public enum Key {
+		ID, NAME
+	}
+
+	private final EmployeeRepository employeeRepository;
+
+	@Value("${employee.lookup-filter.enabled:true}")
+	private boolean enabled = true;
+
+	@Value("${employee.lookup-filter.expected-employees:100000}")
+	private long expectedEmployees = 100000;
+
+	@Value("${employee.lookup-filter.false-positive-rate:0.01}")
+	private double falsePositiveRate = 0.01;
+
+	@Value("${employee.index.rebuild-page-size:10000}")
+	private int rebuildPageSize = 10000;
+
+	private volatile Filters filters;
+
+	// Filters being rebuilt, they receive the saves made while the table is read
+	private volatile Filters next;
+
+	private volatile boolean loaded;
+
+	// Deletes and updates since the last rebuild
+	private final LongAdder stale = new LongAdder();
+
+	private final LongAdder[] rejected = { new LongAdder(), new LongAdder() };
+
+	private final LongAdder[] falsePositives = { new LongAdder(), new LongAdder() };
+
+	@Autowired
+	public EmployeeLookupFilter(EmployeeRepository employeeRepository) {
+		this.employeeRepository = employeeRepository;
+		this.filters = new Filters(expectedEmployees, falsePositiveRate);
+	}
+
+	@Override
+	public void onSaved(Collection<EmployeeEntity> employees) {
+		// next before filters: a rebuild publishes its filters before it clears next, so a save that misses next
+		// finds the new filters in place
+		Filters building = next;
+		Filters current = filters;
+		for (EmployeeEntity employee : employees) {
+			// An id the filter already has is most likely an update, whose previous name stays behind
+			if (current.add(employee)) {
+				stale.increment();
+			}
+			if (null != building) {
+				building.add(employee);
+			}
+		}
+	}
+
+	@Override
+	public void onDeleted(int empId) {
+		stale.increment();
+	}
+
+	@Override
+	public void onCleared() {
+		filters = new Filters(filterSize(), falsePositiveRate);
+		stale.reset();
+	}
+
+	@Override
+	public void onLoaded() {
+		loaded = true;
+	}
+
+	// False only for ids that are not in the table. Ids that are not a number or too long for one are left to the caller
+	public boolean mightContainId(String employeeId) {
+		if (!isActive() || StringUtils.length(employeeId) > 9 || !StringUtils.isNumeric(employeeId)) {
+			return true;
+		}
+		return counted(Key.ID, filters.ids.mightContain(BloomFilter.hash(Integer.parseInt(employeeId))));
+	}
+
+	public boolean mightContainName(String name) {
+		if (!isActive() || null == name) {
+			return true;
+		}
+		return counted(Key.NAME, filters.names.mightContain(BloomFilter.hash(name)));
+	}
+
+	// A key the filter let through that turned out not to exist
+	public void recordFalsePositive(Key key) {
+		if (isActive()) {
+			falsePositives[key.ordinal()].increment();
+		}
+	}
+
+	public long getRejected(Key key) {
+		return rejected[key.ordinal()].sum();
+	}
+
+	public long getFalsePositives(Key key) {
+		return falsePositives[key.ordinal()].sum();
+	}
+
+	// False positive rate of the filter in use, estimated from how full it is
+	public double getExpectedFalsePositiveRate(Key key) {
+		Filters current = filters;
+		return (key == Key.ID ? current.ids : current.names).expectedFalsePositiveRate();
+	}
+
+	// Rebuilds the filters when deletes or updates have left keys behind, or when more keys were added than sized for
+	@Scheduled(initialDelayString = "${employee.lookup-filter.rebuild-interval-ms:60000}",
+			fixedDelayString = "${employee.lookup-filter.rebuild-interval-ms:60000}")
+	public void rebuildIfStale() {
+		if (isActive() && (stale.sum() > 0 || filters.size() > filters.expectedKeys)) {
+			rebuild();
+		}
+	}
+
+	public synchronized void rebuild() {
+		Filters building = new Filters(filterSize(), falsePositiveRate);
+		next = building;
+		stale.reset();
+		int after = 0;
+		List<EmployeeEntity> page;
+		try {
+			do {
+				page = employeeRepository.findByEmpIdGreaterThanOrderByEmpIdAsc(after, PageRequest.of(0, rebuildPageSize));
+				page.forEach(building::add);
+				if (!page.isEmpty()) {
+					after = page.get(page.size() - 1).getEmpId();
+				}
+			} while (page.size() == rebuildPageSize);
+			filters = building;
+		} catch (RuntimeException e) {
+			stale.increment();
+			LOGGER.warn("Rebuild of the employee lookup filter failed, the current filter stays in use: {}", e.getMessage());
+			return;
+		} finally {
+			next = null;
+		}
+		LOGGER.info("Rebuilt the employee lookup filter from {} rows", building.size());
+	}
+
+	private boolean isActive() {
+		return enabled && loaded;
+	}
+
+	private boolean counted(Key key, boolean mightContain) {
+		if (!mightContain) {
+			rejected[key.ordinal()].increment();
+		}
+		return mightContain;
+	}
+
+	// Twice the keys held so far, so that a growing table does not fill the new filters right away
+	private long filterSize() {
+		return Math.max(expectedEmployees, 2 * filters.size());
+	}
+
+	private static class Filters {
+
+		private final long expectedKeys;
+
+		private final BloomFilter ids;
+
+		private final BloomFilter names;
+
+		private final LongAdder added = new LongAdder();
+
+		Filters(long expectedKeys, double falsePositiveRate) {
+			this.expectedKeys = expectedKeys;
+			this.ids = new BloomFilter(expectedKeys, falsePositiveRate);
+			this.names = new BloomFilter(expectedKeys, falsePositiveRate);
+		}
+
+		// Returns whether the id might have been added before
+		boolean add(EmployeeEntity employee) {
+			long idHash = BloomFilter.hash(employee.getEmpId());
+			boolean seen = ids.mightContain(idHash);
+			ids.add(idHash);
+			if (null != employee.getEmpName()) {
+				names.add(BloomFilter.hash(employee.getEmpName()));
+			}
+			if (!seen) {
+				added.increment();
+			}
+			return seen;
+		}
+
+		long size() {
+			return added.sum();
+		}
+	}
+}
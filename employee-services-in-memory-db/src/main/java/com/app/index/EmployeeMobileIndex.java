@@ -0,0 +1,337 @@
+package com.app.index;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.stereotype.Component;
+
+import com.app.entity.EmployeeEntity;
+
+/**
+ * Prefix trie over mobile numbers, the in-memory replacement of the LIKE 'prefix%' scan behind
+ * findByMobileNumberStartingWith.
+ *
+ * Nodes live in parallel primitive arrays (first child / next sibling, siblings sorted by character) instead of
+ * one object and child map per node, which keeps millions of numbers to a few tens of bytes per node. Every node
+ * counts the employees below it, so a page is found by walking down the prefix and skipping whole subtrees that
+ * fall before the requested offset: a lookup costs the prefix length plus the page size, not the match count.
+ * A node whose count drops to zero is unlinked from its parent and reused by the next node added, so changing
+ * numbers does not grow the arrays. A save older than the version indexed for its id, from an update that reached
+ * the index after a later one, is dropped.
+ */
+@Component
+public class EmployeeMobileIndex implements EmployeeIndex {
+
+	private static final int NONE = -1;
+
+	private static final int ROOT = 0;
+
+	private static final int INITIAL_CAPACITY = 1024;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	// Trie nodes, freed nodes are chained through nextSibling
+	private int nodeCount;
+	private int freeNode = NONE;
+	private char[] nodeChar = new char[INITIAL_CAPACITY];
+	private int[] parent = new int[INITIAL_CAPACITY];
+	private int[] firstChild = new int[INITIAL_CAPACITY];
+	private int[] nextSibling = new int[INITIAL_CAPACITY];
+	private int[] subtreeCount = new int[INITIAL_CAPACITY];
+	private int[] firstEntry = new int[INITIAL_CAPACITY];
+
+	// Ids of the employees whose number ends at a node, one list per node sorted by id, freed entries are reused
+	private int entryCount;
+	private int freeEntry = NONE;
+	private int[] entryId = new int[INITIAL_CAPACITY];
+	private long[] entryVersion = new long[INITIAL_CAPACITY];
+	private int[] nextEntry = new int[INITIAL_CAPACITY];
+
+	// Node where each indexed employee's number ends
+	private final IntIntHashMap nodeOfId = new IntIntHashMap(INITIAL_CAPACITY);
+
+	public EmployeeMobileIndex() {
+		clear();
+	}
+
+	@Override
+	public void onSaved(Collection<EmployeeEntity> employees) {
+		lock.writeLock().lock();
+		try {
+			for (EmployeeEntity employee : employees) {
+				if (indexedVersion(employee.getEmpId()) > employee.getVersion()) {
+					continue;
+				}
+				remove(employee.getEmpId());
+				if (null != employee.getMobileNumber()) {
+					insert(employee.getEmpId(), employee.getVersion(), employee.getMobileNumber());
+				}
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void onDeleted(int empId) {
+		lock.writeLock().lock();
+		try {
+			remove(empId);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void onCleared() {
+		lock.writeLock().lock();
+		try {
+			clear();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	// Nodes ever allocated, in use or free
+	int allocatedNodes() {
+		lock.readLock().lock();
+		try {
+			return nodeCount;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return subtreeCount[ROOT];
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	// Same matches as findByMobileNumberStartingWith, ordered by mobile number then id
+	public IdPage startingWith(String prefix, long offset, int limit) {
+		lock.readLock().lock();
+		try {
+			int node = ROOT;
+			for (int i = 0; i < prefix.length() && node != NONE; i++) {
+				node = findChild(node, prefix.charAt(i));
+			}
+			if (node == NONE) {
+				return new IdPage(0, new int[0]);
+			}
+			int total = subtreeCount[node];
+			PageCollector collector = new PageCollector(offset,
+					(int) Math.max(0, Math.min(limit, total - Math.min(offset, total))));
+			collect(node, collector);
+			return new IdPage(total, collector.ids);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private void collect(int node, PageCollector collector) {
+		if (subtreeCount[node] <= collector.skip) {
+			collector.skip -= subtreeCount[node];
+			return;
+		}
+		for (int entry = firstEntry[node]; entry != NONE && !collector.isFull(); entry = nextEntry[entry]) {
+			collector.offer(entryId[entry]);
+		}
+		for (int child = firstChild[node]; child != NONE && !collector.isFull(); child = nextSibling[child]) {
+			collect(child, collector);
+		}
+	}
+
+	// Version of the indexed number of the employee, -1 when none is indexed
+	private long indexedVersion(int empId) {
+		int node = nodeOfId.get(empId, NONE);
+		if (node == NONE) {
+			return -1;
+		}
+		int entry = firstEntry[node];
+		while (entryId[entry] != empId) {
+			entry = nextEntry[entry];
+		}
+		return entryVersion[entry];
+	}
+
+	private void insert(int empId, long version, String mobileNumber) {
+		int node = ROOT;
+		subtreeCount[ROOT]++;
+		for (int i = 0; i < mobileNumber.length(); i++) {
+			node = findOrAddChild(node, mobileNumber.charAt(i));
+			subtreeCount[node]++;
+		}
+
+		int entry = allocateEntry(empId, version);
+		if (firstEntry[node] == NONE || entryId[firstEntry[node]] > empId) {
+			nextEntry[entry] = firstEntry[node];
+			firstEntry[node] = entry;
+		} else {
+			int previous = firstEntry[node];
+			while (nextEntry[previous] != NONE && entryId[nextEntry[previous]] < empId) {
+				previous = nextEntry[previous];
+			}
+			nextEntry[entry] = nextEntry[previous];
+			nextEntry[previous] = entry;
+		}
+		nodeOfId.put(empId, node);
+	}
+
+	private void remove(int empId) {
+		int node = nodeOfId.remove(empId, NONE);
+		if (node == NONE) {
+			return;
+		}
+		int previous = NONE;
+		int entry = firstEntry[node];
+		while (entryId[entry] != empId) {
+			previous = entry;
+			entry = nextEntry[entry];
+		}
+		if (previous == NONE) {
+			firstEntry[node] = nextEntry[entry];
+		} else {
+			nextEntry[previous] = nextEntry[entry];
+		}
+		nextEntry[entry] = freeEntry;
+		freeEntry = entry;
+
+		for (int current = node; current != NONE; current = parent[current]) {
+			// Its children are empty and freed already, every node with employees below it counts them
+			if (--subtreeCount[current] == 0 && current != ROOT) {
+				freeNode(current);
+			}
+		}
+	}
+
+	private void freeNode(int node) {
+		int parentNode = parent[node];
+		if (firstChild[parentNode] == node) {
+			firstChild[parentNode] = nextSibling[node];
+		} else {
+			int previous = firstChild[parentNode];
+			while (nextSibling[previous] != node) {
+				previous = nextSibling[previous];
+			}
+			nextSibling[previous] = nextSibling[node];
+		}
+		nextSibling[node] = freeNode;
+		freeNode = node;
+	}
+
+	private int findChild(int node, char c) {
+		int child = firstChild[node];
+		while (child != NONE && nodeChar[child] < c) {
+			child = nextSibling[child];
+		}
+		return child != NONE && nodeChar[child] == c ? child : NONE;
+	}
+
+	private int findOrAddChild(int node, char c) {
+		int previous = NONE;
+		int child = firstChild[node];
+		while (child != NONE && nodeChar[child] < c) {
+			previous = child;
+			child = nextSibling[child];
+		}
+		if (child != NONE && nodeChar[child] == c) {
+			return child;
+		}
+		int added = allocateNode(node, c);
+		nextSibling[added] = child;
+		if (previous == NONE) {
+			firstChild[node] = added;
+		} else {
+			nextSibling[previous] = added;
+		}
+		return added;
+	}
+
+	private int allocateNode(int parentNode, char c) {
+		int node;
+		if (freeNode != NONE) {
+			node = freeNode;
+			freeNode = nextSibling[node];
+		} else {
+			node = newNode();
+		}
+		nodeChar[node] = c;
+		parent[node] = parentNode;
+		firstChild[node] = NONE;
+		nextSibling[node] = NONE;
+		subtreeCount[node] = 0;
+		firstEntry[node] = NONE;
+		return node;
+	}
+
+	private int newNode() {
+		if (nodeCount == nodeChar.length) {
+			int capacity = nodeCount + (nodeCount >> 1);
+			nodeChar = Arrays.copyOf(nodeChar, capacity);
+			parent = Arrays.copyOf(parent, capacity);
+			firstChild = Arrays.copyOf(firstChild, capacity);
+			nextSibling = Arrays.copyOf(nextSibling, capacity);
+			subtreeCount = Arrays.copyOf(subtreeCount, capacity);
+			firstEntry = Arrays.copyOf(firstEntry, capacity);
+		}
+		return nodeCount++;
+	}
+
+	private int allocateEntry(int empId, long version) {
+		int entry;
+		if (freeEntry != NONE) {
+			entry = freeEntry;
+			freeEntry = nextEntry[entry];
+		} else {
+			if (entryCount == entryId.length) {
+				int capacity = entryCount + (entryCount >> 1);
+				entryId = Arrays.copyOf(entryId, capacity);
+				nextEntry = Arrays.copyOf(nextEntry, capacity);
+				entryVersion = Arrays.copyOf(entryVersion, capacity);
+			}
+			entry = entryCount++;
+		}
+		entryId[entry] = empId;
+		entryVersion[entry] = version;
+		return entry;
+	}
+
+	private void clear() {
+		nodeCount = 0;
+		freeNode = NONE;
+		entryCount = 0;
+		freeEntry = NONE;
+		nodeOfId.clear();
+		allocateNode(NONE, '\0');
+	}
+
+	private static final class PageCollector {
+
+		private long skip;
+		private final int[] ids;
+		private int filled;
+
+		private PageCollector(long skip, int limit) {
+			this.skip = skip;
+			this.ids = new int[limit];
+		}
+
+		private boolean isFull() {
+			return filled == ids.length;
+		}
+
+		private void offer(int empId) {
+			if (skip > 0) {
+				skip--;
+			} else {
+				ids[filled++] = empId;
+			}
+		}
+	}
+}
@@ -0,0 +1,339 @@
+package com.app.index;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.stereotype.Component;
+
+import com.app.entity.EmployeeEntity;
+
+/**
+ * Salary and date of birth range index kept in sorted primitive arrays, so a range query is two binary searches
+ * and an array copy instead of a table scan, and no Double, Integer or LocalDate is boxed per employee.
+ *
+ * Dates are stored as epoch days. Writes merge a sorted batch into the arrays in one backward pass, which keeps
+ * the startup rebuild and bulk inserts linear in the index size. A save older than the version indexed for its id,
+ * from an update that reached the index after a later one, is dropped.
+ */
+@Component
+public class EmployeeRangeIndex implements EmployeeIndex {
+
+	private static final int NO_DATE = Integer.MIN_VALUE;
+
+	private static final int INITIAL_CAPACITY = 1024;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private int size;
+
+	// Sorted by id, with the values each id is indexed under so updates and deletes can find the old keys
+	private int[] ids = new int[INITIAL_CAPACITY];
+	private double[] salaryOfId = new double[INITIAL_CAPACITY];
+	private int[] birthDayOfId = new int[INITIAL_CAPACITY];
+	private long[] versionOfId = new long[INITIAL_CAPACITY];
+
+	// Sorted by (salary, id)
+	private double[] salaries = new double[INITIAL_CAPACITY];
+	private int[] salaryIds = new int[INITIAL_CAPACITY];
+
+	// Sorted by (epoch day, id), employees without a date of birth are left out
+	private int birthDayCount;
+	private int[] birthDays = new int[INITIAL_CAPACITY];
+	private int[] birthDayIds = new int[INITIAL_CAPACITY];
+
+	@Override
+	public void onSaved(Collection<EmployeeEntity> saved) {
+		if (saved.isEmpty()) {
+			return;
+		}
+		List<EmployeeEntity> batch = lastOfEachId(saved);
+		lock.writeLock().lock();
+		try {
+			List<EmployeeEntity> employees = new ArrayList<>(batch.size());
+			for (EmployeeEntity employee : batch) {
+				int position = Arrays.binarySearch(ids, 0, size, employee.getEmpId());
+				if (position >= 0) {
+					if (versionOfId[position] > employee.getVersion()) {
+						continue;
+					}
+					removeAt(position);
+				}
+				employees.add(employee);
+			}
+			ensureCapacity(size + employees.size());
+			mergeById(employees);
+			mergeBySalary(employees);
+			mergeByBirthDay(employees);
+			size += employees.size();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void onDeleted(int empId) {
+		lock.writeLock().lock();
+		try {
+			int position = Arrays.binarySearch(ids, 0, size, empId);
+			if (position >= 0) {
+				removeAt(position);
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void onCleared() {
+		lock.writeLock().lock();
+		try {
+			size = 0;
+			birthDayCount = 0;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return size;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	// Same bounds as findBySalaryBetween: both ends inclusive, ordered by salary then id
+	public IdPage salaryBetween(double minSalary, double maxSalary, long offset, int limit) {
+		lock.readLock().lock();
+		try {
+			return IdPage.of(salaryIds, firstAtLeast(salaries, size, minSalary), firstAbove(salaries, size, maxSalary),
+					offset, limit);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	// Same bound as findBySalaryGreaterThanEqual
+	public IdPage salaryAtLeast(double minSalary, long offset, int limit) {
+		lock.readLock().lock();
+		try {
+			return IdPage.of(salaryIds, firstAtLeast(salaries, size, minSalary), size, offset, limit);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	// Same bound as findBySalaryLessThan
+	public IdPage salaryBelow(double maxSalary, long offset, int limit) {
+		lock.readLock().lock();
+		try {
+			return IdPage.of(salaryIds, 0, firstAtLeast(salaries, size, maxSalary), offset, limit);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	// Same bound as findByDateOfBirthBefore: strictly before the date, ordered by date of birth then id
+	public IdPage bornBefore(LocalDate date, long offset, int limit) {
+		int day = (int) date.toEpochDay();
+		lock.readLock().lock();
+		try {
+			return IdPage.of(birthDayIds, 0, firstAtLeast(birthDays, birthDayCount, day), offset, limit);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private static int firstAtLeast(double[] keys, int length, double key) {
+		int low = 0;
+		int high = length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (keys[mid] < key) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	private static int firstAbove(double[] keys, int length, double key) {
+		int low = 0;
+		int high = length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (keys[mid] <= key) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	private void removeAt(int position) {
+		int empId = ids[position];
+		double salary = salaryOfId[position];
+		int birthDay = birthDayOfId[position];
+
+		int tail = size - position - 1;
+		System.arraycopy(ids, position + 1, ids, position, tail);
+		System.arraycopy(salaryOfId, position + 1, salaryOfId, position, tail);
+		System.arraycopy(birthDayOfId, position + 1, birthDayOfId, position, tail);
+		System.arraycopy(versionOfId, position + 1, versionOfId, position, tail);
+
+		int salaryPosition = firstAtLeast(salaries, size, salary);
+		while (salaryIds[salaryPosition] != empId) {
+			salaryPosition++;
+		}
+		System.arraycopy(salaries, salaryPosition + 1, salaries, salaryPosition, size - salaryPosition - 1);
+		System.arraycopy(salaryIds, salaryPosition + 1, salaryIds, salaryPosition, size - salaryPosition - 1);
+
+		if (birthDay != NO_DATE) {
+			int birthDayPosition = firstBirthDay(birthDay);
+			while (birthDayIds[birthDayPosition] != empId) {
+				birthDayPosition++;
+			}
+			int birthDayTail = birthDayCount - birthDayPosition - 1;
+			System.arraycopy(birthDays, birthDayPosition + 1, birthDays, birthDayPosition, birthDayTail);
+			System.arraycopy(birthDayIds, birthDayPosition + 1, birthDayIds, birthDayPosition, birthDayTail);
+			birthDayCount--;
+		}
+		size--;
+	}
+
+	private int firstBirthDay(int birthDay) {
+		return firstAtLeast(birthDays, birthDayCount, birthDay);
+	}
+
+	private static int firstAtLeast(int[] keys, int length, int key) {
+		int low = 0;
+		int high = length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (keys[mid] < key) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	private void mergeById(Collection<EmployeeEntity> employees) {
+		List<EmployeeEntity> sorted = sortedCopy(employees, Comparator.comparingInt(EmployeeEntity::getEmpId));
+		int existing = size - 1;
+		int target = size + sorted.size() - 1;
+		for (int next = sorted.size() - 1; next >= 0; target--) {
+			EmployeeEntity employee = sorted.get(next);
+			if (existing >= 0 && ids[existing] > employee.getEmpId()) {
+				ids[target] = ids[existing];
+				salaryOfId[target] = salaryOfId[existing];
+				birthDayOfId[target] = birthDayOfId[existing];
+				versionOfId[target] = versionOfId[existing];
+				existing--;
+			} else {
+				ids[target] = employee.getEmpId();
+				salaryOfId[target] = employee.getSalary();
+				birthDayOfId[target] = birthDay(employee);
+				versionOfId[target] = employee.getVersion();
+				next--;
+			}
+		}
+	}
+
+	private void mergeBySalary(Collection<EmployeeEntity> employees) {
+		List<EmployeeEntity> sorted = sortedCopy(employees,
+				Comparator.comparingDouble(EmployeeEntity::getSalary).thenComparingInt(EmployeeEntity::getEmpId));
+		int existing = size - 1;
+		int target = size + sorted.size() - 1;
+		for (int next = sorted.size() - 1; next >= 0; target--) {
+			EmployeeEntity employee = sorted.get(next);
+			if (existing >= 0 && (salaries[existing] > employee.getSalary()
+					|| salaries[existing] == employee.getSalary() && salaryIds[existing] > employee.getEmpId())) {
+				salaries[target] = salaries[existing];
+				salaryIds[target] = salaryIds[existing];
+				existing--;
+			} else {
+				salaries[target] = employee.getSalary();
+				salaryIds[target] = employee.getEmpId();
+				next--;
+			}
+		}
+	}
+
+	private void mergeByBirthDay(Collection<EmployeeEntity> employees) {
+		List<EmployeeEntity> sorted = new ArrayList<>(employees.size());
+		for (EmployeeEntity employee : employees) {
+			if (employee.getDateOfBirth() != null) {
+				sorted.add(employee);
+			}
+		}
+		sorted.sort(Comparator.comparingLong((EmployeeEntity employee) -> employee.getDateOfBirth().toEpochDay())
+				.thenComparingInt(EmployeeEntity::getEmpId));
+		int existing = birthDayCount - 1;
+		int target = birthDayCount + sorted.size() - 1;
+		for (int next = sorted.size() - 1; next >= 0; target--) {
+			EmployeeEntity employee = sorted.get(next);
+			int birthDay = birthDay(employee);
+			if (existing >= 0 && (birthDays[existing] > birthDay
+					|| birthDays[existing] == birthDay && birthDayIds[existing] > employee.getEmpId())) {
+				birthDays[target] = birthDays[existing];
+				birthDayIds[target] = birthDayIds[existing];
+				existing--;
+			} else {
+				birthDays[target] = birthDay;
+				birthDayIds[target] = employee.getEmpId();
+				next--;
+			}
+		}
+		birthDayCount += sorted.size();
+	}
+
+	// An id saved twice in one batch would otherwise be merged twice, the last save is the one that counts
+	private static List<EmployeeEntity> lastOfEachId(Collection<EmployeeEntity> employees) {
+		// Stable, so the saves of an id stay in batch order
+		List<EmployeeEntity> sorted = sortedCopy(employees, Comparator.comparingInt(EmployeeEntity::getEmpId));
+		int kept = 0;
+		for (int i = 0; i < sorted.size(); i++) {
+			if (i + 1 == sorted.size() || sorted.get(i + 1).getEmpId() != sorted.get(i).getEmpId()) {
+				sorted.set(kept++, sorted.get(i));
+			}
+		}
+		return sorted.subList(0, kept);
+	}
+
+	private static List<EmployeeEntity> sortedCopy(Collection<EmployeeEntity> employees,
+			Comparator<EmployeeEntity> order) {
+		List<EmployeeEntity> sorted = new ArrayList<>(employees);
+		sorted.sort(order);
+		return sorted;
+	}
+
+	private static int birthDay(EmployeeEntity employee) {
+		return employee.getDateOfBirth() == null ? NO_DATE : (int) employee.getDateOfBirth().toEpochDay();
+	}
+
+	private void ensureCapacity(int required) {
+		if (required <= ids.length) {
+			return;
+		}
+		int capacity = Math.max(required, ids.length + (ids.length >> 1));
+		ids = Arrays.copyOf(ids, capacity);
+		salaryOfId = Arrays.copyOf(salaryOfId, capacity);
+		birthDayOfId = Arrays.copyOf(birthDayOfId, capacity);
+		versionOfId = Arrays.copyOf(versionOfId, capacity);
+		salaries = Arrays.copyOf(salaries, capacity);
+		salaryIds = Arrays.copyOf(salaryIds, capacity);
+		birthDays = Arrays.copyOf(birthDays, capacity);
+		birthDayIds = Arrays.copyOf(birthDayIds, capacity);
+	}
+}
@@ -0,0 +1,48 @@
+package com.app.index;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+
+import com.app.entity.EmployeeEntity;
+
+/**
+ * Counts the committed writes to the EMPLOYEE table, so read responses can carry an ETag without hashing their
+ * bodies. It rides on the index notifications instead of indexing anything: every insert, update, delete
+ * and clear moves the version, and a response tagged with the current version is unchanged until the next write.
+ *
+ * The tag also carries the start time of this process, so tags handed out before a restart never match again.
+ * It is weak because the gzip and identity encodings of a response share it, and Tomcat only compresses responses
+ * whose ETag is weak.
+ */
+@Component
+public class EmployeeTableVersion implements EmployeeIndex {
+
+	private final String epoch = Long.toHexString(System.currentTimeMillis());
+
+	private final AtomicLong version = new AtomicLong();
+
+	@Override
+	public void onSaved(Collection<EmployeeEntity> employees) {
+		if (!employees.isEmpty()) {
+			version.incrementAndGet();
+		}
+	}
+
+	@Override
+	public void onDeleted(int empId) {
+		version.incrementAndGet();
+	}
+
+	@Override
+	public void onCleared() {
+		version.incrementAndGet();
+	}
+
+	// Read before the data it tags. A write evicts the cached lookups of its row before it moves the version, so a
+	// tag read after the move comes with a body read after the commit; a write racing the read only makes the tag older
+	public String eTag() {
+		return "W/\"" + epoch + "-" + Long.toHexString(version.get()) + "\"";
+	}
+}
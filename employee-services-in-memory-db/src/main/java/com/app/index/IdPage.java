@@ -0,0 +1,22 @@
+package com.app.index;
+
+import java.util.Arrays;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// One page of the ids matched by an index query, in index order, with the total number of matches
+@Getter
+@AllArgsConstructor
+public class IdPage {
+
+	private final int total;
+	private final int[] ids;
+
+	static IdPage of(int[] sortedIds, int from, int to, long offset, int limit) {
+		int total = Math.max(0, to - from);
+		int start = offset >= total ? to : from + (int) offset;
+		int end = (int) Math.min(to, (long) start + limit);
+		return new IdPage(total, Arrays.copyOfRange(sortedIds, start, Math.max(start, end)));
+	}
+}
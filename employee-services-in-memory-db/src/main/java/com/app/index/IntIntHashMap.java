@@ -0,0 +1,120 @@
+package com.app.index;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing int to int map with linear probing, for the indexes that map employee ids to array positions
+ * without boxing every key and value into a HashMap entry. Removal shifts the following entries back, so
+ * lookups never have to step over tombstones. Not thread safe, callers hold their own lock.
+ */
+public class IntIntHashMap {
+
+	private static final int EMPTY = Integer.MIN_VALUE;
+
+	private static final float LOAD_FACTOR = 0.6f;
+
+	private int[] keys;
+	private int[] values;
+	private int mask;
+	private int size;
+	private int resizeThreshold;
+
+	public IntIntHashMap(int expectedSize) {
+		int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+		allocate(capacity);
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public int get(int key, int missingValue) {
+		int slot = slotOf(key);
+		return slot < 0 ? missingValue : values[slot];
+	}
+
+	public boolean containsKey(int key) {
+		return slotOf(key) >= 0;
+	}
+
+	public void put(int key, int value) {
+		if (key == EMPTY) {
+			throw new IllegalArgumentException("Key " + key + " is reserved");
+		}
+		int slot = hash(key) & mask;
+		while (keys[slot] != EMPTY) {
+			if (keys[slot] == key) {
+				values[slot] = value;
+				return;
+			}
+			slot = (slot + 1) & mask;
+		}
+		keys[slot] = key;
+		values[slot] = value;
+		if (++size > resizeThreshold) {
+			resize();
+		}
+	}
+
+	public int remove(int key, int missingValue) {
+		int slot = slotOf(key);
+		if (slot < 0) {
+			return missingValue;
+		}
+		int value = values[slot];
+		int hole = slot;
+		for (int next = (hole + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask) {
+			// An entry can fill the hole only if its home slot is not between the hole and its current slot
+			int home = hash(keys[next]) & mask;
+			if (((next - home) & mask) >= ((next - hole) & mask)) {
+				keys[hole] = keys[next];
+				values[hole] = values[next];
+				hole = next;
+			}
+		}
+		keys[hole] = EMPTY;
+		size--;
+		return value;
+	}
+
+	public void clear() {
+		Arrays.fill(keys, EMPTY);
+		size = 0;
+	}
+
+	private int slotOf(int key) {
+		int slot = hash(key) & mask;
+		while (keys[slot] != EMPTY) {
+			if (keys[slot] == key) {
+				return slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return -1;
+	}
+
+	private void resize() {
+		int[] oldKeys = keys;
+		int[] oldValues = values;
+		allocate(keys.length << 1);
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != EMPTY) {
+				put(oldKeys[i], oldValues[i]);
+			}
+		}
+	}
+
+	private void allocate(int capacity) {
+		keys = new int[capacity];
+		values = new int[capacity];
+		Arrays.fill(keys, EMPTY);
+		mask = capacity - 1;
+		size = 0;
+		resizeThreshold = (int) (capacity * LOAD_FACTOR);
+	}
+
+	private static int hash(int key) {
+		int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+}
@@ -0,0 +1,28 @@
+package com.app.mapper;
+
+import org.mapstruct.Builder;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
+
+import com.app.entity.EmployeeEntity;
+import com.app.model.Employee;
+
+/**
+ * Employee/EmployeeEntity conversion generated by MapStruct at compile time. The generated class calls the getters
+ * and setters directly (no reflection, no builder), so the only allocation per row is the target object.
+ * A property added on one side only fails the build instead of being silently dropped.
+ */
+@Mapper(componentModel = "spring", builder = @Builder(disableBuilder = true), unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface EmployeeMapper {
+
+	Employee toEmployee(EmployeeEntity employeeEntity);
+
+	EmployeeEntity toEntity(Employee employee);
+
+	// For inserts: the table assigns the id and starts the version, an id in the request must not merge over a row
+	@Mapping(target = "empId", ignore = true)
+	@Mapping(target = "version", ignore = true)
+	EmployeeEntity toNewEntity(Employee employee);
+
+}
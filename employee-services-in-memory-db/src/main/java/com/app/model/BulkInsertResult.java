@@ -0,0 +1,25 @@
+package com.app.model;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class BulkInsertResult {
+
+    private int inserted;
+    private int duplicates;
+    private int failed;
+    private List<EmployeeInsertOutcome> outcomes;
+
+}
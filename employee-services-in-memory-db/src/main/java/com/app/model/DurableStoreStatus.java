@@ -0,0 +1,33 @@
+package com.app.model;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * State of the durable store: the LSN of the last logged write, the snapshot the log continues from and the size of
+ * the log after it, and what the last restore and compaction did. logBytes is what the next restart reads besides
+ * the snapshot.
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class DurableStoreStatus {
+
+    private String directory;
+    private long lastLsn;
+    private long snapshotLsn;
+    private long snapshotRows;
+    private long logBytes;
+    private long restoredRows;
+    private long restoredLogRecords;
+    private long restoreMillis;
+    private long lastCompactionMillis;
+
+}
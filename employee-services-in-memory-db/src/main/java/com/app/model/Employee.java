@@ -4,6 +4,7 @@ import java.io.Serializable;
 import java.time.LocalDate;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateDeserializer;
@@ -36,4 +37,8 @@ public class Employee implements Serializable {
 	private LocalDate dateOfBirth;
 	private String mobileNumber;
 	private String email;
+	// Version of the row this employee was read from, an update that carries it only applies to that version.
+	// Left out of the JSON when unknown, so employees without one read as before
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private Long version;
 }
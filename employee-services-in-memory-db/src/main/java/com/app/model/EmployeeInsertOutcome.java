@@ -0,0 +1,27 @@
+package com.app.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EmployeeInsertOutcome {
+
+    // Position of the employee in the request payload
+    private int index;
+    private Integer empId;
+    private String empName;
+    private InsertOutcome outcome;
+    private String message;
+
+}
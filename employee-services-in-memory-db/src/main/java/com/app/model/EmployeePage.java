@@ -0,0 +1,26 @@
+package com.app.model;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class EmployeePage {
+
+    private List<Employee> employees;
+
+    // Cursor for the next page (pass it as "after"), null when this is the last page
+    private Integer next;
+
+    private int size;
+}
@@ -0,0 +1,28 @@
+package com.app.model;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * One page of the employees matched by an index query. total is the number of matches across all pages.
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class EmployeeSearchResult {
+
+	private int total;
+	private int page;
+	private int size;
+	private List<Employee> employees;
+
+}
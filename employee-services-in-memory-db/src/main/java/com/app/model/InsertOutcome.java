@@ -0,0 +1,9 @@
+package com.app.model;
+
+public enum InsertOutcome {
+
+    INSERTED,
+    DUPLICATE,
+    FAILED
+
+}
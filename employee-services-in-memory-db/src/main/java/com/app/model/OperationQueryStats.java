@@ -0,0 +1,34 @@
+package com.app.model;
+
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * SQL statements run by one service operation since startup (or the last reset of /actuator/queries).
+ * suspectedNPlusOneQueries maps each statement that was repeated within a single call to the number of calls it was
+ * repeated in.
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class OperationQueryStats {
+
+    private long calls;
+    private long statements;
+    private long maxStatementsPerCall;
+    private double statementsPerCall;
+    private double statementMillis;
+    private double statementMillisPerCall;
+    private long callsWithNPlusOne;
+    private Map<String, Long> suspectedNPlusOneQueries;
+
+}
@@ -0,0 +1,33 @@
+package com.app.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Progress of the seed data load: records read from the file so far and what happened to them.
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SeedProgress {
+
+    private SeedStatus status;
+    private String location;
+    private long read;
+    private long inserted;
+    private long duplicates;
+    private long failed;
+    private long elapsedMillis;
+    private String message;
+
+}
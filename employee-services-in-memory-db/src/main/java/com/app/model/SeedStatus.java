@@ -0,0 +1,5 @@
+package com.app.model;
+
+public enum SeedStatus {
+    NOT_STARTED, RUNNING, COMPLETED, FAILED
+}
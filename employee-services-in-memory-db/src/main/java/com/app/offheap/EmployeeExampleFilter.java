@@ -0,0 +1,99 @@
+package com.app.offheap;
+
+import java.beans.PropertyDescriptor;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.support.ExampleMatcherAccessor;
+
+import com.app.entity.EmployeeEntity;
+
+/**
+ * Query by example for {@link OffHeapEmployeeRepository}, tested against the decoded employees of a scan. Matches like
+ * the JPA repository: every property of the probe that is not ignored takes part, the primitive ones (id, salary and
+ * version) always, since they are never null. Strings are compared with the string matcher and the case sensitivity
+ * of their path, a null is skipped or has to match a null depending on the null handler, and the properties all have
+ * to match or any of them. A probe without properties to compare matches every employee.
+ */
+final class EmployeeExampleFilter {
+
+	private static final PropertyDescriptor[] PROPERTIES = PropertyAccessorFactory
+			.forBeanPropertyAccess(new EmployeeEntity()).getPropertyDescriptors();
+
+	private EmployeeExampleFilter() {
+	}
+
+	static Predicate<EmployeeEntity> of(Example<? extends EmployeeEntity> example) {
+		ExampleMatcher matcher = example.getMatcher();
+		ExampleMatcherAccessor accessor = new ExampleMatcherAccessor(matcher);
+		BeanWrapper probe = PropertyAccessorFactory.forBeanPropertyAccess(example.getProbe());
+		List<Predicate<EmployeeEntity>> properties = new ArrayList<>();
+		for (PropertyDescriptor property : PROPERTIES) {
+			String path = property.getName();
+			if (null == property.getWriteMethod() || accessor.isIgnoredPath(path)) {
+				continue;
+			}
+			Object value = accessor.getValueTransformerForPath(path)
+					.apply(Optional.ofNullable(probe.getPropertyValue(path))).orElse(null);
+			if (null == value) {
+				if (accessor.getNullHandler() == ExampleMatcher.NullHandler.INCLUDE) {
+					properties.add(employee -> null == valueOf(employee, path));
+				}
+			} else if (value instanceof String) {
+				properties.add(stringMatch(path, (String) value, accessor.getStringMatcherForPath(path),
+						accessor.isIgnoreCaseForPath(path)));
+			} else {
+				properties.add(employee -> Objects.equals(value, valueOf(employee, path)));
+			}
+		}
+		if (properties.isEmpty()) {
+			return employee -> true;
+		}
+		return matcher.isAllMatching()
+				? employee -> properties.stream().allMatch(property -> property.test(employee))
+				: employee -> properties.stream().anyMatch(property -> property.test(employee));
+	}
+
+	private static Predicate<EmployeeEntity> stringMatch(String path, String value, ExampleMatcher.StringMatcher stringMatcher,
+			boolean ignoreCase) {
+		String probe = ignoreCase ? value.toLowerCase(Locale.ROOT) : value;
+		Predicate<String> match;
+		switch (stringMatcher) {
+		case STARTING:
+			match = candidate -> candidate.startsWith(probe);
+			break;
+		case ENDING:
+			match = candidate -> candidate.endsWith(probe);
+			break;
+		case CONTAINING:
+			match = candidate -> candidate.contains(probe);
+			break;
+		case REGEX:
+			Pattern pattern = Pattern.compile(value, ignoreCase ? Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE : 0);
+			return employee -> {
+				Object candidate = valueOf(employee, path);
+				return null != candidate && pattern.matcher((String) candidate).matches();
+			};
+		default:
+			match = probe::equals;
+		}
+		return employee -> {
+			Object candidate = valueOf(employee, path);
+			return null != candidate
+					&& match.test(ignoreCase ? ((String) candidate).toLowerCase(Locale.ROOT) : (String) candidate);
+		};
+	}
+
+	private static Object valueOf(EmployeeEntity employee, String path) {
+		return PropertyAccessorFactory.forBeanPropertyAccess(employee).getPropertyValue(path);
+	}
+}
@@ -0,0 +1,120 @@
+package com.app.offheap;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.data.repository.query.FluentQuery;
+
+import com.app.entity.EmployeeEntity;
+
+/**
+ * The fluent query of {@link OffHeapEmployeeRepository#findBy}, over the employees an example matches. Like the JPA
+ * repository, results can be projected onto interfaces but not onto DTO classes, and the properties to project are
+ * only a hint: the whole employee is decoded either way.
+ */
+final class EmployeeFluentQuery<R> implements FluentQuery.FetchableFluentQuery<R> {
+
+	private static final ProjectionFactory PROJECTIONS = new SpelAwareProxyProjectionFactory();
+
+	// The matching employees in the order of the sort
+	private final Function<Sort, List<EmployeeEntity>> matches;
+
+	private final Sort sort;
+
+	private final Function<EmployeeEntity, R> result;
+
+	private EmployeeFluentQuery(Function<Sort, List<EmployeeEntity>> matches, Sort sort, Function<EmployeeEntity, R> result) {
+		this.matches = matches;
+		this.sort = sort;
+		this.result = result;
+	}
+
+	static <S extends EmployeeEntity> EmployeeFluentQuery<S> of(Function<Sort, List<EmployeeEntity>> matches) {
+		return new EmployeeFluentQuery<>(matches, Sort.unsorted(), EmployeeFluentQuery::cast);
+	}
+
+	@Override
+	public FetchableFluentQuery<R> sortBy(Sort sort) {
+		return new EmployeeFluentQuery<>(matches, this.sort.and(sort), result);
+	}
+
+	@Override
+	public <T> FetchableFluentQuery<T> as(Class<T> resultType) {
+		if (resultType.isInterface()) {
+			return new EmployeeFluentQuery<>(matches, sort, employee -> PROJECTIONS.createProjection(resultType, employee));
+		}
+		if (resultType.isAssignableFrom(EmployeeEntity.class)) {
+			return new EmployeeFluentQuery<>(matches, sort, resultType::cast);
+		}
+		throw new UnsupportedOperationException("Class-based DTOs are not yet supported.");
+	}
+
+	@Override
+	public FetchableFluentQuery<R> project(Collection<String> properties) {
+		return this;
+	}
+
+	@Override
+	public R oneValue() {
+		List<EmployeeEntity> employees = matches.apply(sort);
+		if (employees.size() > 1) {
+			throw new IncorrectResultSizeDataAccessException(1, employees.size());
+		}
+		return employees.isEmpty() ? null : result.apply(employees.get(0));
+	}
+
+	@Override
+	public R firstValue() {
+		List<EmployeeEntity> employees = matches.apply(sort);
+		return employees.isEmpty() ? null : result.apply(employees.get(0));
+	}
+
+	@Override
+	public List<R> all() {
+		return stream().collect(Collectors.toList());
+	}
+
+	@Override
+	public Page<R> page(Pageable pageable) {
+		List<EmployeeEntity> employees = matches.apply(sort.and(pageable.getSort()));
+		if (pageable.isUnpaged()) {
+			return new PageImpl<>(employees.stream().map(result).collect(Collectors.toList()));
+		}
+		List<R> content = employees.stream()
+				.skip(pageable.getOffset())
+				.limit(pageable.getPageSize())
+				.map(result)
+				.collect(Collectors.toList());
+		return new PageImpl<>(content, pageable, employees.size());
+	}
+
+	@Override
+	public Stream<R> stream() {
+		return matches.apply(sort).stream().map(result);
+	}
+
+	@Override
+	public long count() {
+		return matches.apply(Sort.unsorted()).size();
+	}
+
+	@Override
+	public boolean exists() {
+		return !matches.apply(Sort.unsorted()).isEmpty();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <S> S cast(EmployeeEntity employee) {
+		return (S) employee;
+	}
+}
@@ -0,0 +1,116 @@
+package com.app.offheap;
+
+import java.nio.ByteBuffer;
+import java.util.function.IntPredicate;
+
+/**
+ * Name to id index of the off-heap repository, in two int arrays: open addressing with linear probing over the hash
+ * of the name's UTF-8 bytes, the hash kept next to the id. The names themselves stay in the slabs, a probe that meets
+ * the hash asks the caller whether the record of that id has the name. Removal shifts the following entries back,
+ * using the kept hashes. Not thread safe, the owner holds the lock.
+ */
+class EmployeeNameIndex {
+
+	// Employee ids start at 1
+	private static final int EMPTY = 0;
+
+	private static final float LOAD_FACTOR = 0.5f;
+
+	private int[] ids;
+	private int[] hashes;
+	private int mask;
+	private int size;
+
+	EmployeeNameIndex(int expectedSize) {
+		allocate(Integer.highestOneBit(Math.max(16, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1);
+	}
+
+	// The id whose record has the name, EMPTY when there is none
+	int get(int hash, IntPredicate hasName) {
+		for (int slot = hash & mask; ids[slot] != EMPTY; slot = (slot + 1) & mask) {
+			if (hashes[slot] == hash && hasName.test(ids[slot])) {
+				return ids[slot];
+			}
+		}
+		return EMPTY;
+	}
+
+	// The name must not be in the index yet
+	void put(int id, int hash) {
+		int slot = hash & mask;
+		while (ids[slot] != EMPTY) {
+			slot = (slot + 1) & mask;
+		}
+		ids[slot] = id;
+		hashes[slot] = hash;
+		if (++size > ids.length * LOAD_FACTOR) {
+			resize();
+		}
+	}
+
+	void remove(int id, int hash) {
+		int slot = hash & mask;
+		while (ids[slot] != id) {
+			if (ids[slot] == EMPTY) {
+				return;
+			}
+			slot = (slot + 1) & mask;
+		}
+		// Backward shift: move up every following entry whose home slot is not between the hole and itself
+		int hole = slot;
+		for (int next = (hole + 1) & mask; ids[next] != EMPTY; next = (next + 1) & mask) {
+			int home = hashes[next] & mask;
+			if (((next - home) & mask) >= ((next - hole) & mask)) {
+				ids[hole] = ids[next];
+				hashes[hole] = hashes[next];
+				hole = next;
+			}
+		}
+		ids[hole] = EMPTY;
+		size--;
+	}
+
+	int size() {
+		return size;
+	}
+
+	void clear() {
+		allocate(16);
+	}
+
+	// 32-bit FNV-1a over the UTF-8 bytes of a name
+	static int hash(byte[] name) {
+		int hash = 0x811c9dc5;
+		for (byte b : name) {
+			hash = (hash ^ (b & 0xff)) * 0x01000193;
+		}
+		return hash;
+	}
+
+	// The same hash over name bytes in a slab
+	static int hash(ByteBuffer buffer, int position, int length) {
+		int hash = 0x811c9dc5;
+		for (int i = position; i < position + length; i++) {
+			hash = (hash ^ (buffer.get(i) & 0xff)) * 0x01000193;
+		}
+		return hash;
+	}
+
+	private void resize() {
+		int[] oldIds = ids;
+		int[] oldHashes = hashes;
+		allocate(oldIds.length << 1);
+		for (int i = 0; i < oldIds.length; i++) {
+			if (oldIds[i] != EMPTY) {
+				put(oldIds[i], oldHashes[i]);
+			}
+		}
+	}
+
+	private void allocate(int capacity) {
+		ids = new int[capacity];
+		hashes = new int[capacity];
+		mask = capacity - 1;
+		size = 0;
+	}
+}
@@ -0,0 +1,125 @@
+package com.app.offheap;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.app.durable.EmployeeRecordCodec;
+
+/**
+ * Employee records in {@link EmployeeRecordCodec} form, appended to direct ByteBuffer slabs outside the Java heap. A
+ * record is addressed by an int, the slab in the high bits and the offset within it in 8 byte units in the low bits,
+ * so that addresses fit an {@link com.app.index.IntIntHashMap} value: up to 128 slabs of up to 64 MB.
+ *
+ * Records are never written in place. A replaced or deleted record stays in its slab as garbage until the owner
+ * copies the live records into new slabs, see {@link #needsCompaction()}. Not thread safe, the owner holds the lock.
+ */
+public class EmployeeSlabs {
+
+	public static final int MAX_SLAB_SIZE = 64 << 20;
+
+	private static final int OFFSET_BITS = 23;
+
+	private static final int ALIGNMENT_SHIFT = 3;
+
+	private static final int ALIGNMENT = 1 << ALIGNMENT_SHIFT;
+
+	private static final int MAX_SLABS = 128;
+
+	private final int slabSize;
+
+	private final List<ByteBuffer> slabs = new ArrayList<>();
+
+	private int writeOffset;
+
+	private long usedBytes;
+
+	private long liveBytes;
+
+	public EmployeeSlabs(int slabSize) {
+		if (slabSize <= 0 || slabSize > MAX_SLAB_SIZE || slabSize % ALIGNMENT != 0) {
+			throw new IllegalArgumentException("Slab size should be a multiple of " + ALIGNMENT + " up to " + MAX_SLAB_SIZE);
+		}
+		this.slabSize = slabSize;
+	}
+
+	// Copies the record into the slabs and returns its address
+	public int append(ByteBuffer record) {
+		int size = align(record.remaining());
+		if (size > slabSize) {
+			throw new IllegalArgumentException("Employee record of " + record.remaining() + " bytes does not fit a slab");
+		}
+		if (slabs.isEmpty() || writeOffset + size > slabSize) {
+			if (slabs.size() == MAX_SLABS) {
+				throw new IllegalStateException("Off-heap employee storage is full at " + MAX_SLABS + " slabs");
+			}
+			slabs.add(ByteBuffer.allocateDirect(slabSize));
+			writeOffset = 0;
+		}
+		int slab = slabs.size() - 1;
+		ByteBuffer target = slabs.get(slab).duplicate();
+		target.position(writeOffset);
+		target.put(record.duplicate());
+		int address = (slab << OFFSET_BITS) | (writeOffset >>> ALIGNMENT_SHIFT);
+		writeOffset += size;
+		usedBytes += size;
+		liveBytes += size;
+		return address;
+	}
+
+	public int append(byte[] record) {
+		return append(ByteBuffer.wrap(record));
+	}
+
+	// Copies the record at the address of other slabs, for compaction
+	public int append(EmployeeSlabs source, int address) {
+		ByteBuffer record = source.slab(address).duplicate();
+		int offset = offset(address);
+		record.position(offset).limit(offset + EmployeeRecordCodec.size(record, offset));
+		return append(record);
+	}
+
+	// The record at the address turned to garbage
+	public void free(int address) {
+		liveBytes -= align(EmployeeRecordCodec.size(slab(address), offset(address)));
+	}
+
+	// The slab the record is in, to be read at offset(address) with the absolute accessors of EmployeeRecordCodec
+	public ByteBuffer slab(int address) {
+		return slabs.get(address >>> OFFSET_BITS);
+	}
+
+	public static int offset(int address) {
+		return (address & ((1 << OFFSET_BITS) - 1)) << ALIGNMENT_SHIFT;
+	}
+
+	// Once the garbage outweighs the live records and a slab, copying the live records frees at least one slab
+	public boolean needsCompaction() {
+		long garbage = usedBytes - liveBytes;
+		return garbage > liveBytes && garbage > slabSize;
+	}
+
+	public int getSlabSize() {
+		return slabSize;
+	}
+
+	public int getSlabCount() {
+		return slabs.size();
+	}
+
+	public long getCapacityBytes() {
+		return (long) slabs.size() * slabSize;
+	}
+
+	public long getUsedBytes() {
+		return usedBytes;
+	}
+
+	public long getLiveBytes() {
+		return liveBytes;
+	}
+
+	private static int align(int size) {
+		return (size + ALIGNMENT - 1) & -ALIGNMENT;
+	}
+}
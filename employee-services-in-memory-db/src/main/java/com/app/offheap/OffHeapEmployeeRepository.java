@@ -0,0 +1,760 @@
+package com.app.offheap;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import javax.persistence.EntityNotFoundException;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.query.FluentQuery;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import com.app.durable.EmployeeRecordCodec;
+import com.app.durable.EmployeeRowLoader;
+import com.app.entity.EmployeeEntity;
+import com.app.index.IntIntHashMap;
+import com.app.repository.EmployeeRepository;
+
+/**
+ * EmployeeRepository over {@link EmployeeSlabs} instead of H2 and Hibernate (employee.repository.backend=off-heap),
+ * for tables of millions of employees. The rows live outside the heap in {@link EmployeeRecordCodec} form, the heap
+ * only holds primitive arrays that the garbage collector does not trace entry by entry: record addresses by id in an
+ * {@link IntIntHashMap}, the ids in ascending order for keyset pages and the {@link EmployeeNameIndex}. Entities are
+ * decoded only for the rows a call returns, the derived queries test their field in place. Query by example decodes
+ * every row to compare it with the probe, see {@link EmployeeExampleFilter}.
+ *
+ * Behaves like the JPA repository where the service relies on it: ids are assigned on insert, saving an existing id
+ * takes its current version and increments it, names are unique and a duplicate fails with the same
+ * DataIntegrityViolationException as the unique constraint, and saveAll writes all of its rows or none. Writes are
+ * serialized by a read-write lock, reads run concurrently.
+ *
+ * The derived queries and query by example scan every record. The service answers the salary and mobile number
+ * searches from its own indexes and loads the rows by id, so scans are left to the repository methods nothing calls
+ * on a hot path.
+ */
+public class OffHeapEmployeeRepository implements EmployeeRepository, EmployeeRowLoader {
+
+	private static final int MISSING = -1;
+
+	// What EmployeeNameIndex returns for a name it does not have
+	private static final int NO_ID = 0;
+
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final int slabSize;
+
+	private final IntIntHashMap addresses;
+
+	private final EmployeeNameIndex names;
+
+	private EmployeeSlabs slabs;
+
+	private int[] sortedIds;
+
+	private int idCount;
+
+	// Like the id sequence, not reset when the table is emptied
+	private int nextId = 1;
+
+	public OffHeapEmployeeRepository(int slabSize, int expectedEmployees) {
+		this.slabSize = slabSize;
+		this.slabs = new EmployeeSlabs(slabSize);
+		this.addresses = new IntIntHashMap(expectedEmployees);
+		this.names = new EmployeeNameIndex(expectedEmployees);
+		this.sortedIds = new int[Math.max(16, expectedEmployees)];
+	}
+
+	@Override
+	public <S extends EmployeeEntity> S save(S entity) {
+		lock.writeLock().lock();
+		try {
+			checkWrites(List.of(entity));
+			write(entity);
+			compactIfNeeded();
+			return entity;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public <S extends EmployeeEntity> List<S> saveAll(Iterable<S> entities) {
+		List<S> employees = new ArrayList<>();
+		entities.forEach(employees::add);
+		lock.writeLock().lock();
+		try {
+			// Every row is checked before the first is written, like a batch that rolls back as a whole
+			checkWrites(employees);
+			employees.forEach(this::write);
+			compactIfNeeded();
+			return employees;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public <S extends EmployeeEntity> S saveAndFlush(S entity) {
+		return save(entity);
+	}
+
+	@Override
+	public <S extends EmployeeEntity> List<S> saveAllAndFlush(Iterable<S> entities) {
+		return saveAll(entities);
+	}
+
+	@Override
+	public void flush() {
+		// Every write is visible as soon as it returns
+	}
+
+	@Override
+	public Optional<EmployeeEntity> findById(Integer id) {
+		lock.readLock().lock();
+		try {
+			int address = address(id);
+			return address == MISSING ? Optional.empty() : Optional.of(decode(address));
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public boolean existsById(Integer id) {
+		lock.readLock().lock();
+		try {
+			return address(id) != MISSING;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public EmployeeEntity getOne(Integer id) {
+		return getById(id);
+	}
+
+	@Override
+	public EmployeeEntity getById(Integer id) {
+		return findById(id).orElseThrow(() -> new EntityNotFoundException("Unable to find "
+				+ EmployeeEntity.class.getName() + " with id " + id));
+	}
+
+	@Override
+	public long count() {
+		lock.readLock().lock();
+		try {
+			return idCount;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	// In id order
+	@Override
+	public List<EmployeeEntity> findAll() {
+		lock.readLock().lock();
+		try {
+			return decodeRange(0, idCount);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public List<EmployeeEntity> findAll(Sort sort) {
+		List<EmployeeEntity> employees = findAll();
+		if (sort.isSorted()) {
+			employees.sort(comparator(sort));
+		}
+		return employees;
+	}
+
+	@Override
+	public Page<EmployeeEntity> findAll(Pageable pageable) {
+		if (pageable.isUnpaged()) {
+			return new PageImpl<>(findAll(pageable.getSort()));
+		}
+		if (pageable.getSort().isSorted()) {
+			List<EmployeeEntity> employees = findAll(pageable.getSort());
+			int from = (int) Math.min(pageable.getOffset(), employees.size());
+			int to = Math.min(from + pageable.getPageSize(), employees.size());
+			return new PageImpl<>(new ArrayList<>(employees.subList(from, to)), pageable, employees.size());
+		}
+		lock.readLock().lock();
+		try {
+			int from = (int) Math.min(pageable.getOffset(), idCount);
+			return new PageImpl<>(decodeRange(from, Math.min(from + pageable.getPageSize(), idCount)), pageable, idCount);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	// Each existing id once, like the IN query
+	@Override
+	public List<EmployeeEntity> findAllById(Iterable<Integer> ids) {
+		Set<Integer> distinctIds = new LinkedHashSet<>();
+		ids.forEach(distinctIds::add);
+		List<EmployeeEntity> employees = new ArrayList<>(distinctIds.size());
+		lock.readLock().lock();
+		try {
+			for (Integer id : distinctIds) {
+				int address = address(id);
+				if (address != MISSING) {
+					employees.add(decode(address));
+				}
+			}
+			return employees;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public Optional<EmployeeEntity> findByEmpName(String name) {
+		if (null == name) {
+			return Optional.empty();
+		}
+		lock.readLock().lock();
+		try {
+			int id = idOfName(bytes(name));
+			return id == NO_ID ? Optional.empty() : Optional.of(decode(address(id)));
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public List<EmployeeEntity> findByEmpIdGreaterThanOrderByEmpIdAsc(int empId, Pageable pageable) {
+		lock.readLock().lock();
+		try {
+			int from = firstIndexAfter(empId);
+			if (pageable.isUnpaged()) {
+				return decodeRange(from, idCount);
+			}
+			from = (int) Math.min(from + pageable.getOffset(), idCount);
+			return decodeRange(from, Math.min(from + pageable.getPageSize(), idCount));
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public List<String> findExistingEmpNames(Collection<String> names) {
+		List<String> existing = new ArrayList<>();
+		lock.readLock().lock();
+		try {
+			for (String name : new LinkedHashSet<>(names)) {
+				if (null != name && idOfName(bytes(name)) != NO_ID) {
+					existing.add(name);
+				}
+			}
+			return existing;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public List<EmployeeEntity> findBySalaryBetween(double start, double end) {
+		return scan((slab, offset) -> {
+			double salary = EmployeeRecordCodec.salary(slab, offset);
+			return salary >= start && salary <= end;
+		});
+	}
+
+	@Override
+	public List<EmployeeEntity> findByMobileNumberStartingWith(String start) {
+		byte[] prefix = bytes(start);
+		return scan((slab, offset) -> EmployeeRecordCodec.stringStartsWith(slab, offset, EmployeeRecordCodec.MOBILE_NUMBER, prefix));
+	}
+
+	@Override
+	public List<EmployeeEntity> findByDateOfBirthBefore(java.util.Date date) {
+		LocalDate before = date instanceof java.sql.Date ? ((java.sql.Date) date).toLocalDate()
+				: date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+		long beforeEpochDay = before.toEpochDay();
+		return scan((slab, offset) -> {
+			int epochDay = EmployeeRecordCodec.epochDayOfBirth(slab, offset);
+			return epochDay != EmployeeRecordCodec.NULL_DATE && epochDay < beforeEpochDay;
+		});
+	}
+
+	@Override
+	public List<EmployeeEntity> findBySalaryGreaterThanEqual(double salary) {
+		return scan((slab, offset) -> EmployeeRecordCodec.salary(slab, offset) >= salary);
+	}
+
+	@Override
+	public List<EmployeeEntity> findBySalaryLessThan(double salary) {
+		return scan((slab, offset) -> EmployeeRecordCodec.salary(slab, offset) < salary);
+	}
+
+	@Override
+	public Optional<EmployeeEntity> updateFields(int empId, Long expectedVersion, EmployeeEntity values,
+			Collection<String> fields) {
+		lock.writeLock().lock();
+		try {
+			int address = address(empId);
+			if (address == MISSING) {
+				return Optional.empty();
+			}
+			EmployeeEntity employee = decode(address);
+			if (null != expectedVersion && employee.getVersion() != expectedVersion) {
+				return Optional.empty();
+			}
+			BeanWrapper source = PropertyAccessorFactory.forBeanPropertyAccess(values);
+			BeanWrapper target = PropertyAccessorFactory.forBeanPropertyAccess(employee);
+			for (String field : fields) {
+				if (!UPDATABLE_FIELDS.contains(field)) {
+					throw new IllegalArgumentException("Not an updatable employee field: " + field);
+				}
+				target.setPropertyValue(field, source.getPropertyValue(field));
+			}
+			checkName(employee.getEmpName(), empId);
+			employee.setVersion(employee.getVersion() + 1);
+			replace(empId, address, EmployeeRecordCodec.encode(employee));
+			compactIfNeeded();
+			return Optional.of(employee);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void deleteById(Integer id) {
+		lock.writeLock().lock();
+		try {
+			int address = address(id);
+			if (address == MISSING) {
+				throw new EmptyResultDataAccessException(
+						String.format("No %s entity with id %s exists!", EmployeeEntity.class, id), 1);
+			}
+			remove(id, address);
+			compactIfNeeded();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void delete(EmployeeEntity entity) {
+		deleteAllByIdInBatch(List.of(entity.getEmpId()));
+	}
+
+	@Override
+	public void deleteAllById(Iterable<? extends Integer> ids) {
+		ids.forEach(this::deleteById);
+	}
+
+	@Override
+	public void deleteAll(Iterable<? extends EmployeeEntity> entities) {
+		entities.forEach(this::delete);
+	}
+
+	@Override
+	public void deleteAll() {
+		deleteAllEmployees();
+	}
+
+	@Override
+	public void deleteAllInBatch(Iterable<EmployeeEntity> entities) {
+		deleteAll(entities);
+	}
+
+	// Ids that do not exist are skipped, like the batch DELETE
+	@Override
+	public void deleteAllByIdInBatch(Iterable<Integer> ids) {
+		lock.writeLock().lock();
+		try {
+			for (Integer id : ids) {
+				int address = address(id);
+				if (address != MISSING) {
+					remove(id, address);
+				}
+			}
+			compactIfNeeded();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void deleteAllInBatch() {
+		deleteAllEmployees();
+	}
+
+	@Override
+	public int deleteAllEmployees() {
+		lock.writeLock().lock();
+		try {
+			int deleted = idCount;
+			clearRecords();
+			return deleted;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void clear() {
+		lock.writeLock().lock();
+		try {
+			clearRecords();
+			nextId = 1;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	// Restored rows are copied into the slabs as they are, without decoding them
+	@Override
+	public void load(ByteBuffer row) {
+		lock.writeLock().lock();
+		try {
+			int id = EmployeeRecordCodec.id(row);
+			int address = address(id);
+			if (address != MISSING) {
+				remove(id, address);
+			}
+			insert(id, row);
+			nextId = Math.max(nextId, id + 1);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void finish() {
+		lock.writeLock().lock();
+		try {
+			compactIfNeeded();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public int getSlabCount() {
+		lock.readLock().lock();
+		try {
+			return slabs.getSlabCount();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	// Off-heap memory allocated for the slabs
+	public long getCapacityBytes() {
+		lock.readLock().lock();
+		try {
+			return slabs.getCapacityBytes();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	// Bytes of the slabs taken by current records, the rest of the used bytes is garbage until the next compaction
+	public long getLiveBytes() {
+		lock.readLock().lock();
+		try {
+			return slabs.getLiveBytes();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public long getUsedBytes() {
+		lock.readLock().lock();
+		try {
+			return slabs.getUsedBytes();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public <S extends EmployeeEntity> Optional<S> findOne(Example<S> example) {
+		return Optional.ofNullable(findBy(example, FluentQuery.FetchableFluentQuery::oneValue));
+	}
+
+	@Override
+	public <S extends EmployeeEntity> List<S> findAll(Example<S> example) {
+		return findBy(example, FluentQuery.FetchableFluentQuery::all);
+	}
+
+	@Override
+	public <S extends EmployeeEntity> List<S> findAll(Example<S> example, Sort sort) {
+		return findBy(example, query -> query.sortBy(sort).all());
+	}
+
+	@Override
+	public <S extends EmployeeEntity> Page<S> findAll(Example<S> example, Pageable pageable) {
+		return findBy(example, query -> query.page(pageable));
+	}
+
+	@Override
+	public <S extends EmployeeEntity> long count(Example<S> example) {
+		return findBy(example, FluentQuery.FetchableFluentQuery::count);
+	}
+
+	@Override
+	public <S extends EmployeeEntity> boolean exists(Example<S> example) {
+		return findBy(example, FluentQuery.FetchableFluentQuery::exists);
+	}
+
+	// Query by example scans every record like the derived queries, decoding each one to test it against the probe
+	@Override
+	public <S extends EmployeeEntity, R> R findBy(Example<S> example,
+			Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction) {
+		Predicate<EmployeeEntity> filter = EmployeeExampleFilter.of(example);
+		return queryFunction.apply(EmployeeFluentQuery.of(sort -> {
+			List<EmployeeEntity> employees = scanEmployees(filter);
+			if (sort.isSorted()) {
+				employees.sort(comparator(sort));
+			}
+			return employees;
+		}));
+	}
+
+	// Version and name checks of a save, before anything is written
+	private void checkWrites(List<? extends EmployeeEntity> employees) {
+		Set<String> batchNames = new HashSet<>();
+		for (EmployeeEntity employee : employees) {
+			int address = employee.getEmpId() == 0 ? MISSING : address(employee.getEmpId());
+			if (address != MISSING && EmployeeRecordCodec.version(slabs.slab(address), EmployeeSlabs.offset(address)) != employee.getVersion()) {
+				throw new ObjectOptimisticLockingFailureException(EmployeeEntity.class, employee.getEmpId());
+			}
+			if (null != employee.getEmpName() && !batchNames.add(employee.getEmpName())) {
+				throw duplicateName(employee.getEmpName());
+			}
+			checkName(employee.getEmpName(), address == MISSING ? NO_ID : employee.getEmpId());
+		}
+	}
+
+	// The name is free or already the name of the employee with the id
+	private void checkName(String name, int id) {
+		if (null != name) {
+			int owner = idOfName(bytes(name));
+			if (owner != NO_ID && owner != id) {
+				throw duplicateName(name);
+			}
+		}
+	}
+
+	// A new row gets the next id and version 0, an existing row is replaced with the next version
+	private void write(EmployeeEntity employee) {
+		int address = employee.getEmpId() == 0 ? MISSING : address(employee.getEmpId());
+		if (address == MISSING) {
+			employee.setEmpId(nextId++);
+			employee.setVersion(0);
+			insert(employee.getEmpId(), ByteBuffer.wrap(EmployeeRecordCodec.encode(employee)));
+		} else {
+			employee.setVersion(employee.getVersion() + 1);
+			replace(employee.getEmpId(), address, EmployeeRecordCodec.encode(employee));
+		}
+	}
+
+	private void insert(int id, ByteBuffer record) {
+		int address = slabs.append(record);
+		addresses.put(id, address);
+		addSortedId(id);
+		int nameHash = nameHash(address);
+		if (nameHash != MISSING) {
+			names.put(id, nameHash);
+		}
+	}
+
+	private void replace(int id, int address, byte[] record) {
+		int oldNameHash = nameHash(address);
+		if (oldNameHash != MISSING) {
+			names.remove(id, oldNameHash);
+		}
+		slabs.free(address);
+		int newAddress = slabs.append(record);
+		addresses.put(id, newAddress);
+		int newNameHash = nameHash(newAddress);
+		if (newNameHash != MISSING) {
+			names.put(id, newNameHash);
+		}
+	}
+
+	private void remove(int id, int address) {
+		int nameHash = nameHash(address);
+		if (nameHash != MISSING) {
+			names.remove(id, nameHash);
+		}
+		slabs.free(address);
+		addresses.remove(id, MISSING);
+		removeSortedId(id);
+	}
+
+	private void clearRecords() {
+		slabs = new EmployeeSlabs(slabSize);
+		addresses.clear();
+		names.clear();
+		idCount = 0;
+	}
+
+	// Copies the live records into new slabs in id order, the old slabs are released with their buffers
+	private void compactIfNeeded() {
+		if (!slabs.needsCompaction()) {
+			return;
+		}
+		EmployeeSlabs compacted = new EmployeeSlabs(slabSize);
+		for (int i = 0; i < idCount; i++) {
+			int id = sortedIds[i];
+			addresses.put(id, compacted.append(slabs, addresses.get(id, MISSING)));
+		}
+		slabs = compacted;
+	}
+
+	private int address(int id) {
+		return addresses.get(id, MISSING);
+	}
+
+	private EmployeeEntity decode(int address) {
+		return EmployeeRecordCodec.decode(slabs.slab(address), EmployeeSlabs.offset(address));
+	}
+
+	private List<EmployeeEntity> decodeRange(int from, int to) {
+		List<EmployeeEntity> employees = new ArrayList<>(Math.max(0, to - from));
+		for (int i = from; i < to; i++) {
+			employees.add(decode(address(sortedIds[i])));
+		}
+		return employees;
+	}
+
+	private List<EmployeeEntity> scan(RecordFilter filter) {
+		List<EmployeeEntity> employees = new ArrayList<>();
+		lock.readLock().lock();
+		try {
+			for (int i = 0; i < idCount; i++) {
+				int address = address(sortedIds[i]);
+				ByteBuffer slab = slabs.slab(address);
+				int offset = EmployeeSlabs.offset(address);
+				if (filter.test(slab, offset)) {
+					employees.add(EmployeeRecordCodec.decode(slab, offset));
+				}
+			}
+			return employees;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private List<EmployeeEntity> scanEmployees(Predicate<EmployeeEntity> filter) {
+		List<EmployeeEntity> employees = new ArrayList<>();
+		lock.readLock().lock();
+		try {
+			for (int i = 0; i < idCount; i++) {
+				EmployeeEntity employee = decode(address(sortedIds[i]));
+				if (filter.test(employee)) {
+					employees.add(employee);
+				}
+			}
+			return employees;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private int idOfName(byte[] name) {
+		return names.get(EmployeeNameIndex.hash(name), id -> {
+			int address = address(id);
+			return EmployeeRecordCodec.stringEquals(slabs.slab(address), EmployeeSlabs.offset(address),
+					EmployeeRecordCodec.NAME, name);
+		});
+	}
+
+	// Hash of the name of the record, MISSING when it has none
+	private int nameHash(int address) {
+		ByteBuffer slab = slabs.slab(address);
+		int position = EmployeeRecordCodec.stringOffset(slab, EmployeeSlabs.offset(address), EmployeeRecordCodec.NAME);
+		int length = slab.getInt(position - 4);
+		if (length == EmployeeRecordCodec.NULL_STRING) {
+			return MISSING;
+		}
+		int hash = EmployeeNameIndex.hash(slab, position, length);
+		// MISSING is taken to mean no name, a name that hashes to it shares the hash of another value
+		return hash == MISSING ? MISSING - 1 : hash;
+	}
+
+	private void addSortedId(int id) {
+		if (idCount == sortedIds.length) {
+			sortedIds = Arrays.copyOf(sortedIds, idCount << 1);
+		}
+		if (idCount == 0 || sortedIds[idCount - 1] < id) {
+			sortedIds[idCount++] = id;
+			return;
+		}
+		int insertAt = -Arrays.binarySearch(sortedIds, 0, idCount, id) - 1;
+		System.arraycopy(sortedIds, insertAt, sortedIds, insertAt + 1, idCount - insertAt);
+		sortedIds[insertAt] = id;
+		idCount++;
+	}
+
+	private void removeSortedId(int id) {
+		int at = Arrays.binarySearch(sortedIds, 0, idCount, id);
+		System.arraycopy(sortedIds, at + 1, sortedIds, at, idCount - at - 1);
+		idCount--;
+	}
+
+	private int firstIndexAfter(int id) {
+		int at = Arrays.binarySearch(sortedIds, 0, idCount, id);
+		return at >= 0 ? at + 1 : -at - 1;
+	}
+
+	private static byte[] bytes(String value) {
+		return value.getBytes(StandardCharsets.UTF_8);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Comparator<EmployeeEntity> comparator(Sort sort) {
+		Comparator<EmployeeEntity> comparator = (a, b) -> 0;
+		for (Sort.Order order : sort) {
+			Comparator<EmployeeEntity> byProperty = Comparator.comparing(
+					employee -> (Comparable<Object>) PropertyAccessorFactory.forBeanPropertyAccess(employee)
+							.getPropertyValue(order.getProperty()),
+					Comparator.nullsLast(Comparator.naturalOrder()));
+			comparator = comparator.thenComparing(order.isAscending() ? byProperty : byProperty.reversed());
+		}
+		return comparator;
+	}
+
+	// The exception the unique constraint on the name raises through Hibernate, which the service translates
+	private static DataIntegrityViolationException duplicateName(String name) {
+		String message = "Unique constraint " + EmployeeEntity.UNIQUE_NAME_CONSTRAINT + " violated by name: " + name;
+		return new DataIntegrityViolationException(message,
+				new ConstraintViolationException(message, null, EmployeeEntity.UNIQUE_NAME_CONSTRAINT));
+	}
+
+	@FunctionalInterface
+	private interface RecordFilter {
+
+		boolean test(ByteBuffer slab, int offset);
+	}
+}
@@ -0,0 +1,91 @@
+package com.app.profiler;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Reports every statement execution on its connections to the {@link QueryProfiler}, with the time the driver took to
+ * run it. A JDBC batch is one execution, it is one round trip to the database.
+ */
+public class ProfilingDataSource extends DelegatingDataSource {
+
+	private static final String BATCH = "<batch>";
+
+	private final QueryProfiler profiler;
+
+	public ProfilingDataSource(DataSource target, QueryProfiler profiler) {
+		super(target);
+		this.profiler = profiler;
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return profiled(super.getConnection());
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		return profiled(super.getConnection(username, password));
+	}
+
+	private Connection profiled(Connection connection) {
+		return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Connection.class },
+				(proxy, method, args) -> {
+					Object result = proxied(proxy, connection, method, args);
+					if (result instanceof Statement) {
+						String sql = method.getName().startsWith("prepare") ? (String) args[0] : null;
+						return profiled((Statement) result, sql);
+					}
+					return result;
+				});
+	}
+
+	private Statement profiled(Statement statement, String preparedSql) {
+		Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+				: statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+		return (Statement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { type },
+				(proxy, method, args) -> {
+					if (!method.getName().startsWith("execute")) {
+						return proxied(proxy, statement, method, args);
+					}
+					long start = System.nanoTime();
+					try {
+						return proxied(proxy, statement, method, args);
+					} finally {
+						profiler.recordStatement(sql(method, args, preparedSql), System.nanoTime() - start);
+					}
+				});
+	}
+
+	private static String sql(Method method, Object[] args, String preparedSql) {
+		if (null != args && args.length > 0 && args[0] instanceof String) {
+			return (String) args[0];
+		}
+		return null != preparedSql ? preparedSql : BATCH;
+	}
+
+	// Proxies are compared by identity, as pooled connections and statements are
+	private static Object proxied(Object proxy, Object target, Method method, Object[] args) throws Throwable {
+		if (method.getName().equals("equals") && method.getParameterCount() == 1) {
+			return proxy == args[0];
+		}
+		if (method.getName().equals("hashCode") && method.getParameterCount() == 0) {
+			return System.identityHashCode(proxy);
+		}
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+}
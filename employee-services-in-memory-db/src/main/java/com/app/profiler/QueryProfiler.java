@@ -0,0 +1,170 @@
+package com.app.profiler;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.app.model.OperationQueryStats;
+
+/**
+ * Counts and times the SQL statements each service operation runs. An operation is the outermost profiled call on a
+ * thread, from {@link #begin(String)} to {@link #end()}; statements reported in between through
+ * {@link #recordStatement(String, long)} are charged to it.
+ * <p>
+ * A SELECT that one call runs nPlusOneThreshold times or more is flagged as a suspected N+1: a query per row that a
+ * single query over all rows could replace. Aggregates are exact, only the log lines are sampled, and they are
+ * written by the log executor so that a slow appender never holds up a request.
+ */
+public class QueryProfiler {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(QueryProfiler.class);
+
+	private final ThreadLocal<Call> current = new ThreadLocal<>();
+
+	private final ConcurrentMap<String, Aggregate> operations = new ConcurrentHashMap<>();
+
+	private final Executor logExecutor;
+
+	private final double sampleRate;
+
+	private final int nPlusOneThreshold;
+
+	public QueryProfiler(Executor logExecutor, double sampleRate, int nPlusOneThreshold) {
+		this.logExecutor = logExecutor;
+		this.sampleRate = sampleRate;
+		this.nPlusOneThreshold = nPlusOneThreshold;
+	}
+
+	// Starts an operation unless one is already running on this thread, returns whether end() must be called
+	public boolean begin(String operation) {
+		if (null != current.get()) {
+			return false;
+		}
+		current.set(new Call(operation));
+		return true;
+	}
+
+	public void recordStatement(String sql, long nanos) {
+		Call call = current.get();
+		if (null != call) {
+			call.statements++;
+			call.nanos += nanos;
+			call.counts.merge(sql, 1, Integer::sum);
+		}
+	}
+
+	public void end() {
+		Call call = current.get();
+		current.remove();
+		if (null == call) {
+			return;
+		}
+		Map<String, Integer> repeated = call.counts.entrySet().stream()
+				.filter(entry -> entry.getValue() >= nPlusOneThreshold && isSelect(entry.getKey()))
+				.collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+		operations.computeIfAbsent(call.operation, name -> new Aggregate()).add(call, repeated.keySet());
+
+		if (!repeated.isEmpty() || ThreadLocalRandom.current().nextDouble() < sampleRate) {
+			try {
+				logExecutor.execute(() -> log(call, repeated));
+			} catch (RuntimeException e) {
+				// The log queue is full, the aggregates still have the call
+			}
+		}
+	}
+
+	public Map<String, OperationQueryStats> getOperations() {
+		Map<String, OperationQueryStats> stats = new TreeMap<>();
+		operations.forEach((operation, aggregate) -> stats.put(operation, aggregate.snapshot()));
+		return stats;
+	}
+
+	public void reset() {
+		operations.clear();
+	}
+
+	private void log(Call call, Map<String, Integer> repeated) {
+		if (repeated.isEmpty()) {
+			LOGGER.info("{}: {} statements in {} ms", call.operation, call.statements, millis(call.nanos));
+		} else {
+			LOGGER.warn("{}: {} statements in {} ms, suspected N+1 {}", call.operation, call.statements,
+					millis(call.nanos), repeated);
+		}
+	}
+
+	private static boolean isSelect(String sql) {
+		return sql.trim().toLowerCase(Locale.ROOT).startsWith("select");
+	}
+
+	private static double millis(long nanos) {
+		return nanos / 1_000_000.0;
+	}
+
+	// Statements of one running call, only touched by its own thread
+	private static class Call {
+
+		private final String operation;
+
+		private final Map<String, Integer> counts = new HashMap<>();
+
+		private int statements;
+
+		private long nanos;
+
+		Call(String operation) {
+			this.operation = operation;
+		}
+	}
+
+	private static class Aggregate {
+
+		private final LongAdder calls = new LongAdder();
+
+		private final LongAdder statements = new LongAdder();
+
+		private final LongAccumulator maxStatements = new LongAccumulator(Math::max, 0);
+
+		private final LongAdder nanos = new LongAdder();
+
+		private final LongAdder callsWithNPlusOne = new LongAdder();
+
+		private final ConcurrentMap<String, LongAdder> suspects = new ConcurrentHashMap<>();
+
+		void add(Call call, Iterable<String> repeated) {
+			calls.increment();
+			statements.add(call.statements);
+			maxStatements.accumulate(call.statements);
+			nanos.add(call.nanos);
+			boolean flagged = false;
+			for (String sql : repeated) {
+				suspects.computeIfAbsent(sql, key -> new LongAdder()).increment();
+				flagged = true;
+			}
+			if (flagged) {
+				callsWithNPlusOne.increment();
+			}
+		}
+
+		OperationQueryStats snapshot() {
+			long callCount = calls.sum();
+			long statementCount = statements.sum();
+			double statementMillis = millis(nanos.sum());
+			Map<String, Long> suspected = new TreeMap<>();
+			suspects.forEach((sql, count) -> suspected.put(sql, count.sum()));
+			return new OperationQueryStats(callCount, statementCount, maxStatements.get(),
+					callCount == 0 ? 0 : (double) statementCount / callCount, statementMillis,
+					callCount == 0 ? 0 : statementMillis / callCount, callsWithNPlusOne.sum(), suspected);
+		}
+	}
+}
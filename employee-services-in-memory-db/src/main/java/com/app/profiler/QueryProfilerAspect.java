@@ -0,0 +1,30 @@
+package com.app.profiler;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+/**
+ * Makes every public EmployeeServiceImpl method a profiled operation, named after the method.
+ */
+@Aspect
+public class QueryProfilerAspect {
+
+	private final QueryProfiler profiler;
+
+	public QueryProfilerAspect(QueryProfiler profiler) {
+		this.profiler = profiler;
+	}
+
+	@Around("execution(public * com.app.service.EmployeeServiceImpl.*(..))")
+	public Object profile(ProceedingJoinPoint joinPoint) throws Throwable {
+		boolean started = profiler.begin(joinPoint.getSignature().getName());
+		try {
+			return joinPoint.proceed();
+		} finally {
+			if (started) {
+				profiler.end();
+			}
+		}
+	}
+}
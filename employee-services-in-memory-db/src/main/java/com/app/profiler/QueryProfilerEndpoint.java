@@ -0,0 +1,30 @@
+package com.app.profiler;
+
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import com.app.model.OperationQueryStats;
+
+// /actuator/queries: SQL statements per service operation, DELETE starts the aggregates over
+@Endpoint(id = "queries")
+public class QueryProfilerEndpoint {
+
+	private final QueryProfiler profiler;
+
+	public QueryProfilerEndpoint(QueryProfiler profiler) {
+		this.profiler = profiler;
+	}
+
+	@ReadOperation
+	public Map<String, OperationQueryStats> operations() {
+		return profiler.getOperations();
+	}
+
+	@DeleteOperation
+	public void reset() {
+		profiler.reset();
+	}
+}
@@ -1,18 +1,30 @@
 package com.app.repository;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.app.entity.EmployeeEntity;
 
 @Repository
-public interface EmployeeRepository extends JpaRepository<EmployeeEntity, Integer> {
+public interface EmployeeRepository extends JpaRepository<EmployeeEntity, Integer>, EmployeeRepositoryCustom {
 
 	Optional<EmployeeEntity> findByEmpName(String name);
 
+	List<EmployeeEntity> findByEmpIdGreaterThanOrderByEmpIdAsc(int empId, Pageable pageable);
+
+	@Query("select e.empName from EmployeeEntity e where e.empName in :names")
+	List<String> findExistingEmpNames(@Param("names") Collection<String> names);
+
 	List<EmployeeEntity> findBySalaryBetween(double start, double end);
 
 	List<EmployeeEntity> findByMobileNumberStartingWith(String start);
@@ -22,4 +34,10 @@ public interface EmployeeRepository extends JpaRepository<EmployeeEntity, Intege
 	List<EmployeeEntity> findBySalaryGreaterThanEqual(double salary);
 
 	List<EmployeeEntity> findBySalaryLessThan(double salary);
+
+	// Single set-based DELETE, unlike deleteAll() it neither loads the rows nor issues one statement per row
+	@Transactional
+	@Modifying
+	@Query("delete from EmployeeEntity e")
+	int deleteAllEmployees();
 }
@@ -0,0 +1,24 @@
+package com.app.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import com.app.entity.EmployeeEntity;
+
+/**
+ * Updates that Spring Data cannot derive, implemented by {@link EmployeeRepositoryCustomImpl}.
+ */
+public interface EmployeeRepositoryCustom {
+
+	// Every property an update may set, all of them for a PUT and the supplied ones for a PATCH
+	List<String> UPDATABLE_FIELDS = List.of("empName", "role", "salary", "dateOfBirth", "mobileNumber", "email");
+
+	/**
+	 * Sets the given fields of the employee to the values in {@code values} and increments its version, in a single
+	 * UPDATE statement. With an expected version only that version of the row is updated. Returns the row as the
+	 * update left it, read by the same statement, and empty when the employee does not exist or has another version.
+	 */
+	Optional<EmployeeEntity> updateFields(int empId, Long expectedVersion, EmployeeEntity values, Collection<String> fields);
+
+}
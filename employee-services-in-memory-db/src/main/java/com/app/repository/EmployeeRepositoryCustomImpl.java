@@ -0,0 +1,98 @@
+package com.app.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import javax.persistence.Column;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Table;
+
+import org.hibernate.Session;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.ReflectionUtils;
+
+import com.app.entity.EmployeeEntity;
+
+/**
+ * Plain UPDATE instead of load and merge: the row is neither read first nor attached to a persistence context, the
+ * version check and the increment are part of the statement itself. H2 hands back the columns of the updated row as
+ * the generated keys of the statement, so the same round trip returns the row it committed.
+ * <p>
+ * It runs on the connection of the Hibernate session, so a constraint violation surfaces as Hibernate's
+ * ConstraintViolationException, as it would for a flush.
+ */
+public class EmployeeRepositoryCustomImpl implements EmployeeRepositoryCustom {
+
+	private static final String TABLE = EmployeeEntity.class.getAnnotation(Table.class).name();
+
+	private static final String EMP_ID = column("empId");
+
+	private static final String VERSION = column("version");
+
+	// The columns of the whole row, returned by the UPDATE
+	private static final String[] ROW = { EMP_ID, column("empName"), column("role"), column("salary"),
+			column("dateOfBirth"), column("mobileNumber"), column("email"), VERSION };
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Override
+	@Transactional
+	public Optional<EmployeeEntity> updateFields(int empId, Long expectedVersion, EmployeeEntity values,
+			Collection<String> fields) {
+		BeanWrapper source = PropertyAccessorFactory.forBeanPropertyAccess(values);
+		StringBuilder sql = new StringBuilder("UPDATE ").append(TABLE).append(" SET ");
+		List<Object> parameters = new ArrayList<>();
+		for (String field : fields) {
+			if (!UPDATABLE_FIELDS.contains(field)) {
+				throw new IllegalArgumentException("Not an updatable employee field: " + field);
+			}
+			sql.append(column(field)).append(" = ?, ");
+			parameters.add(source.getPropertyValue(field));
+		}
+		sql.append(VERSION).append(" = ").append(VERSION).append(" + 1 WHERE ").append(EMP_ID).append(" = ?");
+		parameters.add(empId);
+		if (null != expectedVersion) {
+			sql.append(" AND ").append(VERSION).append(" = ?");
+			parameters.add(expectedVersion);
+		}
+
+		return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+			try (PreparedStatement update = connection.prepareStatement(sql.toString(), ROW)) {
+				for (int i = 0; i < parameters.size(); i++) {
+					update.setObject(i + 1, parameters.get(i));
+				}
+				update.executeUpdate();
+				try (ResultSet row = update.getGeneratedKeys()) {
+					return row.next() ? Optional.of(toEntity(row)) : Optional.<EmployeeEntity>empty();
+				}
+			}
+		});
+	}
+
+	private static EmployeeEntity toEntity(ResultSet row) throws SQLException {
+		return EmployeeEntity.builder()
+				.empId(row.getInt(1))
+				.empName(row.getString(2))
+				.role(row.getString(3))
+				.salary(row.getDouble(4))
+				.dateOfBirth(row.getObject(5, LocalDate.class))
+				.mobileNumber(row.getString(6))
+				.email(row.getString(7))
+				.version(row.getLong(8))
+				.build();
+	}
+
+	private static String column(String field) {
+		return ReflectionUtils.findField(EmployeeEntity.class, field).getAnnotation(Column.class).name();
+	}
+}
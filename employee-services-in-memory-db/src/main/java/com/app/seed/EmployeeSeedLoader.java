@@ -0,0 +1,140 @@
+package com.app.seed;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import com.app.model.BulkInsertResult;
+import com.app.model.Employee;
+import com.app.model.SeedProgress;
+import com.app.model.SeedStatus;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+/**
+ * Streams the seed file into the table: records are parsed one at a time with the Jackson streaming parser and
+ * handed to the inserter in fixed-size batches, so memory holds one batch whatever the size of the file.
+ *
+ * The file is either a JSON array of employees or newline delimited JSON (the output of /employee/list/stream).
+ * Progress is logged every employee.seed.progress-interval records and published through {@link #getProgress()}.
+ */
+@Component
+public class EmployeeSeedLoader {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(EmployeeSeedLoader.class);
+
+	private final ObjectMapper objectMapper;
+
+	private final ResourceLoader resourceLoader;
+
+	@Value("${employee.seed.location:classpath:employees-data.json}")
+	private String location = "classpath:employees-data.json";
+
+	@Value("${employee.seed.batch-size:500}")
+	private int batchSize = 500;
+
+	@Value("${employee.seed.progress-interval:10000}")
+	private long progressInterval = 10000;
+
+	private volatile SeedProgress progress = new SeedProgress(SeedStatus.NOT_STARTED, null, 0, 0, 0, 0, 0, null);
+
+	@Autowired
+	public EmployeeSeedLoader(ObjectMapper objectMapper, ResourceLoader resourceLoader) {
+		this.objectMapper = objectMapper;
+		this.resourceLoader = resourceLoader;
+	}
+
+	public SeedProgress getProgress() {
+		return progress;
+	}
+
+	// Loads are serialized, a second load waits for the running one instead of interleaving its batches
+	public synchronized SeedProgress load(Function<List<Employee>, BulkInsertResult> inserter) throws IOException {
+		Tally tally = new Tally(System.nanoTime());
+		progress = tally.snapshot(SeedStatus.RUNNING, null);
+		LOGGER.info("Loading seed data from {} in batches of {}", location, batchSize);
+
+		Resource resource = resourceLoader.getResource(location);
+		ObjectReader employeeReader = objectMapper.readerFor(Employee.class);
+		try (InputStream inputStream = resource.getInputStream();
+				JsonParser parser = objectMapper.getFactory().createParser(inputStream)) {
+			List<Employee> batch = new ArrayList<>(batchSize);
+			JsonToken token = parser.nextToken();
+			boolean array = token == JsonToken.START_ARRAY;
+			if (array) {
+				token = parser.nextToken();
+			}
+			while (token == JsonToken.START_OBJECT) {
+				batch.add(employeeReader.readValue(parser));
+				if (batch.size() == batchSize) {
+					insertBatch(batch, inserter, tally);
+				}
+				token = parser.nextToken();
+			}
+			if (array ? token != JsonToken.END_ARRAY : token != null) {
+				throw new JsonParseException(parser, "Expected an employee object but found " + token);
+			}
+			insertBatch(batch, inserter, tally);
+		} catch (IOException | RuntimeException e) {
+			progress = tally.snapshot(SeedStatus.FAILED, e.getMessage());
+			LOGGER.error("Seed data load from {} failed after {} records: {}", location, tally.read, e.getMessage());
+			throw e;
+		}
+
+		progress = tally.snapshot(SeedStatus.COMPLETED, null);
+		LOGGER.info("Loaded seed data from {}: {} read, {} inserted, {} duplicates, {} failed in {} ms", location,
+				tally.read, tally.inserted, tally.duplicates, tally.failed, progress.getElapsedMillis());
+		return progress;
+	}
+
+	private void insertBatch(List<Employee> batch, Function<List<Employee>, BulkInsertResult> inserter, Tally tally) {
+		if (batch.isEmpty()) {
+			return;
+		}
+		BulkInsertResult result = inserter.apply(batch);
+		long before = tally.read;
+		tally.read += batch.size();
+		tally.inserted += result.getInserted();
+		tally.duplicates += result.getDuplicates();
+		tally.failed += result.getFailed();
+		batch.clear();
+
+		progress = tally.snapshot(SeedStatus.RUNNING, null);
+		if (tally.read / progressInterval > before / progressInterval) {
+			LOGGER.info("Seed data progress: {} read, {} inserted, {} duplicates, {} failed", tally.read,
+					tally.inserted, tally.duplicates, tally.failed);
+		}
+	}
+
+	private final class Tally {
+
+		private final long startedNanos;
+		private long read;
+		private long inserted;
+		private long duplicates;
+		private long failed;
+
+		private Tally(long startedNanos) {
+			this.startedNanos = startedNanos;
+		}
+
+		private SeedProgress snapshot(SeedStatus status, String message) {
+			return new SeedProgress(status, location, read, inserted, duplicates, failed,
+					TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos), message);
+		}
+	}
+}
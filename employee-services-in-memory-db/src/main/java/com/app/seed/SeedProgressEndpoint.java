@@ -0,0 +1,24 @@
+package com.app.seed;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import com.app.model.SeedProgress;
+
+// /actuator/seed: progress of the running or last seed data load
+@Component
+@Endpoint(id = "seed")
+public class SeedProgressEndpoint {
+
+	private final EmployeeSeedLoader employeeSeedLoader;
+
+	public SeedProgressEndpoint(EmployeeSeedLoader employeeSeedLoader) {
+		this.employeeSeedLoader = employeeSeedLoader;
+	}
+
+	@ReadOperation
+	public SeedProgress progress() {
+		return employeeSeedLoader.getProgress();
+	}
+}
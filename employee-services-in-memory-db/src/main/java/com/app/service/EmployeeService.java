@@ -1,28 +1,51 @@
 package com.app.service;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import com.app.model.ApiResponse;
 import com.app.model.Employee;
+import com.app.model.EmployeePage;
+import com.app.model.EmployeeSearchResult;
 
 public interface EmployeeService {
 
 	public List<Employee> getEmployeeList();
 
+	public EmployeePage getEmployeePage(int afterEmployeeId, int pageSize);
+
+	public EmployeeSearchResult getEmployeesBySalaryBetween(double minSalary, double maxSalary, int page, int size);
+
+	public EmployeeSearchResult getEmployeesBySalaryAtLeast(double minSalary, int page, int size);
+
+	public EmployeeSearchResult getEmployeesBySalaryBelow(double maxSalary, int page, int size);
+
+	public EmployeeSearchResult getEmployeesBornBefore(LocalDate date, int page, int size);
+
+	public EmployeeSearchResult searchByMobilePrefix(String prefix, int page, int size);
+
 	public ApiResponse<Employee> getEmployee(String employeeId);
 
 	public ApiResponse<Employee> getEmployeeByName(String firstName);
 
+	public List<Employee> getEmployees(Collection<Integer> employeeIds);
+
 	public ApiResponse addEmployee(Employee employee);
 
 	public ApiResponse addEmployees(List<Employee> employees);
 
 	public ApiResponse updateEmployee(Employee employee);
 
+	public ApiResponse<Employee> patchEmployee(int employeeId, Employee changes, Collection<String> fields);
+
 	public ApiResponse deleteEmployee(String employeeId);
 
 	public ApiResponse deleteAll();
 
 	public ApiResponse addDummyData();
+
+	public CompletableFuture<ApiResponse> addDummyDataAsync();
 	
 }
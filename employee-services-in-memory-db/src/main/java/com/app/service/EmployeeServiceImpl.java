@@ -1,30 +1,64 @@
 package com.app.service;
 
-import java.io.InputStream;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
+import com.app.config.AsyncConfig;
+import com.app.config.CacheConfig;
+import com.app.config.MetricsConfig;
 import com.app.entity.EmployeeEntity;
 import com.app.exceptions.DuplicateEmployeeException;
 import com.app.exceptions.EmployeeNotFoundException;
+import com.app.exceptions.EmployeeVersionConflictException;
+import com.app.index.EmployeeIndexes;
+import com.app.index.EmployeeMobileIndex;
+import com.app.index.EmployeeRangeIndex;
+import com.app.index.IdPage;
 import com.app.model.ApiResponse;
+import com.app.model.BulkInsertResult;
+import com.app.model.EmployeeInsertOutcome;
+import com.app.model.InsertOutcome;
+import com.app.model.EmployeePage;
+import com.app.model.EmployeeSearchResult;
 import com.app.model.Error;
+import com.app.model.SeedProgress;
+import com.app.seed.EmployeeSeedLoader;
 import com.app.model.Status;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.lang3.StringUtils;
+import org.hibernate.exception.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.core.io.ClassPathResource;
-import org.springframework.core.io.Resource;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import com.app.mapper.EmployeeMapper;
 import com.app.model.Employee;
 import com.app.repository.EmployeeRepository;
+import com.app.repository.EmployeeRepositoryCustom;
+
+import io.micrometer.core.annotation.Timed;
 
 @Service("employeeService")
 public class EmployeeServiceImpl implements EmployeeService {
@@ -32,26 +66,143 @@ public class EmployeeServiceImpl implements EmployeeService {
 	private static final Logger LOGGER = LoggerFactory.getLogger(EmployeeServiceImpl.class);
 
 	private EmployeeRepository employeeRepository;
+
+	private EmployeeMapper employeeMapper;
+
+	private EmployeeIndexes employeeIndexes;
+
+	private EmployeeRangeIndex employeeRangeIndex;
+
+	private EmployeeMobileIndex employeeMobileIndex;
+
+	private EmployeeSeedLoader employeeSeedLoader;
+
+	private CacheManager cacheManager;
+
+	// Keep in line with hibernate.jdbc.batch_size so that every chunk is flushed as full JDBC batches
+	@Value("${employee.bulk.chunk-size:500}")
+	private int bulkChunkSize = 500;
 	
 	@Autowired
-	public EmployeeServiceImpl(EmployeeRepository employeeRepository) {
+	public EmployeeServiceImpl(EmployeeRepository employeeRepository, EmployeeMapper employeeMapper,
+			EmployeeIndexes employeeIndexes, EmployeeRangeIndex employeeRangeIndex, EmployeeMobileIndex employeeMobileIndex,
+			EmployeeSeedLoader employeeSeedLoader, CacheManager cacheManager) {
 		this.employeeRepository = employeeRepository;
+		this.employeeMapper = employeeMapper;
+		this.employeeIndexes = employeeIndexes;
+		this.employeeRangeIndex = employeeRangeIndex;
+		this.employeeMobileIndex = employeeMobileIndex;
+		this.employeeSeedLoader = employeeSeedLoader;
+		this.cacheManager = cacheManager;
 	}
 
 	@Override
+	@Timed(MetricsConfig.SERVICE_TIMER)
 	public List<Employee> getEmployeeList() {
 		List<EmployeeEntity> entitiesList = employeeRepository.findAll();
 		List<Employee> employeesList = new ArrayList<>();
 		if(null != entitiesList && entitiesList.size() > 0){
 			entitiesList.stream().forEach(employeeEntity -> {
-				employeesList.add(convertToBean(employeeEntity));
+				employeesList.add(employeeMapper.toEmployee(employeeEntity));
 			});
 		}
 		return employeesList;
 	}
 
+	/**
+	 * Keyset pagination over EMPLOYEE_ID: every page is an index range seek from the cursor instead of an OFFSET scan,
+	 * so the cost of a page does not grow with its position in the table.
+	 */
+	@Override
+	@Timed(MetricsConfig.SERVICE_TIMER)
+	public EmployeePage getEmployeePage(int afterEmployeeId, int pageSize) {
+		// One extra row tells whether another page exists without a count query
+		List<EmployeeEntity> entitiesList = employeeRepository.findByEmpIdGreaterThanOrderByEmpIdAsc(afterEmployeeId,
+				PageRequest.of(0, pageSize + 1));
+		int rows = Math.min(entitiesList.size(), pageSize);
+		List<Employee> employeesList = new ArrayList<>(rows);
+		for (int i = 0; i < rows; i++) {
+			employeesList.add(employeeMapper.toEmployee(entitiesList.get(i)));
+		}
+		Integer next = entitiesList.size() > pageSize ? employeesList.get(rows - 1).getEmpId() : null;
+		return new EmployeePage(employeesList, next, rows);
+	}
+
+	/**
+	 * The range and prefix queries below are answered by binary searches over the in-memory indexes, only the ids of the
+	 * requested page are loaded from the table.
+	 */
+	@Override
+	@Timed(MetricsConfig.SERVICE_TIMER)
+	public EmployeeSearchResult getEmployeesBySalaryBetween(double minSalary, double maxSalary, int page, int size) {
+		return loadSearchResult(employeeRangeIndex.salaryBetween(minSalary, maxSalary, (long) page * size, size), page);
+	}
+
+	@Override
+	@Timed(MetricsConfig.SERVICE_TIMER)
+	public EmployeeSearchResult getEmployeesBySalaryAtLeast(double minSalary, int page, int size) {
+		return loadSearchResult(employeeRangeIndex.salaryAtLeast(minSalary, (long) page * size, size), page);
+	}
+
+	@Override
+	@Timed(MetricsConfig.SERVICE_TIMER)
+	public EmployeeSearchResult getEmployeesBySalaryBelow(double maxSalary, int page, int size) {
+		return loadSearchResult(employeeRangeIndex.salaryBelow(maxSalary, (long) page * size, size), page);
+	}
+
+	@Override
+	@Timed(MetricsConfig.SERVICE_TIMER)
+	public EmployeeSearchResult getEmployeesBornBefore(LocalDate date, int page, int size) {
+		return loadSearchResult(employeeRangeIndex.bornBefore(date, (long) page * size, size), page);
+	}
+
+	@Override
+	@Timed(MetricsConfig.SERVICE_TIMER)
+	public EmployeeSearchResult searchByMobilePrefix(String prefix, int page, int size) {
+		return loadSearchResult(employeeMobileIndex.startingWith(prefix, (long) page * size, size), page);
+	}
+
+	private EmployeeSearchResult loadSearchResult(IdPage idPage, int page) {
+		int[] ids = idPage.getIds();
+		List<Integer> idList = new ArrayList<>(ids.length);
+		for (int id : ids) {
+			idList.add(id);
+		}
+		List<Employee> employeesList = loadInIdOrder(idList);
+		return new EmployeeSearchResult(idPage.getTotal(), page, employeesList.size(), employeesList);
+	}
+
+	/**
+	 * One findAllById for the whole batch instead of a findById per id. Ids that do not exist are left out and
+	 * repeated ids are returned once.
+	 */
+	@Override
+	@Timed(MetricsConfig.SERVICE_TIMER)
+	public List<Employee> getEmployees(Collection<Integer> employeeIds) {
+		return loadInIdOrder(new LinkedHashSet<>(employeeIds));
+	}
+
+	// One findAllById, the rows are put back into the order of the ids since IN does not keep it
+	private List<Employee> loadInIdOrder(Collection<Integer> ids) {
+		List<Employee> employeesList = new ArrayList<>(ids.size());
+		if (!ids.isEmpty()) {
+			Map<Integer, EmployeeEntity> entitiesById = new HashMap<>();
+			for (EmployeeEntity employeeEntity : employeeRepository.findAllById(ids)) {
+				entitiesById.put(employeeEntity.getEmpId(), employeeEntity);
+			}
+			for (Integer id : ids) {
+				EmployeeEntity employeeEntity = entitiesById.get(id);
+				if (null != employeeEntity) {
+					employeesList.add(employeeMapper.toEmployee(employeeEntity));
+				}
+			}
+		}
+		return employeesList;
+	}
+
 	@Override
-	@Cacheable(cacheNames = "employees", key = "#employeeId")
+	@Timed(MetricsConfig.SERVICE_TIMER)
+	@Cacheable(cacheNames = CacheConfig.EMPLOYEES_BY_ID_CACHE, key = "T(Integer).valueOf(#employeeId)")
 	public ApiResponse<Employee> getEmployee(String employeeId) {
 		Optional<EmployeeEntity> optional = employeeRepository.findById(Integer.valueOf(employeeId));
 
@@ -60,12 +211,13 @@ public class EmployeeServiceImpl implements EmployeeService {
 		}
 		ApiResponse<Employee> apiResponse = new ApiResponse<>();
 		apiResponse.setStatus(new Status(String.valueOf(HttpStatus.OK.value()), "Found employee details by Id: " + employeeId));
-		apiResponse.setPayload(convertToBean(optional.get()));
+		apiResponse.setPayload(employeeMapper.toEmployee(optional.get()));
 		return apiResponse;
 	}
 
 	@Override
-	@Cacheable(cacheNames = "employees", key = "#firstName")
+	@Timed(MetricsConfig.SERVICE_TIMER)
+	@Cacheable(cacheNames = CacheConfig.EMPLOYEES_BY_NAME_CACHE, key = "#firstName")
 	public ApiResponse<Employee> getEmployeeByName(String firstName) {
 		Optional<EmployeeEntity> optional = employeeRepository.findByEmpName(firstName);
 		if (!optional.isPresent()) {
@@ -74,99 +226,259 @@ public class EmployeeServiceImpl implements EmployeeService {
 
 		ApiResponse<Employee> apiResponse = new ApiResponse<>();
 		apiResponse.setStatus(new Status(String.valueOf(HttpStatus.OK.value()), "Found employee details by name: " + firstName));
-		apiResponse.setPayload(convertToBean(optional.get()));
+		apiResponse.setPayload(employeeMapper.toEmployee(optional.get()));
 		return apiResponse;
 	}
 
 	@Override
+	@Timed(MetricsConfig.SERVICE_TIMER)
 	public ApiResponse addEmployee(Employee employee) {
-		if (!isDuplicateEmployee(true, employee)) {
-			EmployeeEntity emp = employeeRepository.save(convertToEntity(employee));
+		// Duplicate names are rejected by the unique constraint, no lookup before the insert
+		EmployeeEntity emp;
+		try (EmployeeIndexes.WriteOrder order = employeeIndexes.orderInsert()) {
+			try {
+				emp = employeeRepository.saveAndFlush(employeeMapper.toNewEntity(employee));
+			} catch (DataIntegrityViolationException e) {
+				throw translateDuplicateName(e, employee);
+			}
 			if (null != emp) {
-				return createApiResponse("SUCCESS",HttpStatus.CREATED, "Employee added successfully", null);
-			} else {
-				return createApiResponse("FAILURE", HttpStatus.INTERNAL_SERVER_ERROR, "Failed to add Employee", HttpStatus.INTERNAL_SERVER_ERROR.name());
+				employeeIndexes.onSaved(emp);
 			}
+		}
+		if (null != emp) {
+			return createApiResponse("SUCCESS",HttpStatus.CREATED, "Employee added successfully", null);
 		} else {
-			throw new DuplicateEmployeeException("Employee already exist with name: " + employee.getEmpName());
+			return createApiResponse("FAILURE", HttpStatus.INTERNAL_SERVER_ERROR, "Failed to add Employee", HttpStatus.INTERNAL_SERVER_ERROR.name());
 		}
 	}
 
+	/**
+	 * Inserts the employees in chunks: duplicates against the table are resolved with one IN query per chunk,
+	 * duplicates inside the payload with a set of the names already seen, and each chunk is written with one
+	 * batched saveAll call that commits on its own. When a chunk fails it is retried row by row so that only the
+	 * offending rows are reported as failed.
+	 */
 	@Override
+	@Timed(MetricsConfig.SERVICE_TIMER)
 	public ApiResponse addEmployees(List<Employee> employees) {
-		List<EmployeeEntity> employeeEntities = new ArrayList<>();
+		ApiResponse apiResponse = createApiResponse("SUCCESS",HttpStatus.CREATED, "Employees added successfully", null);
+		apiResponse.setPayload(insertEmployees(employees));
+		return apiResponse;
+	}
+
+	private BulkInsertResult insertEmployees(List<Employee> employees) {
+		EmployeeInsertOutcome[] outcomes = new EmployeeInsertOutcome[employees.size()];
+		Set<String> payloadNames = new HashSet<>();
+		for (int from = 0; from < employees.size(); from += bulkChunkSize) {
+			insertChunk(employees, from, Math.min(from + bulkChunkSize, employees.size()), payloadNames, outcomes);
+		}
+
+		BulkInsertResult result = new BulkInsertResult(0, 0, 0, Arrays.asList(outcomes));
+		for (EmployeeInsertOutcome outcome : outcomes) {
+			if (outcome.getOutcome() == InsertOutcome.INSERTED) {
+				result.setInserted(result.getInserted() + 1);
+			} else if (outcome.getOutcome() == InsertOutcome.DUPLICATE) {
+				result.setDuplicates(result.getDuplicates() + 1);
+			} else {
+				result.setFailed(result.getFailed() + 1);
+			}
+		}
+		return result;
+	}
 
-		employees.stream().forEach(employee -> {
-			if (!isDuplicateEmployee(true, employee)) {
-				employeeEntities.add(convertToEntity(employee));
+	private void insertChunk(List<Employee> employees, int from, int to, Set<String> payloadNames,
+			EmployeeInsertOutcome[] outcomes) {
+		Set<String> chunkNames = new HashSet<>();
+		for (int i = from; i < to; i++) {
+			if (null != employees.get(i).getEmpName()) {
+				chunkNames.add(employees.get(i).getEmpName());
 			}
-		});
+		}
+		Set<String> existingNames = chunkNames.isEmpty() ? Collections.emptySet()
+				: new HashSet<>(employeeRepository.findExistingEmpNames(chunkNames));
 
-		if (!employeeEntities.isEmpty()) {
-			employeeRepository.saveAll(employeeEntities);
+		List<Integer> pendingIndexes = new ArrayList<>();
+		List<EmployeeEntity> pendingEntities = new ArrayList<>();
+		for (int i = from; i < to; i++) {
+			Employee employee = employees.get(i);
+			String empName = employee.getEmpName();
+			if (null != empName && (existingNames.contains(empName) || !payloadNames.add(empName))) {
+				outcomes[i] = new EmployeeInsertOutcome(i, null, empName, InsertOutcome.DUPLICATE,
+						"Employee already exist with name: " + empName);
+			} else {
+				pendingIndexes.add(i);
+				pendingEntities.add(employeeMapper.toNewEntity(employee));
+			}
+		}
+		if (pendingEntities.isEmpty()) {
+			return;
 		}
 
-		return createApiResponse("SUCCESS",HttpStatus.CREATED, "Employees added successfully", null);
+		try (EmployeeIndexes.WriteOrder order = employeeIndexes.orderInsert()) {
+			insertPending(employees, from, to, pendingIndexes, pendingEntities, outcomes);
+		}
+	}
+
+	private void insertPending(List<Employee> employees, int from, int to, List<Integer> pendingIndexes,
+			List<EmployeeEntity> pendingEntities, EmployeeInsertOutcome[] outcomes) {
+		try {
+			List<EmployeeEntity> savedEntities = employeeRepository.saveAll(pendingEntities);
+			employeeIndexes.onSaved(savedEntities);
+			for (int i = 0; i < pendingIndexes.size(); i++) {
+				EmployeeEntity savedEntity = savedEntities.get(i);
+				outcomes[pendingIndexes.get(i)] = new EmployeeInsertOutcome(pendingIndexes.get(i),
+						savedEntity.getEmpId(), savedEntity.getEmpName(), InsertOutcome.INSERTED, null);
+			}
+		} catch (DataAccessException e) {
+			LOGGER.warn("Batch insert of employees {} to {} failed, retrying row by row: {}", from, to - 1, e.getMessage());
+			for (Integer index : pendingIndexes) {
+				outcomes[index] = insertOne(index, employees.get(index));
+			}
+		}
+	}
+
+	private EmployeeInsertOutcome insertOne(int index, Employee employee) {
+		try {
+			EmployeeEntity savedEntity = employeeRepository.saveAndFlush(employeeMapper.toNewEntity(employee));
+			employeeIndexes.onSaved(savedEntity);
+			return new EmployeeInsertOutcome(index, savedEntity.getEmpId(), savedEntity.getEmpName(),
+					InsertOutcome.INSERTED, null);
+		} catch (DataIntegrityViolationException e) {
+			// A concurrent writer may have inserted the same name after the IN lookup
+			InsertOutcome outcome = isDuplicateName(e) ? InsertOutcome.DUPLICATE : InsertOutcome.FAILED;
+			return new EmployeeInsertOutcome(index, null, employee.getEmpName(), outcome, e.getMessage());
+		} catch (DataAccessException e) {
+			return new EmployeeInsertOutcome(index, null, employee.getEmpName(), InsertOutcome.FAILED, e.getMessage());
+		}
 	}
 
 	@Override
+	@Timed(MetricsConfig.SERVICE_TIMER)
+	@Caching(evict = { @CacheEvict(cacheNames = CacheConfig.EMPLOYEES_BY_ID_CACHE, key = "#employee.empId"),
+			@CacheEvict(cacheNames = CacheConfig.EMPLOYEES_BY_NAME_CACHE, allEntries = true) })
 	public ApiResponse updateEmployee(Employee employee) {
-		if (isEmployeeExist(employee.getEmpId())) {
-			if (isDuplicateEmployee(false, employee)) {
-				throw new DuplicateEmployeeException("Employee already exist with name: " + employee.getEmpName());
+		EmployeeEntity updated;
+		try (EmployeeIndexes.WriteOrder order = employeeIndexes.orderRowWrite(employee.getEmpId())) {
+			// One UPDATE statement, conditional on the version when the employee carries one
+			updated = updateFields(employee.getEmpId(), employee, employeeMapper.toEntity(employee),
+					EmployeeRepositoryCustom.UPDATABLE_FIELDS);
+			evictCached(employee.getEmpId());
+			employeeIndexes.onSaved(updated);
+		}
+
+		ApiResponse apiResponse = createApiResponse("SUCCESS",HttpStatus.OK, "Employee updated successfully", null);
+		apiResponse.setPayload(employeeMapper.toEmployee(updated));
+		return apiResponse;
+	}
+
+	@Override
+	@Timed(MetricsConfig.SERVICE_TIMER)
+	@Caching(evict = { @CacheEvict(cacheNames = CacheConfig.EMPLOYEES_BY_ID_CACHE, key = "#employeeId"),
+			@CacheEvict(cacheNames = CacheConfig.EMPLOYEES_BY_NAME_CACHE, allEntries = true) })
+	public ApiResponse<Employee> patchEmployee(int employeeId, Employee changes, Collection<String> fields) {
+		EmployeeEntity updated;
+		try (EmployeeIndexes.WriteOrder order = employeeIndexes.orderRowWrite(employeeId)) {
+			updated = updateFields(employeeId, changes, employeeMapper.toEntity(changes), fields);
+			evictCached(employeeId);
+			employeeIndexes.onSaved(updated);
+		}
+
+		ApiResponse<Employee> apiResponse = new ApiResponse<>();
+		apiResponse.setStatus(new Status(String.valueOf(HttpStatus.OK.value()), "Employee updated successfully"));
+		apiResponse.setPayload(employeeMapper.toEmployee(updated));
+		return apiResponse;
+	}
+
+	/**
+	 * Evicts the cached lookups of a committed write, or of every row when employeeId is null, before the indexes are
+	 * told about it and EmployeeTableVersion moves the ETag. A lookup tagged with the new version then never finds a
+	 * body cached before the write. The @CacheEvict of the write method evicts once more after it returns, for a
+	 * lookup that read the row before the commit and cached it after this eviction.
+	 */
+	private void evictCached(Integer employeeId) {
+		Cache byId = cacheManager.getCache(CacheConfig.EMPLOYEES_BY_ID_CACHE);
+		if (null != byId) {
+			if (null == employeeId) {
+				byId.clear();
+			} else {
+				byId.evict(employeeId);
 			}
-			employeeRepository.save(convertToEntity(employee));
+		}
+		// The previous name of the row is not known, as for the @CacheEvict
+		Cache byName = cacheManager.getCache(CacheConfig.EMPLOYEES_BY_NAME_CACHE);
+		if (null != byName) {
+			byName.clear();
+		}
+	}
 
-			return createApiResponse("SUCCESS",HttpStatus.OK, "Employee updated successfully", null);
-		} else {
-			throw new EmployeeNotFoundException("No employee found with id: " + employee.getEmpId());
+	/**
+	 * Returns the committed row, which the UPDATE statement reads back itself: the indexes and the response get the
+	 * fields an update left alone and the new version without another query. The row is only looked up again when the
+	 * update matched nothing, to tell a missing employee from a newer version.
+	 */
+	private EmployeeEntity updateFields(int employeeId, Employee employee, EmployeeEntity values, Collection<String> fields) {
+		Optional<EmployeeEntity> updated;
+		try {
+			updated = employeeRepository.updateFields(employeeId, employee.getVersion(), values, fields);
+		} catch (DataIntegrityViolationException e) {
+			throw translateDuplicateName(e, employee);
 		}
+		if (!updated.isPresent()) {
+			if (null != employee.getVersion() && isEmployeeExist(employeeId)) {
+				throw new EmployeeVersionConflictException("Employee with id: " + employeeId
+						+ " was updated after version " + employee.getVersion());
+			}
+			throw new EmployeeNotFoundException("No employee found with id: " + employeeId);
+		}
+		return updated.get();
 	}
 
 	@Override
+	@Timed(MetricsConfig.SERVICE_TIMER)
+	@Caching(evict = { @CacheEvict(cacheNames = CacheConfig.EMPLOYEES_BY_ID_CACHE, key = "T(Integer).valueOf(#employeeId)"),
+			@CacheEvict(cacheNames = CacheConfig.EMPLOYEES_BY_NAME_CACHE, allEntries = true) })
 	public ApiResponse deleteEmployee(String employeeId) {
-		if (isEmployeeExist(Integer.valueOf(employeeId))) {
-			employeeRepository.deleteById(Integer.valueOf(employeeId));
-			return createApiResponse("SUCCESS",HttpStatus.OK, "Employee deleted successfully", null);
-		} else {
-			throw new EmployeeNotFoundException("No employee found with id: " + employeeId);
+		try (EmployeeIndexes.WriteOrder order = employeeIndexes.orderRowWrite(Integer.parseInt(employeeId))) {
+			if (isEmployeeExist(Integer.valueOf(employeeId))) {
+				employeeRepository.deleteById(Integer.valueOf(employeeId));
+				evictCached(Integer.parseInt(employeeId));
+				employeeIndexes.onDeleted(Integer.parseInt(employeeId));
+				return createApiResponse("SUCCESS",HttpStatus.OK, "Employee deleted successfully", null);
+			} else {
+				throw new EmployeeNotFoundException("No employee found with id: " + employeeId);
+			}
 		}
 	}
 
 	@Override
+	@Timed(MetricsConfig.SERVICE_TIMER)
+	@Caching(evict = { @CacheEvict(cacheNames = CacheConfig.EMPLOYEES_BY_ID_CACHE, allEntries = true),
+			@CacheEvict(cacheNames = CacheConfig.EMPLOYEES_BY_NAME_CACHE, allEntries = true) })
 	public ApiResponse deleteAll() {
-		try {
-//			employeeRepository.deleteAllInBatch(); // Not working due to Address constraints
-
-			List<EmployeeEntity> entitiesList = employeeRepository.findAll();
-			employeeRepository.deleteAll(entitiesList);
-			return createApiResponse("SUCCESS",HttpStatus.OK, "Employees deleted successfully", null);
+		try (EmployeeIndexes.WriteOrder order = employeeIndexes.orderClear()) {
+			int deletedRows = employeeRepository.deleteAllEmployees();
+			evictCached(null);
+			employeeIndexes.onCleared();
+			LOGGER.info("Deleted {} employees", deletedRows);
+			ApiResponse apiResponse = createApiResponse("SUCCESS",HttpStatus.OK, "Employees deleted successfully", null);
+			apiResponse.setPayload(deletedRows);
+			return apiResponse;
 		} catch (Exception e) {
 			return createApiResponse("FAILURE",HttpStatus.INTERNAL_SERVER_ERROR, "Failed to delete all employees", e.getMessage());
 		}
 	}
 
 	@Override
+	@Timed(MetricsConfig.SERVICE_TIMER)
 	public ApiResponse addDummyData() {
 		LOGGER.info("Inserting employees dummy data");
 		try {
-			ObjectMapper mapper = new ObjectMapper();
-			Resource resource = new ClassPathResource("employees-data.json");
-			InputStream inputStream = resource.getInputStream();
-			TypeReference<List<Employee>> typeReference = new TypeReference<List<Employee>>() {
-			};
-
-			List<Employee> list = mapper.readValue(inputStream, typeReference);
-
-			List<EmployeeEntity> entityList = new ArrayList<>();
-			list.forEach(employee -> {
-				if (!isDuplicateEmployee(true, employee)) {
-					entityList.add(convertToEntity(employee));
-				}
-			});
-			employeeRepository.saveAll(entityList);
-			LOGGER.info("Inserted employees dummy data successfully");
-			return createApiResponse("SUCCESS",HttpStatus.OK, "Inserted employees dummy data successfully", null);
+			SeedProgress progress = employeeSeedLoader.load(this::insertEmployees);
+			LOGGER.info("Inserted employees dummy data successfully, inserted: {}, duplicates: {}, failed: {}",
+					progress.getInserted(), progress.getDuplicates(), progress.getFailed());
+			ApiResponse apiResponse = createApiResponse("SUCCESS",HttpStatus.OK, "Inserted employees dummy data successfully", null);
+			apiResponse.setPayload(progress);
+			return apiResponse;
 		} catch (Exception e) {
 			LOGGER.info("Failed to insert employee dummy data");
 			LOGGER.error(e.getMessage());
@@ -174,16 +486,12 @@ public class EmployeeServiceImpl implements EmployeeService {
 		}
 	}
 
-	private Employee convertToBean(EmployeeEntity employeeEntity) {
-		Employee employee = new Employee();
-		BeanUtils.copyProperties(employeeEntity, employee);
-		return employee;
-	}
-
-	private EmployeeEntity convertToEntity(Employee employee) {
-		EmployeeEntity employeeEntity = new EmployeeEntity();
-		BeanUtils.copyProperties(employee, employeeEntity);
-		return employeeEntity;
+	// Startup seeding, runs on the seed executor so that the application reports ready without waiting for it
+	@Override
+	@Timed(MetricsConfig.SERVICE_TIMER)
+	@Async(AsyncConfig.SEED_EXECUTOR)
+	public CompletableFuture<ApiResponse> addDummyDataAsync() {
+		return CompletableFuture.completedFuture(addDummyData());
 	}
 
 	private ApiResponse createApiResponse(String successFlag, HttpStatus httpStatus, String message, String description) {
@@ -196,17 +504,16 @@ public class EmployeeServiceImpl implements EmployeeService {
 		return apiResponse;
 	}
 
-	private boolean isDuplicateEmployee(boolean newFlag, Employee employee) {
-		Optional<EmployeeEntity> optional = employeeRepository.findByEmpName(employee.getEmpName());
-		if (!optional.isPresent()) {
-			return false;
-		} else {
-			EmployeeEntity duplicateEntity = optional.get();
-			if (newFlag || duplicateEntity.getEmpId() != employee.getEmpId()) {
-				return true;
-			}
+	private boolean isDuplicateName(DataIntegrityViolationException e) {
+		return e.getCause() instanceof ConstraintViolationException && StringUtils.containsIgnoreCase(
+				((ConstraintViolationException) e.getCause()).getConstraintName(), EmployeeEntity.UNIQUE_NAME_CONSTRAINT);
+	}
+
+	private RuntimeException translateDuplicateName(DataIntegrityViolationException e, Employee employee) {
+		if (isDuplicateName(e)) {
+			return new DuplicateEmployeeException("Employee already exist with name: " + employee.getEmpName());
 		}
-		return false;
+		return e;
 	}
 
 	private boolean isEmployeeExist(int id) {
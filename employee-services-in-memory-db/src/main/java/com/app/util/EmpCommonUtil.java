@@ -4,10 +4,19 @@ import com.app.model.ApiResponse;
 import com.app.model.Error;
 import com.app.model.Status;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 
+import java.util.Arrays;
+import java.util.List;
+
 public class EmpCommonUtil {
 
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    public static final MediaType APPLICATION_SMILE = MediaType.valueOf(APPLICATION_SMILE_VALUE);
+
     public static ResponseEntity<ApiResponse> createBadRequestResponseEntity(String message){
         ApiResponse apiResponse = new ApiResponse();
         apiResponse.setStatus(new Status(String.valueOf(HttpStatus.BAD_REQUEST.value()), message));
@@ -20,4 +29,61 @@ public class EmpCommonUtil {
         apiResponse.setError(new Error(String.valueOf(httpStatus.value()), errorMessage, description));
         return new ResponseEntity<>(apiResponse, httpStatus);
     }
+
+    // If-None-Match uses the weak comparison, so W/"x" matches "x", and * matches any current representation
+    public static boolean isNotModified(String ifNoneMatch, String eTag){
+        if (null == ifNoneMatch || null == eTag) {
+            return false;
+        }
+        String opaqueTag = opaqueTag(eTag);
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .anyMatch(tag -> tag.equals("*") || opaqueTag(tag).equals(opaqueTag));
+    }
+
+    // JSON and Smile bodies of the same data are different representations, so the Smile one gets its own tag.
+    // Mirrors the converter choice: Smile only when the Accept header asks for it ahead of anything JSON matches
+    public static String representationETag(String eTag, String accept){
+        if (null == accept) {
+            return eTag;
+        }
+        List<MediaType> acceptedTypes;
+        try {
+            acceptedTypes = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return eTag;
+        }
+        MediaType.sortBySpecificityAndQuality(acceptedTypes);
+        for (MediaType acceptedType : acceptedTypes) {
+            if (acceptedType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return eTag;
+            }
+            if (acceptedType.isCompatibleWith(APPLICATION_SMILE)) {
+                return eTag.substring(0, eTag.length() - 1) + "-smile\"";
+            }
+        }
+        return eTag;
+    }
+
+    // ETag of one employee for If-Match, the version of its row. Strong, since an update needs an exact match
+    public static String versionETag(long version){
+        return "\"" + version + "\"";
+    }
+
+    // Version named by an If-Match tag of versionETag form, null for anything else including weak tags
+    public static Long parseVersionETag(String eTag){
+        String tag = eTag.trim();
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            return null;
+        }
+        try {
+            return Long.valueOf(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String opaqueTag(String eTag){
+        return eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+    }
 }
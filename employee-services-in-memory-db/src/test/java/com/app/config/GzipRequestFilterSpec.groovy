@@ -0,0 +1,114 @@
+package com.app.config
+
+import com.app.exceptions.RequestBodyTooLargeException
+import org.springframework.http.HttpHeaders
+import org.springframework.mock.web.MockFilterChain
+import org.springframework.mock.web.MockHttpServletRequest
+import org.springframework.mock.web.MockHttpServletResponse
+import spock.lang.Specification
+import spock.lang.Subject
+
+import javax.servlet.ReadListener
+import javax.servlet.http.HttpServletRequest
+import java.nio.charset.StandardCharsets
+import java.util.zip.GZIPOutputStream
+
+class GzipRequestFilterSpec extends Specification {
+
+    @Subject
+    GzipRequestFilter gzipRequestFilter = new GzipRequestFilter(1024)
+
+    def body = '[{"empName":"testName"}]'
+
+    def "doFilter - inflates a gzip request body and hides its encoding and compressed length"() {
+        given:
+        byte[] compressed = gzip(body)
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/employee/addList")
+        request.addHeader(HttpHeaders.CONTENT_ENCODING, "gzip")
+        request.addHeader(HttpHeaders.CONTENT_LENGTH, compressed.length)
+        request.setContent(compressed)
+        MockFilterChain filterChain = new MockFilterChain()
+
+        when:
+        gzipRequestFilter.doFilter(request, new MockHttpServletResponse(), filterChain)
+
+        then:
+        HttpServletRequest filtered = filterChain.request as HttpServletRequest
+        new String(filtered.inputStream.readAllBytes(), StandardCharsets.UTF_8) == body
+        filtered.getHeader(HttpHeaders.CONTENT_ENCODING) == null
+        !Collections.list(filtered.headerNames).contains(HttpHeaders.CONTENT_LENGTH)
+        filtered.contentLength == -1
+    }
+
+    def "doFilter - answers PAYLOAD_TOO_LARGE once the inflated body passes the limit"() {
+        given:
+        HttpServletRequest filtered = filter(gzip(" " * 1025))
+
+        when:
+        filtered.inputStream.readAllBytes()
+
+        then:
+        def e = thrown(RequestBodyTooLargeException)
+        e.message == "Gzip request body inflates to more than 1024 bytes"
+
+        when: "byte by byte, and again after the limit was hit"
+        def byteByByte = filter(gzip(" " * 1025)).inputStream
+        1024.times { assert byteByByte.read() == 32 }
+        byteByByte.read()
+
+        then:
+        thrown(RequestBodyTooLargeException)
+
+        when:
+        byteByByte.read(new byte[10], 0, 10)
+
+        then:
+        thrown(RequestBodyTooLargeException)
+
+        when: "a body of exactly the limit"
+        byte[] atTheLimit = filter(gzip(" " * 1024)).inputStream.readAllBytes()
+
+        then:
+        atTheLimit.length == 1024
+    }
+
+    def "doFilter - a non-blocking reader is failed through its error callback"() {
+        given:
+        ReadListener readListener = Mock()
+
+        when:
+        filter(gzip(body)).inputStream.setReadListener(readListener)
+
+        then:
+        1 * readListener.onError({ it instanceof IOException })
+        0 * readListener._
+    }
+
+    def "doFilter - passes other requests through untouched"() {
+        given:
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/employee/addList")
+        request.setContent(body.getBytes(StandardCharsets.UTF_8))
+        MockFilterChain filterChain = new MockFilterChain()
+
+        when:
+        gzipRequestFilter.doFilter(request, new MockHttpServletResponse(), filterChain)
+
+        then:
+        filterChain.request.is(request)
+    }
+
+    private HttpServletRequest filter(byte[] compressed) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/employee/addList")
+        request.addHeader(HttpHeaders.CONTENT_ENCODING, "gzip")
+        request.setContent(compressed)
+        MockFilterChain filterChain = new MockFilterChain()
+        gzipRequestFilter.doFilter(request, new MockHttpServletResponse(), filterChain)
+        return filterChain.request as HttpServletRequest
+    }
+
+    private static byte[] gzip(String content) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream()
+        new GZIPOutputStream(bytes).withCloseable { it.write(content.getBytes(StandardCharsets.UTF_8)) }
+        return bytes.toByteArray()
+    }
+}
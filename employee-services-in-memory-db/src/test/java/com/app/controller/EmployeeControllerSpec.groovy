@@ -2,13 +2,24 @@ package com.app.controller
 
 import com.app.exceptions.DuplicateEmployeeException
 import com.app.exceptions.EmployeeNotFoundException
+import com.app.exceptions.EmployeeVersionConflictException
+import com.app.entity.EmployeeEntity
+import com.app.index.EmployeeLookupFilter
+import com.app.index.EmployeeTableVersion
 import com.app.model.ApiResponse
 import com.app.model.Employee
+import com.app.model.EmployeePage
+import com.app.model.EmployeeSearchResult
 import com.app.model.Error
 import com.app.model.Status
+import com.app.repository.EmployeeRepository
 import com.app.service.EmployeeServiceImpl
+import com.fasterxml.jackson.databind.ObjectMapper
+import org.springframework.http.HttpHeaders
 import org.springframework.http.HttpStatus
+import org.springframework.http.MediaType
 import org.springframework.http.ResponseEntity
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody
 import spock.lang.Shared
 import spock.lang.Specification
 import spock.lang.Subject
@@ -20,8 +31,13 @@ class EmployeeControllerSpec extends Specification {
 
     def employeeService = Mock(EmployeeServiceImpl.class)
 
+    def employeeTableVersion = new EmployeeTableVersion()
+
+    // Not loaded until a feature loads it, every lookup passes through to the service
+    def employeeLookupFilter = new EmployeeLookupFilter(Mock(EmployeeRepository))
+
     @Subject
-    def employeeController = new EmployeeControllerImpl(employeeService)
+    def employeeController = new EmployeeControllerImpl(employeeService, new ObjectMapper(), employeeTableVersion, employeeLookupFilter)
 
     @Shared
     Employee mockEmployee = new Employee(empId: 100, empName: "testName", role: "testRole", salary: 10000, mobileNumber: "1234567890", email: "abc@test.com", dateOfBirth: LocalDate.now())
@@ -43,7 +59,7 @@ class EmployeeControllerSpec extends Specification {
         mockResponse.add(mockEmployee)
 
         when:
-        ResponseEntity<ApiResponse<List<Employee>>> responseEntity = employeeController.getEmployeeList()
+        ResponseEntity<ApiResponse<List<Employee>>> responseEntity = employeeController.getEmployeeList(null, null)
 
         then:
         1 * employeeService.getEmployeeList() >> mockResponse
@@ -73,7 +89,7 @@ class EmployeeControllerSpec extends Specification {
     @Unroll
     def "Fetch all employees failure scenario when service returns #condition"() {
         when:
-        ResponseEntity<ApiResponse<List<Employee>>> responseEntity = employeeController.getEmployeeList()
+        ResponseEntity<ApiResponse<List<Employee>>> responseEntity = employeeController.getEmployeeList(null, null)
 
         then:
         1 * employeeService.getEmployeeList() >> response
@@ -93,6 +109,132 @@ class EmployeeControllerSpec extends Specification {
         "empty"   | new ArrayList<>()
     }
 
+    def "getEmployeePage - returns the page and next cursor from the service"() {
+        given:
+        def employeePage = new EmployeePage([mockEmployee], 100, 1)
+
+        when:
+        ResponseEntity<ApiResponse<EmployeePage>> responseEntity = employeeController.getEmployeePage(0, 1)
+
+        then:
+        1 * employeeService.getEmployeePage(0, 1) >> employeePage
+
+        expect:
+        responseEntity
+        responseEntity.statusCode == HttpStatus.OK
+        responseEntity.getBody().status.code == "200"
+        responseEntity.getBody().payload.next == 100
+        assertEmployeeDetails(responseEntity.getBody().payload.employees[0])
+    }
+
+    @Unroll
+    def "getEmployeePage - requested size #size is served with page size #pageSize"() {
+        when:
+        employeeController.getEmployeePage(0, size)
+
+        then:
+        1 * employeeService.getEmployeePage(0, pageSize) >> new EmployeePage([], null, 0)
+
+        where:
+        size | pageSize
+        null | 100
+        50   | 50
+        5000 | 1000
+    }
+
+    def "getEmployeePage bad request scenario when page size is not positive"() {
+        when:
+        ResponseEntity<ApiResponse<EmployeePage>> responseEntity = employeeController.getEmployeePage(0, 0)
+
+        then:
+        0 * employeeService.getEmployeePage(_, _)
+
+        expect:
+        responseEntity.statusCode == HttpStatus.BAD_REQUEST
+        responseEntity.getBody().error.errorMsg == "Page size should be greater than zero"
+    }
+
+    def "getEmployeesBySalaryBetween - returns the search result from the service"() {
+        given:
+        def searchResult = new EmployeeSearchResult(1, 0, 1, [mockEmployee])
+
+        when:
+        ResponseEntity<ApiResponse<EmployeeSearchResult>> responseEntity = employeeController.getEmployeesBySalaryBetween(5000, 20000, 0, null)
+
+        then:
+        1 * employeeService.getEmployeesBySalaryBetween(5000, 20000, 0, 100) >> searchResult
+
+        expect:
+        responseEntity.statusCode == HttpStatus.OK
+        responseEntity.getBody().payload == searchResult
+    }
+
+    @Unroll
+    def "range search bad request scenario when #condition"() {
+        when:
+        ResponseEntity<ApiResponse<EmployeeSearchResult>> responseEntity = employeeController.getEmployeesBySalaryBetween(min, max, page, size)
+
+        then:
+        0 * employeeService.getEmployeesBySalaryBetween(_, _, _, _)
+
+        expect:
+        responseEntity.statusCode == HttpStatus.BAD_REQUEST
+        responseEntity.getBody().error.errorMsg == message
+
+        where:
+        condition             | min   | max   | page | size || message
+        "min is above max"    | 20000 | 10000 | 0    | null || "Minimum salary should not be greater than maximum salary"
+        "page is negative"    | 0     | 10000 | -1   | null || "Page should not be negative"
+        "size is not positive"| 0     | 10000 | 0    | 0    || "Page size should be greater than zero"
+    }
+
+    def "searchByMobilePrefix - returns the search result from the service"() {
+        given:
+        def searchResult = new EmployeeSearchResult(1, 2, 1, [mockEmployee])
+
+        when:
+        ResponseEntity<ApiResponse<EmployeeSearchResult>> responseEntity = employeeController.searchByMobilePrefix("123", 2, 5000)
+
+        then:
+        1 * employeeService.searchByMobilePrefix("123", 2, 1000) >> searchResult
+
+        expect:
+        responseEntity.statusCode == HttpStatus.OK
+        responseEntity.getBody().payload == searchResult
+    }
+
+    def "searchByMobilePrefix bad request scenario when prefix is blank"() {
+        when:
+        ResponseEntity<ApiResponse<EmployeeSearchResult>> responseEntity = employeeController.searchByMobilePrefix(" ", 0, null)
+
+        then:
+        0 * employeeService.searchByMobilePrefix(_, _, _)
+
+        expect:
+        responseEntity.statusCode == HttpStatus.BAD_REQUEST
+        responseEntity.getBody().error.errorMsg == "Mobile number prefix should not be blank"
+    }
+
+    def "streamEmployeeList - writes one json line per employee across pages"() {
+        given:
+        def outputStream = new ByteArrayOutputStream()
+
+        when:
+        ResponseEntity<StreamingResponseBody> responseEntity = employeeController.streamEmployeeList()
+        responseEntity.getBody().writeTo(outputStream)
+
+        then:
+        1 * employeeService.getEmployeePage(0, 500) >> new EmployeePage([mockEmployee], 100, 1)
+        1 * employeeService.getEmployeePage(100, 500) >> new EmployeePage([mockEmployee], null, 1)
+
+        expect:
+        responseEntity.statusCode == HttpStatus.OK
+        responseEntity.headers.getContentType() == MediaType.APPLICATION_NDJSON
+        def lines = outputStream.toString().readLines()
+        lines.size() == 2
+        lines.every { it.startsWith('{"empId":100,"empName":"testName"') }
+    }
+
     def "getEmployee success scenario"() {
         given:
         def employeeId = "100"
@@ -100,7 +242,7 @@ class EmployeeControllerSpec extends Specification {
         apiResponse.setPayload(mockEmployee)
 
         when:
-        ResponseEntity<ApiResponse<Employee>> responseEntity = employeeController.getEmployee(employeeId)
+        ResponseEntity<ApiResponse<Employee>> responseEntity = employeeController.getEmployee(employeeId, null, null)
 
         then:
         1 * employeeService.getEmployee(employeeId) >> apiResponse
@@ -119,7 +261,7 @@ class EmployeeControllerSpec extends Specification {
         def employeeId = "100"
 
         when:
-        ResponseEntity<ApiResponse<Employee>> responseEntity = employeeController.getEmployee(employeeId)
+        ResponseEntity<ApiResponse<Employee>> responseEntity = employeeController.getEmployee(employeeId, null, null)
 
         then:
         1 * employeeService.getEmployee(employeeId) >> { throw new EmployeeNotFoundException("Employee not found with given id") }
@@ -134,10 +276,33 @@ class EmployeeControllerSpec extends Specification {
         responseEntity.getBody().error.errorDesc == "Get employee by id failed"
     }
 
+    def "getEmployee and getEmployeeByName - misses of the loaded lookup filter are answered without calling the service"() {
+        given:
+        employeeLookupFilter.onCleared()
+        employeeLookupFilter.onSaved([new EmployeeEntity(empId: 100, empName: "testName")])
+        employeeLookupFilter.onLoaded()
+
+        when:
+        def byId = employeeController.getEmployee("7", null, null)
+        def byName = employeeController.getEmployeeByName("unknown", null, null)
+
+        then:
+        0 * employeeService._
+
+        expect:
+        byId.statusCode == HttpStatus.NOT_FOUND
+        byId.getBody().error.errorMsg == "No employee found with id: 7"
+        byId.getBody().error.errorDesc == "Get employee by id failed"
+        byName.statusCode == HttpStatus.NOT_FOUND
+        byName.getBody().error.errorMsg == "No employee found with firstName: unknown"
+        employeeLookupFilter.getRejected(EmployeeLookupFilter.Key.ID) == 1
+        employeeLookupFilter.getRejected(EmployeeLookupFilter.Key.NAME) == 1
+    }
+
     def "getEmployee bad request scenario when employee id: #condition"() {
 
         when:
-        ResponseEntity<ApiResponse<Employee>> responseEntity = employeeController.getEmployee(employeeId)
+        ResponseEntity<ApiResponse<Employee>> responseEntity = employeeController.getEmployee(employeeId, null, null)
 
         then:
         0 * employeeService.getEmployee(employeeId)
@@ -165,7 +330,7 @@ class EmployeeControllerSpec extends Specification {
         apiResponse.setPayload(mockEmployee)
 
         when:
-        ResponseEntity<ApiResponse<Employee>> responseEntity = employeeController.getEmployeeByName(name)
+        ResponseEntity<ApiResponse<Employee>> responseEntity = employeeController.getEmployeeByName(name, null, null)
 
         then:
         1 * employeeService.getEmployeeByName(name) >> apiResponse
@@ -185,7 +350,7 @@ class EmployeeControllerSpec extends Specification {
         def name = "testName"
 
         when:
-        ResponseEntity<ApiResponse<Employee>> responseEntity = employeeController.getEmployeeByName(name)
+        ResponseEntity<ApiResponse<Employee>> responseEntity = employeeController.getEmployeeByName(name, null, null)
 
         then:
         1 * employeeService.getEmployeeByName(name) >> { throw new EmployeeNotFoundException("Employee not found with given name") }
@@ -203,7 +368,7 @@ class EmployeeControllerSpec extends Specification {
     def "getEmployeeByName bad request scenario when employee id: #condition"() {
 
         when:
-        ResponseEntity<ApiResponse<Employee>> responseEntity = employeeController.getEmployeeByName(name)
+        ResponseEntity<ApiResponse<Employee>> responseEntity = employeeController.getEmployeeByName(name, null, null)
 
         then:
         0 * employeeService.getEmployeeByName(name)
@@ -223,6 +388,99 @@ class EmployeeControllerSpec extends Specification {
         "null"    | null
     }
 
+    def "getEmployee - tags the response and answers a matching If-None-Match with 304 without calling the service"() {
+        given:
+        ApiResponse<Employee> apiResponse = new ApiResponse<>()
+        apiResponse.setPayload(mockEmployee)
+
+        when:
+        def first = employeeController.getEmployee("100", null, null)
+        def second = employeeController.getEmployee("100", first.headers.getETag(), null)
+        def strong = employeeController.getEmployeeByName("testName", first.headers.getETag().substring(2), null)
+
+        then:
+        1 * employeeService.getEmployee("100") >> apiResponse
+        0 * employeeService.getEmployeeByName(_)
+
+        expect:
+        first.statusCode == HttpStatus.OK
+        first.headers.getETag() ==~ /W\/"[0-9a-f]+-[0-9a-f]+"/
+        second.statusCode == HttpStatus.NOT_MODIFIED
+        second.headers.getETag() == first.headers.getETag()
+        !second.hasBody()
+        strong.statusCode == HttpStatus.NOT_MODIFIED
+        first.headers.getVary() == [HttpHeaders.ACCEPT]
+    }
+
+    def "getEmployee - JSON and Smile responses carry different ETags, each only matching its own representation"() {
+        given:
+        ApiResponse<Employee> apiResponse = new ApiResponse<>()
+        apiResponse.setPayload(mockEmployee)
+
+        when:
+        def json = employeeController.getEmployee("100", null, "application/json")
+        def smile = employeeController.getEmployee("100", null, "application/x-jackson-smile")
+        def smileWithJsonTag = employeeController.getEmployee("100", json.headers.getETag(), "application/x-jackson-smile")
+        def anyWithJsonTag = employeeController.getEmployee("100", json.headers.getETag(), "*/*")
+        def preferredSmile = employeeController.getEmployee("100", smile.headers.getETag(), "application/x-jackson-smile, application/json;q=0.5")
+
+        then:
+        3 * employeeService.getEmployee("100") >> apiResponse
+
+        expect:
+        smile.headers.getETag() == json.headers.getETag()[0..-2] + '-smile"'
+        smileWithJsonTag.statusCode == HttpStatus.OK
+        anyWithJsonTag.statusCode == HttpStatus.NOT_MODIFIED
+        preferredSmile.statusCode == HttpStatus.NOT_MODIFIED
+    }
+
+    def "getEmployeeList - a write to the table changes the ETag, so the previous tag no longer matches"() {
+        when:
+        def eTag = employeeController.getEmployeeList(null, null).headers.getETag()
+        employeeTableVersion.onDeleted(100)
+        def responseEntity = employeeController.getEmployeeList(eTag, null)
+
+        then:
+        2 * employeeService.getEmployeeList() >> [mockEmployee]
+
+        expect:
+        responseEntity.statusCode == HttpStatus.OK
+        responseEntity.headers.getETag() != eTag
+        responseEntity.getBody().payload == [mockEmployee]
+    }
+
+    def "getEmployees - returns the employees found for the ids with an ETag"() {
+        when:
+        ResponseEntity<ApiResponse<List<Employee>>> responseEntity = employeeController.getEmployees([100, 101], null, null)
+
+        then:
+        1 * employeeService.getEmployees([100, 101]) >> [mockEmployee]
+
+        expect:
+        responseEntity.statusCode == HttpStatus.OK
+        responseEntity.headers.getETag()
+        responseEntity.getBody().status.message == "Found 1 employees for 2 ids"
+        assertEmployeeDetails(responseEntity.getBody().payload[0])
+    }
+
+    def "getEmployees bad request scenario when ids are #condition"() {
+        when:
+        ResponseEntity<ApiResponse<List<Employee>>> responseEntity = employeeController.getEmployees(ids, null, null)
+
+        then:
+        0 * employeeService.getEmployees(_)
+
+        expect:
+        responseEntity.statusCode == HttpStatus.BAD_REQUEST
+        responseEntity.getBody().error.errorMsg == message
+
+        where:
+        condition      | ids          | message
+        "empty"        | []           | "Ids should not be empty"
+        "null"         | null         | "Ids should not be empty"
+        "over the cap" | (1..1001)*.intValue() | "At most 1000 ids are allowed per request"
+    }
+
     def "addEmployee success scenario"() {
         given:
         ApiResponse apiResponse = new ApiResponse();
@@ -269,7 +527,7 @@ class EmployeeControllerSpec extends Specification {
         apiResponse.setStatus(new Status("200", "Employee updated successfully"));
 
         when:
-        ResponseEntity<ApiResponse> responseEntity = employeeController.updateEmployee(mockEmployee)
+        ResponseEntity<ApiResponse> responseEntity = employeeController.updateEmployee(mockEmployee, null)
 
         then:
         1 * employeeService.updateEmployee(mockEmployee) >> apiResponse
@@ -288,7 +546,7 @@ class EmployeeControllerSpec extends Specification {
         def employeeNotFoundException = new EmployeeNotFoundException("Employee not found with given details")
 
         when:
-        ResponseEntity<ApiResponse> responseEntity = employeeController.updateEmployee(mockEmployee)
+        ResponseEntity<ApiResponse> responseEntity = employeeController.updateEmployee(mockEmployee, null)
 
         then:
         1 * employeeService.updateEmployee(mockEmployee) >> { throw employeeNotFoundException }
@@ -303,6 +561,130 @@ class EmployeeControllerSpec extends Specification {
         responseEntity.getBody().error.errorDesc == "FAILED_DEPENDENCY"
     }
 
+    def "updateEmployee failure scenario when service returns duplicate employee exception"() {
+        when:
+        ResponseEntity<ApiResponse> responseEntity = employeeController.updateEmployee(mockEmployee, null)
+
+        then:
+        1 * employeeService.updateEmployee(mockEmployee) >> { throw new DuplicateEmployeeException("Duplicate employee details") }
+
+        expect:
+        responseEntity.statusCode == HttpStatus.CONFLICT
+        responseEntity.getBody().error.errorId == "409"
+        responseEntity.getBody().error.errorMsg == "Duplicate employee details"
+    }
+
+    @Unroll
+    def "updateEmployee - If-Match #ifMatch sets the expected version #expectedVersion and the ETag of the response"() {
+        given:
+        def employee = new Employee(empId: 100, empName: "testName", version: 1L)
+        ApiResponse apiResponse = new ApiResponse()
+        apiResponse.setStatus(new Status("200", "Employee updated successfully"))
+        apiResponse.setPayload(new Employee(empId: 100, empName: "testName", version: newVersion))
+
+        when:
+        ResponseEntity<ApiResponse> responseEntity = employeeController.updateEmployee(employee, ifMatch)
+
+        then:
+        1 * employeeService.updateEmployee({ it.version == expectedVersion }) >> apiResponse
+
+        expect:
+        responseEntity.statusCode == HttpStatus.OK
+        responseEntity.headers.getETag() == eTag
+
+        where:
+        ifMatch || expectedVersion | newVersion | eTag
+        null    || 1L              | 2L         | '"2"'
+        '"7"'   || 7L              | 8L         | '"8"'
+        '*'     || null            | null       | null
+    }
+
+    @Unroll
+    def "updateEmployee - If-Match #ifMatch that names no version fails the precondition"() {
+        when:
+        ResponseEntity<ApiResponse> responseEntity = employeeController.updateEmployee(new Employee(empId: 100), ifMatch)
+
+        then:
+        0 * employeeService.updateEmployee(_)
+
+        expect:
+        responseEntity.statusCode == HttpStatus.PRECONDITION_FAILED
+        responseEntity.getBody().error.errorId == "412"
+
+        where:
+        ifMatch << ['W/"7"', '7', '"abc"', '""']
+    }
+
+    def "updateEmployee failure scenario when service returns version conflict exception"() {
+        when:
+        ResponseEntity<ApiResponse> responseEntity = employeeController.updateEmployee(new Employee(empId: 100), '"3"')
+
+        then:
+        1 * employeeService.updateEmployee(_) >> { throw new EmployeeVersionConflictException("Employee with id: 100 was updated after version 3") }
+
+        expect:
+        responseEntity.statusCode == HttpStatus.PRECONDITION_FAILED
+        responseEntity.getBody().error.errorId == "412"
+        responseEntity.getBody().error.errorMsg == "Employee with id: 100 was updated after version 3"
+    }
+
+    def "patchEmployee - passes only the supplied fields and the version to the service"() {
+        given:
+        ApiResponse<Employee> apiResponse = new ApiResponse<>()
+        apiResponse.setStatus(new Status("200", "Employee updated successfully"))
+        apiResponse.setPayload(new Employee(empId: 100, empName: "testName", role: "lead", email: null, version: 4L))
+
+        when:
+        ResponseEntity<ApiResponse> responseEntity = employeeController.patchEmployee("100", [role: "lead", email: null, version: 3], null)
+
+        then:
+        1 * employeeService.patchEmployee(100, { it.role == "lead" && it.version == 3L }, ["role", "email"] as Set) >> apiResponse
+
+        expect:
+        responseEntity.statusCode == HttpStatus.OK
+        responseEntity.headers.getETag() == '"4"'
+        responseEntity.getBody().payload.role == "lead"
+    }
+
+    @Unroll
+    def "patchEmployee - bad request for #description"() {
+        when:
+        ResponseEntity<ApiResponse> responseEntity = employeeController.patchEmployee(employeeId, changes, null)
+
+        then:
+        0 * employeeService.patchEmployee(*_)
+
+        expect:
+        responseEntity.statusCode == HttpStatus.BAD_REQUEST
+
+        where:
+        description          | employeeId | changes
+        "a non numeric id"   | "abc"      | [role: "lead"]
+        "no fields"          | "100"      | [:]
+        "the id field"       | "100"      | [empId: 5]
+        "an unknown field"   | "100"      | [nickname: "x"]
+        "a null salary"      | "100"      | [salary: null]
+        "a non numeric salary" | "100"    | [salary: "high"]
+    }
+
+    @Unroll
+    def "patchEmployee - #exception.class.simpleName from the service is #status"() {
+        when:
+        ResponseEntity<ApiResponse> responseEntity = employeeController.patchEmployee("100", [role: "lead"], '"3"')
+
+        then:
+        1 * employeeService.patchEmployee(100, { it.version == 3L }, _) >> { throw exception }
+
+        expect:
+        responseEntity.statusCode == status
+
+        where:
+        exception                                                  || status
+        new EmployeeNotFoundException("No employee found")         || HttpStatus.NOT_FOUND
+        new DuplicateEmployeeException("Duplicate employee")       || HttpStatus.CONFLICT
+        new EmployeeVersionConflictException("Updated since")      || HttpStatus.PRECONDITION_FAILED
+    }
+
     def "deleteEmployee success scenario"() {
         given:
         def employeeId = "100"
@@ -0,0 +1,191 @@
+package com.app.durable
+
+import com.app.entity.EmployeeEntity
+import com.app.offheap.OffHeapEmployeeRepository
+import org.springframework.jdbc.core.JdbcTemplate
+import org.springframework.jdbc.datasource.DriverManagerDataSource
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.nio.file.Path
+import java.time.LocalDate
+
+class DurableEmployeeStoreSpec extends Specification {
+
+    @TempDir
+    Path tempDir
+
+    EmployeeWriteAheadLog writeAheadLog
+
+    JdbcTemplate jdbcTemplate
+
+    DurableEmployeeStore store
+
+    int restarts
+
+    def setup() {
+        start()
+    }
+
+    def cleanup() {
+        writeAheadLog.close()
+    }
+
+    // A fresh in-memory database and store over the same directory, as after a restart
+    void start() {
+        writeAheadLog?.close()
+        def dataSource = new DriverManagerDataSource("jdbc:h2:mem:durable-spec-${System.identityHashCode(this)}-${restarts++};DB_CLOSE_DELAY=-1")
+        jdbcTemplate = new JdbcTemplate(dataSource)
+        jdbcTemplate.execute("CREATE SEQUENCE EMPLOYEE_SEQ START WITH 1 INCREMENT BY 50")
+        jdbcTemplate.execute("CREATE TABLE EMPLOYEE (EMPLOYEE_ID INTEGER PRIMARY KEY, EMP_NAME VARCHAR(255) UNIQUE,"
+                + " ROLE VARCHAR(255), SALARY DOUBLE NOT NULL, DATE_OF_BIRTH DATE, MOBILE_NUMBER VARCHAR(255),"
+                + " EMAIL VARCHAR(255), VERSION BIGINT NOT NULL)")
+        writeAheadLog = new EmployeeWriteAheadLog(tempDir, false)
+        store = new DurableEmployeeStore(writeAheadLog, new JdbcEmployeeRowLoader(jdbcTemplate, 2), tempDir, Long.MAX_VALUE)
+        store.afterSingletonsInstantiated()
+    }
+
+    List<Map> rows() {
+        jdbcTemplate.queryForList("SELECT EMPLOYEE_ID, EMP_NAME, VERSION FROM EMPLOYEE ORDER BY EMPLOYEE_ID")
+                .collect { [id: it.EMPLOYEE_ID, name: it.EMP_NAME, version: it.VERSION] }
+    }
+
+    static EmployeeEntity employee(int id, String name, long version = 0) {
+        new EmployeeEntity(empId: id, empName: name, salary: 100 * id, dateOfBirth: LocalDate.of(1990, 1, id), version: version)
+    }
+
+    def "an empty directory starts an empty table that is not reported as restored"() {
+        expect:
+        !store.restored
+        rows().isEmpty()
+        writeAheadLog.open
+    }
+
+    def "the log alone restores the table, including the dates and the id sequence"() {
+        given:
+        writeAheadLog.appendSaved([employee(1, "a"), employee(2, "b"), employee(3, "c")])
+        writeAheadLog.appendDeleted(2)
+
+        when:
+        start()
+
+        then:
+        store.restored
+        rows() == [[id: 1, name: "a", version: 0], [id: 3, name: "c", version: 0]]
+        jdbcTemplate.queryForObject("SELECT DATE_OF_BIRTH FROM EMPLOYEE WHERE EMPLOYEE_ID = 3", java.sql.Date).toLocalDate() == LocalDate.of(1990, 1, 3)
+        jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR EMPLOYEE_SEQ", Long) > 3 + EmployeeEntity.ID_ALLOCATION_SIZE
+
+        and: "new writes continue the LSNs"
+        writeAheadLog.lastLsn == 4
+        store.status.restoredLogRecords == 4
+    }
+
+    def "the off-heap repository is restored from the snapshot and the log like the table"() {
+        given:
+        writeAheadLog.appendSaved([employee(1, "a"), employee(2, "b"), employee(3, "c")])
+        store.compact()
+        writeAheadLog.appendSaved([employee(2, "b2", 1)])
+        writeAheadLog.appendDeleted(1)
+        writeAheadLog.close()
+        def repository = new OffHeapEmployeeRepository(1 << 20, 16)
+
+        when:
+        writeAheadLog = new EmployeeWriteAheadLog(tempDir, false)
+        new DurableEmployeeStore(writeAheadLog, repository, tempDir, Long.MAX_VALUE).afterSingletonsInstantiated()
+
+        then:
+        repository.findAll()*.empName == ["b2", "c"]
+        repository.findByEmpName("b2").get().version == 1
+        repository.save(new EmployeeEntity(empName: "d")).empId == 4
+    }
+
+    def "compaction folds the log into a snapshot and a restart replays only the tail after it"() {
+        given:
+        writeAheadLog.appendSaved([employee(1, "a"), employee(2, "b"), employee(3, "c")])
+        writeAheadLog.appendSaved([employee(2, "b2", 1)])
+
+        when:
+        store.compact()
+
+        then:
+        EmployeeWriteAheadLog.segments(tempDir) == [EmployeeWriteAheadLog.segmentPath(tempDir, 5)]
+        EmployeeSnapshot.snapshots(tempDir)*.fileName*.toString() == ["employees-00000000000000000004.snapshot"]
+        store.status.snapshotRows == 3
+
+        when:
+        writeAheadLog.appendDeleted(1)
+        writeAheadLog.appendSaved([employee(4, "d")])
+        start()
+
+        then:
+        rows() == [[id: 2, name: "b2", version: 1], [id: 3, name: "c", version: 0], [id: 4, name: "d", version: 0]]
+        store.status.snapshotLsn == 4
+        store.status.restoredLogRecords == 2
+        store.status.restoredRows == 3
+
+        when: "compacting again replaces the snapshot"
+        store.compact()
+        start()
+
+        then:
+        EmployeeSnapshot.snapshots(tempDir)*.fileName*.toString() == ["employees-00000000000000000006.snapshot"]
+        rows()*.id == [2, 3, 4]
+        store.status.restoredLogRecords == 0
+    }
+
+    def "the log is replayed in order, a row deleted after the snapshot and added again under its id is the new row"() {
+        given:
+        writeAheadLog.appendSaved([employee(1, "a", 4), employee(2, "b", 3)])
+        store.compact()
+        writeAheadLog.appendSaved([employee(1, "a5", 5)])
+        writeAheadLog.appendDeleted(2)
+        // The id sequence restarts past the highest restored id, so a deleted highest id is handed out again
+        writeAheadLog.appendSaved([employee(2, "b-new", 0)])
+        writeAheadLog.appendDeleted(1)
+
+        when:
+        start()
+
+        then:
+        rows() == [[id: 2, name: "b-new", version: 0]]
+
+        when:
+        store.compact()
+        start()
+
+        then:
+        rows() == [[id: 2, name: "b-new", version: 0]]
+    }
+
+    def "a clear drops the rows of the snapshot before it"() {
+        given:
+        writeAheadLog.appendSaved([employee(1, "a"), employee(2, "b")])
+        store.compact()
+        writeAheadLog.appendCleared()
+        writeAheadLog.appendSaved([employee(5, "e")])
+
+        when:
+        start()
+
+        then:
+        rows()*.id == [5]
+    }
+
+    def "a snapshot whose log segments were not deleted yet is not replayed twice"() {
+        given:
+        writeAheadLog.appendSaved([employee(1, "a", 1)])
+        def closed = writeAheadLog.rotate()
+        def tail = EmployeeLogTail.read(closed, 0)
+        EmployeeSnapshot.create(tempDir, tail.lastLsn).withCloseable { writer ->
+            tail.merge(null, writer.&add)
+            writer.commit()
+        }
+        writeAheadLog.appendSaved([employee(1, "a", 2)])
+
+        when:
+        start()
+
+        then:
+        rows() == [[id: 1, name: "a", version: 2]]
+    }
+}
@@ -0,0 +1,121 @@
+package com.app.durable
+
+import com.app.entity.EmployeeEntity
+import spock.lang.Specification
+import spock.lang.Subject
+import spock.lang.TempDir
+
+import java.nio.ByteBuffer
+import java.nio.file.Files
+import java.nio.file.Path
+import java.time.LocalDate
+
+class EmployeeWriteAheadLogSpec extends Specification {
+
+    @TempDir
+    Path tempDir
+
+    @Subject
+    EmployeeWriteAheadLog writeAheadLog
+
+    def setup() {
+        writeAheadLog = new EmployeeWriteAheadLog(tempDir, true)
+        writeAheadLog.open(1)
+    }
+
+    def cleanup() {
+        writeAheadLog.close()
+    }
+
+    List<Map> readAll(long afterLsn = 0) {
+        def entries = []
+        EmployeeWriteAheadLog.segments(tempDir).each { segment ->
+            EmployeeWriteAheadLog.read(segment, afterLsn) { entry ->
+                entries << [type : entry.type, lsn: entry.lsn,
+                            value: entry.type == EmployeeWriteAheadLog.SAVED ? EmployeeRecordCodec.decode(entry.record)
+                                    : entry.type == EmployeeWriteAheadLog.DELETED ? entry.empId : null]
+            }
+        }
+        entries
+    }
+
+    def "the codec round trips every field, nulls included"() {
+        given:
+        def employee = new EmployeeEntity(empId: 7, empName: "Añil", role: "dev", salary: 1234.5,
+                dateOfBirth: LocalDate.of(1990, 5, 11), mobileNumber: "1234567890", email: "a@test.com", version: 3)
+        def empty = new EmployeeEntity(empId: 8)
+
+        expect:
+        EmployeeRecordCodec.decode(ByteBuffer.wrap(EmployeeRecordCodec.encode(employee))) == employee
+        EmployeeRecordCodec.decode(ByteBuffer.wrap(EmployeeRecordCodec.encode(empty))) == empty
+        EmployeeRecordCodec.id(ByteBuffer.wrap(EmployeeRecordCodec.encode(employee))) == 7
+        EmployeeRecordCodec.version(ByteBuffer.wrap(EmployeeRecordCodec.encode(employee))) == 3
+    }
+
+    def "saves, deletes and clears are read back in order with consecutive LSNs"() {
+        when:
+        writeAheadLog.appendSaved([new EmployeeEntity(empId: 1, empName: "a"), new EmployeeEntity(empId: 2, empName: "b")])
+        writeAheadLog.appendDeleted(1)
+        writeAheadLog.appendCleared()
+
+        then:
+        def entries = readAll()
+        entries*.lsn == [1, 2, 3, 4]
+        entries*.type == [EmployeeWriteAheadLog.SAVED, EmployeeWriteAheadLog.SAVED, EmployeeWriteAheadLog.DELETED,
+                          EmployeeWriteAheadLog.CLEARED]
+        entries[1].value.empName == "b"
+        entries[2].value == 1
+        writeAheadLog.lastLsn == 4
+
+        and: "records up to an LSN are skipped"
+        readAll(2)*.lsn == [3, 4]
+    }
+
+    def "a record torn by a crash ends the segment"() {
+        given:
+        writeAheadLog.appendSaved([new EmployeeEntity(empId: 1, empName: "a")])
+        writeAheadLog.appendSaved([new EmployeeEntity(empId: 2, empName: "b")])
+        writeAheadLog.close()
+        def segment = EmployeeWriteAheadLog.segments(tempDir)[0]
+        byte[] bytes = Files.readAllBytes(segment)
+
+        when: "the last record lost its final bytes"
+        Files.write(segment, Arrays.copyOf(bytes, bytes.length - 3))
+
+        then:
+        readAll()*.lsn == [1]
+
+        when: "the last record is complete but corrupt"
+        bytes[bytes.length - 1] ^= 1
+        Files.write(segment, bytes)
+
+        then:
+        readAll()*.lsn == [1]
+    }
+
+    def "rotation continues the LSNs in a new segment and returns the closed ones"() {
+        given:
+        writeAheadLog.appendDeleted(1)
+
+        when:
+        def closed = writeAheadLog.rotate()
+        writeAheadLog.appendDeleted(2)
+
+        then:
+        closed == [EmployeeWriteAheadLog.segmentPath(tempDir, 1)]
+        EmployeeWriteAheadLog.segments(tempDir) == [EmployeeWriteAheadLog.segmentPath(tempDir, 1),
+                                                    EmployeeWriteAheadLog.segmentPath(tempDir, 2)]
+        readAll()*.value == [1, 2]
+    }
+
+    def "appending before the log is opened fails"() {
+        given:
+        def notOpened = new EmployeeWriteAheadLog(tempDir, true)
+
+        when:
+        notOpened.appendDeleted(1)
+
+        then:
+        thrown(IllegalStateException)
+    }
+}
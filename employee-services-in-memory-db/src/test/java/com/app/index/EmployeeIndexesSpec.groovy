@@ -0,0 +1,109 @@
+package com.app.index
+
+import com.app.durable.EmployeeLogTail
+import com.app.durable.EmployeeRecordCodec
+import com.app.durable.EmployeeWriteAheadLog
+import com.app.entity.EmployeeEntity
+import com.app.repository.EmployeeRepository
+import org.springframework.beans.factory.ObjectProvider
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.nio.file.Path
+import java.util.concurrent.CountDownLatch
+
+class EmployeeIndexesSpec extends Specification {
+
+    @TempDir
+    Path tempDir
+
+    EmployeeWriteAheadLog writeAheadLog
+
+    EmployeeRangeIndex rangeIndex = new EmployeeRangeIndex()
+
+    EmployeeIndexes employeeIndexes
+
+    def setup() {
+        writeAheadLog = new EmployeeWriteAheadLog(tempDir, false)
+        writeAheadLog.open(1)
+        employeeIndexes = new EmployeeIndexes([rangeIndex] as List<EmployeeIndex>, Mock(EmployeeRepository),
+                Stub(ObjectProvider) { getIfAvailable() >> writeAheadLog })
+    }
+
+    def cleanup() {
+        writeAheadLog.close()
+    }
+
+    static EmployeeEntity employee(int id, long version) {
+        new EmployeeEntity(empId: id, empName: "e" + id, salary: 1000, version: version)
+    }
+
+    // The rows a restart would restore from the log
+    List<Integer> replayedIds() {
+        writeAheadLog.sync()
+        def ids = []
+        EmployeeLogTail.read(EmployeeWriteAheadLog.segments(tempDir), 0)
+                .merge(null, { row -> ids << EmployeeRecordCodec.id(row) })
+        ids
+    }
+
+    // Starts a write that committed and is reported late, once the other write has had time to start
+    Thread committedThenReportedLate(Closure<EmployeeIndexes.WriteOrder> order, CountDownLatch committed, Closure report) {
+        Thread.start {
+            order().withCloseable {
+                committed.countDown()
+                sleep(200)
+                report()
+            }
+        }
+    }
+
+    def "a delete racing an update of its row is reported after it, so a replay does not bring the row back"() {
+        given:
+        employeeIndexes.onSaved(employee(1, 0))
+        def committed = new CountDownLatch(1)
+
+        when:
+        def update = committedThenReportedLate({ employeeIndexes.orderRowWrite(1) }, committed,
+                { employeeIndexes.onSaved(employee(1, 1)) })
+        committed.await()
+        employeeIndexes.orderRowWrite(1).withCloseable { employeeIndexes.onDeleted(1) }
+        update.join()
+
+        then:
+        replayedIds() == []
+        rangeIndex.size() == 0
+    }
+
+    def "a clear racing an insert is reported after it, so a replay does not bring the row back"() {
+        given:
+        def committed = new CountDownLatch(1)
+
+        when:
+        def insert = committedThenReportedLate({ employeeIndexes.orderInsert() }, committed,
+                { employeeIndexes.onSaved([employee(1, 0), employee(2, 0)]) })
+        committed.await()
+        employeeIndexes.orderClear().withCloseable { employeeIndexes.onCleared() }
+        insert.join()
+        employeeIndexes.orderInsert().withCloseable { employeeIndexes.onSaved(employee(3, 0)) }
+
+        then:
+        replayedIds() == [3]
+        rangeIndex.size() == 1
+    }
+
+    def "writes of other rows are not held up by a row's write"() {
+        given:
+        def order = employeeIndexes.orderRowWrite(1)
+
+        when:
+        def other = Thread.start { employeeIndexes.orderRowWrite(2).withCloseable { employeeIndexes.onDeleted(2) } }
+        other.join(5000)
+
+        then:
+        !other.alive
+
+        cleanup:
+        order.close()
+    }
+}
@@ -0,0 +1,112 @@
+package com.app.index
+
+import com.app.entity.EmployeeEntity
+import com.app.repository.EmployeeRepository
+import org.springframework.data.domain.Pageable
+import spock.lang.Specification
+
+import java.util.concurrent.ConcurrentSkipListSet
+import java.util.concurrent.atomic.AtomicBoolean
+
+class EmployeeLookupFilterSpec extends Specification {
+
+    def employeeRepository = Mock(EmployeeRepository)
+
+    def filter = new EmployeeLookupFilter(employeeRepository)
+
+    def "every key might exist until the table has been loaded"() {
+        expect:
+        filter.mightContainId("1")
+        filter.mightContainName("Anil")
+    }
+
+    def "saved ids and names are found, others are definite misses"() {
+        given:
+        filter.onSaved((1..1000).collect { new EmployeeEntity(empId: it, empName: "employee-" + it) })
+        filter.onLoaded()
+
+        expect:
+        (1..1000).every { filter.mightContainId(String.valueOf(it)) && filter.mightContainName("employee-" + it) }
+        (1001..11000).count { filter.mightContainId(String.valueOf(it)) } < 500
+        !filter.mightContainName("nobody") || !filter.mightContainName("somebody")
+        filter.getRejected(EmployeeLookupFilter.Key.ID) > 9500
+        filter.getExpectedFalsePositiveRate(EmployeeLookupFilter.Key.ID) < 0.01
+    }
+
+    def "ids that are not numbers are left to the caller"() {
+        given:
+        filter.onLoaded()
+
+        expect:
+        filter.mightContainId("12345678901")
+        filter.mightContainId("abc")
+    }
+
+    def "a delete makes the filter stale until the table has been read again"() {
+        given:
+        filter.onSaved([new EmployeeEntity(empId: 1, empName: "Anil"), new EmployeeEntity(empId: 2, empName: "Kumar")])
+        filter.onLoaded()
+
+        when:
+        filter.onDeleted(2)
+        filter.rebuildIfStale()
+
+        then:
+        1 * employeeRepository.findByEmpIdGreaterThanOrderByEmpIdAsc(0, _) >> [new EmployeeEntity(empId: 1, empName: "Anil")]
+        filter.mightContainId("1")
+        !filter.mightContainId("2")
+        !filter.mightContainName("Kumar")
+
+        when:
+        filter.rebuildIfStale()
+
+        then:
+        0 * employeeRepository._
+    }
+
+    def "clearing empties the filter"() {
+        given:
+        filter.onSaved([new EmployeeEntity(empId: 1, empName: "Anil")])
+        filter.onLoaded()
+
+        when:
+        filter.onCleared()
+
+        then:
+        !filter.mightContainId("1")
+        !filter.mightContainName("Anil")
+    }
+
+    def "an id saved while the filters are swapped is in the filters that replace them"() {
+        given: "rebuilds running back to back over the one row of the table"
+        def committed = new ConcurrentSkipListSet<Integer>()
+        def table = Stub(EmployeeRepository) {
+            findByEmpIdGreaterThanOrderByEmpIdAsc(_ as Integer, _ as Pageable) >> { Integer after, Pageable pageable ->
+                committed.tailSet(after, false).take(pageable.pageSize).collect { new EmployeeEntity(empId: it) }
+            }
+        }
+        def swapped = new EmployeeLookupFilter(table)
+        swapped.onLoaded()
+        def saving = new AtomicBoolean(true)
+        def rebuilds = Thread.start {
+            while (saving.get()) {
+                swapped.rebuild()
+            }
+        }
+
+        when:
+        def missed = (1..50_000).findAll { id ->
+            committed.add(id)
+            swapped.onSaved([new EmployeeEntity(empId: id)])
+            boolean found = swapped.mightContainId(String.valueOf(id))
+            // Deleted again, which keeps the rebuilds short and the swaps frequent
+            committed.remove(id)
+            !found
+        }
+        saving.set(false)
+        rebuilds.join()
+
+        then:
+        missed == []
+    }
+}
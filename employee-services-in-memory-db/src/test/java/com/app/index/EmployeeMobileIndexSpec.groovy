@@ -0,0 +1,114 @@
+package com.app.index
+
+import com.app.entity.EmployeeEntity
+import spock.lang.Specification
+import spock.lang.Subject
+
+class EmployeeMobileIndexSpec extends Specification {
+
+    @Subject
+    def mobileIndex = new EmployeeMobileIndex()
+
+    def setup() {
+        mobileIndex.onSaved([
+                employee(1, "123456789"),
+                employee(2, "1239"),
+                employee(3, "95643187"),
+                employee(4, "123456789"),
+                employee(5, null),
+                employee(6, "+91 12345")])
+    }
+
+    EmployeeEntity employee(int id, String mobileNumber) {
+        new EmployeeEntity(empId: id, empName: "name" + id, mobileNumber: mobileNumber)
+    }
+
+    def "prefix #prefix matches #ids ordered by mobile number then id"() {
+        expect:
+        def page = mobileIndex.startingWith(prefix, 0, 10)
+        page.total == ids.size()
+        page.ids as List == ids
+
+        where:
+        prefix           | ids
+        "1"              | [1, 4, 2]
+        "1234"           | [1, 4]
+        "123456789"      | [1, 4]
+        "1234567890"     | []
+        "9"              | [3]
+        "+91"            | [6]
+        "7"              | []
+        ""               | [6, 1, 4, 2, 3]
+    }
+
+    def "pages skip the earlier matches and are bounded by the limit"() {
+        when:
+        def page = mobileIndex.startingWith("", offset, 2)
+
+        then:
+        page.total == 5
+        page.ids as List == ids
+
+        where:
+        offset | ids
+        0      | [6, 1]
+        2      | [4, 2]
+        4      | [3]
+        9      | []
+    }
+
+    def "an update re-indexes the new number and a delete removes it"() {
+        when:
+        mobileIndex.onSaved([employee(1, "95600000")])
+        mobileIndex.onDeleted(3)
+
+        then:
+        mobileIndex.size() == 4
+        mobileIndex.startingWith("1234", 0, 10).ids as List == [4]
+        mobileIndex.startingWith("95", 0, 10).ids as List == [1]
+    }
+
+    def "a save older than the indexed version is dropped, so late updates cannot undo later ones"() {
+        when:
+        mobileIndex.onSaved([employee(3, "700").tap { version = 2 }])
+        mobileIndex.onSaved([employee(3, "800").tap { version = 1 }])
+
+        then:
+        mobileIndex.startingWith("7", 0, 10).ids as List == [3]
+        mobileIndex.startingWith("8", 0, 10).total == 0
+        mobileIndex.size() == 5
+    }
+
+    def "nodes of numbers no longer indexed are reused, so changing numbers does not grow the trie"() {
+        given:
+        def random = new Random(7)
+        def numbers = (1..200).collectEntries { [it, String.valueOf(random.nextInt(1_000_000_000))] }
+        mobileIndex.onSaved(numbers.collect { id, number -> employee(id, number) })
+        def allocated = mobileIndex.allocatedNodes()
+
+        when:
+        20.times {
+            numbers.keySet().each { id ->
+                numbers[id] = String.valueOf(random.nextInt(1_000_000_000))
+                mobileIndex.onSaved([employee(id, numbers[id])])
+            }
+        }
+
+        then:
+        mobileIndex.allocatedNodes() <= allocated + 10
+        mobileIndex.size() == 200
+        numbers.every { id, number -> id in mobileIndex.startingWith(number, 0, 10).ids }
+        mobileIndex.startingWith("", 0, 200).ids as List == numbers.sort { a, b -> a.value <=> b.value ?: a.key <=> b.key }*.key
+    }
+
+    def "a cleared index can be filled again"() {
+        when:
+        mobileIndex.onCleared()
+        mobileIndex.onSaved((1..5000).collect { employee(it, String.valueOf(7000000 + it)) })
+
+        then:
+        mobileIndex.size() == 5000
+        mobileIndex.startingWith("1", 0, 10).total == 0
+        mobileIndex.startingWith("70049", 0, 200).ids as List == (4900..4999).toList()
+    }
+}
@@ -0,0 +1,113 @@
+package com.app.index
+
+import com.app.entity.EmployeeEntity
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.time.LocalDate
+
+class EmployeeRangeIndexSpec extends Specification {
+
+    @Subject
+    def rangeIndex = new EmployeeRangeIndex()
+
+    def setup() {
+        rangeIndex.onSaved([
+                employee(1, 30000, "1990-05-11"),
+                employee(2, 10000, "1985-01-01"),
+                employee(3, 20000, null),
+                employee(4, 20000, "1995-01-01"),
+                employee(5, 50000, "1990-05-11")])
+    }
+
+    EmployeeEntity employee(int id, double salary, String dateOfBirth) {
+        new EmployeeEntity(empId: id, empName: "name" + id, salary: salary,
+                dateOfBirth: dateOfBirth == null ? null : LocalDate.parse(dateOfBirth))
+    }
+
+    def "salary queries use the same bounds as the repository queries and order by salary then id"() {
+        expect:
+        rangeIndex.salaryBetween(10000, 30000, 0, 10).ids as List == [2, 3, 4, 1]
+        rangeIndex.salaryBetween(15000, 25000, 0, 10).ids as List == [3, 4]
+        rangeIndex.salaryAtLeast(30000, 0, 10).ids as List == [1, 5]
+        rangeIndex.salaryBelow(20000, 0, 10).ids as List == [2]
+        rangeIndex.salaryBetween(60000, 70000, 0, 10).total == 0
+    }
+
+    def "bornBefore is strictly before the date and skips employees without a date of birth"() {
+        expect:
+        rangeIndex.bornBefore(LocalDate.parse("1990-05-11"), 0, 10).ids as List == [2]
+        rangeIndex.bornBefore(LocalDate.parse("2000-01-01"), 0, 10).ids as List == [2, 1, 5, 4]
+    }
+
+    def "pages are cut from the matches and report the total"() {
+        when:
+        def page = rangeIndex.salaryAtLeast(0, offset, 2)
+
+        then:
+        page.total == 5
+        page.ids as List == ids
+
+        where:
+        offset | ids
+        0      | [2, 3]
+        2      | [4, 1]
+        4      | [5]
+        6      | []
+    }
+
+    def "an update moves the employee to its new keys and a delete removes it"() {
+        when:
+        rangeIndex.onSaved([employee(2, 40000, null)])
+        rangeIndex.onDeleted(5)
+
+        then:
+        rangeIndex.size() == 4
+        rangeIndex.salaryAtLeast(0, 0, 10).ids as List == [3, 4, 1, 2]
+        rangeIndex.bornBefore(LocalDate.parse("2000-01-01"), 0, 10).ids as List == [1, 4]
+    }
+
+    def "a save older than the indexed version is dropped, so late updates cannot undo later ones"() {
+        when:
+        rangeIndex.onSaved([employee(2, 40000, null).tap { version = 2 }])
+        rangeIndex.onSaved([employee(2, 35000, "1970-01-01").tap { version = 1 }])
+
+        then:
+        rangeIndex.size() == 5
+        rangeIndex.salaryAtLeast(35000, 0, 10).ids as List == [2, 5]
+        rangeIndex.bornBefore(LocalDate.parse("1980-01-01"), 0, 10).total == 0
+
+        when: "the same version again replaces it"
+        rangeIndex.onSaved([employee(2, 45000, null).tap { version = 2 }])
+
+        then:
+        rangeIndex.salaryAtLeast(35000, 0, 10).ids as List == [2, 5]
+        rangeIndex.salaryBetween(45000, 45000, 0, 10).ids as List == [2]
+    }
+
+    def "an id saved twice in one batch is indexed once, with the last values"() {
+        when:
+        rangeIndex.onSaved([employee(6, 60000, "1980-01-01"), employee(2, 45000, null), employee(6, 70000, null)])
+
+        then:
+        rangeIndex.size() == 6
+        rangeIndex.salaryAtLeast(40000, 0, 10).ids as List == [2, 5, 6]
+        rangeIndex.bornBefore(LocalDate.parse("2000-01-01"), 0, 10).ids as List == [1, 5, 4]
+    }
+
+    def "batches are merged in order and the arrays grow past their initial capacity"() {
+        given:
+        rangeIndex.onCleared()
+
+        when:
+        (0..<3).each { batch ->
+            rangeIndex.onSaved((1..1000).collect { employee(batch * 1000 + it, (it * 7919) % 1000, null) })
+        }
+
+        then:
+        rangeIndex.size() == 3000
+        def salaries = rangeIndex.salaryAtLeast(0, 0, 3000).ids.collect { (((it - 1) % 1000 + 1) * 7919) % 1000 }
+        salaries == salaries.sort(false)
+        rangeIndex.salaryBetween(500, 500, 0, 10).total == 3
+    }
+}
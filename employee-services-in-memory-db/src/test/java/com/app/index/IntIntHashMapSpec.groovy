@@ -0,0 +1,29 @@
+package com.app.index
+
+import spock.lang.Specification
+
+class IntIntHashMapSpec extends Specification {
+
+    def "keeps every entry through growth and removals"() {
+        given:
+        def map = new IntIntHashMap(4)
+        def expected = [:]
+        def random = new Random(42)
+
+        when:
+        10000.times {
+            int key = random.nextInt(5000)
+            if (random.nextBoolean()) {
+                map.put(key, it)
+                expected[key] = it
+            } else {
+                assert map.remove(key, -1) == expected.getOrDefault(key, -1)
+                expected.remove(key)
+            }
+        }
+
+        then:
+        map.size() == expected.size()
+        (0..<5000).every { map.get(it, -1) == expected.getOrDefault(it, -1) }
+    }
+}
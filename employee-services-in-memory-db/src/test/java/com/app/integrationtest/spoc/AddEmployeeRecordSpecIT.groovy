@@ -0,0 +1,99 @@
+package com.app.integrationtest.spoc
+
+import com.app.model.ApiResponse
+import groovy.json.JsonSlurper
+import org.springframework.http.HttpHeaders
+import org.springframework.http.HttpMethod
+import org.springframework.http.HttpStatus
+import org.springframework.http.MediaType
+import org.springframework.http.ResponseEntity
+import org.springframework.util.LinkedMultiValueMap
+import spock.lang.Shared
+
+import java.util.zip.GZIPOutputStream
+
+class AddEmployeeRecordSpecIT extends BaseIntegrationSpecIT {
+
+    @Shared
+    String ADD_EMPLOYEE_RECORD_RESOURCE = "/employee/add"
+
+    def "Should reject an employee whose name already exists with status CONFLICT"() {
+        setup:
+        Map employee = [empName: "Anil", role: "SE", salary: 5000, dateOfBirth: "1995-01-01", mobileNumber: "999", email: "x@y.com"]
+
+        when:
+        ResponseEntity<String> responseEntity = callService(buildUri(ADD_EMPLOYEE_RECORD_RESOURCE), HttpMethod.POST, employee)
+
+        then:
+        responseEntity.statusCode == HttpStatus.CONFLICT
+        ApiResponse apiResponse = new JsonSlurper().parseText(responseEntity.getBody())
+        apiResponse.error.errorId == "409"
+        apiResponse.error.errorMsg == "Employee already exist with name: Anil"
+    }
+
+    def "Should insert a new row for an employee that carries the id and version of an existing one"() {
+        setup:
+        Map employee = [empId: 1, version: 0, empName: "Not Anil", role: "SE", salary: 5000, dateOfBirth: "1995-01-01", mobileNumber: "999", email: "x@y.com"]
+
+        when:
+        ResponseEntity<String> responseEntity = callService(buildUri(ADD_EMPLOYEE_RECORD_RESOURCE), HttpMethod.POST, employee)
+        Map added = new JsonSlurper().parseText(callService(buildUri("/employee/getByName", new LinkedMultiValueMap([name: ["Not Anil"]])), HttpMethod.GET, null).getBody()).payload
+
+        then:
+        responseEntity.statusCode == HttpStatus.CREATED
+        added.empId != 1
+        new JsonSlurper().parseText(callService(buildUri("/employee/getById/1"), HttpMethod.GET, null).getBody()).payload.empName == "Anil"
+
+        cleanup:
+        if (added) {
+            callService(buildUri("/employee/delete/" + added.empId), HttpMethod.DELETE, null)
+        }
+    }
+
+    def "Should answer PAYLOAD_TOO_LARGE to a gzip list that inflates past the limit"() {
+        setup: "33MB of JSON whitespace, a few tens of kilobytes compressed"
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream()
+        new GZIPOutputStream(compressed).withCloseable { gzip ->
+            byte[] spaces = (" " * 8192).bytes
+            gzip.write("[".bytes)
+            (33 * 128).times { gzip.write(spaces) }
+            gzip.write("]".bytes)
+        }
+        HttpHeaders headers = new HttpHeaders()
+        headers.setContentType(MediaType.APPLICATION_JSON)
+        headers.set(HttpHeaders.CONTENT_ENCODING, "gzip")
+
+        when:
+        ResponseEntity<String> responseEntity = callService(buildUri("/employee/addList"), HttpMethod.POST, headers,
+                compressed.toByteArray())
+
+        then:
+        responseEntity.statusCode == HttpStatus.PAYLOAD_TOO_LARGE
+        ApiResponse apiResponse = new JsonSlurper().parseText(responseEntity.getBody())
+        apiResponse.error.errorId == "413"
+    }
+
+    def "Should answer PAYLOAD_TOO_LARGE to a gzip list whose employee name inflates past the limit"() {
+        setup: "the limit is hit inside the empName string, where Jackson wraps what the body stream throws"
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream()
+        new GZIPOutputStream(compressed).withCloseable { gzip ->
+            byte[] letters = ("a" * 8192).bytes
+            gzip.write('[{"empName":"'.bytes)
+            (33 * 128).times { gzip.write(letters) }
+            gzip.write('","role":"SE","salary":5000,"dateOfBirth":"1995-01-01","mobileNumber":"999","email":"x@y.com"}]'.bytes)
+        }
+        HttpHeaders headers = new HttpHeaders()
+        headers.setContentType(MediaType.APPLICATION_JSON)
+        headers.set(HttpHeaders.CONTENT_ENCODING, "gzip")
+
+        when:
+        ResponseEntity<String> responseEntity = callService(buildUri("/employee/addList"), HttpMethod.POST, headers,
+                compressed.toByteArray())
+
+        then:
+        responseEntity.statusCode == HttpStatus.PAYLOAD_TOO_LARGE
+        ApiResponse apiResponse = new JsonSlurper().parseText(responseEntity.getBody())
+        apiResponse.error.errorId == "413"
+        apiResponse.error.errorMsg == "Gzip request body inflates to more than 33554432 bytes"
+    }
+}
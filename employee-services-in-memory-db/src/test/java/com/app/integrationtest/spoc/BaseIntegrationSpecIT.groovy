@@ -1,7 +1,10 @@
 package com.app.integrationtest.spoc
 
 import com.app.EmployeeApplication
+import com.app.model.SeedStatus
+import com.app.seed.EmployeeSeedLoader
 import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics
 import org.springframework.boot.test.context.SpringBootTest
 import org.springframework.boot.test.web.client.TestRestTemplate
 import org.springframework.boot.web.server.LocalServerPort
@@ -14,11 +17,14 @@ import org.springframework.util.MultiValueMap
 import org.springframework.web.util.UriComponentsBuilder
 import spock.lang.Shared
 import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
 
 @SpringBootTest(
         webEnvironment = SpringBootTest.WebEnvironment.DEFINED_PORT,
         classes = EmployeeApplication.class
 )
+// Metrics are exported as in production, so /actuator/prometheus is available
+@AutoConfigureMetrics
 //@TestPropertySource(locations = "classpath:application-test.properties")
 class BaseIntegrationSpecIT extends Specification {
 
@@ -28,9 +34,19 @@ class BaseIntegrationSpecIT extends Specification {
     @LocalServerPort
     int port
 
+    @Autowired
+    EmployeeSeedLoader employeeSeedLoader
+
     @Shared
     String CONTEXT_PATH = "/EmployeeManagement/"
 
+    // The seed data is loaded in the background at startup, the specs expect all of it in the table
+    def setup() {
+        new PollingConditions(timeout: 30).eventually {
+            assert employeeSeedLoader.progress.status == SeedStatus.COMPLETED
+        }
+    }
+
 
     URI buildUri(String resource) {
         return buildUri(resource, null)
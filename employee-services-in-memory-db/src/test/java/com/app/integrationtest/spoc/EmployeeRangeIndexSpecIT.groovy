@@ -0,0 +1,91 @@
+package com.app.integrationtest.spoc
+
+import com.app.index.EmployeeRangeIndex
+import com.app.repository.EmployeeRepository
+import groovy.json.JsonSlurper
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.http.HttpMethod
+import org.springframework.http.HttpStatus
+import org.springframework.http.ResponseEntity
+import org.springframework.util.LinkedMultiValueMap
+import org.springframework.util.MultiValueMap
+import spock.lang.Unroll
+
+import java.time.LocalDate
+
+// The index answers must match the repository queries it replaces on the seeded data
+class EmployeeRangeIndexSpecIT extends BaseIntegrationSpecIT {
+
+    @Autowired
+    EmployeeRangeIndex employeeRangeIndex
+
+    @Autowired
+    EmployeeRepository employeeRepository
+
+    @Unroll
+    def "salary range #min to #max matches findBySalaryBetween"() {
+        expect:
+        (employeeRangeIndex.salaryBetween(min, max, 0, 100).ids as List).sort() ==
+                employeeRepository.findBySalaryBetween(min, max)*.empId.sort()
+
+        where:
+        min    | max
+        0      | 1000000
+        20000  | 30000
+        15000  | 15000
+        300000 | 800000
+    }
+
+    @Unroll
+    def "salary bound #salary matches findBySalaryGreaterThanEqual and findBySalaryLessThan"() {
+        expect:
+        (employeeRangeIndex.salaryAtLeast(salary, 0, 100).ids as List).sort() ==
+                employeeRepository.findBySalaryGreaterThanEqual(salary)*.empId.sort()
+        (employeeRangeIndex.salaryBelow(salary, 0, 100).ids as List).sort() ==
+                employeeRepository.findBySalaryLessThan(salary)*.empId.sort()
+
+        where:
+        salary << [5000, 20000, 30001, 2000000]
+    }
+
+    @Unroll
+    def "born before #date matches the employees born before it"() {
+        expect:
+        (employeeRangeIndex.bornBefore(LocalDate.parse(date), 0, 100).ids as List).sort() ==
+                employeeRepository.findAll().findAll { it.dateOfBirth < LocalDate.parse(date) }*.empId.sort()
+
+        where:
+        date << ["1990-01-01", "1990-05-11", "2030-01-01"]
+    }
+
+    def "Should return employees in the salary range ordered by salary"() {
+        setup:
+        MultiValueMap<String, String> queryParams = new LinkedMultiValueMap<>()
+        queryParams.add("min", "20000")
+        queryParams.add("max", "30000")
+        queryParams.add("size", "4")
+
+        when:
+        ResponseEntity<String> responseEntity = callService(buildUri("/employee/salaryBetween", queryParams), HttpMethod.GET, null)
+
+        then:
+        responseEntity.statusCode == HttpStatus.OK
+        def payload = new JsonSlurper().parseText(responseEntity.getBody()).payload
+        payload.total == 6
+        payload.size == 4
+        payload.employees*.salary == [20000, 20000, 20000, 30000]
+    }
+
+    def "Should return employees born before the date"() {
+        setup:
+        MultiValueMap<String, String> queryParams = new LinkedMultiValueMap<>()
+        queryParams.add("date", "1987-01-01")
+
+        when:
+        ResponseEntity<String> responseEntity = callService(buildUri("/employee/bornBefore", queryParams), HttpMethod.GET, null)
+
+        then:
+        responseEntity.statusCode == HttpStatus.OK
+        new JsonSlurper().parseText(responseEntity.getBody()).payload.employees*.empName == ["Raju", "Mamatha"]
+    }
+}
@@ -0,0 +1,56 @@
+package com.app.integrationtest.spoc
+
+import com.app.model.ApiResponse
+import groovy.json.JsonSlurper
+import org.springframework.http.HttpMethod
+import org.springframework.http.HttpStatus
+import org.springframework.http.MediaType
+import org.springframework.http.ResponseEntity
+import org.springframework.util.LinkedMultiValueMap
+import org.springframework.util.MultiValueMap
+import spock.lang.Shared
+
+class FetchEmployeeListPageSpecIT extends BaseIntegrationSpecIT {
+
+    @Shared
+    String FETCH_EMPLOYEES_PAGE_RESOURCE = "/employee/list/page"
+
+    @Shared
+    String STREAM_EMPLOYEES_RESOURCE = "/employee/list/stream"
+
+    def "Should walk all employee records page by page using the next cursor"() {
+        setup:
+        List employees = []
+        Integer after = 0
+
+        when:
+        while (after != null) {
+            MultiValueMap<String, String> queryParams = new LinkedMultiValueMap<>()
+            queryParams.add("after", String.valueOf(after))
+            queryParams.add("size", "4")
+            ResponseEntity<String> responseEntity = callService(buildUri(FETCH_EMPLOYEES_PAGE_RESOURCE, queryParams), HttpMethod.GET, null)
+            assert responseEntity.statusCode == HttpStatus.OK
+            ApiResponse apiResponse = new JsonSlurper().parseText(responseEntity.getBody())
+            assert apiResponse.payload.size <= 4
+            employees.addAll(apiResponse.payload.employees)
+            after = apiResponse.payload.next
+        }
+
+        then:
+        employees.size() == 15
+        employees*.empId == employees*.empId.sort(false)
+        employees*.empId.unique(false).size() == 15
+    }
+
+    def "Should stream all employee records as newline delimited json"() {
+        when:
+        ResponseEntity<String> responseEntity = callService(buildUri(STREAM_EMPLOYEES_RESOURCE), HttpMethod.GET, null,
+                MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON)
+
+        then:
+        responseEntity.statusCode == HttpStatus.OK
+        List lines = responseEntity.getBody().readLines()
+        lines.size() == 15
+        new JsonSlurper().parseText(lines[0]).empName == "Anil"
+    }
+}
@@ -3,7 +3,12 @@ package com.app.integrationtest.spoc
 
 import com.app.model.ApiResponse
 import com.app.model.Employee
+import com.app.util.EmpCommonUtil
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.dataformat.smile.SmileFactory
 import groovy.json.JsonSlurper
+import org.springframework.http.HttpEntity
+import org.springframework.http.HttpHeaders
 import org.springframework.http.HttpMethod
 import org.springframework.http.HttpStatus
 import org.springframework.http.ResponseEntity
@@ -57,4 +62,40 @@ class FetchEmployeeRecordByIdSpecIT extends BaseIntegrationSpecIT{
         apiResponse.error.errorMsg == "No employee found with id: 100"
         apiResponse.error.errorDesc == "Get employee by id failed"
     }
+
+    def "Should answer a conditional request with the current ETag with status NOT_MODIFIED"(){
+        setup:
+        URI uri = buildUri(FETCH_EMPLOYEE_RECORD_BY_ID_RESOURCE + "1")
+        String eTag = callService(uri, HttpMethod.GET, null).headers.getETag()
+        HttpHeaders headers = new HttpHeaders()
+        headers.setIfNoneMatch(eTag)
+
+        when:
+        ResponseEntity<String> responseEntity = callService(uri, HttpMethod.GET, headers, null)
+
+        then:
+        eTag
+        responseEntity.statusCode == HttpStatus.NOT_MODIFIED
+        responseEntity.headers.getETag() == eTag
+        !responseEntity.hasBody()
+    }
+
+    def "Should answer in Smile with its own ETag when the Accept header asks for it"(){
+        setup:
+        URI uri = buildUri(FETCH_EMPLOYEE_RECORD_BY_ID_RESOURCE + "1")
+        HttpHeaders headers = new HttpHeaders()
+        headers.setAccept([EmpCommonUtil.APPLICATION_SMILE])
+        String jsonETag = callService(uri, HttpMethod.GET, null).headers.getETag()
+
+        when:
+        ResponseEntity<byte[]> responseEntity = restTemplate.exchange(uri, HttpMethod.GET, new HttpEntity<Object>(headers), byte[])
+
+        then:
+        responseEntity.statusCode == HttpStatus.OK
+        responseEntity.headers.getContentType().isCompatibleWith(EmpCommonUtil.APPLICATION_SMILE)
+        responseEntity.headers.getETag() == jsonETag[0..-2] + '-smile"'
+        Map apiResponse = new ObjectMapper(new SmileFactory()).readValue(responseEntity.getBody(), Map)
+        apiResponse.payload.empId == 1
+        apiResponse.payload.dateOfBirth instanceof String
+    }
 }
@@ -0,0 +1,43 @@
+package com.app.integrationtest.spoc
+
+import groovy.json.JsonSlurper
+import org.springframework.http.HttpMethod
+import org.springframework.http.HttpStatus
+import org.springframework.http.ResponseEntity
+import org.springframework.util.LinkedMultiValueMap
+import org.springframework.util.MultiValueMap
+import spock.lang.Shared
+
+class FetchEmployeeRecordsByIdsSpecIT extends BaseIntegrationSpecIT {
+
+    @Shared
+    String FETCH_EMPLOYEE_RECORDS_BY_IDS_RESOURCE = "/employee/getByIds"
+
+    def "Should return the employee records of the ids in the requested order with status OK"() {
+        setup:
+        MultiValueMap<String, String> queryParams = new LinkedMultiValueMap<>()
+        queryParams.add("ids", "3,1,100")
+
+        when:
+        ResponseEntity<String> responseEntity = callService(buildUri(FETCH_EMPLOYEE_RECORDS_BY_IDS_RESOURCE, queryParams), HttpMethod.GET, null)
+
+        then:
+        responseEntity.statusCode == HttpStatus.OK
+        def apiResponse = new JsonSlurper().parseText(responseEntity.getBody())
+        apiResponse.status.message == "Found 2 employees for 3 ids"
+        apiResponse.payload*.empId == [3, 1]
+        apiResponse.payload[1].empName == "Anil"
+    }
+
+    def "Should return BAD_REQUEST when an id is not numeric"() {
+        setup:
+        MultiValueMap<String, String> queryParams = new LinkedMultiValueMap<>()
+        queryParams.add("ids", "1,abc")
+
+        when:
+        ResponseEntity<String> responseEntity = callService(buildUri(FETCH_EMPLOYEE_RECORDS_BY_IDS_RESOURCE, queryParams), HttpMethod.GET, null)
+
+        then:
+        responseEntity.statusCode == HttpStatus.BAD_REQUEST
+    }
+}
@@ -0,0 +1,33 @@
+package com.app.integrationtest.spoc
+
+import org.springframework.http.HttpHeaders
+import org.springframework.http.HttpMethod
+import org.springframework.http.HttpStatus
+import org.springframework.http.MediaType
+import org.springframework.http.ResponseEntity
+
+class MetricsSpecIT extends BaseIntegrationSpecIT {
+
+    def "Should publish endpoint, service, repository, cache and lookup filter metrics in Prometheus format"() {
+        setup:
+        callService(buildUri("/employee/getById/1"), HttpMethod.GET, null)
+        callService(buildUri("/employee/getById/1"), HttpMethod.GET, null)
+        callService(buildUri("/employee/getById/100"), HttpMethod.GET, null)
+        HttpHeaders headers = new HttpHeaders()
+        headers.setAccept([MediaType.TEXT_PLAIN])
+
+        when:
+        ResponseEntity<String> responseEntity = callService(buildUri("/actuator/prometheus"), HttpMethod.GET, headers, null)
+
+        then:
+        responseEntity.statusCode == HttpStatus.OK
+        String metrics = responseEntity.getBody()
+        metrics =~ /http_server_requests_seconds_bucket\{[^}]*handler="getEmployee"/
+        metrics =~ /employee_api_errors_total\{[^}]*handler="getEmployee"[^}]*status="404"/
+        metrics =~ /employee_service_seconds_bucket\{[^}]*method="getEmployee"/
+        metrics =~ /spring_data_repository_invocations_seconds_bucket\{[^}]*method="findById"/
+        metrics =~ /cache_hit_ratio\{cache="employeesById"/
+        metrics =~ /employee_lookup_filter_rejected_total\{key="id",\} [1-9]/
+        metrics =~ /employee_lookup_filter_false_positive_rate\{key="name",\}/
+    }
+}
@@ -0,0 +1,25 @@
+package com.app.integrationtest.spoc
+
+import groovy.json.JsonSlurper
+import org.springframework.http.HttpMethod
+import org.springframework.http.HttpStatus
+import org.springframework.http.ResponseEntity
+
+class QueryProfilerSpecIT extends BaseIntegrationSpecIT {
+
+    def "Should report the SQL statements of each service operation on the actuator endpoint"() {
+        setup:
+        callService(buildUri("/employee/list"), HttpMethod.GET, null)
+
+        when:
+        ResponseEntity<String> responseEntity = callService(buildUri("/actuator/queries"), HttpMethod.GET, null)
+
+        then:
+        responseEntity.statusCode == HttpStatus.OK
+        def operations = new JsonSlurper().parseText(responseEntity.getBody())
+        operations.getEmployeeList.calls >= 1
+        operations.getEmployeeList.statements >= 1
+        operations.getEmployeeList.callsWithNPlusOne == 0
+        operations.addDummyDataAsync.statements >= 1
+    }
+}
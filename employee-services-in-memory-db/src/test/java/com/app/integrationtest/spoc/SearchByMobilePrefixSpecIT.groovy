@@ -0,0 +1,55 @@
+package com.app.integrationtest.spoc
+
+import com.app.index.EmployeeMobileIndex
+import com.app.repository.EmployeeRepository
+import groovy.json.JsonSlurper
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.http.HttpMethod
+import org.springframework.http.HttpStatus
+import org.springframework.http.ResponseEntity
+import org.springframework.util.LinkedMultiValueMap
+import org.springframework.util.MultiValueMap
+import spock.lang.Shared
+import spock.lang.Unroll
+
+class SearchByMobilePrefixSpecIT extends BaseIntegrationSpecIT {
+
+    @Shared
+    String SEARCH_BY_MOBILE_PREFIX_RESOURCE = "/employee/searchByMobilePrefix"
+
+    @Autowired
+    EmployeeMobileIndex employeeMobileIndex
+
+    @Autowired
+    EmployeeRepository employeeRepository
+
+    // findByMobileNumberStartingWith cannot be used as the reference, Hibernate 5.6 rejects the LIKE escape
+    // character Spring Data binds for it, so the table is filtered directly
+    @Unroll
+    def "prefix #prefix matches the employees whose mobile number starts with it"() {
+        expect:
+        (employeeMobileIndex.startingWith(prefix, 0, 100).ids as List).sort() ==
+                employeeRepository.findAll().findAll { it.mobileNumber?.startsWith(prefix) }*.empId.sort()
+
+        where:
+        prefix << ["1", "123456789", "46", "6", "5498", "0"]
+    }
+
+    def "Should return the employees whose mobile number starts with the prefix"() {
+        setup:
+        MultiValueMap<String, String> queryParams = new LinkedMultiValueMap<>()
+        queryParams.add("prefix", "6")
+        queryParams.add("size", "2")
+        queryParams.add("page", "1")
+
+        when:
+        ResponseEntity<String> responseEntity = callService(buildUri(SEARCH_BY_MOBILE_PREFIX_RESOURCE, queryParams), HttpMethod.GET, null)
+
+        then:
+        responseEntity.statusCode == HttpStatus.OK
+        def payload = new JsonSlurper().parseText(responseEntity.getBody()).payload
+        payload.total == 6
+        payload.page == 1
+        payload.employees*.mobileNumber == ["64968465", "654984654684"]
+    }
+}
@@ -0,0 +1,22 @@
+package com.app.integrationtest.spoc
+
+import groovy.json.JsonSlurper
+import org.springframework.http.HttpMethod
+import org.springframework.http.HttpStatus
+import org.springframework.http.ResponseEntity
+
+class SeedDataSpecIT extends BaseIntegrationSpecIT {
+
+    def "Should report the completed startup seed load on the actuator endpoint"() {
+        when:
+        ResponseEntity<String> responseEntity = callService(buildUri("/actuator/seed"), HttpMethod.GET, null)
+
+        then:
+        responseEntity.statusCode == HttpStatus.OK
+        def progress = new JsonSlurper().parseText(responseEntity.getBody())
+        progress.status == "COMPLETED"
+        progress.location == "classpath:employees-data.json"
+        progress.read == 15
+        progress.inserted == 15
+    }
+}
@@ -0,0 +1,57 @@
+package com.app.integrationtest.spoc
+
+import com.app.model.ApiResponse
+import groovy.json.JsonSlurper
+import org.springframework.http.HttpMethod
+import org.springframework.http.HttpStatus
+import org.springframework.http.ResponseEntity
+import org.springframework.util.LinkedMultiValueMap
+import spock.lang.Shared
+
+class UpdateEmployeeRecordSpecIT extends BaseIntegrationSpecIT {
+
+    @Shared
+    String UPDATE_EMPLOYEE_RECORD_RESOURCE = "/employee/update"
+
+    def "Should update the expected version and answer with the row the UPDATE committed"() {
+        setup:
+        Map employee = [empName: "Updated Once", role: "SE", salary: 5000, dateOfBirth: "1995-01-01", mobileNumber: "555", email: "u@y.com"]
+        callService(buildUri("/employee/add"), HttpMethod.POST, employee)
+        Map added = new JsonSlurper().parseText(callService(buildUri("/employee/getByName", new LinkedMultiValueMap([name: ["Updated Once"]])), HttpMethod.GET, null).getBody()).payload
+        Map changes = [empId: added.empId, version: added.version, empName: "Updated Once", role: "Lead", salary: 6000,
+                       dateOfBirth: null, mobileNumber: "555", email: null]
+
+        when:
+        ResponseEntity<String> responseEntity = callService(buildUri(UPDATE_EMPLOYEE_RECORD_RESOURCE), HttpMethod.PUT, changes)
+
+        then:
+        responseEntity.statusCode == HttpStatus.OK
+        ApiResponse apiResponse = new JsonSlurper().parseText(responseEntity.getBody())
+        Map updated = apiResponse.payload
+        updated.empId == added.empId
+        updated.version == added.version + 1
+        updated.role == "Lead"
+        updated.salary == 6000
+        updated.dateOfBirth == null
+        updated.email == null
+        new JsonSlurper().parseText(callService(buildUri("/employee/getById/" + added.empId), HttpMethod.GET, null).getBody()).payload == updated
+
+        when: "the version the update replaced"
+        responseEntity = callService(buildUri(UPDATE_EMPLOYEE_RECORD_RESOURCE), HttpMethod.PUT, changes)
+
+        then:
+        responseEntity.statusCode == HttpStatus.PRECONDITION_FAILED
+
+        when: "the name of another employee"
+        responseEntity = callService(buildUri(UPDATE_EMPLOYEE_RECORD_RESOURCE), HttpMethod.PUT,
+                changes + [version: updated.version, empName: "Anil"])
+
+        then:
+        responseEntity.statusCode == HttpStatus.CONFLICT
+
+        cleanup:
+        if (added) {
+            callService(buildUri("/employee/delete/" + added.empId), HttpMethod.DELETE, null)
+        }
+    }
+}
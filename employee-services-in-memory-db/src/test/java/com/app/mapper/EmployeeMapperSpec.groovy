@@ -0,0 +1,57 @@
+package com.app.mapper
+
+import com.app.entity.EmployeeEntity
+import com.app.model.Employee
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.time.LocalDate
+
+class EmployeeMapperSpec extends Specification {
+
+    @Subject
+    def employeeMapper = new EmployeeMapperImpl()
+
+    def "toEmployee copies every entity property"() {
+        given:
+        def employeeEntity = new EmployeeEntity(empId: 100, empName: "testName", role: "testRole", salary: 10000,
+                mobileNumber: "1234567890", email: "abc@test.com", dateOfBirth: LocalDate.of(1990, 5, 11), version: 3)
+
+        when:
+        Employee employee = employeeMapper.toEmployee(employeeEntity)
+
+        then:
+        employee == new Employee(100, "testName", "testRole", 10000, LocalDate.of(1990, 5, 11), "1234567890", "abc@test.com", 3L)
+    }
+
+    def "toEntity copies every employee property"() {
+        given:
+        def employee = new Employee(100, "testName", "testRole", 10000, LocalDate.of(1990, 5, 11), "1234567890", "abc@test.com", 3L)
+
+        when:
+        EmployeeEntity employeeEntity = employeeMapper.toEntity(employee)
+
+        then:
+        employeeEntity == new EmployeeEntity(empId: 100, empName: "testName", role: "testRole", salary: 10000,
+                mobileNumber: "1234567890", email: "abc@test.com", dateOfBirth: LocalDate.of(1990, 5, 11), version: 3)
+    }
+
+    def "toNewEntity leaves the id and the version to the insert"() {
+        given:
+        def employee = new Employee(100, "testName", "testRole", 10000, LocalDate.of(1990, 5, 11), "1234567890", "abc@test.com", 3L)
+
+        when:
+        EmployeeEntity employeeEntity = employeeMapper.toNewEntity(employee)
+
+        then:
+        employeeEntity == new EmployeeEntity(empId: 0, empName: "testName", role: "testRole", salary: 10000,
+                mobileNumber: "1234567890", email: "abc@test.com", dateOfBirth: LocalDate.of(1990, 5, 11), version: 0)
+    }
+
+    def "null sources map to null"() {
+        expect:
+        employeeMapper.toEmployee(null) == null
+        employeeMapper.toEntity(null) == null
+        employeeMapper.toNewEntity(null) == null
+    }
+}
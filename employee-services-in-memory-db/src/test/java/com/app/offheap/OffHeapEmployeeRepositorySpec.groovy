@@ -0,0 +1,307 @@
+package com.app.offheap
+
+import com.app.durable.EmployeeRecordCodec
+import com.app.entity.EmployeeEntity
+import org.hibernate.exception.ConstraintViolationException
+import org.springframework.dao.DataIntegrityViolationException
+import org.springframework.dao.EmptyResultDataAccessException
+import org.springframework.dao.IncorrectResultSizeDataAccessException
+import org.springframework.data.domain.Example
+import org.springframework.data.domain.ExampleMatcher
+import org.springframework.data.domain.PageRequest
+import org.springframework.data.domain.Sort
+import org.springframework.orm.ObjectOptimisticLockingFailureException
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.nio.ByteBuffer
+import java.sql.Date
+import java.time.LocalDate
+
+class OffHeapEmployeeRepositorySpec extends Specification {
+
+    @Subject
+    OffHeapEmployeeRepository repository = new OffHeapEmployeeRepository(1 << 20, 16)
+
+    static EmployeeEntity employee(String name, double salary = 1000, String mobileNumber = "9000000000") {
+        new EmployeeEntity(empName: name, role: "dev", salary: salary, dateOfBirth: LocalDate.of(1990, 1, 1),
+                mobileNumber: mobileNumber, email: name + "@test.com")
+    }
+
+    def "saved employees get ids and version 0 and are read back field by field"() {
+        when:
+        def first = repository.save(employee("Añil"))
+        def second = repository.save(new EmployeeEntity(empName: "empty"))
+
+        then:
+        first.empId == 1
+        second.empId == 2
+        first.version == 0
+        repository.findById(1).get() == first
+        repository.findById(2).get() == second
+        repository.findByEmpName("Añil").get() == first
+        !repository.findById(3).present
+        !repository.findByEmpName("nobody").present
+        repository.count() == 2
+        repository.existsById(2)
+    }
+
+    def "saving an employee takes its current version and increments it"() {
+        given:
+        def saved = repository.save(employee("a"))
+
+        when:
+        saved.salary = 2000
+        repository.save(saved)
+
+        then:
+        saved.version == 1
+        repository.findById(saved.empId).get().salary == 2000
+
+        when: "a save made against the old version"
+        repository.save(employee("a").tap { empId = saved.empId; version = 0 })
+
+        then:
+        thrown(ObjectOptimisticLockingFailureException)
+        repository.findById(saved.empId).get().version == 1
+    }
+
+    def "a duplicate name fails like the unique constraint and saveAll then writes nothing"() {
+        given:
+        repository.save(employee("a"))
+
+        when:
+        repository.saveAll([employee("b"), employee("a")])
+
+        then:
+        def e = thrown(DataIntegrityViolationException)
+        (e.cause as ConstraintViolationException).constraintName == EmployeeEntity.UNIQUE_NAME_CONSTRAINT
+        repository.count() == 1
+        !repository.findByEmpName("b").present
+
+        when: "the same name twice in one call"
+        repository.saveAll([employee("c"), employee("c")])
+
+        then:
+        thrown(DataIntegrityViolationException)
+        repository.count() == 1
+
+        when: "an employee keeps its own name"
+        def renamed = repository.saveAll([employee("b"), employee("c")])
+        repository.save(renamed[0])
+
+        then:
+        repository.findExistingEmpNames(["a", "b", "x", "c"]) == ["a", "b", "c"]
+    }
+
+    def "updateFields sets the given fields only, checking the version and the name"() {
+        given:
+        def saved = repository.save(employee("a", 1000))
+        repository.save(employee("b"))
+
+        expect:
+        repository.updateFields(saved.empId, 0L, new EmployeeEntity(empName: "a2", salary: 1500), ["empName"]).get()
+                .with { [empId, empName, salary, version] } == [saved.empId, "a2", 1000d, 1L]
+        repository.findById(saved.empId).get().with { [empName, salary, version] } == ["a2", 1000d, 1L]
+        !repository.findByEmpName("a").present
+        repository.findByEmpName("a2").get().empId == saved.empId
+
+        and: "an older version or a missing id updates nothing"
+        repository.updateFields(saved.empId, 0L, new EmployeeEntity(salary: 1), ["salary"]) == Optional.empty()
+        repository.updateFields(99, null, new EmployeeEntity(salary: 1), ["salary"]) == Optional.empty()
+        repository.updateFields(saved.empId, null, new EmployeeEntity(salary: 1), ["salary"]).get().version == 2
+        repository.findById(saved.empId).get().version == 2
+
+        when:
+        repository.updateFields(saved.empId, null, new EmployeeEntity(empName: "b"), ["empName"])
+
+        then:
+        thrown(DataIntegrityViolationException)
+        repository.findById(saved.empId).get().empName == "a2"
+
+        when:
+        repository.updateFields(saved.empId, null, new EmployeeEntity(), ["empId"])
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    def "derived queries read the fields in place"() {
+        given:
+        repository.saveAll([employee("a", 1000, "9100000000"), employee("b", 2000, "9200000000"),
+                            employee("c", 3000, "9210000000").tap { dateOfBirth = LocalDate.of(2000, 1, 1) },
+                            new EmployeeEntity(empName: "d")])
+
+        expect:
+        repository.findBySalaryBetween(1000, 2000)*.empName == ["a", "b"]
+        repository.findBySalaryGreaterThanEqual(2000)*.empName == ["b", "c"]
+        repository.findBySalaryLessThan(2000)*.empName == ["a", "d"]
+        repository.findByMobileNumberStartingWith("92")*.empName == ["b", "c"]
+        repository.findByDateOfBirthBefore(Date.valueOf(LocalDate.of(1995, 1, 1)))*.empName == ["a", "b"]
+        repository.findAll(Sort.by(Sort.Direction.DESC, "salary"))*.empName == ["c", "b", "a", "d"]
+        repository.findAllById([3, 1, 3, 9])*.empName == ["c", "a"]
+    }
+
+    def "query by example compares the probe with every employee like the JPA repository"() {
+        given:
+        repository.saveAll([employee("Anil", 1000), employee("anita", 2000), employee("Bob", 2000),
+                            new EmployeeEntity(empName: "Carl", salary: 2000)])
+        // The primitive id, salary and version of a probe always take part unless they are ignored
+        def ignoringPrimitives = ExampleMatcher.matching().withIgnorePaths("empId", "salary", "version")
+
+        expect:
+        repository.findAll(Example.of(new EmployeeEntity(role: "dev", salary: 2000))) == []
+        repository.findAll(Example.of(new EmployeeEntity(empId: 2, role: "dev", salary: 2000)))*.empName == ["anita"]
+        repository.findAll(Example.of(new EmployeeEntity(role: "dev"), ignoringPrimitives))*.empName == ["Anil", "anita", "Bob"]
+        repository.findAll(Example.of(new EmployeeEntity(empName: "an"), ignoringPrimitives
+                .withMatcher("empName", { it.startsWith().ignoreCase() } as ExampleMatcher.MatcherConfigurer)))*.empName == ["Anil", "anita"]
+        repository.findAll(Example.of(new EmployeeEntity(empName: "o", role: "dev"), ExampleMatcher.matchingAny()
+                .withIgnorePaths("empId", "salary", "version").withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING)))*.empName == ["Anil", "anita", "Bob"]
+        repository.findAll(Example.of(new EmployeeEntity(email: null), ignoringPrimitives.withIgnorePaths("empName", "role",
+                "dateOfBirth", "mobileNumber").withIncludeNullValues()))*.empName == ["Carl"]
+        repository.findAll(Example.of(new EmployeeEntity(), ignoringPrimitives), Sort.by(Sort.Direction.DESC, "empName"))*.empName ==
+                ["anita", "Carl", "Bob", "Anil"]
+        repository.findAll(Example.of(new EmployeeEntity(salary: 2000), ExampleMatcher.matching().withIgnorePaths("empId", "version")),
+                PageRequest.of(1, 2, Sort.by("empName"))).with { [content*.empName, totalElements] } == [["anita"], 3L]
+        repository.count(Example.of(new EmployeeEntity(salary: 2000), ExampleMatcher.matching().withIgnorePaths("empId", "version"))) == 3
+        repository.exists(Example.of(new EmployeeEntity(empName: "Bob"), ignoringPrimitives))
+        !repository.exists(Example.of(new EmployeeEntity(empName: "bob"), ignoringPrimitives))
+        repository.findOne(Example.of(new EmployeeEntity(empName: "Bob"), ignoringPrimitives)).get().empId == 3
+        !repository.findOne(Example.of(new EmployeeEntity(empName: "Dan"), ignoringPrimitives)).present
+
+        when:
+        repository.findOne(Example.of(new EmployeeEntity(role: "dev"), ignoringPrimitives))
+
+        then:
+        thrown(IncorrectResultSizeDataAccessException)
+    }
+
+    def "findBy runs the fluent query over the employees the example matches"() {
+        given:
+        repository.saveAll([employee("a", 1000), employee("b", 2000), employee("c", 3000)])
+        def example = Example.of(new EmployeeEntity(role: "dev"), ExampleMatcher.matching().withIgnorePaths("empId", "salary", "version"))
+
+        expect:
+        repository.findBy(example, { it.sortBy(Sort.by(Sort.Direction.DESC, "salary")).firstValue() })*.empName == ["c"]
+        repository.findBy(example, { it.as(Named).all() })*.empName == ["a", "b", "c"]
+        repository.findBy(example, { it.count() }) == 3
+
+        when:
+        repository.findBy(example, { it.as(String).all() })
+
+        then:
+        thrown(UnsupportedOperationException)
+    }
+
+    interface Named {
+        String getEmpName()
+    }
+
+    def "keyset pages follow the ids in order"() {
+        given:
+        repository.saveAll((1..10).collect { employee("e" + it) })
+        repository.deleteById(4)
+
+        expect:
+        repository.findByEmpIdGreaterThanOrderByEmpIdAsc(0, PageRequest.of(0, 4))*.empId == [1, 2, 3, 5]
+        repository.findByEmpIdGreaterThanOrderByEmpIdAsc(5, PageRequest.of(0, 4))*.empId == [6, 7, 8, 9]
+        repository.findByEmpIdGreaterThanOrderByEmpIdAsc(3, PageRequest.of(0, 4))*.empId == [5, 6, 7, 8]
+        repository.findByEmpIdGreaterThanOrderByEmpIdAsc(9, PageRequest.of(0, 4))*.empId == [10]
+        repository.findAll(PageRequest.of(1, 4)).with { [content*.empId, totalElements] } == [[6, 7, 8, 9], 9L]
+    }
+
+    def "deletes free the id and the name but not the id sequence"() {
+        given:
+        repository.saveAll([employee("a"), employee("b")])
+
+        when:
+        repository.deleteById(1)
+        def readded = repository.save(employee("a"))
+
+        then:
+        readded.empId == 3
+        repository.findByEmpName("a").get().empId == 3
+
+        when:
+        repository.deleteById(1)
+
+        then:
+        thrown(EmptyResultDataAccessException)
+
+        expect:
+        repository.deleteAllEmployees() == 2
+        repository.count() == 0
+        repository.findAll() == []
+        repository.save(employee("a")).empId == 4
+    }
+
+    def "replaced records are compacted out of the slabs"() {
+        given:
+        def small = new OffHeapEmployeeRepository(4096, 16)
+        def saved = small.saveAll((1..20).collect { employee("e" + it) })
+
+        when:
+        200.times { round ->
+            saved.each { it.salary = round; small.save(it) }
+        }
+
+        then:
+        small.slabCount <= 3
+        small.usedBytes < 3 * small.liveBytes + 4096
+        small.findAll()*.salary.every { it == 199 }
+        (1..20).every { small.findByEmpName("e" + it).get().empId == it }
+    }
+
+    def "the name index stays in line with a map through inserts, renames and deletes"() {
+        given:
+        def random = new Random(42)
+        Map<String, Integer> expected = [:]
+        Map<Integer, String> names = [:]
+
+        when:
+        2000.times {
+            def name = "n" + random.nextInt(300)
+            if (expected.containsKey(name)) {
+                def id = expected.remove(name)
+                names.remove(id)
+                if (random.nextBoolean()) {
+                    repository.deleteById(id)
+                } else {
+                    def renamed = "r" + random.nextInt(1_000_000)
+                    if (!expected.containsKey(renamed)) {
+                        repository.updateFields(id, null, new EmployeeEntity(empName: renamed), ["empName"])
+                        expected[renamed] = id
+                        names[id] = renamed
+                    } else {
+                        repository.deleteById(id)
+                    }
+                }
+            } else {
+                def id = repository.save(employee(name)).empId
+                expected[name] = id
+                names[id] = name
+            }
+        }
+
+        then:
+        repository.count() == expected.size()
+        expected.every { name, id -> repository.findByEmpName(name).get().empId == id }
+        repository.findAll().every { names[it.empId] == it.empName }
+    }
+
+    def "restored rows are loaded as they are and the next id follows them"() {
+        given:
+        repository.save(employee("stale"))
+        def rows = [employee("a").tap { empId = 5; version = 3 }, employee("b").tap { empId = 9; version = 1 }]
+
+        when:
+        repository.clear()
+        rows.each { repository.load(ByteBuffer.wrap(EmployeeRecordCodec.encode(it))) }
+        repository.finish()
+
+        then:
+        repository.findAll() == rows
+        !repository.findByEmpName("stale").present
+        repository.save(employee("c")).empId == 10
+    }
+}
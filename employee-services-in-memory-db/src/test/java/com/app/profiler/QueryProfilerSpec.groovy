@@ -0,0 +1,98 @@
+package com.app.profiler
+
+import org.h2.jdbcx.JdbcDataSource
+import spock.lang.Specification
+
+class QueryProfilerSpec extends Specification {
+
+    def logged = []
+
+    def profiler = new QueryProfiler({ logged << it } as java.util.concurrent.Executor, 0, 3)
+
+    def "charges statements to the outermost operation on the thread"() {
+        when:
+        profiler.begin("updateEmployee")
+        boolean nested = profiler.begin("getEmployee")
+        profiler.recordStatement("select * from employee where emp_id=?", 2_000_000)
+        profiler.recordStatement("update employee set emp_name=? where emp_id=?", 1_000_000)
+        profiler.end()
+        profiler.recordStatement("select 1", 1_000_000)
+
+        then:
+        !nested
+        def stats = profiler.operations
+        stats.keySet() == ["updateEmployee"] as Set
+        stats.updateEmployee.calls == 1
+        stats.updateEmployee.statements == 2
+        stats.updateEmployee.maxStatementsPerCall == 2
+        stats.updateEmployee.statementMillis == 3.0
+        stats.updateEmployee.callsWithNPlusOne == 0
+        logged.isEmpty()
+    }
+
+    def "flags a select repeated within one call as a suspected N+1 and logs the call"() {
+        given:
+        String perRow = "select * from employee where emp_name=?"
+
+        when:
+        2.times {
+            profiler.begin("addEmployees")
+            3.times { profiler.recordStatement(perRow, 1000) }
+            3.times { profiler.recordStatement("insert into employee values (?)", 1000) }
+            profiler.end()
+        }
+        profiler.begin("addEmployees")
+        profiler.recordStatement(perRow, 1000)
+        profiler.end()
+
+        then:
+        def stats = profiler.operations.addEmployees
+        stats.calls == 3
+        stats.statements == 13
+        stats.maxStatementsPerCall == 6
+        stats.callsWithNPlusOne == 2
+        stats.suspectedNPlusOneQueries == [(perRow): 2L]
+        logged.size() == 2
+    }
+
+    def "reports every execution on the data source's connections to the running operation"() {
+        given:
+        def h2 = new JdbcDataSource()
+        h2.setURL("jdbc:h2:mem:profiler")
+        def dataSource = new ProfilingDataSource(h2, profiler)
+
+        when:
+        profiler.begin("searchByMobilePrefix")
+        dataSource.connection.withCloseable { connection ->
+            connection.createStatement().withCloseable { it.execute("create table t (id int)") }
+            connection.prepareStatement("insert into t values (?)").withCloseable { statement ->
+                2.times {
+                    statement.setInt(1, it)
+                    statement.addBatch()
+                }
+                statement.executeBatch()
+            }
+            3.times {
+                connection.prepareStatement("select id from t").withCloseable { it.executeQuery().close() }
+            }
+        }
+        profiler.end()
+
+        then:
+        def stats = profiler.operations.searchByMobilePrefix
+        stats.statements == 5
+        stats.suspectedNPlusOneQueries == ["select id from t": 1L]
+    }
+
+    def "starts the aggregates over on reset"() {
+        given:
+        profiler.begin("getEmployeeList")
+        profiler.end()
+
+        when:
+        profiler.reset()
+
+        then:
+        profiler.operations.isEmpty()
+    }
+}
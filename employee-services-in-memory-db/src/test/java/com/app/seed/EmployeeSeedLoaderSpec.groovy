@@ -0,0 +1,77 @@
+package com.app.seed
+
+import com.app.model.BulkInsertResult
+import com.app.model.SeedStatus
+import com.fasterxml.jackson.core.JsonParseException
+import com.fasterxml.jackson.databind.ObjectMapper
+import org.springframework.core.io.DefaultResourceLoader
+import spock.lang.Specification
+import spock.lang.Subject
+import spock.lang.TempDir
+
+import java.nio.file.Path
+
+class EmployeeSeedLoaderSpec extends Specification {
+
+    @Subject
+    def seedLoader = new EmployeeSeedLoader(new ObjectMapper(), new DefaultResourceLoader())
+
+    @TempDir
+    Path tempDir
+
+    def batches = []
+
+    def inserter = { List employees ->
+        batches << employees*.empName
+        new BulkInsertResult(employees.size() - 1, 1, 0, [])
+    }
+
+    def "streams the json array in fixed size batches and reports the totals"() {
+        given:
+        seedLoader.batchSize = 4
+
+        when:
+        def progress = seedLoader.load(inserter)
+
+        then:
+        batches*.size() == [4, 4, 4, 3]
+        batches[0] == ["Anil", "Manasvi", "Hithiksha", "Raju"]
+        progress.status == SeedStatus.COMPLETED
+        progress.read == 15
+        progress.inserted == 11
+        progress.duplicates == 4
+        seedLoader.progress == progress
+    }
+
+    def "loads newline delimited json from a file location"() {
+        given:
+        def file = tempDir.resolve("employees.ndjson")
+        file.text = '{"empName":"a","dateOfBirth":"1990-01-01"}\n{"empName":"b"}\n{"empName":"c"}\n'
+        seedLoader.location = file.toUri().toString()
+        seedLoader.batchSize = 2
+
+        when:
+        def progress = seedLoader.load(inserter)
+
+        then:
+        batches == [["a", "b"], ["c"]]
+        progress.read == 3
+    }
+
+    def "a malformed file fails the load after the batches already inserted"() {
+        given:
+        def file = tempDir.resolve("employees.json")
+        file.text = '[{"empName":"a"}, {"empName":"b"}, 42]'
+        seedLoader.location = file.toUri().toString()
+        seedLoader.batchSize = 1
+
+        when:
+        seedLoader.load(inserter)
+
+        then:
+        thrown(JsonParseException)
+        batches == [["a"], ["b"]]
+        seedLoader.progress.status == SeedStatus.FAILED
+        seedLoader.progress.read == 2
+    }
+}
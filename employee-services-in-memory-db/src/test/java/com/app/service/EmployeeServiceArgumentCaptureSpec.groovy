@@ -3,11 +3,18 @@ package com.app.service
 import com.app.entity.EmployeeEntity
 import com.app.exceptions.DuplicateEmployeeException
 import com.app.exceptions.EmployeeNotFoundException
+import com.app.index.EmployeeIndexes
+import com.app.index.EmployeeMobileIndex
+import com.app.index.EmployeeRangeIndex
+import com.app.mapper.EmployeeMapperImpl
 import com.app.model.ApiResponse
 import com.app.model.Employee
 import com.app.repository.EmployeeRepository
+import com.app.seed.EmployeeSeedLoader
 import com.fasterxml.jackson.databind.ObjectMapper
 import org.apache.tomcat.jni.Local
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager
+import org.springframework.core.io.DefaultResourceLoader
 import spock.lang.Shared
 import spock.lang.Specification
 import spock.lang.Subject
@@ -21,7 +28,8 @@ class EmployeeServiceArgumentCaptureSpec extends Specification {
     def employeeRepository = Mock(EmployeeRepository)
 
     @Subject
-    def employeeService = new EmployeeServiceImpl(employeeRepository)
+    def employeeService = new EmployeeServiceImpl(employeeRepository, new EmployeeMapperImpl(), Mock(EmployeeIndexes), new EmployeeRangeIndex(), new EmployeeMobileIndex(),
+            new EmployeeSeedLoader(new ObjectMapper(), new DefaultResourceLoader()), new ConcurrentMapCacheManager())
 
     // We are passing Employee model to service.addEmployee() method, but internally we are creating
     // EmployeeEntity object to pass to the repository.
@@ -33,8 +41,7 @@ class EmployeeServiceArgumentCaptureSpec extends Specification {
 
         def mockEmployee = new Employee(empId: 100, empName: "testName", role: "testRole", salary: 10000,
                 mobileNumber: "1234567890", email: "abc@test.com",
-                dateOfBirth: dob)
-        def emptyOptional = Optional.empty()
+                dateOfBirth: dob, version: 3L)
         EmployeeEntity employeeEntity = null
 
         ObjectMapper objectMapper = new ObjectMapper()
@@ -44,12 +51,13 @@ class EmployeeServiceArgumentCaptureSpec extends Specification {
         employeeService.addEmployee(mockEmployee)
 
         then:
-        1 * employeeRepository.findByEmpName(_ as String) >> emptyOptional
-        1 * employeeRepository.save(_ as EmployeeEntity) >> {arguments -> employeeEntity = arguments[0]}
+        1 * employeeRepository.saveAndFlush(_ as EmployeeEntity) >> {arguments -> employeeEntity = arguments[0]}
 
         expect:
         employeeEntity
-        employeeEntity.empId == 100
+        // The id and the version of the request are not inserted, the row gets new ones
+        employeeEntity.empId == 0
+        employeeEntity.version == 0
         employeeEntity.empName == "testName"
         employeeEntity.role == "testRole"
         employeeEntity.salary == 10000
@@ -0,0 +1,138 @@
+package com.app.service
+
+import com.app.config.CacheConfig
+import com.app.entity.EmployeeEntity
+import com.app.index.EmployeeIndexes
+import com.app.index.EmployeeMobileIndex
+import com.app.index.EmployeeRangeIndex
+import com.app.mapper.EmployeeMapperImpl
+import com.app.model.Employee
+import com.app.repository.EmployeeRepository
+import com.app.seed.EmployeeSeedLoader
+import org.spockframework.spring.SpringBean
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration
+import org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration
+import org.springframework.boot.test.context.SpringBootTest
+import org.springframework.cache.CacheManager
+import spock.lang.Specification
+
+import java.time.LocalDate
+
+// Only the service and the cache configuration are loaded, so the repository mock counts the real database calls
+@SpringBootTest(classes = [CacheConfig, EmployeeServiceImpl, EmployeeMapperImpl, EmployeeRangeIndex, EmployeeMobileIndex], webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ImportAutoConfiguration(CacheAutoConfiguration)
+class EmployeeServiceCacheSpec extends Specification {
+
+    @SpringBean
+    EmployeeRepository employeeRepository = Mock()
+
+    @SpringBean
+    EmployeeIndexes employeeIndexes = Mock()
+
+    @SpringBean
+    EmployeeSeedLoader employeeSeedLoader = Mock()
+
+    @Autowired
+    EmployeeService employeeService
+
+    @Autowired
+    CacheManager cacheManager
+
+    def mockEmployeeEntity = new EmployeeEntity(empId: 100, empName: "testName", role: "testRole", salary: 10000, mobileNumber: "1234567890", email: "abc@test.com", dateOfBirth: LocalDate.now())
+
+    def setup() {
+        cacheManager.cacheNames.each { cacheManager.getCache(it).clear() }
+    }
+
+    def "getEmployee - second lookup by id is served from the cache"() {
+        when:
+        employeeService.getEmployee("100")
+        def apiResponse = employeeService.getEmployee("100")
+
+        then:
+        1 * employeeRepository.findById(100) >> Optional.of(mockEmployeeEntity)
+
+        expect:
+        apiResponse.payload.empName == "testName"
+    }
+
+    def "getEmployee and getEmployeeByName - ids and names use separate caches"() {
+        when:
+        employeeService.getEmployee("100")
+        employeeService.getEmployeeByName("100")
+
+        then:
+        1 * employeeRepository.findById(100) >> Optional.of(mockEmployeeEntity)
+        1 * employeeRepository.findByEmpName("100") >> Optional.of(mockEmployeeEntity)
+    }
+
+    def "updateEmployee - evicts the cached id and name entries"() {
+        given:
+        def employee = new Employee(empId: 100, empName: "testName")
+
+        when:
+        employeeService.getEmployee("100")
+        employeeService.getEmployeeByName("testName")
+        employeeService.updateEmployee(employee)
+        employeeService.getEmployee("100")
+        employeeService.getEmployeeByName("testName")
+
+        then:
+        2 * employeeRepository.findById(100) >> Optional.of(mockEmployeeEntity)
+        1 * employeeRepository.updateFields(100, null, _, _) >> Optional.of(mockEmployeeEntity)
+        2 * employeeRepository.findByEmpName("testName") >> Optional.of(mockEmployeeEntity)
+    }
+
+    def "updateEmployee and deleteEmployee - evict before the indexes move the table version"() {
+        given:
+        def cachedById = { cacheManager.getCache(CacheConfig.EMPLOYEES_BY_ID_CACHE).get(100) }
+        def cachedByName = { cacheManager.getCache(CacheConfig.EMPLOYEES_BY_NAME_CACHE).get("testName") }
+        employeeRepository.findById(100) >> Optional.of(mockEmployeeEntity)
+        employeeRepository.findByEmpName("testName") >> Optional.of(mockEmployeeEntity)
+        employeeRepository.updateFields(100, null, _, _) >> Optional.of(mockEmployeeEntity)
+        employeeRepository.existsById(100) >> true
+
+        when:
+        employeeService.getEmployee("100")
+        employeeService.getEmployeeByName("testName")
+        employeeService.updateEmployee(new Employee(empId: 100, empName: "testName"))
+
+        then:
+        1 * employeeIndexes.onSaved(_ as EmployeeEntity) >> { assert cachedById() == null && cachedByName() == null }
+
+        when:
+        employeeService.getEmployee("100")
+        employeeService.deleteEmployee("100")
+
+        then:
+        1 * employeeIndexes.onDeleted(100) >> { assert cachedById() == null }
+    }
+
+    def "deleteEmployee - evicts the cached id entry"() {
+        when:
+        employeeService.getEmployee("100")
+        employeeService.deleteEmployee("100")
+        employeeService.getEmployee("100")
+
+        then:
+        2 * employeeRepository.findById(100) >> Optional.of(mockEmployeeEntity)
+        1 * employeeRepository.existsById(100) >> true
+    }
+
+    def "deleteAll - clears both caches"() {
+        when:
+        employeeService.getEmployee("100")
+        employeeService.getEmployeeByName("testName")
+        employeeService.deleteAll()
+
+        then:
+        1 * employeeRepository.findById(100) >> Optional.of(mockEmployeeEntity)
+        1 * employeeRepository.findByEmpName("testName") >> Optional.of(mockEmployeeEntity)
+        1 * employeeRepository.deleteAllEmployees() >> 1
+
+        expect:
+        cacheManager.getCache(CacheConfig.EMPLOYEES_BY_ID_CACHE).get(100) == null
+        cacheManager.getCache(CacheConfig.EMPLOYEES_BY_NAME_CACHE).get("testName") == null
+    }
+}
@@ -3,13 +3,29 @@ package com.app.service
 import com.app.entity.EmployeeEntity
 import com.app.exceptions.DuplicateEmployeeException
 import com.app.exceptions.EmployeeNotFoundException
+import com.app.exceptions.EmployeeVersionConflictException
+import com.app.index.EmployeeIndexes
+import com.app.index.EmployeeMobileIndex
+import com.app.index.EmployeeRangeIndex
+import com.app.mapper.EmployeeMapperImpl
 import com.app.model.ApiResponse
+import com.app.model.BulkInsertResult
 import com.app.model.Employee
+import com.app.model.EmployeePage
+import com.app.model.InsertOutcome
 import com.app.repository.EmployeeRepository
+import com.app.repository.EmployeeRepositoryCustom
+import com.app.seed.EmployeeSeedLoader
+import com.fasterxml.jackson.databind.ObjectMapper
+import org.hibernate.exception.ConstraintViolationException
 import org.springframework.beans.factory.annotation.Autowired
 import org.springframework.boot.test.context.SpringBootTest
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager
+import org.springframework.dao.DataIntegrityViolationException
+import org.springframework.data.domain.PageRequest
 import org.springframework.http.HttpStatus
 import org.springframework.http.ResponseEntity
+import org.springframework.core.io.DefaultResourceLoader
 import spock.lang.Shared
 import spock.lang.Specification
 import spock.lang.Subject
@@ -21,8 +37,15 @@ class EmployeeServiceSpec extends Specification {
 
     def employeeRepository = Mock(EmployeeRepository)
 
+    def employeeIndexes = Mock(EmployeeIndexes)
+
+    def employeeRangeIndex = new EmployeeRangeIndex()
+
+    def employeeMobileIndex = new EmployeeMobileIndex()
+
     @Subject
-    def employeeService = new EmployeeServiceImpl(employeeRepository)
+    def employeeService = new EmployeeServiceImpl(employeeRepository, new EmployeeMapperImpl(), employeeIndexes, employeeRangeIndex, employeeMobileIndex,
+            new EmployeeSeedLoader(new ObjectMapper(), new DefaultResourceLoader()), new ConcurrentMapCacheManager())
 
 /**
  // Note: If we are using property injection (without constructor injection), we can mock as below
@@ -49,6 +72,11 @@ class EmployeeServiceSpec extends Specification {
         assert employee.dateOfBirth == LocalDate.now()
     }
 
+    DataIntegrityViolationException duplicateNameViolation() {
+        new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("Unique index or primary key violation", null, "PUBLIC.UK_EMPLOYEE_EMP_NAME_INDEX_7"))
+    }
+
     def "getEmployeeList - successful operation to fetch all employees"() {
         given:
         List mockResponse = new ArrayList()
@@ -96,6 +124,35 @@ class EmployeeServiceSpec extends Specification {
         "empty list" | new ArrayList()
     }
 
+    def "getEmployeePage - returns a full page with the cursor of its last row"() {
+        given:
+        def entities = (1..3).collect { new EmployeeEntity(empId: it, empName: "name" + it) }
+
+        when:
+        EmployeePage employeePage = employeeService.getEmployeePage(0, 2)
+
+        then:
+        1 * employeeRepository.findByEmpIdGreaterThanOrderByEmpIdAsc(0, PageRequest.of(0, 3)) >> entities
+
+        expect:
+        employeePage.size == 2
+        employeePage.employees*.empId == [1, 2]
+        employeePage.next == 2
+    }
+
+    def "getEmployeePage - last page has no next cursor"() {
+        when:
+        EmployeePage employeePage = employeeService.getEmployeePage(2, 2)
+
+        then:
+        1 * employeeRepository.findByEmpIdGreaterThanOrderByEmpIdAsc(2, PageRequest.of(0, 3)) >> [mockEmployeeEntity]
+
+        expect:
+        employeePage.size == 1
+        employeePage.next == null
+        assertEmployeeDetails(employeePage.employees[0])
+    }
+
     def "getEmployee - get employee by id success scenario"() {
         given:
         def employeeId = "100"
@@ -132,6 +189,73 @@ class EmployeeServiceSpec extends Specification {
         thrown(EmployeeNotFoundException)
     }
 
+    def "getEmployeesBySalaryBetween - loads only the requested page and keeps the index order"() {
+        given:
+        employeeRangeIndex.onSaved([
+                new EmployeeEntity(empId: 1, empName: "a", salary: 30000),
+                new EmployeeEntity(empId: 2, empName: "b", salary: 10000),
+                new EmployeeEntity(empId: 3, empName: "c", salary: 20000),
+                new EmployeeEntity(empId: 4, empName: "d", salary: 50000)])
+
+        when:
+        def result = employeeService.getEmployeesBySalaryBetween(10000, 30000, 1, 2)
+
+        then:
+        1 * employeeRepository.findAllById([1]) >> [new EmployeeEntity(empId: 1, empName: "a", salary: 30000)]
+        0 * employeeRepository.findBySalaryBetween(_, _)
+
+        expect:
+        result.total == 3
+        result.page == 1
+        result.employees*.empId == [1]
+    }
+
+    def "getEmployeesBornBefore - does not query the table when nothing matches"() {
+        given:
+        employeeRangeIndex.onSaved([new EmployeeEntity(empId: 1, empName: "a", dateOfBirth: LocalDate.of(1990, 1, 1))])
+
+        when:
+        def result = employeeService.getEmployeesBornBefore(LocalDate.of(1990, 1, 1), 0, 10)
+
+        then:
+        0 * employeeRepository.findAllById(_)
+
+        expect:
+        result.total == 0
+        result.employees.isEmpty()
+    }
+
+    def "searchByMobilePrefix - loads the matching page from the mobile number index"() {
+        given:
+        employeeMobileIndex.onSaved([
+                new EmployeeEntity(empId: 1, empName: "a", mobileNumber: "9876"),
+                new EmployeeEntity(empId: 2, empName: "b", mobileNumber: "9812"),
+                new EmployeeEntity(empId: 3, empName: "c", mobileNumber: "1234")])
+
+        when:
+        def result = employeeService.searchByMobilePrefix("98", 0, 10)
+
+        then:
+        1 * employeeRepository.findAllById([2, 1]) >> [new EmployeeEntity(empId: 1, empName: "a"), new EmployeeEntity(empId: 2, empName: "b")]
+        0 * employeeRepository.findByMobileNumberStartingWith(_)
+
+        expect:
+        result.total == 2
+        result.employees*.empId == [2, 1]
+    }
+
+    def "getEmployees - one query for all ids, rows in the requested order without missing or repeated ids"() {
+        when:
+        def employees = employeeService.getEmployees([3, 1, 7, 3])
+
+        then:
+        1 * employeeRepository.findAllById({ it as List == [3, 1, 7] }) >> [new EmployeeEntity(empId: 1, empName: "a"), new EmployeeEntity(empId: 3, empName: "c")]
+        0 * employeeRepository.findById(_)
+
+        expect:
+        employees*.empId == [3, 1]
+    }
+
     def "getEmployeeByName - get employee by name success scenario"() {
         given:
         def name = "testName"
@@ -169,15 +293,13 @@ class EmployeeServiceSpec extends Specification {
     }
 
     def "addEmployee - success scenario"(){
-        given:
-        def emptyOptional = Optional.empty()
-
         when:
         ApiResponse apiResponse = employeeService.addEmployee(mockEmployee)
 
         then:
-        1 * employeeRepository.findByEmpName(_ as String) >> emptyOptional
-        1 * employeeRepository.save(_ as EmployeeEntity) >> mockEmployeeEntity
+        0 * employeeRepository.findByEmpName(_)
+        1 * employeeRepository.saveAndFlush(_ as EmployeeEntity) >> mockEmployeeEntity
+        1 * employeeIndexes.onSaved(mockEmployeeEntity)
 
         expect:
         apiResponse
@@ -187,15 +309,11 @@ class EmployeeServiceSpec extends Specification {
     }
 
     def "addEmployee - failure scenario when failed to insert employee"(){
-        given:
-        def emptyOptional = Optional.empty()
-
         when:
         ApiResponse apiResponse = employeeService.addEmployee(mockEmployee)
 
         then:
-        1 * employeeRepository.findByEmpName(_ as String) >> emptyOptional
-        1 * employeeRepository.save(_ as EmployeeEntity) >> null
+        1 * employeeRepository.saveAndFlush(_ as EmployeeEntity) >> null
 
         expect:
         apiResponse
@@ -206,20 +324,27 @@ class EmployeeServiceSpec extends Specification {
     }
 
     def "addEmployee - throws duplicate record exception"(){
-        given:
-        def optionalEnity = Optional.of(mockEmployeeEntity)
-
         when:
         employeeService.addEmployee(mockEmployee)
 
         then:
-        1 * employeeRepository.findByEmpName(_ as String) >> optionalEnity
-        0 * employeeRepository.save(_ as EmployeeEntity)
+        1 * employeeRepository.saveAndFlush(_ as EmployeeEntity) >> { throw duplicateNameViolation() }
 
         and:
         thrown(DuplicateEmployeeException)
     }
 
+    def "addEmployee - other constraint violations are not reported as duplicates"(){
+        when:
+        employeeService.addEmployee(mockEmployee)
+
+        then:
+        1 * employeeRepository.saveAndFlush(_ as EmployeeEntity) >> { throw new DataIntegrityViolationException("Value too long") }
+
+        and:
+        thrown(DataIntegrityViolationException)
+    }
+
     def "addEmployees - verify the add employees list method call"(){
         given:
         def employeesList = new ArrayList<Employee>()
@@ -229,69 +354,217 @@ class EmployeeServiceSpec extends Specification {
         ApiResponse apiResponse = employeeService.addEmployees(employeesList)
 
         then:
-        1 * employeeRepository.findByEmpName(_ as String) >> Optional.empty()
-        1 * employeeRepository.saveAll(_ as List) >> null
+        1 * employeeRepository.findExistingEmpNames(["testName"] as Set) >> []
+        1 * employeeRepository.saveAll(_ as List) >> [mockEmployeeEntity]
+        0 * employeeRepository.findByEmpName(_)
 
         expect:
         apiResponse
         apiResponse.status
         apiResponse.status.code == "201"
         apiResponse.status.message == "Employees added successfully"
+        BulkInsertResult result = apiResponse.payload
+        result.inserted == 1
+        result.outcomes[0].outcome == InsertOutcome.INSERTED
+        result.outcomes[0].empId == 100
+    }
+
+    def "addEmployees - duplicates in the table and in the payload are reported per item"(){
+        given:
+        def employeesList = ["Anil", "Raju", "Raju", "Kiran"].collect { new Employee(empName: it) }
+
+        when:
+        ApiResponse apiResponse = employeeService.addEmployees(employeesList)
+
+        then:
+        1 * employeeRepository.findExistingEmpNames(["Anil", "Raju", "Kiran"] as Set) >> ["Anil"]
+        1 * employeeRepository.saveAll({ it*.empName == ["Raju", "Kiran"] }) >> { arguments -> arguments[0] }
+
+        expect:
+        BulkInsertResult result = apiResponse.payload
+        result.inserted == 2
+        result.duplicates == 2
+        result.failed == 0
+        result.outcomes*.outcome == [InsertOutcome.DUPLICATE, InsertOutcome.INSERTED, InsertOutcome.DUPLICATE, InsertOutcome.INSERTED]
+        result.outcomes*.index == [0, 1, 2, 3]
     }
 
-    def "updateEmployee - success scenario"(){
+    def "addEmployees - one duplicate lookup and one batch per chunk"(){
         given:
-        def emptyOptional = Optional.empty()
+        employeeService.bulkChunkSize = 2
+        def employeesList = (1..5).collect { new Employee(empName: "name" + it) }
+
+        when:
+        ApiResponse apiResponse = employeeService.addEmployees(employeesList)
+
+        then:
+        3 * employeeRepository.findExistingEmpNames(_) >> []
+        3 * employeeRepository.saveAll(_ as List) >> { arguments -> arguments[0] }
+
+        expect:
+        apiResponse.payload.inserted == 5
+    }
+
+    def "addEmployees - a failed batch is retried row by row and only failing rows are reported"(){
+        given:
+        def employeesList = ["Anil", "Raju"].collect { new Employee(empName: it) }
+
+        when:
+        ApiResponse apiResponse = employeeService.addEmployees(employeesList)
+
+        then:
+        1 * employeeRepository.findExistingEmpNames(_) >> []
+        1 * employeeRepository.saveAll(_ as List) >> { throw new DataIntegrityViolationException("Value too long") }
+        1 * employeeRepository.saveAndFlush({ it.empName == "Anil" }) >> new EmployeeEntity(empId: 1, empName: "Anil")
+        1 * employeeRepository.saveAndFlush({ it.empName == "Raju" }) >> { throw new DataIntegrityViolationException("Value too long") }
+
+        expect:
+        BulkInsertResult result = apiResponse.payload
+        result.inserted == 1
+        result.failed == 1
+        result.outcomes[1].outcome == InsertOutcome.FAILED
+        result.outcomes[1].message == "Value too long"
+    }
+
+    def "addEmployees - a name inserted concurrently after the lookup is reported as duplicate"(){
+        given:
+        def employeesList = [new Employee(empName: "Anil")]
+
+        when:
+        ApiResponse apiResponse = employeeService.addEmployees(employeesList)
+
+        then:
+        1 * employeeRepository.findExistingEmpNames(_) >> []
+        1 * employeeRepository.saveAll(_ as List) >> { throw duplicateNameViolation() }
+        1 * employeeRepository.saveAndFlush(_ as EmployeeEntity) >> { throw duplicateNameViolation() }
+
+        expect:
+        apiResponse.payload.duplicates == 1
+        apiResponse.payload.outcomes[0].outcome == InsertOutcome.DUPLICATE
+    }
+
+    def "updateEmployee - success scenario, the committed row is indexed and returned"(){
+        given:
+        def committed = new EmployeeEntity(empId: 100, empName: "testName", role: "committedRole", version: 3)
 
         when:
         ApiResponse apiResponse = employeeService.updateEmployee(mockEmployee)
 
         then:
-        1 * employeeRepository.existsById(mockEmployee.empId) >> true
-        1 * employeeRepository.findByEmpName(_ as String) >> emptyOptional
-        1 * employeeRepository.save(_ as EmployeeEntity) >> null
+        1 * employeeRepository.updateFields(100, null, _ as EmployeeEntity, EmployeeRepositoryCustom.UPDATABLE_FIELDS) >> Optional.of(committed)
+
+        then:
+        0 * employeeRepository.findById(_)
+        0 * employeeRepository.existsById(_)
+        0 * employeeRepository.findByEmpName(_)
+        0 * employeeRepository.saveAndFlush(_)
+        1 * employeeIndexes.onSaved(committed)
 
         expect:
         apiResponse
         apiResponse.status
         apiResponse.status.code == "200"
         apiResponse.status.message == "Employee updated successfully"
+        apiResponse.payload.empName == "testName"
+        apiResponse.payload.role == "committedRole"
+        apiResponse.payload.version == 3L
 
     }
 
-    def "updateEmployee - throw employee not found exception with given employee id"(){
+    def "updateEmployee - updates only the expected version and returns the next one"(){
         given:
-        def isExistFlag = false
+        def employee = new Employee(empId: 100, empName: "testName", salary: 10000, version: 4L)
 
+        when:
+        ApiResponse apiResponse = employeeService.updateEmployee(employee)
+
+        then:
+        1 * employeeRepository.updateFields(100, 4L, _ as EmployeeEntity, EmployeeRepositoryCustom.UPDATABLE_FIELDS) >> Optional.of(new EmployeeEntity(empId: 100, empName: "testName", version: 5))
+        0 * employeeRepository.findById(_)
+
+        expect:
+        apiResponse.payload.version == 5L
+    }
+
+    def "updateEmployee - throw employee not found exception with given employee id"(){
         when:
         employeeService.updateEmployee(mockEmployee)
 
         then:
-        1 * employeeRepository.existsById(mockEmployee.empId) >> isExistFlag
-        0 * employeeRepository.findByEmpName(_ as String)
-        0 * employeeRepository.save(_ as EmployeeEntity)
+        1 * employeeRepository.updateFields(100, null, _ as EmployeeEntity, _) >> Optional.empty()
+        0 * employeeIndexes.onSaved(_)
 
         and:
         thrown(EmployeeNotFoundException)
     }
 
-    def "updateEmployee - throws duplicate employee exception"(){
+    @Unroll
+    def "updateEmployee - no row at version #version is a conflict only when the employee exists: #expected.simpleName"(){
         given:
-        def isExistFlag = true
-        EmployeeEntity entity  = new EmployeeEntity(empId: 200, empName: "Anil")
+        def employee = new Employee(empId: 100, empName: "testName", version: version)
+
+        when:
+        employeeService.updateEmployee(employee)
+
+        then:
+        1 * employeeRepository.updateFields(100, version, _ as EmployeeEntity, _) >> Optional.empty()
+        1 * employeeRepository.existsById(100) >> exists
+        0 * employeeIndexes.onSaved(_)
+
+        and:
+        thrown(expected)
+
+        where:
+        version | exists || expected
+        4L      | true   || EmployeeVersionConflictException
+        4L      | false  || EmployeeNotFoundException
+    }
 
+    def "updateEmployee - throws duplicate employee exception"(){
         when:
         employeeService.updateEmployee(mockEmployee)
 
         then:
-        1 * employeeRepository.existsById(mockEmployee.empId) >> isExistFlag
-        1 * employeeRepository.findByEmpName(_ as String) >> Optional.of(entity)
-        0 * employeeRepository.save(_ as EmployeeEntity)
+        1 * employeeRepository.updateFields(100, null, _ as EmployeeEntity, _) >> { throw duplicateNameViolation() }
 
         and:
         thrown(DuplicateEmployeeException)
     }
 
+    def "patchEmployee - updates only the given fields and returns the whole employee"(){
+        given:
+        def changes = new Employee(role: "lead", version: 2L)
+        def updated = new EmployeeEntity(empId: 100, empName: "testName", role: "lead", salary: 10000, version: 3L)
+
+        when:
+        ApiResponse<Employee> apiResponse = employeeService.patchEmployee(100, changes, ["role"])
+
+        then:
+        1 * employeeRepository.updateFields(100, 2L, { EmployeeEntity entity -> entity.role == "lead" }, ["role"]) >> Optional.of(updated)
+
+        then:
+        0 * employeeRepository.findById(_)
+        1 * employeeIndexes.onSaved(updated)
+
+        expect:
+        apiResponse.status.code == "200"
+        apiResponse.payload.empName == "testName"
+        apiResponse.payload.role == "lead"
+        apiResponse.payload.version == 3L
+    }
+
+    def "patchEmployee - throws employee not found exception when no row was updated"(){
+        when:
+        employeeService.patchEmployee(100, new Employee(role: "lead"), ["role"])
+
+        then:
+        1 * employeeRepository.updateFields(100, null, _ as EmployeeEntity, ["role"]) >> Optional.empty()
+        0 * employeeRepository.findById(_)
+
+        and:
+        thrown(EmployeeNotFoundException)
+    }
+
     def "deleteEmployee - success scenario"(){
         given:
         def employeeId = "100"
@@ -302,6 +575,7 @@ class EmployeeServiceSpec extends Specification {
         then:
         1 * employeeRepository.existsById(Integer.valueOf(employeeId)) >> true
         1 * employeeRepository.deleteById(Integer.valueOf(employeeId))
+        1 * employeeIndexes.onDeleted(100)
 
         expect:
         apiResponse
@@ -320,39 +594,36 @@ class EmployeeServiceSpec extends Specification {
         then:
         1 * employeeRepository.existsById(Integer.valueOf(employeeId)) >> false
         0 * employeeRepository.deleteById(Integer.valueOf(employeeId))
+        0 * employeeIndexes.onDeleted(_)
 
         and:
         thrown(EmployeeNotFoundException)
     }
 
     def "deleteAll - success scenario"(){
-        given:
-        def enityList = new ArrayList<EmployeeEntity>()
-
         when:
         ApiResponse apiResponse = employeeService.deleteAll()
 
         then:
-        1 * employeeRepository.findAll() >> enityList
-        1 * employeeRepository.deleteAll(_ as List)
+        1 * employeeRepository.deleteAllEmployees() >> 15
+        1 * employeeIndexes.onCleared()
+        0 * employeeRepository.findAll()
+        0 * employeeRepository.deleteAll(_)
 
         expect:
         apiResponse
         apiResponse.status
         apiResponse.status.code == "200"
         apiResponse.status.message == "Employees deleted successfully"
+        apiResponse.payload == 15
     }
 
     def "deleteAll - failure scenario"(){
-        given:
-        def enityList = new ArrayList<EmployeeEntity>()
-
         when:
         ApiResponse apiResponse = employeeService.deleteAll()
 
         then:
-        1 * employeeRepository.findAll() >> enityList
-        1 * employeeRepository.deleteAll(_ as List) >> {throw new RuntimeException("Internal Server Error")}
+        1 * employeeRepository.deleteAllEmployees() >> {throw new RuntimeException("Internal Server Error")}
 
         expect:
         apiResponse
@@ -364,32 +635,29 @@ class EmployeeServiceSpec extends Specification {
 
     def "addDummyData - success scenario"(){
         given:
-        def emptyOptional = Optional.empty()
-
         when:
         ApiResponse apiResponse = employeeService.addDummyData()
 
         then:
-        15 * employeeRepository.findByEmpName(_ as String) >> emptyOptional
-        1 * employeeRepository.saveAll(_ as List)
+        1 * employeeRepository.findExistingEmpNames({ it.size() == 15 }) >> []
+        1 * employeeRepository.saveAll(_ as List) >> { arguments -> arguments[0] }
 
         expect:
         apiResponse
         apiResponse.status
         apiResponse.status.code == "200"
         apiResponse.status.message == "Inserted employees dummy data successfully"
+        apiResponse.payload.inserted == 15
 
     }
 
     def "addDummyData - failure scenario when internal server error occurred"(){
         given:
-        def emptyOptional = Optional.empty()
-
         when:
         ApiResponse apiResponse = employeeService.addDummyData()
 
         then:
-        15 * employeeRepository.findByEmpName(_ as String) >> emptyOptional
+        1 * employeeRepository.findExistingEmpNames({ it.size() == 15 }) >> []
         1 * employeeRepository.saveAll(_ as List) >> {throw new RuntimeException("Internal Server Error")}
 
         expect: